@@ -0,0 +1,85 @@
+package com.stepflow.benchmarks;
+
+import com.stepflow.config.FlowConfig;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Workflow shapes used by the benchmarks. Every workflow is named {@code "w"} and uses the
+ * components in {@code com.stepflow.benchmarks.components}.
+ */
+final class BenchmarkWorkflows {
+
+    static final String PACKAGE = "com.stepflow.benchmarks.components";
+    static final String WORKFLOW = "w";
+
+    private BenchmarkWorkflows() {
+    }
+
+    /** {@code s0 -> s1 -> ... -> SUCCESS}, each edge guarded by an always-true guard. */
+    static FlowConfig linear(int length) {
+        FlowConfig cfg = new FlowConfig();
+        List<FlowConfig.EdgeDef> edges = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            cfg.steps.put("s" + i, step("benchNoop"));
+            edges.add(edge("s" + i, i + 1 < length ? "s" + (i + 1) : "SUCCESS", "benchPass"));
+        }
+        cfg.workflows.put(WORKFLOW, workflow("s0", edges));
+        return cfg;
+    }
+
+    /** A chain of {@code depth} unguarded steps; measures per-step engine overhead over a long run. */
+    static FlowConfig deep(int depth) {
+        FlowConfig cfg = new FlowConfig();
+        List<FlowConfig.EdgeDef> edges = new ArrayList<>();
+        for (int i = 0; i < depth; i++) {
+            cfg.steps.put("s" + i, step("benchNoop"));
+            edges.add(edge("s" + i, i + 1 < depth ? "s" + (i + 1) : "SUCCESS", null));
+        }
+        cfg.workflows.put(WORKFLOW, workflow("s0", edges));
+        return cfg;
+    }
+
+    /** {@code start -> {b0 .. b(width-1)} -> merge -> SUCCESS} with parallel edges. */
+    static FlowConfig wide(int width) {
+        FlowConfig cfg = new FlowConfig();
+        cfg.steps.put("start", step("benchNoop"));
+        List<FlowConfig.EdgeDef> edges = new ArrayList<>();
+        for (int i = 0; i < width; i++) {
+            cfg.steps.put("b" + i, step("benchNoop"));
+            FlowConfig.EdgeDef fork = edge("start", "b" + i, null);
+            fork.kind = "parallel";
+            edges.add(fork);
+            edges.add(edge("b" + i, "merge", null));
+        }
+        edges.add(edge("merge", "SUCCESS", null));
+        FlowConfig.WorkflowDef wf = workflow("start", edges);
+        wf.joins.put("merge", new FlowConfig.JoinDef());
+        cfg.workflows.put(WORKFLOW, wf);
+        return cfg;
+    }
+
+    private static FlowConfig.StepDef step(String type) {
+        FlowConfig.StepDef def = new FlowConfig.StepDef();
+        def.type = type;
+        def.config = new HashMap<>();
+        return def;
+    }
+
+    private static FlowConfig.EdgeDef edge(String from, String to, String guard) {
+        FlowConfig.EdgeDef e = new FlowConfig.EdgeDef();
+        e.from = from;
+        e.to = to;
+        e.guard = guard;
+        return e;
+    }
+
+    private static FlowConfig.WorkflowDef workflow(String root, List<FlowConfig.EdgeDef> edges) {
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = root;
+        wf.edges = edges;
+        return wf;
+    }
+}
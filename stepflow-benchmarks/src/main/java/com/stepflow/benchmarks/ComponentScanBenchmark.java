@@ -0,0 +1,34 @@
+package com.stepflow.benchmarks;
+
+import com.stepflow.component.ComponentScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ComponentScanner#scanPackages} over the benchmark components, as done by every new
+ * {@code Engine}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ComponentScanBenchmark {
+
+    @Benchmark
+    public ComponentScanner scan() {
+        ComponentScanner scanner = new ComponentScanner();
+        scanner.scanPackages(BenchmarkWorkflows.PACKAGE);
+        return scanner;
+    }
+}
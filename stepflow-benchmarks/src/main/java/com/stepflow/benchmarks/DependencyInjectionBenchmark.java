@@ -0,0 +1,65 @@
+package com.stepflow.benchmarks;
+
+import com.stepflow.benchmarks.components.AnnotatedStep;
+import com.stepflow.benchmarks.components.PlainStep;
+import com.stepflow.config.DependencyInjector;
+import com.stepflow.execution.ExecutionContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DependencyInjector#injectDependencies} on a component using {@code @Inject} and
+ * {@code @ConfigValue} versus one injected purely by field name.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DependencyInjectionBenchmark {
+
+    private final DependencyInjector injector = new DependencyInjector();
+    private final AnnotatedStep annotated = new AnnotatedStep();
+    private final PlainStep plain = new PlainStep();
+    private ExecutionContext context;
+    private Map<String, Object> config;
+    private Map<String, Object> settings;
+
+    @Setup
+    public void setUp() {
+        context = new ExecutionContext();
+        context.put("orderId", "o-1");
+        context.put("amount", 125.5);
+        context.put("tier", "gold");
+        context.put("customer.tier", "gold");
+        config = new HashMap<>();
+        config.put("label", "bench");
+        config.put("limit", 250);
+        settings = new HashMap<>();
+    }
+
+    @Benchmark
+    public Object annotated() {
+        injector.injectDependencies(annotated, context, config, settings);
+        return annotated;
+    }
+
+    @Benchmark
+    public Object plain() {
+        injector.injectDependencies(plain, context, config, settings);
+        return plain;
+    }
+}
@@ -0,0 +1,73 @@
+package com.stepflow.benchmarks;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.engine.Engine;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Engine#run} on no-op workflows of different shapes.
+ *
+ * <ul>
+ *   <li>{@code linear}: 10 steps joined by guarded edges</li>
+ *   <li>{@code deep}: 500 steps joined by plain edges</li>
+ *   <li>{@code wide}: one fork into 32 parallel branches and a join</li>
+ * </ul>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EngineRunBenchmark {
+
+    @Param({"linear", "deep", "wide"})
+    public String shape;
+
+    private Engine engine;
+    private ExecutorService branches;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        FlowConfig config;
+        switch (shape) {
+            case "linear": config = BenchmarkWorkflows.linear(10); break;
+            case "deep": config = BenchmarkWorkflows.deep(500); break;
+            case "wide": config = BenchmarkWorkflows.wide(32); break;
+            default: throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+        engine = new Engine(config, BenchmarkWorkflows.PACKAGE);
+        branches = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        engine.setParallelExecutor(branches);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        branches.shutdownNow();
+    }
+
+    @Benchmark
+    public StepResult run() {
+        ExecutionContext context = new ExecutionContext();
+        context.put("orderId", "o-1");
+        return engine.run(BenchmarkWorkflows.WORKFLOW, context);
+    }
+}
@@ -0,0 +1,58 @@
+package com.stepflow.benchmarks;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.testing.WorkflowGenerator;
+import com.stepflow.validation.FlowConfigValidationEngine;
+import com.stepflow.validation.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FlowConfigValidationEngine#validate} with the default validators on large valid
+ * configurations from {@link WorkflowGenerator}: {@code steps} steps with up to four edges each.
+ * Result caching is off, so every call validates.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int steps;
+
+    private FlowConfig config;
+    private FlowConfigValidationEngine validator;
+
+    @Setup
+    public void setUp() {
+        config = WorkflowGenerator.builder()
+                .steps(steps)
+                .shape(WorkflowGenerator.Shape.FAN_OUT)
+                .guardDensity(0.25)
+                .build()
+                .generate();
+        validator = FlowConfigValidationEngine.createDefault();
+        if (!validator.validate(config).isValid()) {
+            throw new IllegalStateException("Benchmark configuration must be valid");
+        }
+    }
+
+    @Benchmark
+    public ValidationResult validate() {
+        return validator.validate(config);
+    }
+}
@@ -0,0 +1,32 @@
+package com.stepflow.benchmarks;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.config.SimpleWorkflowBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a YAML workflow from the classpath through {@link SimpleWorkflowBuilder}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class YamlLoadBenchmark {
+
+    @Benchmark
+    public FlowConfig load() {
+        return SimpleWorkflowBuilder.buildFlowConfig("benchmarks/checkout.yaml");
+    }
+}
@@ -0,0 +1,35 @@
+package com.stepflow.benchmarks.components;
+
+import com.stepflow.core.annotations.ConfigValue;
+import com.stepflow.core.annotations.Inject;
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+/**
+ * Step receiving its inputs through {@code @Inject} and {@code @ConfigValue}.
+ */
+@StepComponent(name = "benchAnnotated")
+public class AnnotatedStep implements Step {
+
+    @Inject("orderId")
+    private String orderId;
+
+    @Inject(value = "amount", required = false)
+    private Double amount;
+
+    @Inject(value = "customer.tier", required = false, defaultValue = "standard")
+    private String tier;
+
+    @ConfigValue(value = "label", required = false, defaultValue = "none")
+    private String label;
+
+    @ConfigValue(value = "limit", required = false, defaultValue = "100")
+    private Integer limit;
+
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        return StepResult.success();
+    }
+}
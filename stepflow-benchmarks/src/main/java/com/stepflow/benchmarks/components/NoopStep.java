@@ -0,0 +1,18 @@
+package com.stepflow.benchmarks.components;
+
+import com.stepflow.core.annotations.ComponentScope;
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+/**
+ * Step that does nothing, so a benchmark measures only the engine around it.
+ */
+@StepComponent(name = "benchNoop", scope = ComponentScope.SINGLETON)
+public class NoopStep implements Step {
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        return StepResult.success();
+    }
+}
@@ -0,0 +1,17 @@
+package com.stepflow.benchmarks.components;
+
+import com.stepflow.core.annotations.ComponentScope;
+import com.stepflow.core.annotations.GuardComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Guard;
+
+/**
+ * Guard that always passes.
+ */
+@GuardComponent(name = "benchPass", scope = ComponentScope.SINGLETON)
+public class PassGuard implements Guard {
+    @Override
+    public boolean evaluate(ExecutionContext ctx) {
+        return true;
+    }
+}
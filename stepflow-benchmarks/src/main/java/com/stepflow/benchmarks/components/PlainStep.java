@@ -0,0 +1,24 @@
+package com.stepflow.benchmarks.components;
+
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+/**
+ * Step with the same inputs as {@link AnnotatedStep}, injected by field name.
+ */
+@StepComponent(name = "benchPlain")
+public class PlainStep implements Step {
+
+    private String orderId;
+    private Double amount;
+    private String tier;
+    private String label;
+    private Integer limit;
+
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        return StepResult.success();
+    }
+}
@@ -2,9 +2,10 @@ package com.stepflow.config;
 
 import com.stepflow.execution.ExecutionContext;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -288,8 +289,9 @@ import org.slf4j.LoggerFactory;
  * <h2>Performance and Optimization</h2>
  * 
  * <ul>
- *   <li><strong>Injection Frequency:</strong> Performed once per step execution (new step instances)</li>
- *   <li><strong>Reflection Caching:</strong> Field and method lookups are performed fresh each time</li>
+ *   <li><strong>Injection Frequency:</strong> Configuration once per component instance, context once per execution</li>
+ *   <li><strong>Reflection Caching:</strong> Annotations, keys, defaults and accessors are resolved once per class
+ *       into an {@code InjectionPlan}; writes go through cached {@code MethodHandle}s</li>
  *   <li><strong>Type Conversion:</strong> Simple primitive conversions are fast</li>
  *   <li><strong>Configuration Access:</strong> Map lookups are O(1) operations</li>
  * </ul>
@@ -319,27 +321,70 @@ public class DependencyInjector {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DependencyInjector.class);
 
+    /** Per-class injection plans; reflection is performed once per component class. */
+    private static final ClassValue<InjectionPlan> PLANS = new ClassValue<InjectionPlan>() {
+        @Override
+        protected InjectionPlan computeValue(Class<?> type) {
+            return InjectionPlan.build(type);
+        }
+    };
+
     /**
      * Injects dependencies from context/config/settings using annotation-aware precedence.
      */
     public void injectDependencies(Object instance, ExecutionContext context, Map<String, Object> config, Map<String, Object> settings) {
         injectAnnotatedInjections(instance, context, config);
-        injectFromContext(instance, context);
+        injectFromContext(instance, context, Collections.emptySet());
+        injectFromConfig(instance, config);
+        injectAnnotatedConfigValues(instance, config, settings);
+    }
+
+    /**
+     * Injects the configuration-derived part only: config properties (fields/setters) and
+     * {@code @ConfigValue} fields. Used by the engine once per component instance for
+     * scoped (shared) components, since configuration does not change between executions.
+     */
+    public void injectConfiguration(Object instance, Map<String, Object> config, Map<String, Object> settings) {
         injectFromConfig(instance, config);
         injectAnnotatedConfigValues(instance, config, settings);
     }
 
+    /**
+     * Injects the context-derived part only: {@code @Inject} fields (context first, then config)
+     * and implicit context field matching. Plain fields whose names are config keys are left
+     * untouched so that config properties keep precedence over context values, exactly as in
+     * {@link #injectDependencies}.
+     */
+    public void injectContext(Object instance, ExecutionContext context, Map<String, Object> config) {
+        injectAnnotatedInjections(instance, context, config);
+        injectFromContext(instance, context, config != null ? config.keySet() : Collections.emptySet());
+    }
+
+    /**
+     * Returns the context keys {@link #injectContext} may read for instances of {@code type}:
+     * {@code @Inject} keys and the names of implicitly injected fields.
+     */
+    public Set<String> contextKeys(Class<?> type) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (type == null) return keys;
+        InjectionPlan plan = PLANS.get(type);
+        for (InjectionPlan.InjectTarget target : plan.injects) {
+            keys.add(target.key);
+        }
+        for (InjectionPlan.FieldTarget target : plan.contextFields) {
+            keys.add(target.fieldName);
+        }
+        return keys;
+    }
+
     /**
      * Performs @Inject field injection using context first, then step config; enforces required/defaults.
      */
     private void injectAnnotatedInjections(Object instance, ExecutionContext context, Map<String, Object> config) {
         if (instance == null) return;
-        Class<?> clazz = instance.getClass();
-        for (Field field : clazz.getDeclaredFields()) {
-            com.stepflow.core.annotations.Inject anno = field.getAnnotation(com.stepflow.core.annotations.Inject.class);
-            if (anno == null) continue;
-
-            String key = !anno.value().isEmpty() ? anno.value() : field.getName();
+        InjectionPlan plan = PLANS.get(instance.getClass());
+        for (InjectionPlan.InjectTarget target : plan.injects) {
+            String key = target.key;
             Object value = null;
             if (context != null && context.containsKey(key)) {
                 value = context.get(key);
@@ -348,27 +393,25 @@ public class DependencyInjector {
             }
 
             if (value == null) {
-                if (anno.required()) {
-                    String msg = "Required @Inject value not found for key '" + key + "' on field '" + field.getName() + "' in " + clazz.getName();
+                if (target.required) {
+                    String msg = "Required @Inject value not found for key '" + key + "' on field '" + target.fieldName + "' in " + plan.type.getName();
                     LOGGER.error(msg);
                     throw new IllegalStateException(msg);
                 }
-                String defaultStr = anno.defaultValue();
-                if (defaultStr != null && !defaultStr.isEmpty()) {
-                    value = coerce(defaultStr, field.getType());
+                value = target.defaultValue;
+                if (value != null) {
                     LOGGER.debug("@Inject default applied for key '{}' -> {}", key, value);
                 }
             } else {
-                value = coerceIfNeeded(value, field.getType());
+                value = coerceIfNeeded(value, target);
             }
 
             if (value != null) {
-                try {
-                    field.setAccessible(true);
-                    field.set(instance, value);
-                    LOGGER.debug("Injected field '{}' with key '{}'", field.getName(), key);
-                } catch (Exception ex) {
-                    LOGGER.debug("Failed to inject field '{}' ({}): {}", field.getName(), key, ex.toString());
+                String failure = target.set(instance, value);
+                if (failure == null) {
+                    LOGGER.debug("Injected field '{}' with key '{}'", target.fieldName, key);
+                } else {
+                    LOGGER.debug("Failed to inject field '{}' ({}): {}", target.fieldName, key, failure);
                 }
             }
         }
@@ -377,19 +420,19 @@ public class DependencyInjector {
     /**
      * Injects values by matching field names from the execution context, skipping annotated fields.
      */
-    private void injectFromContext(Object instance, ExecutionContext context) {
+    private void injectFromContext(Object instance, ExecutionContext context, Set<String> excludedNames) {
         if (instance == null || context == null) return;
-        Field[] fields = instance.getClass().getDeclaredFields();
-        for (Field field : fields) {
-            if (isAnnotationDriven(field)) continue; // do not override @Inject/@ConfigValue
-            try {
-                field.setAccessible(true);
-                String fieldName = field.getName();
-                if (context.containsKey(fieldName)) {
-                    field.set(instance, context.get(fieldName));
+        for (InjectionPlan.FieldTarget target : PLANS.get(instance.getClass()).contextFields) {
+            String fieldName = target.fieldName;
+            if (excludedNames.contains(fieldName)) continue; // config property wins
+            if (context.containsKey(fieldName)) {
+                String failure = target.set(instance, context.get(fieldName));
+                if (failure == null) {
                     LOGGER.debug("Context injected into field '{}'", fieldName);
+                } else {
+                    LOGGER.debug("Context injection failed for field '{}': {}", fieldName, failure);
                 }
-            } catch (Exception ex) { LOGGER.debug("Context injection failed for field '{}': {}", field.getName(), ex.toString()); }
+            }
         }
     }
 
@@ -398,27 +441,21 @@ public class DependencyInjector {
      */
     private void injectFromConfig(Object instance, Map<String, Object> config) {
         if (instance == null || config == null) return;
+        InjectionPlan plan = PLANS.get(instance.getClass());
 
         for (Map.Entry<String, Object> entry : config.entrySet()) {
             String propertyName = entry.getKey();
-            Object value = entry.getValue();
+            InjectionPlan.PropertyTarget target = plan.property(propertyName);
+            if (target == InjectionPlan.PropertyTarget.NONE || target == InjectionPlan.PropertyTarget.SKIP) continue;
             try {
-                Field field = findField(instance.getClass(), propertyName);
-                if (field != null) {
-                    if (isAnnotationDriven(field)) continue; // respect @Inject/@ConfigValue
-                    field.setAccessible(true);
-                    field.set(instance, value);
+                if (target.setter == null) throw new IllegalAccessException(target.memberName + " is not writable");
+                target.setter.invokeExact(instance, entry.getValue());
+                if (target.viaSetter) {
+                    LOGGER.debug("Config injected via setter '{}'", target.memberName);
+                } else {
                     LOGGER.debug("Config injected into field '{}'", propertyName);
-                    continue;
-                }
-
-                Method setter = findSetter(instance.getClass(), propertyName);
-                if (setter != null) {
-                    setter.setAccessible(true);
-                    setter.invoke(instance, value);
-                    LOGGER.debug("Config injected via setter '{}'", setter.getName());
                 }
-            } catch (Exception ex) { LOGGER.debug("Config injection failed for property '{}': {}", propertyName, ex.toString()); }
+            } catch (Throwable ex) { LOGGER.debug("Config injection failed for property '{}': {}", propertyName, ex.toString()); }
         }
     }
 
@@ -427,41 +464,33 @@ public class DependencyInjector {
      */
     private void injectAnnotatedConfigValues(Object instance, Map<String, Object> config, Map<String, Object> settings) {
         if (instance == null) return;
-        Class<?> clazz = instance.getClass();
-        for (Field field : clazz.getDeclaredFields()) {
-            com.stepflow.core.annotations.ConfigValue anno = field.getAnnotation(com.stepflow.core.annotations.ConfigValue.class);
-            if (anno == null) continue;
-            String key = anno.value() != null && !anno.value().isEmpty() ? anno.value() : field.getName();
+        for (InjectionPlan.ConfigValueTarget target : PLANS.get(instance.getClass()).configValues) {
             Object value = null;
             if (config != null) {
-                value = config.get(key);
+                value = config.get(target.key);
             }
-            if (value == null && settings != null && anno.globalPath() != null && !anno.globalPath().isEmpty()) {
-                value = resolvePath(settings, anno.globalPath());
+            if (value == null && settings != null && target.globalPath != null) {
+                value = resolvePath(settings, target.globalPath);
             }
-            boolean required = anno.required();
             if (value == null) {
-                if (required) continue;
-                String defaultStr = anno.defaultValue();
-                if (defaultStr != null && !defaultStr.isEmpty()) {
-                    value = coerce(defaultStr, field.getType());
-                }
+                if (target.required) continue;
+                value = target.defaultValue;
             } else {
-                value = coerceIfNeeded(value, field.getType());
+                value = coerceIfNeeded(value, target);
             }
             if (value != null) {
-                try {
-                    field.setAccessible(true);
-                    field.set(instance, value);
-                    LOGGER.debug("@ConfigValue injected into field '{}'", field.getName());
-                } catch (Exception ex) { LOGGER.debug("@ConfigValue injection failed for field '{}': {}", field.getName(), ex.toString()); }
+                String failure = target.set(instance, value);
+                if (failure == null) {
+                    LOGGER.debug("@ConfigValue injected into field '{}'", target.fieldName);
+                } else {
+                    LOGGER.debug("@ConfigValue injection failed for field '{}': {}", target.fieldName, failure);
+                }
             }
         }
     }
 
-    /** Resolves a dotted path inside a nested map structure. */
-    private Object resolvePath(Map<String, Object> root, String path) {
-        String[] parts = path.split("\\.");
+    /** Resolves a pre-split dotted path inside a nested map structure. */
+    private Object resolvePath(Map<String, Object> root, String[] parts) {
         Object current = root;
         for (String part : parts) {
             if (!(current instanceof Map)) return null;
@@ -472,50 +501,9 @@ public class DependencyInjector {
         return current;
     }
 
-    /** Attempts to coerce a value to the required field type when necessary. */
-    private Object coerceIfNeeded(Object value, Class<?> targetType) {
-        if (value == null || targetType.isInstance(value)) return value;
-        return coerce(value.toString(), targetType);
-    }
-
-    /** Coerces simple primitives and String values; falls back to raw text on failure. */
-    private Object coerce(String text, Class<?> targetType) {
-        try {
-            if (targetType == String.class) return text;
-            if (targetType == Integer.class || targetType == int.class) return Integer.parseInt(text);
-            if (targetType == Long.class || targetType == long.class) return Long.parseLong(text);
-            if (targetType == Double.class || targetType == double.class) return Double.parseDouble(text);
-            if (targetType == Float.class || targetType == float.class) return Float.parseFloat(text);
-            if (targetType == Boolean.class || targetType == boolean.class) return Boolean.parseBoolean(text);
-        } catch (Exception ignored) { }
-        return text;
-    }
-
-    /** Locates a field by name on the class or its superclasses. */
-    private Field findField(Class<?> clazz, String name) {
-        try {
-            return clazz.getDeclaredField(name);
-        } catch (NoSuchFieldException e) {
-            Class<?> parent = clazz.getSuperclass();
-            return (parent != null) ? findField(parent, name) : null;
-        }
-    }
-
-    /** Finds a single-argument setter for the given property name on the class hierarchy. */
-    private Method findSetter(Class<?> clazz, String propertyName) {
-        String setterName = "set" + Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
-        for (Method method : clazz.getDeclaredMethods()) {
-            if (method.getName().equals(setterName) && method.getParameterCount() == 1) {
-                return method;
-            }
-        }
-        Class<?> parent = clazz.getSuperclass();
-        return (parent != null) ? findSetter(parent, propertyName) : null;
-    }
-
-    /** Returns true if field injection should be driven exclusively by annotations. */
-    private boolean isAnnotationDriven(Field field) {
-        return field.getAnnotation(com.stepflow.core.annotations.Inject.class) != null
-                || field.getAnnotation(com.stepflow.core.annotations.ConfigValue.class) != null;
+    /** Attempts to coerce a value to the target field type when necessary. */
+    private Object coerceIfNeeded(Object value, InjectionPlan.FieldTarget target) {
+        if (value == null || target.fieldType.isInstance(value)) return value;
+        return target.coercer.coerce(value.toString());
     }
 }
@@ -418,6 +418,24 @@ public class FlowConfig {
          * Controls automatic retry behavior when step returns failure status.
          */
         public RetryConfig retry;
+
+        /**
+         * Optional instance scope override: "singleton", "thread" or "prototype" (case-insensitive).
+         * When absent, the scope declared on {@code @StepComponent}/{@code @GuardComponent} applies.
+         */
+        public String scope;
+
+        /**
+         * Context keys this step or guard reads besides its {@code @Inject} and implicitly injected
+         * fields, e.g. keys read directly from the {@code ExecutionContext}. Used by liveness
+         * analysis (see {@link WorkflowDef#memory}).
+         */
+        public List<String> reads;
+
+        /**
+         * Context keys this step writes. A key written by a later step is not kept alive for it.
+         */
+        public List<String> writes;
     }
     
     /**
@@ -479,6 +497,61 @@ public class FlowConfig {
          * Edges are evaluated in declaration order for multi-path scenarios.
          */
         public List<EdgeDef> edges = new ArrayList<>();
+
+        /**
+         * Join nodes for parallel fan-outs, keyed by join name.
+         * A join name is used as the {@code to} of every branch's last edge and as the
+         * {@code from} of the edges that continue after all branches have merged.
+         */
+        public Map<String, JoinDef> joins = new LinkedHashMap<>();
+
+        /**
+         * Context keys returned in the final result of a successful run. When {@code null} (the
+         * default) the whole context is returned; otherwise only the listed keys that are present.
+         * Failure results are returned unchanged.
+         */
+        public List<String> outputs;
+
+        /**
+         * Context memory mode. {@code "aggressive"} removes a key from the context as soon as no
+         * step or guard that may still run reads it, based on {@code @Inject} keys, implicitly
+         * injected fields and declared {@link StepDef#reads}. Requires {@link #outputs}; components
+         * must not read keys they do not declare. Any other value (default) keeps every key.
+         */
+        public String memory;
+    }
+
+    /**
+     * Join node definition closing a parallel fan-out ({@code kind: "parallel"} edges).
+     *
+     * <p>Every branch started by the fork runs on its own copy of the execution context until it
+     * reaches the join. The join then merges the keys each branch added or changed into the
+     * workflow context, in branch declaration order, and routing continues from the join's edges.
+     *
+     * <p><strong>YAML Example:</strong>
+     * <pre>
+     * workflows:
+     *   checkout:
+     *     root: "validate"
+     *     joins:
+     *       settle:
+     *         onBranchFailure: "CANCEL"   # CANCEL (default) | WAIT | IGNORE
+     *     edges:
+     *       - { from: "validate", to: "fraudCheck", kind: "parallel" }
+     *       - { from: "validate", to: "reserveInventory", kind: "parallel" }
+     *       - { from: "fraudCheck", to: "settle" }
+     *       - { from: "reserveInventory", to: "settle" }
+     *       - { from: "settle", to: "charge" }
+     * </pre>
+     */
+    public static class JoinDef {
+        /**
+         * What happens when a branch fails:
+         * "CANCEL" cancels the remaining branches on the first failure and fails the workflow once they stopped,
+         * "WAIT" lets all branches finish before failing with the first failure in declaration order,
+         * "IGNORE" drops failed branches and merges the successful ones.
+         */
+        public String onBranchFailure = "CANCEL";
     }
     
     /**
@@ -560,6 +633,8 @@ public class FlowConfig {
         /** 
          * Edge type classification for documentation and tooling.
          * Common values: "normal", "error_handling", "retry", "fallback".
+         * The value "parallel" is interpreted by the engine: all parallel edges of a step are
+         * started concurrently and must converge on one join (see {@link JoinDef}).
          */
         public String kind = "normal";
         
@@ -785,6 +860,15 @@ public class FlowConfig {
                 if (sd.guards != null && !sd.guards.isEmpty()) {
                     stepMap.put("guards", new ArrayList<>(sd.guards));
                 }
+                if (sd.scope != null && !sd.scope.isEmpty()) {
+                    stepMap.put("scope", sd.scope);
+                }
+                if (sd.reads != null) {
+                    stepMap.put("reads", new ArrayList<>(sd.reads));
+                }
+                if (sd.writes != null) {
+                    stepMap.put("writes", new ArrayList<>(sd.writes));
+                }
                 if (sd.retry != null) {
                     Map<String, Object> retry = new LinkedHashMap<>();
                     retry.put("maxAttempts", sd.retry.maxAttempts);
@@ -855,6 +939,24 @@ public class FlowConfig {
                     }
                     wfMap.put("edges", edgesList);
                 }
+                if (wf.joins != null && !wf.joins.isEmpty()) {
+                    Map<String, Object> joinsMap = new LinkedHashMap<>();
+                    for (Map.Entry<String, JoinDef> j : wf.joins.entrySet()) {
+                        Map<String, Object> jm = new LinkedHashMap<>();
+                        if (j.getValue() != null && j.getValue().onBranchFailure != null
+                                && !"CANCEL".equalsIgnoreCase(j.getValue().onBranchFailure)) {
+                            jm.put("onBranchFailure", j.getValue().onBranchFailure);
+                        }
+                        joinsMap.put(j.getKey(), jm);
+                    }
+                    wfMap.put("joins", joinsMap);
+                }
+                if (wf.outputs != null) {
+                    wfMap.put("outputs", new ArrayList<>(wf.outputs));
+                }
+                if (wf.memory != null) {
+                    wfMap.put("memory", wf.memory);
+                }
                 wfNode.put(wfName, wfMap);
             }
             root.put("workflows", wfNode);
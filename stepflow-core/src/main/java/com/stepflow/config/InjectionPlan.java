@@ -0,0 +1,269 @@
+package com.stepflow.config;
+
+import com.stepflow.core.annotations.ConfigValue;
+import com.stepflow.core.annotations.Inject;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-class injection metadata computed once and cached by {@link DependencyInjector}.
+ *
+ * <p>Building the plan performs all reflective work up front: annotation lookups, key names,
+ * {@code globalPath} splitting, default value coercion and {@code setAccessible}. Field and setter
+ * writes go through {@link MethodHandle}s adapted to {@code (Object, Object)void}, so injection is a
+ * loop over arrays of precomputed targets.
+ *
+ * <p>Config property targets depend on the config keys seen at runtime and are resolved lazily per
+ * key (field up the class hierarchy, then setter) and memoized in a concurrent map.
+ *
+ * <p>The semantics are identical to the original reflective implementation: only fields declared on
+ * the concrete class take part in {@code @Inject}, {@code @ConfigValue} and context matching, while
+ * config properties also consider superclass fields and setters.
+ */
+final class InjectionPlan {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InjectionPlan.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    final Class<?> type;
+    final InjectTarget[] injects;
+    final FieldTarget[] contextFields;
+    final ConfigValueTarget[] configValues;
+    private final ConcurrentMap<String, PropertyTarget> properties = new ConcurrentHashMap<>();
+
+    private InjectionPlan(Class<?> type, InjectTarget[] injects, FieldTarget[] contextFields, ConfigValueTarget[] configValues) {
+        this.type = type;
+        this.injects = injects;
+        this.contextFields = contextFields;
+        this.configValues = configValues;
+    }
+
+    static InjectionPlan build(Class<?> type) {
+        List<InjectTarget> injects = new ArrayList<>();
+        List<FieldTarget> contextFields = new ArrayList<>();
+        List<ConfigValueTarget> configValues = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            Inject inject = field.getAnnotation(Inject.class);
+            ConfigValue configValue = field.getAnnotation(ConfigValue.class);
+            if (inject != null) {
+                injects.add(new InjectTarget(field, inject));
+            }
+            if (configValue != null) {
+                configValues.add(new ConfigValueTarget(field, configValue));
+            }
+            if (inject == null && configValue == null) {
+                contextFields.add(new FieldTarget(field));
+            }
+        }
+        return new InjectionPlan(type,
+                injects.toArray(new InjectTarget[0]),
+                contextFields.toArray(new FieldTarget[0]),
+                configValues.toArray(new ConfigValueTarget[0]));
+    }
+
+    /** Returns the memoized config property target for a key (never null; {@link PropertyTarget#NONE} if absent). */
+    PropertyTarget property(String propertyName) {
+        PropertyTarget target = properties.get(propertyName);
+        if (target == null) {
+            target = properties.computeIfAbsent(propertyName, this::resolveProperty);
+        }
+        return target;
+    }
+
+    private PropertyTarget resolveProperty(String propertyName) {
+        Field field = findField(type, propertyName);
+        if (field != null) {
+            if (isAnnotationDriven(field)) {
+                return PropertyTarget.SKIP; // respect @Inject/@ConfigValue
+            }
+            return new PropertyTarget(propertyName, fieldSetter(field), false);
+        }
+        Method setter = findSetter(type, propertyName);
+        if (setter != null) {
+            return new PropertyTarget(setter.getName(), methodSetter(setter), true);
+        }
+        return PropertyTarget.NONE;
+    }
+
+    // ======================================================================================
+    // TARGETS
+    // ======================================================================================
+
+    /** A writable field with a precomputed setter handle ({@code null} if the field cannot be written). */
+    static class FieldTarget {
+        final String fieldName;
+        final Class<?> fieldType;
+        final Coercer coercer;
+        final MethodHandle setter;
+
+        FieldTarget(Field field) {
+            this.fieldName = field.getName();
+            this.fieldType = field.getType();
+            this.coercer = Coercer.forType(field.getType());
+            this.setter = fieldSetter(field);
+        }
+
+        /** Writes the value; returns a failure description or {@code null} on success. */
+        String set(Object instance, Object value) {
+            if (setter == null) return "field is not writable";
+            try {
+                setter.invokeExact(instance, value);
+                return null;
+            } catch (Throwable ex) {
+                return ex.toString();
+            }
+        }
+    }
+
+    /** An {@code @Inject} field. */
+    static final class InjectTarget extends FieldTarget {
+        final String key;
+        final boolean required;
+        /** Annotation default already coerced to the field type; {@code null} if none. */
+        final Object defaultValue;
+
+        InjectTarget(Field field, Inject anno) {
+            super(field);
+            this.key = !anno.value().isEmpty() ? anno.value() : field.getName();
+            this.required = anno.required();
+            String defaultStr = anno.defaultValue();
+            this.defaultValue = (defaultStr != null && !defaultStr.isEmpty()) ? coercer.coerce(defaultStr) : null;
+        }
+    }
+
+    /** A {@code @ConfigValue} field. */
+    static final class ConfigValueTarget extends FieldTarget {
+        final String key;
+        /** Pre-split {@code globalPath} segments; {@code null} if no global path is declared. */
+        final String[] globalPath;
+        final boolean required;
+        final Object defaultValue;
+
+        ConfigValueTarget(Field field, ConfigValue anno) {
+            super(field);
+            this.key = anno.value() != null && !anno.value().isEmpty() ? anno.value() : field.getName();
+            this.globalPath = anno.globalPath() != null && !anno.globalPath().isEmpty()
+                    ? anno.globalPath().split("\\.") : null;
+            this.required = anno.required();
+            String defaultStr = anno.defaultValue();
+            this.defaultValue = (defaultStr != null && !defaultStr.isEmpty()) ? coercer.coerce(defaultStr) : null;
+        }
+    }
+
+    /** A config property resolved to a field or setter. */
+    static final class PropertyTarget {
+        static final PropertyTarget NONE = new PropertyTarget(null, null, false);
+        static final PropertyTarget SKIP = new PropertyTarget(null, null, false);
+
+        final String memberName;
+        final MethodHandle setter;
+        final boolean viaSetter;
+
+        PropertyTarget(String memberName, MethodHandle setter, boolean viaSetter) {
+            this.memberName = memberName;
+            this.setter = setter;
+            this.viaSetter = viaSetter;
+        }
+    }
+
+    /** Pre-selected conversion from text to a field type. */
+    enum Coercer {
+        NONE, STRING, INTEGER, LONG, DOUBLE, FLOAT, BOOLEAN;
+
+        static Coercer forType(Class<?> targetType) {
+            if (targetType == String.class) return STRING;
+            if (targetType == Integer.class || targetType == int.class) return INTEGER;
+            if (targetType == Long.class || targetType == long.class) return LONG;
+            if (targetType == Double.class || targetType == double.class) return DOUBLE;
+            if (targetType == Float.class || targetType == float.class) return FLOAT;
+            if (targetType == Boolean.class || targetType == boolean.class) return BOOLEAN;
+            return NONE;
+        }
+
+        Object coerce(String text) {
+            try {
+                switch (this) {
+                    case INTEGER: return Integer.parseInt(text);
+                    case LONG: return Long.parseLong(text);
+                    case DOUBLE: return Double.parseDouble(text);
+                    case FLOAT: return Float.parseFloat(text);
+                    case BOOLEAN: return Boolean.parseBoolean(text);
+                    case STRING:
+                    case NONE:
+                    default: return text;
+                }
+            } catch (Exception ignored) {
+                return text;
+            }
+        }
+    }
+
+    // ======================================================================================
+    // REFLECTION HELPERS (build time only)
+    // ======================================================================================
+
+    private static MethodHandle fieldSetter(Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandle mh = MethodHandles.lookup().unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                mh = MethodHandles.dropArguments(mh, 0, Object.class);
+            }
+            return mh.asType(SETTER_TYPE);
+        } catch (Exception ex) {
+            LOGGER.debug("Field '{}' is not injectable: {}", field.getName(), ex.toString());
+            return null;
+        }
+    }
+
+    private static MethodHandle methodSetter(Method method) {
+        try {
+            method.setAccessible(true);
+            MethodHandle mh = MethodHandles.lookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                mh = MethodHandles.dropArguments(mh, 0, Object.class);
+            }
+            return mh.asType(SETTER_TYPE);
+        } catch (Exception ex) {
+            LOGGER.debug("Setter '{}' is not injectable: {}", method.getName(), ex.toString());
+            return null;
+        }
+    }
+
+    private static Field findField(Class<?> clazz, String name) {
+        try {
+            return clazz.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            Class<?> parent = clazz.getSuperclass();
+            return (parent != null) ? findField(parent, name) : null;
+        }
+    }
+
+    private static Method findSetter(Class<?> clazz, String propertyName) {
+        if (propertyName == null || propertyName.isEmpty()) return null;
+        String setterName = "set" + Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (method.getName().equals(setterName) && method.getParameterCount() == 1) {
+                return method;
+            }
+        }
+        Class<?> parent = clazz.getSuperclass();
+        return (parent != null) ? findSetter(parent, propertyName) : null;
+    }
+
+    private static boolean isAnnotationDriven(Field field) {
+        return field.getAnnotation(Inject.class) != null
+                || field.getAnnotation(ConfigValue.class) != null;
+    }
+}
@@ -1,13 +1,28 @@
 package com.stepflow.core;
 
+import com.stepflow.engine.BatchOptions;
 import com.stepflow.engine.Engine;
+import com.stepflow.engine.EngineMXBean;
+import com.stepflow.engine.ExecutionListener;
+import com.stepflow.engine.ExecutionMode;
+import com.stepflow.engine.RunTrace;
+import com.stepflow.engine.StepResourceUsage;
+import com.stepflow.engine.TailSampling;
+import com.stepflow.engine.StreamOptions;
 import com.stepflow.config.FlowConfig;
+import com.stepflow.core.annotations.ComponentScope;
 import com.stepflow.execution.*;
 import com.stepflow.resource.YamlResourceLoader;
 import com.stepflow.component.DependencyResolver;
 import com.stepflow.validation.*;
+import com.stepflow.metrics.MetricsRecorder;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+import javax.management.ObjectName;
 import org.yaml.snakeyaml.Yaml;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -405,6 +420,248 @@ public class SimpleEngine {
         return engine.run(workflowName, context);
     }
 
+    /**
+     * Executes a workflow asynchronously on the given executor.
+     *
+     * <p>Each step runs as a continuation on {@code executor}; no thread is held between steps or
+     * while waiting for a retry delay. The returned future completes with the same
+     * {@link StepResult} that {@link #execute(String, ExecutionContext)} would return.
+     *
+     * <p><strong>Usage Example:</strong>
+     * <pre>
+     * CompletableFuture&lt;StepResult&gt; pending = engine.runAsync("orderProcessing", ctx, workers);
+     * pending.thenAccept(result -&gt; System.out.println("Finished: " + result.status));
+     * </pre>
+     *
+     * @param workflowName the name of the workflow to execute. Must exist in the FlowConfig.
+     * @param context the execution context for this run; must not be shared with concurrent runs
+     * @param executor executor running the steps and continuations
+     * @return future completed with the final outcome of the workflow
+     *
+     * @see Engine#runAsync(String, ExecutionContext, Executor)
+     */
+    public CompletableFuture<StepResult> runAsync(String workflowName, ExecutionContext context, Executor executor) {
+        LOGGER.debug("Executing workflow '{}' asynchronously with context keys {}", workflowName, context.keySet());
+        return engine.runAsync(workflowName, context, executor);
+    }
+
+    /**
+     * Executes a workflow over many inputs with bounded, partitioned parallelism and returns the
+     * results in input order. The workflow is resolved once for the whole batch.
+     *
+     * <p><strong>Usage Example:</strong>
+     * <pre>
+     * List&lt;StepResult&gt; results = engine.runBatch("reconcile", contexts,
+     *         BatchOptions.builder().maxParallelism(8).failFast(true).build());
+     * </pre>
+     *
+     * @param workflowName the name of the workflow to execute. Must exist in the FlowConfig.
+     * @param inputs one execution context per run
+     * @param options parallelism, partitioning and fail-fast settings ({@code null} for defaults)
+     * @return one result per input, in input order
+     *
+     * @see Engine#runBatch(String, List, BatchOptions)
+     */
+    public List<StepResult> runBatch(String workflowName, List<ExecutionContext> inputs, BatchOptions options) {
+        LOGGER.debug("Executing workflow '{}' over a batch of {} input(s)", workflowName, inputs.size());
+        return engine.runBatch(workflowName, inputs, options);
+    }
+
+    /**
+     * Executes a workflow over many inputs like {@link #runBatch}, streaming the results in
+     * completion order as they become available.
+     *
+     * @see Engine#streamBatch(String, List, BatchOptions)
+     */
+    public Stream<StepResult> streamBatch(String workflowName, List<ExecutionContext> inputs, BatchOptions options) {
+        return engine.streamBatch(workflowName, inputs, options);
+    }
+
+    /**
+     * Returns a {@link Flow.Processor} running the workflow for every published context, with
+     * demand-based backpressure bounded by {@link StreamOptions#getMaxInFlight()}.
+     *
+     * <p><strong>Usage Example:</strong>
+     * <pre>
+     * Flow.Processor&lt;ExecutionContext, StepResult&gt; processor =
+     *         engine.stream("ingest", StreamOptions.builder().maxInFlight(32).ordered(true).build());
+     * inputPublisher.subscribe(processor);
+     * processor.subscribe(resultSubscriber);
+     * </pre>
+     *
+     * @see Engine#stream(String, StreamOptions)
+     */
+    public Flow.Processor<ExecutionContext, StepResult> stream(String workflowName, StreamOptions options) {
+        return engine.stream(workflowName, options);
+    }
+
+    /**
+     * Sets the executor running the branches of parallel forks started by {@link #execute}.
+     * Asynchronous runs fork onto their own executor. Passing {@code null} restores the default,
+     * which follows the {@link ExecutionMode}: the common pool for platform
+     * threads, a virtual thread per branch for virtual threads.
+     *
+     * @param executor executor for parallel branches of synchronous runs
+     * @see Engine#setParallelExecutor(Executor)
+     */
+    public void setParallelExecutor(Executor executor) {
+        engine.setParallelExecutor(executor);
+    }
+
+    /**
+     * Selects platform or virtual threads for the work the engine schedules itself (parallel
+     * branches, batch workers, streamed runs). Virtual threads require Java 21 or later.
+     *
+     * <p><strong>Usage Example:</strong>
+     * <pre>
+     * engine.setExecutionMode(ExecutionMode.VIRTUAL_THREADS);
+     * engine.runBatch("reconcile", contexts, BatchOptions.builder().maxParallelism(10_000).build());
+     * </pre>
+     *
+     * @see Engine#setExecutionMode(ExecutionMode)
+     */
+    public void setExecutionMode(ExecutionMode mode) {
+        engine.setExecutionMode(mode);
+    }
+
+    /**
+     * Installs a recorder for run, step, guard and edge metrics; {@code null} disables metrics.
+     *
+     * <p><strong>Usage Example:</strong>
+     * <pre>
+     * DefaultMetricsRecorder metrics = new DefaultMetricsRecorder();
+     * engine.setMetricsRecorder(metrics);
+     * MetricsSnapshot snapshot = metrics.snapshot();
+     * </pre>
+     *
+     * @see Engine#setMetricsRecorder(MetricsRecorder)
+     */
+    public void setMetricsRecorder(MetricsRecorder recorder) {
+        engine.setMetricsRecorder(recorder);
+    }
+
+    /**
+     * Registers a listener for run, step, guard, retry and transition events.
+     *
+     * @see Engine#addExecutionListener(ExecutionListener)
+     */
+    public void addExecutionListener(ExecutionListener listener) {
+        engine.addExecutionListener(listener);
+    }
+
+    /**
+     * Removes a listener registered with {@link #addExecutionListener}.
+     *
+     * @see Engine#removeExecutionListener(ExecutionListener)
+     */
+    public boolean removeExecutionListener(ExecutionListener listener) {
+        return engine.removeExecutionListener(listener);
+    }
+
+    /**
+     * Caps the number of runs executing at once; runs beyond the cap fail immediately.
+     *
+     * @see Engine#setMaxConcurrentRuns(int)
+     */
+    public void setMaxConcurrentRuns(int maxRuns) {
+        engine.setMaxConcurrentRuns(maxRuns);
+    }
+
+    /**
+     * Sets the fraction of runs logged at INFO; the others log at DEBUG.
+     *
+     * @see Engine#setRunLogSampleRate(double)
+     */
+    public void setRunLogSampleRate(double rate) {
+        engine.setRunLogSampleRate(rate);
+    }
+
+    /**
+     * Keeps traces of recent runs in a fixed-size in-memory ring; {@code 0} turns tracing off.
+     *
+     * @see Engine#setTraceBufferCapacity(int)
+     */
+    public void setTraceBufferCapacity(int entries) {
+        engine.setTraceBufferCapacity(entries);
+    }
+
+    /**
+     * Decodes the traces of the most recently active runs.
+     *
+     * <p><strong>Usage Example:</strong>
+     * <pre>
+     * StepResult result = engine.execute("checkout", context);
+     * if (!result.isSuccess()) {
+     *     engine.recentTraces(5).forEach(trace -&gt; log.warn("{}", trace));
+     * }
+     * </pre>
+     *
+     * @see Engine#recentTraces(int)
+     */
+    public List<RunTrace> recentTraces(int runs) {
+        return engine.recentTraces(runs);
+    }
+
+    /**
+     * Logs the trace of every failed run at WARN.
+     *
+     * @see Engine#setLogTraceOnFailure(boolean)
+     */
+    public void setLogTraceOnFailure(boolean enabled) {
+        engine.setLogTraceOnFailure(enabled);
+    }
+
+    /**
+     * Writes the traces of failed, retry-exhausted and slow runs to a rolling file; {@code null} stops.
+     *
+     * @see Engine#setTailSampling(TailSampling)
+     */
+    public void setTailSampling(TailSampling sampling) {
+        engine.setTailSampling(sampling);
+    }
+
+    /**
+     * Measures thread CPU time and allocation of every step attempt, summed per step type.
+     *
+     * @see Engine#setStepResourceAccounting(boolean)
+     */
+    public void setStepResourceAccounting(boolean enabled) {
+        engine.setStepResourceAccounting(enabled);
+    }
+
+    /**
+     * Returns wall time, CPU time and allocation of step attempts by step type.
+     *
+     * @see Engine#getStepResourceUsage()
+     */
+    public Map<String, StepResourceUsage> getStepResourceUsage() {
+        return engine.getStepResourceUsage();
+    }
+
+    /**
+     * Registers an {@link EngineMXBean} exposing live statistics and the runtime knobs. The MBean
+     * server keeps this engine reachable until {@link #unregisterMBean()} is called.
+     *
+     * <p><strong>Usage Example:</strong>
+     * <pre>
+     * engine.registerMBean("orders"); // com.stepflow:type=Engine,name=orders
+     * </pre>
+     *
+     * @see Engine#registerMBean(String)
+     */
+    public ObjectName registerMBean(String name) {
+        return engine.registerMBean(name);
+    }
+
+    /**
+     * Unregisters the MBean registered by {@link #registerMBean}.
+     *
+     * @see Engine#unregisterMBean()
+     */
+    public void unregisterMBean() {
+        engine.unregisterMBean();
+    }
+
     /**
      * Executes a specified workflow using input data provided as a map.
      * 
@@ -815,6 +1072,17 @@ public class SimpleEngine {
         private final List<String> yamlPaths = new ArrayList<>();
         private String[] scanPackages;
         private FlowConfigValidationEngine customValidationEngine;
+        private Executor parallelExecutor;
+        private ExecutionMode executionMode;
+        private MetricsRecorder metricsRecorder;
+        private String jmxName;
+        private int maxConcurrentRuns;
+        private double runLogSampleRate = 1.0;
+        private int traceBufferCapacity;
+        private boolean logTraceOnFailure;
+        private TailSampling tailSampling;
+        private boolean stepResourceAccounting;
+        private final List<ExecutionListener> executionListeners = new ArrayList<>();
 
         /**
          * Adds YAML files containing workflows and step definitions.
@@ -860,6 +1128,98 @@ public class SimpleEngine {
             return this;
         }
 
+        /**
+         * Sets the executor running parallel branches of synchronous runs.
+         */
+        public EngineBuilder withParallelExecutor(Executor executor) {
+            this.parallelExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Selects platform or virtual threads for engine-scheduled work (virtual threads need Java 21+).
+         */
+        public EngineBuilder withExecutionMode(ExecutionMode mode) {
+            this.executionMode = mode;
+            return this;
+        }
+
+        /**
+         * Installs a metrics recorder, e.g. a {@link com.stepflow.metrics.DefaultMetricsRecorder}.
+         */
+        public EngineBuilder withMetricsRecorder(MetricsRecorder recorder) {
+            this.metricsRecorder = recorder;
+            return this;
+        }
+
+        /**
+         * Registers a listener for run, step, guard, retry and transition events. May be called
+         * several times; listeners are notified in registration order.
+         */
+        public EngineBuilder withExecutionListener(ExecutionListener listener) {
+            this.executionListeners.add(Objects.requireNonNull(listener, "listener"));
+            return this;
+        }
+
+        /**
+         * Registers the engine's {@link EngineMXBean} as {@code com.stepflow:type=Engine,name=<name>}
+         * when it is built. JMX is off unless requested. The MBean server then holds the engine
+         * until {@link SimpleEngine#unregisterMBean()} is called, so call it before discarding an
+         * engine built with JMX; see {@link Engine#registerMBean(String)}.
+         */
+        public EngineBuilder withJmx(String name) {
+            this.jmxName = Objects.requireNonNull(name, "name");
+            return this;
+        }
+
+        /**
+         * Caps the number of concurrent runs; {@code 0} (the default) for no cap.
+         */
+        public EngineBuilder withMaxConcurrentRuns(int maxRuns) {
+            this.maxConcurrentRuns = maxRuns;
+            return this;
+        }
+
+        /**
+         * Keeps traces of recent runs in a ring of {@code entries} entries; see {@link Engine#setTraceBufferCapacity}.
+         */
+        public EngineBuilder withTraceBuffer(int entries) {
+            this.traceBufferCapacity = entries;
+            return this;
+        }
+
+        /**
+         * Logs the trace of every failed run at WARN; needs {@link #withTraceBuffer}.
+         */
+        public EngineBuilder withTraceLoggingOnFailure() {
+            this.logTraceOnFailure = true;
+            return this;
+        }
+
+        /**
+         * Keeps the traces of failed, retry-exhausted and slow runs in a rolling file; see {@link Engine#setTailSampling}.
+         */
+        public EngineBuilder withTailSampling(TailSampling sampling) {
+            this.tailSampling = sampling;
+            return this;
+        }
+
+        /**
+         * Measures thread CPU time and allocation of every step attempt; see {@link Engine#setStepResourceAccounting}.
+         */
+        public EngineBuilder withStepResourceAccounting() {
+            this.stepResourceAccounting = true;
+            return this;
+        }
+
+        /**
+         * Fraction of runs whose start and completion are logged at INFO (default {@code 1.0}).
+         */
+        public EngineBuilder withRunLogSampleRate(double rate) {
+            this.runLogSampleRate = rate;
+            return this;
+        }
+
         /**
          * Builds the configured SimpleEngine.
          */
@@ -883,11 +1243,33 @@ public class SimpleEngine {
 
             LOGGER.info("SimpleEngine built with {} YAML(s); packages={}", yamlPaths.size(), Arrays.toString(scanPackages));
             
-            if (customValidationEngine != null) {
-                return new SimpleEngine(mergedConfig, customValidationEngine, scanPackages);
-            } else {
-                return new SimpleEngine(mergedConfig, scanPackages);
+            SimpleEngine simpleEngine = customValidationEngine != null
+                    ? new SimpleEngine(mergedConfig, customValidationEngine, scanPackages)
+                    : new SimpleEngine(mergedConfig, scanPackages);
+            if (parallelExecutor != null) {
+                simpleEngine.setParallelExecutor(parallelExecutor);
             }
+            if (executionMode != null) {
+                simpleEngine.setExecutionMode(executionMode);
+            }
+            if (metricsRecorder != null) {
+                simpleEngine.setMetricsRecorder(metricsRecorder);
+            }
+            for (ExecutionListener listener : executionListeners) {
+                simpleEngine.addExecutionListener(listener);
+            }
+            simpleEngine.setMaxConcurrentRuns(maxConcurrentRuns);
+            simpleEngine.setRunLogSampleRate(runLogSampleRate);
+            simpleEngine.setTraceBufferCapacity(traceBufferCapacity);
+            simpleEngine.setLogTraceOnFailure(logTraceOnFailure);
+            if (tailSampling != null) {
+                simpleEngine.setTailSampling(tailSampling);
+            }
+            simpleEngine.setStepResourceAccounting(stepResourceAccounting);
+            if (jmxName != null) {
+                simpleEngine.registerMBean(jmxName);
+            }
+            return simpleEngine;
         }
 
         /**
@@ -958,6 +1340,44 @@ public class SimpleEngine {
             return this;
         }
 
+        /**
+         * Declares a join node closing a parallel fan-out (see {@link StepBuilder#parallel(String...)})
+         * with the default CANCEL policy, and returns a builder for its outgoing edges.
+         */
+        public StepBuilder join(String joinName) {
+            return join(joinName, "CANCEL");
+        }
+
+        /**
+         * Declares a join node with the given branch failure policy (CANCEL, WAIT or IGNORE)
+         * and returns a builder for its outgoing edges.
+         */
+        public StepBuilder join(String joinName, String onBranchFailure) {
+            FlowConfig.WorkflowDef workflowDefinition = config.workflows.computeIfAbsent(workflowName, k -> {
+                FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+                wf.edges = new ArrayList<>();
+                return wf;
+            });
+            FlowConfig.JoinDef joinDefinition = new FlowConfig.JoinDef();
+            joinDefinition.onBranchFailure = onBranchFailure;
+            workflowDefinition.joins.put(joinName, joinDefinition);
+            return new StepBuilder(this, joinName);
+        }
+
+        /**
+         * Declares the context keys returned by a successful run; all other keys are left out of
+         * the final result. Without this call the whole context is returned.
+         */
+        public WorkflowBuilder outputs(String... keys) {
+            FlowConfig.WorkflowDef workflowDefinition = config.workflows.computeIfAbsent(workflowName, k -> {
+                FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+                wf.edges = new ArrayList<>();
+                return wf;
+            });
+            workflowDefinition.outputs = new ArrayList<>(Arrays.asList(keys));
+            return this;
+        }
+
         /** Adds or updates a top-level setting. */
         public WorkflowBuilder setting(String key, Object value) {
             if (config.settings == null) config.settings = new HashMap<>();
@@ -1032,6 +1452,15 @@ public class SimpleEngine {
             return this;
         }
 
+        /**
+         * Overrides the instance scope of this step's component (same as {@code scope:} in YAML).
+         */
+        public StepBuilder scope(ComponentScope scope) {
+            FlowConfig.StepDef stepDefinition = getOrCreateStepDef();
+            stepDefinition.scope = scope != null ? scope.name() : null;
+            return this;
+        }
+
         /**
          * Adds a single step-level guard by name.
          */
@@ -1164,6 +1593,17 @@ public class SimpleEngine {
             return to(nextStepName).endEdge();
         }
 
+        /**
+         * Fans out to every target concurrently. The branches must converge on a join declared
+         * with {@link WorkflowBuilder#join(String)}; each branch runs on a copy of the context.
+         */
+        public WorkflowBuilder parallel(String... targets) {
+            for (String target : targets) {
+                to(target).edge.kind = "parallel";
+            }
+            return workflowBuilder;
+        }
+
         /** Adds an unguarded edge to the next step and returns the workflow builder. */
         public WorkflowBuilder thenSuccess() {
             return to("SUCCESS").endEdge();
@@ -0,0 +1,40 @@
+package com.stepflow.core.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a guard whose result depends only on the listed context keys, so it may be cached
+ * across workflow runs of the same engine.
+ *
+ * <p>The cache key is the list of values found under {@link #keys()}; runs whose contexts agree on
+ * those values reuse the result without evaluating the guard. Entries are evicted least recently
+ * used beyond {@link #maxEntries()} and expire {@link #ttlMillis()} after being stored. Results
+ * are not cached when evaluation throws or writes to the context.
+ *
+ * <pre>
+ * &#64;GuardComponent(name = "premiumCustomer")
+ * &#64;CacheableGuard(keys = "customer.id", maxEntries = 10_000, ttlMillis = 300_000)
+ * public class PremiumCustomerGuard implements Guard { ... }
+ * </pre>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheableGuard {
+    /**
+     * Context keys the guard reads. An empty list caches a single result for every context.
+     */
+    String[] keys();
+
+    /**
+     * Maximum number of cached results per guard; the least recently used entry is evicted first.
+     */
+    int maxEntries() default 1024;
+
+    /**
+     * Time in milliseconds a cached result stays valid; {@code 0} or less never expires.
+     */
+    long ttlMillis() default 60_000L;
+}
@@ -0,0 +1,52 @@
+package com.stepflow.core.annotations;
+
+/**
+ * Instance lifecycle for Step and Guard components.
+ *
+ * <p>The scope controls how often the engine constructs a component and injects its configuration
+ * ({@link ConfigValue @ConfigValue} fields and config properties). Context-derived values
+ * ({@link Inject @Inject} fields and implicit context field matching) are always supplied on
+ * every execution, regardless of scope.
+ *
+ * <ul>
+ *   <li>{@link #SINGLETON}: one instance per engine, shared by all runs and threads</li>
+ *   <li>{@link #THREAD}: one instance per engine and thread</li>
+ *   <li>{@link #PROTOTYPE}: one instance per workflow run (the default); a guard evaluated several
+ *       times in the same run, e.g. on RETRY edges, reuses that run's instance</li>
+ * </ul>
+ *
+ * <p>Shared scopes are intended for stateless components. A SINGLETON component that relies on
+ * context-derived fields sees them overwritten by concurrent runs; use THREAD (or keep PROTOTYPE)
+ * for such components, or read per-run data directly from the {@code ExecutionContext}.
+ *
+ * <p>The annotation scope can be overridden per step (or guard definition) in YAML:
+ * <pre>
+ * steps:
+ *   validate:
+ *     type: "validateStep"
+ *     scope: "singleton"
+ * </pre>
+ *
+ * @see StepComponent#scope()
+ * @see GuardComponent#scope()
+ */
+public enum ComponentScope {
+    SINGLETON,
+    THREAD,
+    PROTOTYPE;
+
+    /**
+     * Parses a scope name case-insensitively.
+     *
+     * @param value scope name such as "singleton", "thread" or "prototype"
+     * @return the matching scope, or {@code null} if the value is null, empty or unknown
+     */
+    public static ComponentScope parse(String value) {
+        if (value == null || value.trim().isEmpty()) return null;
+        String normalized = value.trim().toUpperCase();
+        for (ComponentScope scope : values()) {
+            if (scope.name().equals(normalized)) return scope;
+        }
+        return null;
+    }
+}
@@ -17,4 +17,10 @@ public @interface GuardComponent {
      * If not provided, the class name will be converted to camelCase with first letter lowercase.
      */
     String name() default "";
+
+    /**
+     * Instance lifecycle of this guard. Defaults to {@link ComponentScope#PROTOTYPE} (one instance per run).
+     * A {@code scope} entry on the step definition in YAML takes precedence.
+     */
+    ComponentScope scope() default ComponentScope.PROTOTYPE;
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.stepflow.engine;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Options for {@link Engine#runBatch} and {@link Engine#streamBatch}.
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * BatchOptions options = BatchOptions.builder()
+ *     .maxParallelism(8)       // at most 8 inputs in flight
+ *     .failFast(true)          // stop starting new inputs after the first failure
+ *     .build();
+ * List&lt;StepResult&gt; results = engine.runBatch("reconcile", contexts, options);
+ * </pre>
+ */
+public final class BatchOptions {
+
+    private static final BatchOptions DEFAULTS = builder().build();
+
+    private final int maxParallelism;
+    private final int partitionSize;
+    private final boolean failFast;
+    private final Executor executor;
+
+    private BatchOptions(Builder builder) {
+        this.maxParallelism = builder.maxParallelism;
+        this.partitionSize = builder.partitionSize;
+        this.failFast = builder.failFast;
+        this.executor = builder.executor;
+    }
+
+    /** Returns the default options: one worker per available processor, no fail-fast. */
+    public static BatchOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Maximum number of inputs executing at the same time. */
+    public int getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    /** Number of consecutive inputs a worker claims at once; {@code 0} picks a size from the batch size. */
+    public int getPartitionSize() {
+        return partitionSize;
+    }
+
+    /** Whether inputs not yet started are skipped once any input has failed. */
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    /** Executor running the batch workers; {@code null} when the engine creates its own threads. */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Builder for {@link BatchOptions}.
+     */
+    public static class Builder {
+        private int maxParallelism = Runtime.getRuntime().availableProcessors();
+        private int partitionSize = 0;
+        private boolean failFast = false;
+        private Executor executor;
+
+        /**
+         * Sets the maximum number of inputs executing at the same time (default: available processors).
+         */
+        public Builder maxParallelism(int maxParallelism) {
+            if (maxParallelism < 1) {
+                throw new IllegalArgumentException("maxParallelism must be at least 1, got " + maxParallelism);
+            }
+            this.maxParallelism = maxParallelism;
+            return this;
+        }
+
+        /**
+         * Sets how many consecutive inputs a worker claims at once. Larger partitions reduce
+         * coordination; smaller ones balance uneven inputs better. {@code 0} (default) derives the
+         * size from the batch size and parallelism.
+         */
+        public Builder partitionSize(int partitionSize) {
+            if (partitionSize < 0) {
+                throw new IllegalArgumentException("partitionSize must not be negative, got " + partitionSize);
+            }
+            this.partitionSize = partitionSize;
+            return this;
+        }
+
+        /**
+         * Stops starting new inputs after the first failure; inputs skipped this way report a
+         * FAILURE result.
+         */
+        public Builder failFast(boolean failFast) {
+            this.failFast = failFast;
+            return this;
+        }
+
+        /**
+         * Runs the batch workers on the given executor instead of threads owned by the batch. Each
+         * worker occupies one executor thread until its partitions are exhausted.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public BatchOptions build() {
+            return new BatchOptions(this);
+        }
+    }
+}
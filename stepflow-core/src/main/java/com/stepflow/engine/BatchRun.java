@@ -0,0 +1,131 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * One execution of a workflow over a list of inputs.
+ *
+ * <p>Inputs are split into partitions of consecutive indices. A fixed number of workers claim
+ * partitions from a shared cursor and run their inputs one after the other, so at most
+ * {@link BatchOptions#getMaxParallelism()} inputs are in flight and a slow partition does not hold
+ * back the others. Every input gets exactly one result slot, filled in input order.
+ */
+final class BatchRun {
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    private final List<ExecutionContext> inputs;
+    private final Function<ExecutionContext, StepResult> runner;
+    private final Consumer<StepResult> sink;
+    private final boolean failFast;
+    private final int partitionSize;
+    private final int workers;
+    private final StepResult[] results;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicInteger firstFailure = new AtomicInteger(-1);
+    private volatile boolean aborted;
+
+    /**
+     * @param runner executes one input against the already resolved workflow plan
+     * @param sink   receives every result as soon as it is available (may be {@code null})
+     */
+    BatchRun(List<ExecutionContext> inputs, BatchOptions options,
+             Function<ExecutionContext, StepResult> runner, Consumer<StepResult> sink) {
+        this.inputs = inputs;
+        this.runner = runner;
+        this.sink = sink;
+        this.failFast = options.isFailFast();
+        this.results = new StepResult[inputs.size()];
+        int n = inputs.size();
+        int parallelism = Math.max(1, Math.min(options.getMaxParallelism(), n));
+        this.partitionSize = options.getPartitionSize() > 0
+                ? options.getPartitionSize()
+                // about four partitions per worker, capped so uneven inputs still balance
+                : Math.max(1, Math.min(256, n / (parallelism * 4)));
+        this.workers = Math.min(parallelism, (n + partitionSize - 1) / partitionSize);
+    }
+
+    /**
+     * Starts the workers on {@code executor}, or on threads owned by this batch when it is null.
+     *
+     * @return a future completed once every result slot is filled
+     */
+    CompletableFuture<Void> start(Executor executor) {
+        if (workers == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        ExecutorService owned = null;
+        if (executor == null) {
+            owned = Executors.newFixedThreadPool(workers, r -> {
+                Thread t = new Thread(r, "stepflow-batch-" + THREAD_IDS.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            executor = owned;
+        }
+        CompletableFuture<?>[] running = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            running[i] = CompletableFuture.runAsync(this::work, executor);
+        }
+        if (owned != null) {
+            owned.shutdown(); // already submitted workers still run to completion
+        }
+        return CompletableFuture.allOf(running);
+    }
+
+    /** Results in input order; complete once the future returned by {@link #start} has completed. */
+    StepResult[] results() {
+        return results;
+    }
+
+    /** Skips every input not started yet, as if a fail-fast failure had occurred. */
+    void abort() {
+        aborted = true;
+    }
+
+    private void work() {
+        int n = results.length;
+        int from;
+        while ((from = cursor.getAndAdd(partitionSize)) < n) {
+            int to = Math.min(n, from + partitionSize);
+            for (int i = from; i < to; i++) {
+                StepResult result = aborted ? skipped(i) : execute(i);
+                results[i] = result;
+                if (sink != null) {
+                    sink.accept(result);
+                }
+            }
+        }
+    }
+
+    private StepResult execute(int index) {
+        ExecutionContext context = inputs.get(index);
+        StepResult result;
+        try {
+            result = runner.apply(context);
+        } catch (Throwable t) {
+            // keep the slot filled so waiting consumers never stall on a missing result
+            result = StepResult.failure("Batch input #" + index + " failed: " + t, context);
+        }
+        if (failFast && result.status == StepResult.Status.FAILURE
+                && firstFailure.compareAndSet(-1, index)) {
+            aborted = true;
+        }
+        return result;
+    }
+
+    private StepResult skipped(int index) {
+        int failed = firstFailure.get();
+        String reason = failed >= 0 ? "input #" + failed + " failed" : "the batch was aborted";
+        return StepResult.failure("Skipped: " + reason, inputs.get(index));
+    }
+}
@@ -0,0 +1,25 @@
+package com.stepflow.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Instant JFR event for a move of a run from one step to the next. */
+@Name("com.stepflow.EdgeTransition")
+@Label("Edge Transition")
+@Category("StepFlow")
+@Description("A run moved along an edge, into a parallel branch, or from a fork to its join")
+@StackTrace(false)
+final class EdgeTransitionEvent extends jdk.jfr.Event {
+
+    @Label("Workflow")
+    String workflow;
+
+    @Label("From")
+    String from;
+
+    @Label("To")
+    String to;
+}
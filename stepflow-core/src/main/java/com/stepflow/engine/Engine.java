@@ -3,8 +3,28 @@ package com.stepflow.engine;
 import com.stepflow.config.*;
 import com.stepflow.execution.*;
 import com.stepflow.component.*;
+import com.stepflow.metrics.MetricsRecorder;
+import com.stepflow.metrics.WorkflowMetrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -196,14 +216,33 @@ import org.slf4j.LoggerFactory;
  * Templates are resolved during configuration loading, not at runtime.
  *
  * <h2>Thread Safety</h2>
- * Engine instances are NOT thread-safe. Each workflow execution should use a separate 
- * ExecutionContext. Multiple engines can share the same FlowConfig safely.
+ * An Engine is safe to share between threads once constructed:
+ * <ul>
+ *   <li><strong>Runs:</strong> {@link #run}, {@link #runAsync}, {@link #runBatch}, {@link #streamBatch}
+ *       and {@link #stream} may be called concurrently from any number of threads; compiled plans
+ *       and component providers are never modified after construction.</li>
+ *   <li><strong>Settings:</strong> the setters ({@link #setParallelExecutor}, {@link #setExecutionMode},
+ *       {@link #setMetricsRecorder}, {@link #setMaxConcurrentRuns}, {@link #setTraceBufferCapacity},
+ *       {@link #setTailSampling}, {@link #setStepResourceAccounting} and the others), listener
+ *       registration and {@link #registerMBean} may be called while runs execute. Each publishes its
+ *       value atomically; runs started afterwards see it and runs in flight keep what they started with.</li>
+ *   <li><strong>Readers:</strong> statistics such as {@link #recentTraces} and
+ *       {@link #getStepResourceUsage} may be read at any time and reflect the runs recorded so far.</li>
+ * </ul>
+ * What is not shared safely: an {@link ExecutionContext} passed to two concurrent runs, a
+ * {@link FlowConfig} modified after the engine was built from it, and SINGLETON or THREAD scoped
+ * components that are not safe for the sharing their scope implies. Several engines may be built
+ * from the same FlowConfig.
  *
  * <h2>Performance Characteristics</h2>
  * <ul>
+ *   <li><strong>Compiled Plans:</strong> Each workflow is compiled once at construction into a {@code WorkflowPlan}
+ *       with integer node ids and per-node outgoing-edge arrays; runs never scan {@code workflow.edges}</li>
  *   <li><strong>Time Complexity:</strong> O(V + E) where V=steps, E=edges</li>
- *   <li><strong>Space Complexity:</strong> O(V) for cycle detection</li>
- *   <li><strong>Component Caching:</strong> Step/Guard classes are resolved once and cached</li>
+ *   <li><strong>Space Complexity:</strong> O(V) bits for cycle detection</li>
+ *   <li><strong>Component Caching:</strong> Step/Guard classes and effective configs are resolved once per plan</li>
+ *   <li><strong>Retry Delays:</strong> Step backoff and edge RETRY delays are timed by one shared daemon timer;
+ *       asynchronous runs release their worker while waiting</li>
  * </ul>
  *
  * <h2>Usage Example</h2>
@@ -233,9 +272,54 @@ import org.slf4j.LoggerFactory;
 public class Engine {
     private static final Logger LOGGER = LoggerFactory.getLogger(Engine.class);
 
+    /** {@link #advance} result: the run finished and {@code RunState.result} is set. */
+    private static final long DONE = -1L;
+    /** {@link #advance} result: a step boundary was reached; asynchronous runs resubmit here. */
+    private static final long YIELD = -2L;
+    /** {@link #advance} result: continue with the next slice immediately. */
+    private static final long CONTINUE = 0L;
+    /** {@link #advance} result: the run waits for the parallel branches of {@code RunState.fork}. */
+    private static final long SUSPEND = -3L;
+
+    /** Outcome of a step skipped by its guards; shared, never modified by the engine. */
+    private static final StepResult SKIPPED = StepResult.success("Step skipped due to guard condition");
+
+    /** Trace ring size installed by {@link #setTailSampling} when tracing is off. */
+    private static final int DEFAULT_TRACE_BUFFER_CAPACITY = 64 * 1024;
+
     private final FlowConfig config;
     private final ComponentScanner componentScanner;
     private final DependencyInjector dependencyInjector;
+    private final Map<String, WorkflowPlan> plans;
+    private final Map<String, ComponentProvider<?>> providers = new HashMap<>();
+    private final Map<String, GuardResultCache> guardCaches = new HashMap<>();
+    private final RetryScheduler retryScheduler = RetryScheduler.shared();
+    private volatile Executor parallelExecutor;
+
+    /** Executor for sync-run branches and streams when none is configured; the common pool may have a single worker. */
+    private static final Executor DEFAULT_EXECUTOR = ForkJoinPool.getCommonPoolParallelism() > 1
+            ? ForkJoinPool.commonPool()
+            : task -> new Thread(task, "stepflow-worker").start();
+
+    private volatile ExecutionMode executionMode = ExecutionMode.PLATFORM_THREADS;
+    /** Executor for work the engine schedules itself; depends on {@link #executionMode}. */
+    private volatile Executor defaultExecutor = DEFAULT_EXECUTOR;
+    private volatile MetricsRecorder metricsRecorder;
+    /** Metrics handles by {@link WorkflowPlan#id}; {@code null} while no recorder is installed. */
+    private volatile WorkflowMetrics[] workflowMetrics;
+    /** Copy-on-write array of registered listeners, captured by each run at its start. */
+    private volatile ExecutionListener[] listeners = RunState.NO_LISTENERS;
+    /** Counts and limits top-level runs; {@code null} until a limit is set or the MBean is registered. */
+    private volatile RunGate runGate;
+    /** Fraction of {@link #run}/{@link #runAsync} calls logged at INFO; the rest log at DEBUG. */
+    private volatile double runLogSampleRate = 1.0;
+    /** Registered MBean, or {@code null}. */
+    private EngineManagement management;
+    /** Ring of recent run traces; {@code null} while tracing is off. */
+    private volatile TraceBuffer traceBuffer;
+    private volatile boolean logTraceOnFailure;
+    private volatile TailSampler tailSampler;
+    private volatile StepResources stepResources;
     
     public Engine(FlowConfig config, String... scanPackages) {
         this.config = config;
@@ -248,6 +332,9 @@ public class Engine {
         
         // Validate workflow edge configurations
         validateWorkflowEdges();
+
+        // Compile each workflow into an index-based plan used by every run
+        this.plans = compileWorkflows();
     }
     
     /**
@@ -305,33 +392,740 @@ public class Engine {
      *           <li>SUCCESS status with accumulated context if workflow completes normally</li>
      *           <li>FAILURE status with error message and partial context if workflow fails</li>
      *         </ul>
+     *         Unless the workflow declares {@code outputs}, the result's context is {@code context}
+     *         itself, not a copy, so later writes to {@code context} change the result too.
      * @throws RuntimeException if workflow execution encounters unrecoverable errors (component scanning, dependency injection)
      * @see #executeWorkflow for detailed execution mechanics
      */
     public StepResult run(String workflowName, ExecutionContext context) {
-        FlowConfig.WorkflowDef workflow = config.workflows.get(workflowName);
-        if (workflow == null) {
+        WorkflowPlan plan = plans.get(workflowName);
+        if (plan == null) {
             LOGGER.warn("Workflow not found: {}. Available: {}", workflowName, config.workflows.keySet());
             return new StepResult(StepResult.Status.FAILURE, "Workflow not found: " + workflowName);
         }
-        LOGGER.info("Starting workflow: {} (root={})", workflowName, workflow.root);
-        return executeWorkflow(workflow, context);
+        boolean logged = sampleRunLog();
+        if (logged) {
+            LOGGER.info("Starting workflow: {} (root={})", workflowName, plan.nameOf(plan.root));
+        }
+        return executeWorkflow(plan, context, !logged);
+    }
+
+    /**
+     * Executes a workflow asynchronously, returning immediately with a future of the final result.
+     *
+     * <p>The run is driven by the same state machine as {@link #run}, but each step is submitted to
+     * {@code executor} as its own continuation. No thread is held between steps: step retry backoff
+     * and edge-guard RETRY delays are scheduled rather than slept, and the run resumes on
+     * {@code executor} when the delay elapses. Thousands of runs can therefore be in flight on a
+     * small pool.
+     *
+     * <p>Results and failure semantics are identical to {@link #run}: workflow failures complete the
+     * future normally with a FAILURE {@link StepResult}. The future completes exceptionally only if
+     * a component throws an {@link Error} or the executor rejects a continuation. Cancelling the
+     * future stops the run at the next step or retry boundary.
+     *
+     * <h3>Example Usage:</h3>
+     * <pre>
+     * ExecutorService workers = Executors.newFixedThreadPool(8);
+     * engine.runAsync("checkout", context, workers)
+     *       .thenAccept(result -&gt; log.info("checkout finished: {}", result.status));
+     * </pre>
+     *
+     * @param workflowName the name of the workflow in {@link FlowConfig#workflows}
+     * @param context execution data for this run; must not be shared with concurrent runs
+     * @param executor executor running the steps, guards and continuations of this run
+     * @return a future completed with the workflow outcome
+     * @throws NullPointerException if {@code executor} is null
+     */
+    public CompletableFuture<StepResult> runAsync(String workflowName, ExecutionContext context, Executor executor) {
+        Objects.requireNonNull(executor, "executor");
+        WorkflowPlan plan = plans.get(workflowName);
+        if (plan == null) {
+            LOGGER.warn("Workflow not found: {}. Available: {}", workflowName, config.workflows.keySet());
+            return CompletableFuture.completedFuture(
+                    new StepResult(StepResult.Status.FAILURE, "Workflow not found: " + workflowName));
+        }
+        boolean logged = sampleRunLog();
+        if (logged) {
+            LOGGER.info("Starting workflow: {} (root={})", workflowName, plan.nameOf(plan.root));
+        }
+        return startAsync(plan, context, executor, !logged);
+    }
+
+    private CompletableFuture<StepResult> startAsync(WorkflowPlan plan, ExecutionContext context, Executor executor, boolean quiet) {
+        RunGate gate = runGate;
+        if (gate != null && !gate.tryEnter()) {
+            return CompletableFuture.completedFuture(rejected(plan, gate));
+        }
+        RunState run = new RunState(plan, context);
+        run.quiet = quiet;
+        startObservers(run);
+        Executor branches = parallelExecutor;
+        run.branchExecutor = branches != null ? branches : executor;
+        AsyncRun task = new AsyncRun(run, executor, gate);
+        task.resubmit(executor);
+        return task.future;
+    }
+
+    /**
+     * Returns a processor running the workflow once per received context, with default
+     * {@link StreamOptions}.
+     *
+     * @see #stream(String, StreamOptions)
+     */
+    public Flow.Processor<ExecutionContext, StepResult> stream(String workflowName) {
+        return stream(workflowName, StreamOptions.defaults());
+    }
+
+    /**
+     * Returns a {@link Flow.Processor} that runs the workflow for every {@link ExecutionContext}
+     * published to it and publishes one {@link StepResult} per input.
+     *
+     * <p>Backpressure is demand-based: the processor holds at most
+     * {@link StreamOptions#getMaxInFlight()} inputs (running, or finished and waiting for downstream
+     * demand) and requests the next input from upstream only after emitting a result. Nothing is
+     * buffered beyond that bound, so a slow consumer slows down the producer instead of growing a
+     * queue. Results are emitted in completion order, or in input order with
+     * {@link StreamOptions#isOrdered()}.
+     *
+     * <p>Runs execute as in {@link #runAsync} on {@link StreamOptions#getExecutor()}. Workflow
+     * failures are ordinary FAILURE results; the stream ends with {@code onError} only if upstream
+     * signals an error or a run completes exceptionally. Cancelling the downstream subscription
+     * cancels upstream and the runs still in flight.
+     *
+     * <h3>Example Usage:</h3>
+     * <pre>
+     * Flow.Processor&lt;ExecutionContext, StepResult&gt; processor =
+     *         engine.stream("ingest", StreamOptions.builder().maxInFlight(32).build());
+     * publisher.subscribe(processor);
+     * processor.subscribe(resultSubscriber);
+     * </pre>
+     *
+     * @param workflowName the name of the workflow in {@link FlowConfig#workflows}
+     * @param options in-flight bound, ordering and executor
+     * @return a new single-subscriber processor
+     */
+    public Flow.Processor<ExecutionContext, StepResult> stream(String workflowName, StreamOptions options) {
+        StreamOptions opts = options != null ? options : StreamOptions.defaults();
+        WorkflowPlan plan = plans.get(workflowName);
+        if (plan == null) {
+            LOGGER.warn("Workflow not found: {}. Available: {}", workflowName, config.workflows.keySet());
+            StepResult notFound = new StepResult(StepResult.Status.FAILURE, "Workflow not found: " + workflowName);
+            return new WorkflowProcessor(ctx -> CompletableFuture.completedFuture(notFound), opts);
+        }
+        Executor executor = opts.getExecutor() != null ? opts.getExecutor() : defaultExecutor;
+        LOGGER.info("Streaming workflow: {} (root={}, maxInFlight={}, ordered={})",
+                workflowName, plan.nameOf(plan.root), opts.getMaxInFlight(), opts.isOrdered());
+        return new WorkflowProcessor(ctx -> startAsync(plan, ctx, executor, true), opts);
+    }
+
+    /**
+     * Runs one workflow over many inputs and returns the results in input order.
+     *
+     * <p>The workflow plan is resolved once for the whole batch. Inputs are split into partitions
+     * of consecutive contexts that a bounded set of workers ({@link BatchOptions#getMaxParallelism()})
+     * claim one at a time and run sequentially, so THREAD-scoped components are reused across each
+     * worker's inputs. Per-run INFO logging is reduced to DEBUG; the batch logs one summary line.
+     *
+     * <p>Each input is an independent run: failures do not affect other inputs unless
+     * {@link BatchOptions#isFailFast()} is set, in which case inputs not yet started when the first
+     * failure is observed complete with a FAILURE result whose message starts with "Skipped:".
+     *
+     * <h3>Example Usage:</h3>
+     * <pre>
+     * List&lt;StepResult&gt; results = engine.runBatch("reconcile", contexts,
+     *         BatchOptions.builder().maxParallelism(16).build());
+     * </pre>
+     *
+     * @param workflowName the name of the workflow in {@link FlowConfig#workflows}
+     * @param inputs one context per run; contexts must be distinct objects
+     * @param options parallelism, partitioning and fail-fast settings
+     * @return one result per input, in input order
+     */
+    public List<StepResult> runBatch(String workflowName, List<ExecutionContext> inputs, BatchOptions options) {
+        WorkflowPlan plan = plans.get(workflowName);
+        if (plan == null) {
+            LOGGER.warn("Workflow not found: {}. Available: {}", workflowName, config.workflows.keySet());
+            StepResult notFound = new StepResult(StepResult.Status.FAILURE, "Workflow not found: " + workflowName);
+            return new ArrayList<>(Collections.nCopies(inputs.size(), notFound));
+        }
+        BatchOptions opts = options != null ? options : BatchOptions.defaults();
+        long start = System.nanoTime();
+        BatchRun batch = new BatchRun(inputs, opts, ctx -> executeWorkflow(plan, ctx, true), null);
+        batch.start(batchExecutor(opts)).join();
+        List<StepResult> results = Arrays.asList(batch.results());
+        logBatchSummary(workflowName, results, start);
+        return results;
+    }
+
+    /**
+     * Runs one workflow over many inputs like {@link #runBatch}, returning the results as a stream
+     * in completion order. Results are produced while the batch runs; each result carries its input
+     * context. Closing the stream early skips the inputs that have not started yet.
+     *
+     * @param workflowName the name of the workflow in {@link FlowConfig#workflows}
+     * @param inputs one context per run; contexts must be distinct objects
+     * @param options parallelism, partitioning and fail-fast settings
+     * @return a sequential stream of exactly {@code inputs.size()} results
+     */
+    public Stream<StepResult> streamBatch(String workflowName, List<ExecutionContext> inputs, BatchOptions options) {
+        WorkflowPlan plan = plans.get(workflowName);
+        if (plan == null) {
+            return runBatch(workflowName, inputs, options).stream();
+        }
+        BatchOptions opts = options != null ? options : BatchOptions.defaults();
+        int size = inputs.size();
+        BlockingQueue<StepResult> completed = new LinkedBlockingQueue<>();
+        BatchRun batch = new BatchRun(inputs, opts, ctx -> executeWorkflow(plan, ctx, true), completed::add);
+        batch.start(batchExecutor(opts));
+        Iterator<StepResult> iterator = new Iterator<StepResult>() {
+            private int taken;
+
+            @Override
+            public boolean hasNext() {
+                return taken < size;
+            }
+
+            @Override
+            public StepResult next() {
+                if (taken >= size) throw new NoSuchElementException();
+                try {
+                    StepResult result = completed.take();
+                    taken++;
+                    return result;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    batch.abort();
+                    throw new IllegalStateException("Interrupted while waiting for batch results", e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(iterator, size, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(batch::abort);
+    }
+
+    /** Explicit executor, else virtual threads in VIRTUAL_THREADS mode, else {@code null} (the batch owns a pool). */
+    private Executor batchExecutor(BatchOptions opts) {
+        if (opts.getExecutor() != null) {
+            return opts.getExecutor();
+        }
+        return executionMode == ExecutionMode.VIRTUAL_THREADS ? defaultExecutor : null;
+    }
+
+    private void logBatchSummary(String workflowName, List<StepResult> results, long startNanos) {
+        int failed = 0;
+        for (StepResult r : results) {
+            if (r.status == StepResult.Status.FAILURE) failed++;
+        }
+        LOGGER.info("Batch of workflow {} finished: {} input(s), {} failed, {} ms", workflowName, results.size(), failed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
     }
 
     public FlowConfig getConfig() {
         return config;
     }
+
+    /**
+     * Sets the executor running the branches of {@code kind: parallel} fan-outs.
+     *
+     * <p>When unset, branches of {@link #runAsync} runs use the run's executor and branches of
+     * synchronous {@link #run} calls use the default of the {@linkplain #setExecutionMode execution
+     * mode}: {@link ForkJoinPool#commonPool()} for {@link ExecutionMode#PLATFORM_THREADS} (a thread
+     * per branch when the common pool is not parallel, as {@link CompletableFuture} does), and a
+     * virtual thread per branch for {@link ExecutionMode#VIRTUAL_THREADS}. Configure a dedicated
+     * executor when branch steps block on I/O on platform threads.
+     *
+     * @param executor branch executor, or {@code null} to restore the defaults
+     */
+    public void setParallelExecutor(Executor executor) {
+        this.parallelExecutor = executor;
+    }
+
+    /**
+     * Selects the threads used for work the engine schedules itself: branches of synchronous runs,
+     * batch workers and streamed runs without an explicit executor.
+     *
+     * <p>With {@link ExecutionMode#VIRTUAL_THREADS} each of them runs on its own virtual thread, so
+     * blocking steps and retry waits park instead of occupying a platform thread. Engine internals
+     * use no monitors on these paths, so carriers are not pinned.
+     *
+     * @param mode the execution mode; {@code null} restores {@link ExecutionMode#PLATFORM_THREADS}
+     * @throws UnsupportedOperationException if virtual threads are requested on Java 17-20
+     */
+    public void setExecutionMode(ExecutionMode mode) {
+        ExecutionMode effective = mode != null ? mode : ExecutionMode.PLATFORM_THREADS;
+        this.defaultExecutor = effective == ExecutionMode.VIRTUAL_THREADS
+                ? Threads.virtualThreadPerTask()
+                : DEFAULT_EXECUTOR;
+        this.executionMode = effective;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Installs a recorder for run, step, guard and edge metrics, or removes it.
+     *
+     * <p>Every compiled workflow is {@linkplain MetricsRecorder#register registered} immediately and
+     * runs started afterwards report to it; runs already in flight keep the recorder they started
+     * with. Without a recorder (the default) the engine neither reads the clock nor calls out, so
+     * metrics cost nothing when disabled.
+     *
+     * <h3>Example Usage:</h3>
+     * <pre>
+     * DefaultMetricsRecorder metrics = new DefaultMetricsRecorder();
+     * engine.setMetricsRecorder(metrics);
+     * engine.run("checkout", context);
+     * MetricsSnapshot.Workflow checkout = metrics.snapshot().workflow("checkout");
+     * </pre>
+     *
+     * @param recorder the recorder, or {@code null} to disable metrics
+     */
+    public void setMetricsRecorder(MetricsRecorder recorder) {
+        if (recorder == null) {
+            this.workflowMetrics = null;
+            this.metricsRecorder = null;
+            return;
+        }
+        WorkflowMetrics[] handles = new WorkflowMetrics[plans.size()];
+        for (WorkflowPlan plan : plans.values()) {
+            handles[plan.id] = Objects.requireNonNull(recorder.register(plan.describe()),
+                    "MetricsRecorder.register returned null for workflow " + plan.name);
+        }
+        this.metricsRecorder = recorder;
+        this.workflowMetrics = handles;
+    }
+
+    /** Returns the installed metrics recorder, or {@code null} when metrics are disabled. */
+    public MetricsRecorder getMetricsRecorder() {
+        return metricsRecorder;
+    }
+
+    /**
+     * Registers an {@link ExecutionListener} for runs started from now on. Listeners are called in
+     * registration order; registering the same listener twice calls it twice.
+     *
+     * @throws NullPointerException if {@code listener} is null
+     */
+    public synchronized void addExecutionListener(ExecutionListener listener) {
+        Objects.requireNonNull(listener, "listener");
+        ExecutionListener[] current = listeners;
+        ExecutionListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        this.listeners = updated;
+    }
+
+    /**
+     * Removes one registration of {@code listener}; runs already in flight keep notifying it.
+     *
+     * @return true if the listener was registered
+     */
+    public synchronized boolean removeExecutionListener(ExecutionListener listener) {
+        ExecutionListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                ExecutionListener[] updated = new ExecutionListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                this.listeners = updated;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Caps the number of top-level runs ({@link #run}, {@link #runAsync}, batch and stream runs)
+     * executing at once. A run started at the limit is not queued: it returns, or completes its
+     * future with, a FAILURE result immediately and no listener or metric sees it. The limit can be
+     * changed at any time; runs already executing are unaffected. A run whose {@link #runAsync}
+     * future is cancelled holds its slot until it stops at its next step boundary.
+     *
+     * <p>Once a limit has been set the engine keeps counting runs in flight, even after the limit
+     * is set back to {@code 0}.
+     *
+     * @param maxRuns the maximum number of concurrent runs, or {@code 0} for no limit
+     * @throws IllegalArgumentException if {@code maxRuns} is negative
+     */
+    public void setMaxConcurrentRuns(int maxRuns) {
+        if (maxRuns < 0) {
+            throw new IllegalArgumentException("maxConcurrentRuns must not be negative, got " + maxRuns);
+        }
+        if (maxRuns == 0 && runGate == null) {
+            return;
+        }
+        runGate().limit(maxRuns);
+    }
+
+    /** Returns the limit set by {@link #setMaxConcurrentRuns}; {@code 0} when runs are unlimited. */
+    public int getMaxConcurrentRuns() {
+        RunGate gate = runGate;
+        return gate != null ? gate.limit() : 0;
+    }
+
+    /**
+     * Sets the fraction of {@link #run} and {@link #runAsync} calls that log their start and
+     * completion at INFO; the others log them at DEBUG. Use it to keep INFO logs readable at high
+     * run rates. Batch and stream runs always log at DEBUG.
+     *
+     * @param rate between {@code 0.0} (no run logged at INFO) and {@code 1.0} (every run, the default)
+     * @throws IllegalArgumentException if {@code rate} is outside {@code [0, 1]}
+     */
+    public void setRunLogSampleRate(double rate) {
+        if (!(rate >= 0.0 && rate <= 1.0)) {
+            throw new IllegalArgumentException("runLogSampleRate must be between 0 and 1, got " + rate);
+        }
+        this.runLogSampleRate = rate;
+    }
+
+    public double getRunLogSampleRate() {
+        return runLogSampleRate;
+    }
+
+    /**
+     * Registers an {@link EngineMXBean} for this engine with the platform MBean server under
+     * {@code com.stepflow:type=Engine,name=<name>}.
+     *
+     * <p>The MBean reports runs in flight, run throughput, per-workflow outcomes and retries, the
+     * branch executor, the retry timer and the {@code @CacheableGuard} caches, and lets operators
+     * change {@linkplain #setMaxConcurrentRuns the run limit} and
+     * {@linkplain #setRunLogSampleRate the log sample rate} at runtime. Its statistics cover runs
+     * started after registration. While registered, every run reads the clock and notifies the
+     * MBean as an {@link ExecutionListener}.
+     *
+     * <p>The platform MBean server holds a strong reference to the MBean, and through it to this
+     * engine, its plans and its components, until {@link #unregisterMBean()} is called: an engine
+     * that is discarded while registered is never garbage collected and keeps its name taken.
+     * Unregister engines that are rebuilt at runtime (e.g. on configuration reload) before
+     * dropping them.
+     *
+     * <h3>Example Usage:</h3>
+     * <pre>
+     * ObjectName name = engine.registerMBean("orders");
+     * // jconsole: com.stepflow / Engine / orders
+     * engine.unregisterMBean();
+     * </pre>
+     *
+     * @param name distinguishes this engine from others in the JVM
+     * @return the name the MBean was registered under
+     * @throws IllegalStateException if this engine's MBean is already registered, or the MBean
+     *                               server refuses it (e.g. another engine uses the same name)
+     */
+    public synchronized ObjectName registerMBean(String name) {
+        Objects.requireNonNull(name, "name");
+        if (management != null) {
+            throw new IllegalStateException("Engine MBean already registered as " + management.objectName());
+        }
+        EngineManagement mbean;
+        try {
+            mbean = new EngineManagement(this, new ObjectName("com.stepflow:type=Engine,name=" + quoteIfNeeded(name)),
+                    plans.keySet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, mbean.objectName());
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register engine MBean '" + name + "': " + e.getMessage(), e);
+        }
+        runGate();
+        addExecutionListener(mbean.listener());
+        this.management = mbean;
+        LOGGER.info("Registered engine MBean {}", mbean.objectName());
+        return mbean.objectName();
+    }
+
+    /**
+     * Unregisters the MBean registered by {@link #registerMBean}; does nothing when none is.
+     *
+     * @throws IllegalStateException if the MBean server fails to unregister it
+     */
+    public synchronized void unregisterMBean() {
+        EngineManagement mbean = management;
+        if (mbean == null) {
+            return;
+        }
+        this.management = null;
+        removeExecutionListener(mbean.listener());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(mbean.objectName())) {
+                server.unregisterMBean(mbean.objectName());
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister engine MBean " + mbean.objectName(), e);
+        }
+    }
+
+    /**
+     * Keeps compact traces of recent runs in a fixed-size, lock-free in-memory ring: run start,
+     * each step attempt with its status and duration, guard outcomes, retries, transitions and the
+     * final status. An entry takes 24 bytes and recording one costs an atomic increment and two array
+     * writes, so tracing can stay on in production; the oldest entries are overwritten first.
+     * Decode the ring on demand with {@link #recentTraces}, through the {@link EngineMXBean}, or
+     * automatically for failed runs with {@link #setLogTraceOnFailure}.
+     *
+     * <p>Changing the capacity starts a new, empty ring; runs already in flight finish recording
+     * into the previous one.
+     *
+     * <h3>Example Usage:</h3>
+     * <pre>
+     * engine.setTraceBufferCapacity(64 * 1024); // 1.5 MB
+     * ...
+     * engine.recentTraces(10).forEach(trace -&gt; log.info("{}", trace));
+     * </pre>
+     *
+     * @param entries entries to keep, rounded up to a power of two of at least 1024; {@code 0} turns tracing off
+     * @throws IllegalArgumentException if {@code entries} is negative
+     */
+    public void setTraceBufferCapacity(int entries) {
+        if (entries < 0) {
+            throw new IllegalArgumentException("trace buffer capacity must not be negative, got " + entries);
+        }
+        this.traceBuffer = entries == 0 ? null : new TraceBuffer(entries);
+    }
+
+    /** Returns the number of entries the trace ring holds; {@code 0} when tracing is off. */
+    public int getTraceBufferCapacity() {
+        TraceBuffer trace = traceBuffer;
+        return trace != null ? trace.capacity() : 0;
+    }
+
+    /**
+     * Decodes the traces of the most recently active runs still in the trace ring.
+     *
+     * @param runs maximum number of runs to return
+     * @return traces, most recently active run first; empty when tracing is off
+     */
+    public List<RunTrace> recentTraces(int runs) {
+        TraceBuffer trace = traceBuffer;
+        if (trace == null || runs <= 0) {
+            return Collections.emptyList();
+        }
+        return trace.decode(runs, -1L, plansById());
+    }
+
+    /**
+     * Logs the decoded trace of every run that ends with a FAILURE result at WARN. Each failure
+     * scans the trace ring, so keep the ring small if runs fail in bulk. Has no effect while
+     * tracing is off.
+     */
+    public void setLogTraceOnFailure(boolean enabled) {
+        this.logTraceOnFailure = enabled;
+    }
+
+    public boolean isLogTraceOnFailure() {
+        return logTraceOnFailure;
+    }
+
+    /**
+     * Keeps the traces of the runs worth a look — failed, out of retries, or slow — and writes them
+     * to a rolling file, one line per run. Every run is traced into the trace ring anyway; the
+     * sampler decides once the run has completed, so it sees outliers that sampling at run start
+     * would miss, and only kept runs are decoded. The slow-run bar is a percentile of each
+     * workflow's recent durations, recomputed from a live latency histogram; see
+     * {@link TailSampling}.
+     *
+     * <p>Turns the trace ring on at 64K entries if it is off.
+     * The ring should hold at least a few in-flight runs' worth of entries, or kept traces come
+     * out {@linkplain RunTrace#isComplete() truncated}.
+     *
+     * <h3>Example Usage:</h3>
+     * <pre>
+     * engine.setTailSampling(TailSampling.builder()
+     *     .file(Paths.get("logs/traces.log"))
+     *     .latencyPercentile(99.9)
+     *     .build());
+     * </pre>
+     *
+     * @param sampling what to keep and where, or {@code null} to stop; the previous writer is flushed and stopped
+     */
+    public synchronized void setTailSampling(TailSampling sampling) {
+        TailSampler previous = tailSampler;
+        if (sampling == null) {
+            tailSampler = null;
+        } else {
+            if (traceBuffer == null) {
+                traceBuffer = new TraceBuffer(DEFAULT_TRACE_BUFFER_CAPACITY);
+            }
+            tailSampler = new TailSampler(sampling, plansById());
+        }
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /** Returns the tail sampling options in effect, or {@code null} when tail sampling is off. */
+    public TailSampling getTailSampling() {
+        TailSampler sampler = tailSampler;
+        return sampler != null ? sampler.options() : null;
+    }
+
+    /**
+     * Measures the thread CPU time and the bytes allocated by every step attempt, next to its wall
+     * time, to tell compute-bound steps from steps that mostly wait, and to find the steps behind
+     * GC pressure. Totals are kept per step type and read with {@link #getStepResourceUsage()};
+     * {@link #analyzeWorkflow} prints them, and an installed {@link MetricsRecorder} receives each
+     * attempt through {@link WorkflowMetrics#stepResources}.
+     *
+     * <p>Off by default: each attempt costs two extra reads of the thread's CPU clock and
+     * allocation counter. Only the thread calling {@code Step.execute} is measured, so work a step
+     * hands to other threads is not counted, and attempts on virtual threads are skipped. Turning
+     * accounting on again starts from zero.
+     *
+     * <p>Measuring needs the JVM-wide thread CPU time and allocation counters of the
+     * {@link java.lang.management.ThreadMXBean}, which then cost every thread of the process a
+     * little. Whichever of them were off are turned on while at least one engine measures, and
+     * turned back off when the last one calls {@code setStepResourceAccounting(false)}; an engine
+     * dropped with accounting still on keeps them on.
+     *
+     * <h3>Example Usage:</h3>
+     * <pre>
+     * engine.setStepResourceAccounting(true);
+     * ...
+     * engine.getStepResourceUsage().values().forEach(u -&gt;
+     *     log.info("{}: {}% CPU, {} B/attempt", u.getType(), Math.round(u.getCpuShare() * 100), u.getMeanAllocatedBytes()));
+     * </pre>
+     *
+     * @param enabled whether to measure; ignored with a warning when the JVM cannot measure thread CPU time or allocation
+     */
+    public synchronized void setStepResourceAccounting(boolean enabled) {
+        if (!enabled) {
+            if (stepResources != null) {
+                this.stepResources = null;
+                StepResources.disable();
+            }
+        } else if (stepResources == null && !StepResources.enable()) {
+            LOGGER.warn("Step resource accounting unavailable: this JVM does not measure thread CPU time and allocation");
+        } else {
+            this.stepResources = new StepResources(plans.values());
+        }
+    }
+
+    public boolean isStepResourceAccounting() {
+        return stepResources != null;
+    }
+
+    /**
+     * Returns the wall time, CPU time and allocation of step attempts by step type, over every
+     * workflow, since accounting was turned on.
+     *
+     * @return usage by step type, ordered by type; empty when accounting is off
+     */
+    public Map<String, StepResourceUsage> getStepResourceUsage() {
+        StepResources resources = stepResources;
+        return resources != null ? resources.usage() : Collections.emptyMap();
+    }
+
+    private void traceCompleted(RunState run, StepResult result, long nanos) {
+        run.trace.runCompleted(run, result.status, nanos);
+        if (!result.isSuccess() && logTraceOnFailure) {
+            List<RunTrace> traces = run.trace.decode(1, run.traceId, plansById());
+            if (!traces.isEmpty()) {
+                LOGGER.warn("Workflow {} failed: {}\n{}", run.plan.name, result.message, traces.get(0));
+            }
+        }
+        TailSampler sampler = tailSampler;
+        if (sampler != null) {
+            sampler.runCompleted(run, result, nanos);
+        }
+    }
+
+    private WorkflowPlan[] plansById() {
+        WorkflowPlan[] byId = new WorkflowPlan[plans.size()];
+        for (WorkflowPlan plan : plans.values()) {
+            byId[plan.id] = plan;
+        }
+        return byId;
+    }
+
+    /** Quotes an ObjectName value containing characters that are not allowed unquoted. */
+    private static String quoteIfNeeded(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (",=:\"*?\n".indexOf(value.charAt(i)) >= 0) {
+                return ObjectName.quote(value);
+            }
+        }
+        return value;
+    }
+
+    /** Returns the run gate, installing an unlimited one on first use. */
+    synchronized RunGate runGate() {
+        RunGate gate = runGate;
+        if (gate == null) {
+            gate = new RunGate(0);
+            this.runGate = gate;
+        }
+        return gate;
+    }
+
+    /** {@code @CacheableGuard} result caches by guard name; fixed once the engine is constructed. */
+    Map<String, GuardResultCache> guardCaches() {
+        return guardCaches;
+    }
+
+    RetryScheduler retryScheduler() {
+        return retryScheduler;
+    }
+
+    /** Current tail sampler; {@code null} when tail sampling is off. */
+    TailSampler tailSampler() {
+        return tailSampler;
+    }
+
+    /** Executor running the branches of synchronous runs. */
+    Executor branchExecutor() {
+        Executor branches = parallelExecutor;
+        return branches != null ? branches : defaultExecutor;
+    }
+
+    private boolean sampleRunLog() {
+        double rate = runLogSampleRate;
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static StepResult rejected(WorkflowPlan plan, RunGate gate) {
+        LOGGER.debug("Rejected run of workflow {}: {} runs in flight", plan.name, gate.inFlight());
+        return StepResult.failure("Rejected: engine is at its limit of " + gate.limit() + " concurrent runs");
+    }
+
+    /**
+     * Binds the run to its workflow's metrics handle and the registered listeners, and starts its
+     * clock when either is present. Flight Recorder events are enabled for the run while a JFR
+     * recording is running.
+     */
+    private void startObservers(RunState run) {
+        WorkflowMetrics[] handles = workflowMetrics;
+        if (handles != null) {
+            run.metrics = handles[run.plan.id];
+        }
+        run.listeners = listeners;
+        run.resources = stepResources;
+        TraceBuffer trace = traceBuffer;
+        if (trace != null) {
+            run.trace = trace;
+            run.traceId = trace.nextRunId();
+            trace.runStarted(run);
+        }
+        if (run.observed()) {
+            run.startNanos = System.nanoTime();
+            ExecutionEvents.runStarted(run);
+        }
+        if (FlightEvents.recording()) {
+            run.jfr = true;
+            FlightEvents.runStarted(run);
+        }
+    }
     
     /**
      * Core workflow execution engine that orchestrates step-by-step progression through the workflow graph.
      * 
      * <p>This method implements the main execution loop, managing state transitions, cycle detection,
      * and coordinating between step execution and flow navigation. It continues until reaching a 
-     * terminal state (SUCCESS/FAILURE) or encountering an error condition.
+     * terminal state (SUCCESS/FAILURE) or encountering an error condition. The run is first admitted
+     * through the {@linkplain #setMaxConcurrentRuns run limit}, if one is set, and then driven on the
+     * calling thread by {@link #advance}.
      * 
      * <h3>Execution Algorithm:</h3>
      * <ol>
-     *   <li><strong>Initialize:</strong> Start from workflow.root, prepare cycle detection</li>
+     *   <li><strong>Initialize:</strong> Start from the plan's root node, prepare a visited bitset for cycle detection</li>
      *   <li><strong>Main Loop:</strong> While current step is not terminal:
      *     <ul>
      *       <li>Check for cycles (visited set)</li>
@@ -347,7 +1141,7 @@ public class Engine {
      * <h3>State Management:</h3>
      * <ul>
      *   <li><strong>Current Step:</strong> Tracks the currently executing step</li>
-     *   <li><strong>Visited Set:</strong> Prevents infinite cycles by tracking visited steps</li>
+     *   <li><strong>Visited Set:</strong> Prevents infinite cycles by tracking visited node ids in a {@link BitSet}</li>
      *   <li><strong>Context Accumulation:</strong> Merges results from each step into shared context</li>
      *   <li><strong>Last Visited:</strong> Used for transition selection and error reporting</li>
      * </ul>
@@ -405,8 +1199,10 @@ public class Engine {
      * - Else → go to 'reject' (no guard always passes)
      * </pre>
      * 
-     * @param workflow the workflow definition containing root step and edge definitions. Must not be null.
+     * @param plan the compiled workflow plan containing root node and per-node outgoing edges. Must not be null.
      * @param context shared execution context that accumulates data from each step. Must not be null.
+     * @param quiet whether per-run INFO logging is reduced to DEBUG (batches, streams, and runs left
+     *              out by {@link #setRunLogSampleRate})
      * @return SUCCESS status with accumulated context if terminal reached normally,
      *         FAILURE status with error details if execution fails due to:
      *         <ul>
@@ -419,51 +1215,313 @@ public class Engine {
      * @see #findNextStep for transition selection mechanics  
      * @see #isTerminal for terminal state definitions
      */
-    private StepResult executeWorkflow(FlowConfig.WorkflowDef workflow, ExecutionContext context) {
-        String current = workflow.root;
-        String lastVisited = null;
-        Set<String> visited = new HashSet<>();
-
-        while (current != null && !isTerminal(current)) {
-            if (visited.contains(current)) {
-                LOGGER.error("Cycle detected at step: {}", current);
-                return StepResult.failure("Circular dependency detected at: " + current);
+    private StepResult executeWorkflow(WorkflowPlan plan, ExecutionContext context, boolean quiet) {
+        RunGate gate = runGate;
+        if (gate == null) {
+            return drive(plan, context, quiet);
+        }
+        if (!gate.tryEnter()) {
+            return rejected(plan, gate);
+        }
+        try {
+            return drive(plan, context, quiet);
+        } finally {
+            gate.exit();
+        }
+    }
+
+    private StepResult drive(WorkflowPlan plan, ExecutionContext context, boolean quiet) {
+        // The calling thread owns the run until it returns, so its state can come from the plan's pool
+        RunState run = plan.runStates.acquire(context);
+        run.quiet = quiet;
+        startObservers(run);
+        Executor branches = parallelExecutor;
+        run.branchExecutor = branches != null ? branches : defaultExecutor;
+        try {
+            long next;
+            while ((next = advance(run)) != DONE) {
+                if (next == SUSPEND) {
+                    run.fork.done.join();
+                } else if (next > 0) {
+                    // The caller needs the result, so it waits; the delay itself is owned by the shared timer
+                    retryScheduler.await(next);
+                }
             }
-            visited.add(current);
+            return run.result;
+        } finally {
+            // Also when a component throws an Error, so the pooled state is reset and reused
+            plan.runStates.release(run);
+        }
+    }
 
-            LOGGER.debug("Executing step: {}", current);
-            StepResult result = executeStep(current, context);
-            if (result.status == StepResult.Status.FAILURE) {
-                LOGGER.error("Step failed: {} message={} contextKeys={}", current, result.message, result.context.keySet());
-                return result;
+    /**
+     * Advances a run by one slice of work and reports how the caller should continue.
+     *
+     * <p>All position information lives in {@link RunState}, so the same state machine drives
+     * both the synchronous {@link #run} loop and the continuation-based {@link #runAsync}.
+     *
+     * @return {@link #DONE} when {@code run.result} is set, {@link #YIELD} at a step boundary,
+     *         {@code 0} to continue immediately, or a positive delay in milliseconds before the
+     *         next slice (step retry backoff or edge guard RETRY delay)
+     */
+    private long advance(RunState run) {
+        switch (run.phase) {
+            case ENTER:
+                return enterNode(run);
+            case ATTEMPT:
+                return executeWithOptionalRetry(run, run.plan.nodes[run.current]);
+            case ROUTE:
+                WorkflowPlan.StepNode node = run.plan.nodes[run.current];
+                if (node.branches.length > 0) {
+                    return fork(run, node);
+                }
+                return applySelection(run, node, findNextStep(run, node));
+            case EDGE_RETRY:
+                return retryEdgeGuard(run, run.plan.nodes[run.current]);
+            case JOIN:
+                return completeFork(run);
+            default:
+                throw new IllegalStateException("Unknown run phase: " + run.phase);
+        }
+    }
+
+    /**
+     * Returns the context a successful run hands back: the run context itself, or a new context
+     * holding only the workflow's declared {@code outputs}.
+     */
+    private static ExecutionContext outputsOf(RunState run) {
+        String[] outputs = run.plan.outputs;
+        if (outputs == null) {
+            return run.context;
+        }
+        ExecutionContext projected = new ExecutionContext();
+        for (String key : outputs) {
+            if (run.context.containsKey(key)) {
+                projected.put(key, run.context.get(key));
             }
+        }
+        return projected;
+    }
 
-            context.putAll(result.context);
+    /**
+     * Removes the keys that are no longer live once the run moves from {@code from} to {@code to}
+     * ({@code memory: aggressive} only). A branch releases on its own copy; the removal reaches the
+     * parent through the join merge.
+     */
+    private static void releaseDeadKeys(WorkflowPlan plan, ExecutionContext context, int from, int to) {
+        if (!plan.releaseDeadKeys) {
+            return;
+        }
+        for (String key : plan.liveness.deadOn(from, to)) {
+            context.remove(key);
+        }
+    }
 
-            lastVisited = current;
-            NextSelection sel = findNextStep(workflow, lastVisited, context);
-            if (sel.action == NextSelection.Kind.FAIL) {
-                String msg = sel.failureMessage != null ? sel.failureMessage :
-                        ("Transition failed from step: " + lastVisited);
-                LOGGER.warn("Transition failure after step {}: {}", lastVisited, msg);
-                return StepResult.failure(msg);
+    /** Removes every input key the workflow never reads and does not return ({@code memory: aggressive}). */
+    private static void releaseInputKeys(RunState run) {
+        Set<String> live = run.plan.liveness.live(run.current);
+        List<String> unused = new ArrayList<>();
+        for (String key : run.context.keySet()) {
+            if (!live.contains(key)) {
+                unused.add(key);
             }
-            if (sel.action == NextSelection.Kind.NEXT) {
-                LOGGER.debug("Transition: {} -> {}", lastVisited, sel.next);
-                current = sel.next;
-            } else if (sel.action == NextSelection.Kind.NONE) {
-                LOGGER.error("No eligible transition from step: {}", lastVisited);
-                return StepResult.failure("No eligible transition from step: " + lastVisited);
-            } else { // SKIP shouldn't leak here; treat as no eligible
-                LOGGER.error("Unexpected SKIP at selection phase from step: {}", lastVisited);
-                return StepResult.failure("No eligible transition from step: " + lastVisited);
+        }
+        for (String key : unused) {
+            run.context.remove(key);
+        }
+    }
+
+    /** Terminal and cycle checks for {@code run.current}, then step preparation. */
+    private long enterNode(RunState run) {
+        WorkflowPlan plan = run.plan;
+        int current = run.current;
+        if (current != WorkflowPlan.NO_NODE && current == run.stopAt) {
+            LOGGER.debug("Parallel branch reached join: {}", plan.nameOf(current));
+            return finish(run, StepResult.success(run.context));
+        }
+        if (current == WorkflowPlan.NO_NODE || plan.nodes[current].terminal) {
+            if (run.quiet) {
+                LOGGER.debug("Workflow completed successfully. Terminal reached or no steps.");
+            } else {
+                LOGGER.info("Workflow completed successfully. Terminal reached or no steps.");
             }
+            return finish(run, StepResult.success(outputsOf(run)));
         }
+        WorkflowPlan.StepNode node = plan.nodes[current];
+        if (plan.releaseDeadKeys && run.visited.isEmpty() && run.stopAt == WorkflowPlan.NO_NODE) {
+            releaseInputKeys(run);
+        }
+        if (run.visited.get(current)) {
+            LOGGER.error("Cycle detected at step: {}", node.name);
+            return finish(run, StepResult.failure("Circular dependency detected at: " + node.name));
+        }
+        run.visited.set(current);
 
-        LOGGER.info("Workflow completed successfully. Terminal reached or no steps.");
-        return StepResult.success(context);
+        if (node.join != null) {
+            // Join nodes execute nothing; routing continues from their outgoing edges
+            run.edgeIndex = 0;
+            run.phase = RunState.Phase.ROUTE;
+            return CONTINUE;
+        }
+        LOGGER.debug("Executing step: {}", node.name);
+        return executeStep(run, node);
     }
-    
+
+    /**
+     * Starts the parallel branches of a fork node. Each branch whose edge guard passes (or has no guard)
+     * runs on {@code run.branchExecutor} with its own copy of the context until it reaches the join.
+     * The run itself suspends until {@link Fork#done}, then resumes in {@link #completeFork}.
+     */
+    private long fork(RunState run, WorkflowPlan.StepNode node) {
+        Fork fork = new Fork(node, run.plan.nodes[node.forkJoin]);
+        List<AsyncRun> tasks = new ArrayList<>(node.branches.length);
+        for (WorkflowPlan.EdgeNode edge : node.branches) {
+            if (edge.guard != null && !evaluateSingleGuard(run, edge.guard)) {
+                LOGGER.debug("Parallel branch {} -> {} not started: guard '{}' returned false", node.name, edge.to, edge.guard.name);
+                continue;
+            }
+            if (run.metrics != null) {
+                run.metrics.edgeTraversed(edge.id);
+            }
+            if (run.trace != null) {
+                run.trace.transition(run, edge.id);
+            }
+            ExecutionEvents.transitionTaken(run, node.name, edge.to);
+            if (run.jfr) {
+                FlightEvents.transition(run, node.name, edge.to);
+            }
+            RunState branch = run.branch(edge.target, node.forkJoin);
+            releaseDeadKeys(run.plan, branch.context, node.id, edge.target);
+            AsyncRun task = new AsyncRun(branch, run.branchExecutor, null);
+            fork.add(edge.to, task);
+            tasks.add(task);
+        }
+        fork.seal();
+        LOGGER.debug("Forked {} branch(es) from {} {} joining at {}", fork.size(), node.name, fork.names(), fork.join.name);
+        run.fork = fork;
+        run.phase = RunState.Phase.JOIN;
+        for (AsyncRun task : tasks) {
+            task.resubmit(run.branchExecutor);
+        }
+        return SUSPEND;
+    }
+
+    /** Applies the outcome of the converged branches and continues from the join node. */
+    private long completeFork(RunState run) {
+        Fork fork = run.fork;
+        run.fork = null;
+        run.retriesExhausted |= fork.retriesExhausted();
+        StepResult failure = fork.failure();
+        if (failure != null) {
+            LOGGER.error("Parallel branch failed after step {}: {}", fork.node.name, failure.message);
+            return finish(run, failure);
+        }
+        fork.mergeInto(run.context);
+        LOGGER.debug("Transition: {} -> {} (join)", fork.node.name, fork.join.name);
+        if (run.trace != null) {
+            run.trace.join(run, fork.join);
+        }
+        ExecutionEvents.transitionTaken(run, fork.node.name, fork.join.name);
+        if (run.jfr) {
+            FlightEvents.transition(run, fork.node.name, fork.join.name);
+        }
+        run.current = fork.join.id;
+        run.phase = RunState.Phase.ENTER;
+        return YIELD;
+    }
+
+    /** Records the step outcome: failures end the run, successes merge their context and start routing. */
+    private long stepCompleted(RunState run, WorkflowPlan.StepNode node, StepResult result) {
+        run.step = null;
+        run.lastResult = null;
+        if (result.status == StepResult.Status.FAILURE) {
+            LOGGER.error("Step failed: {} message={} contextKeys={}", node.name, result.message, result.context.keySet());
+            return finish(run, result);
+        }
+        mergeOutput(run.context, result.context);
+        run.edgeIndex = 0;
+        run.phase = RunState.Phase.ROUTE;
+        return CONTINUE;
+    }
+
+    /**
+     * Merges step output into the run context. A step returning the context it was given has
+     * already written everything in place; another {@link ExecutionContext} contributes only its
+     * {@linkplain ExecutionContext#getChangedKeys() changed keys}; any other map is merged whole.
+     */
+    private static void mergeOutput(ExecutionContext target, Map<String, Object> output) {
+        if (output == target || output.isEmpty()) {
+            return;
+        }
+        if (output instanceof ExecutionContext) {
+            ExecutionContext produced = (ExecutionContext) output;
+            for (String key : produced.getChangedKeys()) {
+                if (produced.containsKey(key)) {
+                    target.put(key, produced.get(key));
+                }
+            }
+            return;
+        }
+        target.putAll(output);
+    }
+
+    /** Turns a transition decision into the next cursor position (or the final result). */
+    private long applySelection(RunState run, WorkflowPlan.StepNode node, NextSelection sel) {
+        switch (sel) {
+            case NEXT:
+                LOGGER.debug("Transition: {} -> {}", node.name, run.plan.nameOf(run.selected));
+                if (run.metrics != null) {
+                    run.metrics.edgeTraversed(run.selectedEdge);
+                }
+                if (run.trace != null) {
+                    run.trace.transition(run, run.selectedEdge);
+                }
+                ExecutionEvents.transitionTaken(run, node.name, run.plan.nameOf(run.selected));
+                if (run.jfr) {
+                    FlightEvents.transition(run, node.name, run.plan.nameOf(run.selected));
+                }
+                releaseDeadKeys(run.plan, run.context, node.id, run.selected);
+                run.current = run.selected;
+                run.phase = RunState.Phase.ENTER;
+                return YIELD;
+            case RETRY:
+                run.edgeAttempt = 0;
+                run.phase = RunState.Phase.EDGE_RETRY;
+                return CONTINUE;
+            case FAIL:
+                String msg = run.failureMessage != null ? run.failureMessage :
+                        ("Transition failed from step: " + node.name);
+                LOGGER.warn("Transition failure after step {}: {}", node.name, msg);
+                return finish(run, StepResult.failure(msg));
+            case NONE:
+                LOGGER.error("No eligible transition from step: {}", node.name);
+                return finish(run, StepResult.failure("No eligible transition from step: " + node.name));
+            default: // SKIP shouldn't leak here; treat as no eligible
+                LOGGER.error("Unexpected SKIP at selection phase from step: {}", node.name);
+                return finish(run, StepResult.failure("No eligible transition from step: " + node.name));
+        }
+    }
+
+    private long finish(RunState run, StepResult result) {
+        if (run.stopAt == WorkflowPlan.NO_NODE && run.observed()) {
+            long nanos = System.nanoTime() - run.startNanos;
+            if (run.metrics != null) {
+                run.metrics.runCompleted(nanos, result.isSuccess());
+            }
+            if (run.trace != null) {
+                traceCompleted(run, result, nanos);
+            }
+            ExecutionEvents.runCompleted(run, result, nanos);
+        }
+        if (run.runEvent != null) {
+            FlightEvents.runCompleted(run, result);
+        }
+        run.result = result;
+        run.step = null;
+        run.lastResult = null;
+        return DONE;
+    }
+
     /**
      * Executes a single step with comprehensive guard evaluation, dependency injection, and retry logic.
      * 
@@ -473,12 +1531,12 @@ public class Engine {
      * 
      * <h3>Execution Sequence:</h3>
      * <ol>
-     *   <li><strong>Step Definition Lookup:</strong> Find step configuration in {@link FlowConfig#steps}</li>
+     *   <li><strong>Step Definition Lookup:</strong> Use the step configuration captured in the compiled node</li>
      *   <li><strong>Step-Level Guard Evaluation:</strong> Check all guards in step.guards (ALL must pass)</li>
-     *   <li><strong>Component Resolution:</strong> Locate Step implementation class via {@link ComponentScanner}</li>
-     *   <li><strong>Component Instantiation:</strong> Create new step instance using default constructor</li>
-     *   <li><strong>Configuration Merging:</strong> Merge defaults with step-specific config</li>
-     *   <li><strong>Dependency Injection:</strong> Inject context data, config values, and settings</li>
+     *   <li><strong>Component Resolution:</strong> Use the Step class pre-resolved via {@link ComponentScanner} at compile time</li>
+     *   <li><strong>Component Instantiation:</strong> Obtain the step instance from its scoped provider (new instance for PROTOTYPE, shared for SINGLETON/THREAD); config is injected once per instance</li>
+     *   <li><strong>Configuration Merging:</strong> Use the effective config (defaults + step config) precomputed at compile time</li>
+     *   <li><strong>Dependency Injection:</strong> Inject context-derived values (@Inject, context field matching) on every execution</li>
      *   <li><strong>Execution with Retry:</strong> Execute step with optional engine-driven retry</li>
      * </ol>
      * 
@@ -620,106 +1678,168 @@ public class Engine {
      *   <li><strong>Retry Succeeds:</strong> Returns SUCCESS from successful retry attempt</li>
      * </ul>
      * 
-     * @param stepName the name of the step in {@link FlowConfig#steps}. Must not be null.
-     * @param context the current execution context containing shared data. Must not be null.
-     * @return SUCCESS status if step executes successfully or is skipped due to guards,
-     *         FAILURE status if step definition missing, implementation not found, 
-     *         instantiation fails, dependency injection fails, or step execution fails.
-     *         Result context contains any data produced by the step.
+     * @param node the compiled node for the step, carrying its definition, resolved class and effective config. Must not be null.
+     * @param run the run state holding the execution context and cursor. Must not be null.
+     * @return the {@link #advance} code for the driver. When the step is skipped or cannot be prepared,
+     *         the outcome is recorded immediately: SUCCESS if skipped due to guards, FAILURE if the step
+     *         definition is missing, the implementation is not found, or instantiation/injection fails.
+     *         Otherwise the cursor moves to the ATTEMPT phase handled by {@link #executeWithOptionalRetry}.
      * @throws RuntimeException if unrecoverable errors occur during component scanning or injection
      * @see #executeWithOptionalRetry for retry mechanism details
      * @see #evaluateGuards for guard evaluation logic
      * @see DependencyInjector#injectDependencies for injection details
      */
-    private StepResult executeStep(String stepName, ExecutionContext context) {
-        FlowConfig.StepDef stepDef = config.steps.get(stepName);
+    private long executeStep(RunState run, WorkflowPlan.StepNode node) {
+        ExecutionContext context = run.context;
+        FlowConfig.StepDef stepDef = node.def;
         if (stepDef == null) {
-            LOGGER.error("Step definition not found: {}", stepName);
-            return StepResult.failure("Step not found: " + stepName);
+            LOGGER.error("Step definition not found: {}", node.name);
+            return stepCompleted(run, node, StepResult.failure("Step not found: " + node.name));
         }
 
         // Step-level guards gate step execution
-        if (!evaluateGuards(stepDef.guards, context)) {
-            LOGGER.debug("Step {} skipped due to guard condition(s): {}", stepName, stepDef.guards);
-            return StepResult.success("Step skipped due to guard condition");
+        if (!evaluateGuards(run, node.stepGuards)) {
+            LOGGER.debug("Step {} skipped due to guard condition(s): {}", node.name, stepDef.guards);
+            return stepCompleted(run, node, SKIPPED);
         }
 
-        Class<? extends Step> stepClass = componentScanner.getStepClass(stepDef.type);
-        if (stepClass == null) {
-            LOGGER.error("Step implementation not found for type: {} (step={})", stepDef.type, stepName);
-            return StepResult.failure("Step implementation not found: " + stepDef.type);
+        if (node.stepClass == null) {
+            LOGGER.error("Step implementation not found for type: {} (step={})", stepDef.type, node.name);
+            return stepCompleted(run, node, StepResult.failure("Step implementation not found: " + stepDef.type));
         }
 
         try {
-            Step step = stepClass.getDeclaredConstructor().newInstance();
-            Map<String, Object> effectiveConfig = buildEffectiveConfig(stepName, stepDef.config, false);
-            dependencyInjector.injectDependencies(step, context, effectiveConfig, config.settings);
-            return executeWithOptionalRetry(step, stepDef.retry, context);
+            // Steps run at most once per run, so PROTOTYPE needs no per-run slot
+            Step step = node.provider.obtain(null, -1);
+            dependencyInjector.injectContext(step, context, node.effectiveConfig);
+            run.step = step;
+            run.attempt = 0;
+            run.phase = RunState.Phase.ATTEMPT;
+            return CONTINUE;
         } catch (Exception e) {
-            LOGGER.error("Step execution failed for {}: {}", stepName, e.toString());
-            return StepResult.failure("Step execution failed: " + e.getMessage());
+            return stepExecutionFailed(run, node, e);
         }
     }
 
+    private long stepExecutionFailed(RunState run, WorkflowPlan.StepNode node, Exception e) {
+        LOGGER.error("Step execution failed for {}: {}", node.name, e.toString());
+        return stepCompleted(run, node, StepResult.failure("Step execution failed: " + e.getMessage()));
+    }
+
     /**
-     * Executes a step once or with engine-driven retry.
+     * Executes one attempt of the current step, with engine-driven retry.
      *
      * Behavior:
      * - No retry config: execute once
      * - Retry with guard: execute, if failed and guard passes → retry up to maxAttempts with delay
      * - Retry without guard: execute, if failed → always retry up to maxAttempts with delay
+     *
+     * The wait between attempts is not performed here: the computed delay is returned to the
+     * driver, which schedules the next attempt on the shared {@link RetryScheduler} timer.
      */
-    private StepResult executeWithOptionalRetry(Step step, FlowConfig.RetryConfig retry, ExecutionContext context) {
+    private long executeWithOptionalRetry(RunState run, WorkflowPlan.StepNode node) {
+        FlowConfig.RetryConfig retry = node.retry;
+        if (run.retryWait != null) {
+            FlightEvents.retryResumed(run);
+        }
+        boolean observed = run.observed();
+        long started = 0L;
+        long cpuStarted = 0L;
+        long allocStarted = 0L;
+        if (observed) {
+            ExecutionEvents.stepStarted(run, node, run.attempt + 1);
+            if (run.resources != null) {
+                cpuStarted = StepResources.cpuNanos();
+                allocStarted = StepResources.allocatedBytes();
+            }
+            started = System.nanoTime();
+        }
+        StepExecutionEvent event = run.jfr ? FlightEvents.stepStarted() : null;
+        StepResult r;
+        try {
+            r = run.step.execute(run.context);
+        } catch (Exception e) {
+            attemptFinished(run, node, observed, started, cpuStarted, allocStarted, event, StepResult.Status.FAILURE);
+            return stepExecutionFailed(run, node, e);
+        }
+        attemptFinished(run, node, observed, started, cpuStarted, allocStarted, event,
+                r != null ? r.status : StepResult.Status.FAILURE);
         if (retry == null) {
-            StepResult result = step.execute(context);
-            return result != null ? result : StepResult.failure("Step returned null result");
+            return stepCompleted(run, node, r != null ? r : StepResult.failure("Step returned null result"));
         }
 
-        int attempts = 0;
-        int max = computeMaxAttempts(retry);
-        boolean hasGuard = retry.guard != null && !retry.guard.isEmpty();
-        StepResult lastResult = null;
-
-        while (attempts < max) {
-            StepResult r = step.execute(context);
-            if (r != null && r.status == StepResult.Status.SUCCESS) {
-                if (attempts > 0) {
-                    LOGGER.info("Step succeeded after {} attempt(s)", attempts + 1);
-                }
-                return r;
+        if (r != null && r.status == StepResult.Status.SUCCESS) {
+            if (run.attempt > 0) {
+                LOGGER.info("Step succeeded after {} attempt(s)", run.attempt + 1);
             }
+            return stepCompleted(run, node, r);
+        }
 
-            lastResult = (r != null) ? r : StepResult.failure("Step returned null result");
-            attempts++;
-            if (attempts >= max) break;
-
-            if (hasGuard) {
-                if (!evaluateSingleGuard(retry.guard, context)) {
-                    LOGGER.debug("Retry guard '{}' blocked further attempts at attempt {}", retry.guard, attempts);
-                    break;
-                }
+        run.lastResult = (r != null) ? r : StepResult.failure("Step returned null result");
+        int attempts = ++run.attempt;
+        int max = node.maxAttempts;
+        if (attempts < max && node.retryGuard != null && !evaluateSingleGuard(run, node.retryGuard, false)) {
+            LOGGER.debug("Retry guard '{}' blocked further attempts at attempt {}", retry.guard, attempts);
+            max = attempts;
+        }
+        if (attempts >= max) {
+            LOGGER.warn("Step failed after {} attempt(s)", attempts);
+            if (attempts >= node.maxAttempts && attempts > 1) {
+                run.retriesExhausted = true;
             }
+            return stepCompleted(run, node, run.lastResult);
+        }
 
-            long delayMs = computeRetryDelay(retry, attempts); // attempts is 1-based for next retry
-            if (delayMs > 0) {
-                try {
-                    LOGGER.debug("Retrying in {} ms (attempt {}/{})", delayMs, attempts + 1, max);
-                    Thread.sleep(delayMs);
-                } catch (InterruptedException ie) { Thread.currentThread().interrupt(); }
-            }
+        long delayMs = computeRetryDelay(retry, attempts); // attempts is 1-based for next retry
+        if (delayMs > 0 && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Retrying in {} ms (attempt {}/{})", delayMs, attempts + 1, max);
+        }
+        if (run.metrics != null) {
+            run.metrics.stepRetried(node.id);
         }
-        LOGGER.warn("Step failed after {} attempt(s)", attempts);
-        return lastResult != null ? lastResult : StepResult.failure("Step failed after retries");
+        if (run.trace != null) {
+            run.trace.stepRetry(run, node, attempts + 1, delayMs);
+        }
+        ExecutionEvents.retryScheduled(run, node, attempts + 1, delayMs);
+        if (run.jfr) {
+            FlightEvents.retryScheduled(run, node, null, attempts + 1, delayMs);
+        }
+        return delayMs;
     }
 
-    /** Determines the total number of executions allowed based on retry config. */
-    private int computeMaxAttempts(FlowConfig.RetryConfig retry) {
-        if (retry == null) return 1;
-        if (retry.retries != null && retry.retries >= 0) {
-            // retries means additional attempts after the initial
-            return Math.max(1, retry.retries + 1);
+    /**
+     * Reports one finished attempt of {@code node} to the run's metrics, trace, listeners, JFR and
+     * resource accounting. {@code cpuStarted} and {@code allocStarted} are the thread's CPU time
+     * and allocation before the attempt; only read when the run has {@link RunState#resources}.
+     */
+    private static void attemptFinished(RunState run, WorkflowPlan.StepNode node, boolean observed, long started,
+                                        long cpuStarted, long allocStarted, StepExecutionEvent event,
+                                        StepResult.Status status) {
+        long nanos = observed ? System.nanoTime() - started : 0L;
+        if (run.resources != null) {
+            long cpu = StepResources.cpuNanos();
+            long allocated = StepResources.allocatedBytes();
+            // Negative when the thread cannot be measured, e.g. a virtual thread
+            if (cpuStarted >= 0 && cpu >= 0 && allocStarted >= 0 && allocated >= 0) {
+                run.resources.record(run.plan.id, node.id, nanos, cpu - cpuStarted, allocated - allocStarted);
+                if (run.metrics != null) {
+                    run.metrics.stepResources(node.id, cpu - cpuStarted, allocated - allocStarted);
+                }
+            }
+        }
+        if (event != null) {
+            FlightEvents.stepCompleted(event, run, node, run.attempt + 1, status);
+        }
+        if (!observed) {
+            return;
+        }
+        if (run.metrics != null) {
+            run.metrics.stepExecuted(node.id, nanos, status == StepResult.Status.SUCCESS);
+        }
+        if (run.trace != null) {
+            run.trace.step(run, node, run.attempt + 1, status, nanos);
         }
-        return Math.max(1, retry.maxAttempts);
+        ExecutionEvents.stepCompleted(run, node, run.attempt + 1, status, nanos);
     }
 
     /** Computes delay for the next retry attempt (attemptIndex is 1-based for the next try). */
@@ -739,15 +1859,12 @@ public class Engine {
     }
     
     /**
-     * Evaluates a list of guard names; returns false if any evaluate to false.
+     * Evaluates compiled step-level guards; returns false if any evaluate to false.
      */
-    private boolean evaluateGuards(List<String> guardNames, ExecutionContext context) {
-        if (guardNames == null || guardNames.isEmpty()) {
-            return true;
-        }
-        for (String guardName : guardNames) {
-            if (!evaluateSingleGuard(guardName, context)) {
-                LOGGER.debug("Guard '{}' returned false", guardName);
+    private boolean evaluateGuards(RunState run, WorkflowPlan.GuardRef[] guards) {
+        for (WorkflowPlan.GuardRef guard : guards) {
+            if (!evaluateSingleGuard(run, guard)) {
+                LOGGER.debug("Guard '{}' returned false", guard.name);
                 return false;
             }
         }
@@ -764,7 +1881,7 @@ public class Engine {
      * 
      * <h3>Edge Selection Algorithm:</h3>
      * <ol>
-     *   <li><strong>Collect Outgoing Edges:</strong> Find all edges where edge.from == currentStep</li>
+     *   <li><strong>Collect Outgoing Edges:</strong> Read the node's precompiled outgoing-edge array (no scan of workflow.edges)</li>
      *   <li><strong>Evaluate In Order:</strong> Process edges in YAML declaration order</li>
      *   <li><strong>For Each Edge:</strong>
      *     <ul>
@@ -797,7 +1914,7 @@ public class Engine {
      * 2. ValidPayment.evaluate() → true → SELECT standard_flow ✓
      * 3. basic_flow edge → SKIPPED (previous edge already selected)
      * 
-     * Result: NextSelection.next("standard_flow")
+     * Result: NEXT("standard_flow")
      * </pre>
      * 
      * <h3>Guard Failure Handling Strategies:</h3>
@@ -807,7 +1924,7 @@ public class Engine {
      * guard: PaymentValid
      * onFailure: { strategy: STOP }
      * 
-     * PaymentValid fails → Return NextSelection.fail("Edge guard failed with STOP")
+     * PaymentValid fails → Return FAIL("Edge guard failed with STOP")
      * → Workflow terminates with FAILURE
      * </pre>
      * 
@@ -816,7 +1933,7 @@ public class Engine {
      * guard: OptionalFeature
      * onFailure: { strategy: SKIP }
      * 
-     * OptionalFeature fails → Return NextSelection.skip()
+     * OptionalFeature fails → Return SKIP
      * → Continue evaluating next edge in list
      * </pre>
      * 
@@ -825,7 +1942,7 @@ public class Engine {
      * guard: BestEffortCheck  
      * onFailure: { strategy: CONTINUE }
      * 
-     * BestEffortCheck fails → Return NextSelection.next(edge.to)
+     * BestEffortCheck fails → Return NEXT(edge.to)
      * → Proceed to target step despite guard failure
      * </pre>
      * 
@@ -836,7 +1953,7 @@ public class Engine {
      *   strategy: ALTERNATIVE
      *   alternativeTarget: manual_review
      * 
-     * AutoProcess fails → Return NextSelection.next("manual_review")
+     * AutoProcess fails → Return NEXT("manual_review")
      * → Redirect to fallback step instead of original target
      * </pre>
      * 
@@ -849,8 +1966,8 @@ public class Engine {
      *   delay: 500
      * 
      * ResourceAvailable fails → Retry guard evaluation up to 3 times
-     * → If any retry succeeds: Return NextSelection.next(edge.to)
-     * → If all retries fail: Return NextSelection.fail("Guard failed after retry")
+     * → If any retry succeeds: Return NEXT(edge.to)
+     * → If all retries fail: Return FAIL("Guard failed after retry")
      * </pre>
      * 
      * <h3>Complete Workflow Scenario Walkthrough:</h3>
@@ -1062,7 +2179,7 @@ public class Engine {
      *   findNextStep("payment"):
      *     1. PaymentSuccess.evaluate() → false (insufficient funds)
      *        onFailure: STOP → FAIL ❌
-     *     → RETURN: NextSelection.fail("Edge guard failed with STOP for edge: payment → inventory")
+     *     → RETURN: FAIL("Edge guard failed with STOP for edge: payment → inventory")
      * 
      * WORKFLOW TERMINATED: FAILURE ❌
      * Path: validate → standard_process → payment → FAILURE
@@ -1083,7 +2200,7 @@ public class Engine {
      *     1. FraudClearVIP.evaluate() → false → onFailure: SKIP → continue
      *     2. FraudClearStandard.evaluate() → false (suspicious activity detected)
      *        onFailure: STOP → FAIL ❌
-     *     → RETURN: NextSelection.fail("Edge guard failed with STOP for edge: fraud_check → standard_process")
+     *     → RETURN: FAIL("Edge guard failed with STOP for edge: fraud_check → standard_process")
      * 
      * WORKFLOW TERMINATED: FAILURE ❌
      * Path: validate → fraud_check → FAILURE
@@ -1131,8 +2248,8 @@ public class Engine {
      *   <li><strong>Order Matters:</strong> Earlier edges take precedence over later ones</li>
      * </ul>
      * 
-     * @param workflow the workflow definition containing all edge definitions. Must not be null.
-     * @param currentStep the step from which to find outgoing transitions. Must not be null.
+     * @param plan the compiled workflow plan, used to resolve node names for logging. Must not be null.
+     * @param node the compiled node whose outgoing edges are evaluated. Must not be null.
      * @param context the execution context for guard evaluation. Must not be null.
      * @return NextSelection indicating the transition decision:
      *         <ul>
@@ -1141,150 +2258,205 @@ public class Engine {
      *           <li>NONE if no outgoing edges exist or all applicable edges are skipped</li>
      *         </ul>
      * @see #handleGuardFailure for failure strategy implementation details
-     * @see #evaluateGuard for guard evaluation mechanics
+     * @see #evaluateSingleGuard for guard evaluation mechanics
      */
-    private NextSelection findNextStep(FlowConfig.WorkflowDef workflow, String currentStep, ExecutionContext context) {
-        List<FlowConfig.EdgeDef> outgoing = new ArrayList<>();
-        for (FlowConfig.EdgeDef e : workflow.edges) {
-            if (e.from != null && e.from.equals(currentStep)) {
-                outgoing.add(e);
-            }
-        }
-
-        for (FlowConfig.EdgeDef edge : outgoing) {
+    private NextSelection findNextStep(RunState run, WorkflowPlan.StepNode node) {
+        WorkflowPlan.EdgeNode[] outgoing = node.outgoing;
+        for (; run.edgeIndex < outgoing.length; run.edgeIndex++) {
+            WorkflowPlan.EdgeNode edge = outgoing[run.edgeIndex];
             // If no guard, take it immediately
-            if (edge.guard == null || edge.guard.isEmpty()) {
-                return NextSelection.next(edge.to);
+            if (edge.guard == null) {
+                return next(run, edge.target, edge.id);
             }
 
-            boolean guardPassed = evaluateGuard(edge.guard, context);
+            boolean guardPassed = evaluateSingleGuard(run, edge.guard);
             if (guardPassed) {
-                LOGGER.debug("Edge guard '{}' passed: {} -> {}", edge.guard, currentStep, edge.to);
-                return NextSelection.next(edge.to);
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Edge guard '{}' passed: {} -> {}", edge.guard.name, node.name, edge.to);
+                }
+                return next(run, edge.target, edge.id);
             }
 
             // Guard failed, apply onFailure strategy (default STOP)
-            NextSelection handled = handleGuardFailure(edge, context);
-            if (handled.action == NextSelection.Kind.NEXT) {
-                LOGGER.debug("Edge guard failed; onFailure transitioned to {}", handled.next);
+            NextSelection handled = handleGuardFailure(run, edge);
+            if (handled == NextSelection.NEXT) {
+                LOGGER.debug("Edge guard failed; onFailure transitioned to {}", run.plan.nameOf(run.selected));
                 return handled; // CONTINUE or ALTERNATIVE or RETRY success
-            } else if (handled.action == NextSelection.Kind.FAIL) {
-                LOGGER.warn("Edge guard failed; onFailure=FAIL: {} -> {} (reason: {})", edge.from, edge.to, handled.failureMessage);
-                return handled; // STOP or RETRY exhausted without success
+            } else if (handled == NextSelection.FAIL) {
+                LOGGER.warn("Edge guard failed; onFailure=FAIL: {} -> {} (reason: {})", edge.from, edge.to, run.failureMessage);
+                return handled; // STOP or ALTERNATIVE without target
+            } else if (handled == NextSelection.RETRY) {
+                return handled; // guard re-evaluation continues in retryEdgeGuard at run.edgeIndex
             } else {
                 // SKIP: move to next edge
                 continue;
             }
         }
-        return NextSelection.none();
+        return NextSelection.NONE;
     }
 
     /** Applies the configured onFailure strategy for a guard-failing edge. */
-    private NextSelection handleGuardFailure(FlowConfig.EdgeDef edge, ExecutionContext context) {
-        String strategy = (edge.onFailure != null && edge.onFailure.strategy != null)
-                ? edge.onFailure.strategy.trim().toUpperCase()
-                : "STOP";
-        switch (strategy) {
-            case "CONTINUE":
+    private NextSelection handleGuardFailure(RunState run, WorkflowPlan.EdgeNode edge) {
+        switch (edge.strategy) {
+            case CONTINUE:
                 // Ignore guard failure and continue to target
-                return NextSelection.next(edge.to);
-            case "SKIP":
+                return next(run, edge.target, edge.id);
+            case SKIP:
                 // Bypass this edge; try the next one
-                return NextSelection.skip();
-            case "ALTERNATIVE":
-                String alt = (edge.onFailure != null) ? edge.onFailure.alternativeTarget : null;
-                if (alt == null || alt.isEmpty()) {
-                    return NextSelection.fail("Edge guard failed and no alternativeTarget configured for edge: "
+                return NextSelection.SKIP;
+            case ALTERNATIVE:
+                if (edge.alternative == WorkflowPlan.NO_NODE) {
+                    return fail(run, "Edge guard failed and no alternativeTarget configured for edge: "
                             + edge.from + " -> " + edge.to);
                 }
-                return NextSelection.next(alt);
-            case "RETRY":
-                int attempts = (edge.onFailure != null && edge.onFailure.attempts != null) ? Math.max(1, edge.onFailure.attempts) : 3;
-                long delay = (edge.onFailure != null && edge.onFailure.delay != null) ? Math.max(0L, edge.onFailure.delay) : 1000L;
-                for (int i = 0; i < attempts; i++) {
-                    if (i > 0 && delay > 0) {
-                        try {
-                            LOGGER.debug("Retrying edge guard '{}' in {} ms (attempt {}/{})", edge.guard, delay, i + 1, attempts);
-                            Thread.sleep(delay);
-                        } catch (InterruptedException ie) { Thread.currentThread().interrupt(); }
-                    }
-                    boolean ok = evaluateGuard(edge.guard, context);
-                    if (ok) {
-                        return NextSelection.next(edge.to);
-                    }
-                }
-                return NextSelection.fail("Edge guard failed after retry for edge: " + edge.from + " -> " + edge.to);
-            case "STOP":
+                return next(run, edge.alternative, edge.alternativeId);
+            case RETRY:
+                // Re-evaluated by retryEdgeGuard, one attempt per slice
+                return NextSelection.RETRY;
+            case STOP:
             default:
-                return NextSelection.fail("Edge guard failed with STOP for edge: " + edge.from + " -> " + edge.to);
+                return fail(run, "Edge guard failed with STOP for edge: " + edge.from + " -> " + edge.to);
         }
     }
 
-    /** Returns true if the guard evaluates to true for the given name. */
-    private boolean evaluateGuard(String guardName, ExecutionContext context) {
-        return evaluateSingleGuard(guardName, context);
+    /**
+     * Performs one re-evaluation of a RETRY edge guard (the edge at {@code run.edgeIndex}).
+     * The first re-evaluation happens immediately; later ones are separated by the edge's
+     * {@code delay}, which is returned to the driver instead of sleeping here.
+     */
+    private long retryEdgeGuard(RunState run, WorkflowPlan.StepNode node) {
+        WorkflowPlan.EdgeNode edge = node.outgoing[run.edgeIndex];
+        if (run.retryWait != null) {
+            FlightEvents.retryResumed(run);
+        }
+        if (evaluateSingleGuard(run, edge.guard, false)) {
+            LOGGER.debug("Edge guard failed; onFailure transitioned to {}", run.plan.nameOf(edge.target));
+            return applySelection(run, node, next(run, edge.target, edge.id));
+        }
+        int attempt = ++run.edgeAttempt;
+        if (attempt >= edge.retryAttempts) {
+            run.retriesExhausted = true;
+            NextSelection failed = fail(run, "Edge guard failed after retry for edge: " + edge.from + " -> " + edge.to);
+            LOGGER.warn("Edge guard failed; onFailure=FAIL: {} -> {} (reason: {})", edge.from, edge.to, run.failureMessage);
+            return applySelection(run, node, failed);
+        }
+        if (run.trace != null) {
+            run.trace.edgeRetry(run, edge, attempt + 1, edge.retryDelay);
+        }
+        if (run.jfr) {
+            FlightEvents.retryScheduled(run, node, edge, attempt + 1, edge.retryDelay);
+        }
+        if (edge.retryDelay > 0) {
+            LOGGER.debug("Retrying edge guard '{}' in {} ms (attempt {}/{})", edge.guard.name, edge.retryDelay, attempt + 1, edge.retryAttempts);
+            return edge.retryDelay;
+        }
+        return CONTINUE;
     }
-    
+
     /**
      * Returns true if the given step name is a terminal marker.
      */
     private boolean isTerminal(String stepName) {
-        return "SUCCESS".equals(stepName) || "FAILURE".equals(stepName);
+        return WorkflowPlan.isTerminal(stepName);
     }
 
     /**
-     * Evaluates a single named guard by instantiating its component and invoking {@link Guard#evaluate}.
+     * Evaluates a single compiled guard by obtaining its scoped instance and invoking {@link Guard#evaluate}.
+     * A {@code null} guard (no guard configured) always passes.
+     *
+     * <p>Results are memoized per run: a guard already evaluated at the current
+     * {@linkplain ExecutionContext#getVersion() context version} is not evaluated again, so a guard
+     * shared by step-level guards and several edges runs once until a step mutates
+     * the context. Guards annotated {@link com.stepflow.core.annotations.CacheableGuard} are also
+     * looked up in their cross-run cache. A result is only remembered if the evaluation left the
+     * context untouched.
      */
-    private boolean evaluateSingleGuard(String guardName, ExecutionContext context) {
-        if (guardName == null || guardName.isEmpty()) return true;
-        FlowConfig.StepDef guardDef = config.steps.get(guardName);
-        try {
-            Class<? extends Guard> guardClass;
-            Map<String, Object> effectiveConfig;
-            if (guardDef != null) {
-                guardClass = componentScanner.getGuardClass(guardDef.type);
-                if (guardClass == null) {
-                    LOGGER.warn("Guard implementation not found for type '{}' (guard={})", guardDef.type, guardName);
-                    return false;
-                }
-                effectiveConfig = buildEffectiveConfig(guardName, guardDef.config, true);
+    private boolean evaluateSingleGuard(RunState run, WorkflowPlan.GuardRef ref) {
+        return evaluateSingleGuard(run, ref, true);
+    }
+
+    /**
+     * @param reuse whether a memoized or cached result may be returned; false for re-evaluations
+     *              that exist to observe external change, such as retry guards and edge RETRY
+     */
+    private boolean evaluateSingleGuard(RunState run, WorkflowPlan.GuardRef ref, boolean reuse) {
+        if (ref == null) return true;
+        GuardEvaluationEvent event = run.jfr ? FlightEvents.guardStarted() : null;
+        boolean passed = decideGuard(run, ref, reuse);
+        if (event != null) {
+            FlightEvents.guardCompleted(event, run, ref, passed);
+        }
+        if (run.metrics != null) {
+            run.metrics.guardEvaluated(ref.id, passed);
+        }
+        if (run.trace != null) {
+            run.trace.guard(run, ref, passed);
+        }
+        ExecutionEvents.guardEvaluated(run, ref, passed);
+        return passed;
+    }
+
+    private boolean decideGuard(RunState run, WorkflowPlan.GuardRef ref, boolean reuse) {
+        if (ref.guardClass == null) {
+            if (ref.def != null) {
+                LOGGER.warn("Guard implementation not found for type '{}' (guard={})", ref.def.type, ref.name);
             } else {
-                // Fallback: resolve guard directly by class-like name (lowerCamel, UpperCamel, or FQCN)
-                guardClass = componentScanner.getGuardClass(guardName);
-                if (guardClass == null) {
-                    LOGGER.warn("Guard component not found: {}", guardName);
-                    return false;
-                }
-                effectiveConfig = buildEffectiveConfig(guardName, null, true);
+                LOGGER.warn("Guard component not found: {}", ref.name);
             }
-
-            Guard guard = guardClass.getDeclaredConstructor().newInstance();
-            dependencyInjector.injectDependencies(guard, context, effectiveConfig, config.settings);
-            return guard.evaluate(context);
+            return false;
+        }
+        ExecutionContext context = run.context;
+        long version = context.getVersion();
+        if (reuse && run.guardVersions[ref.id] == version) {
+            return run.guardResults[ref.id];
+        }
+        List<Object> cacheKey = null;
+        if (reuse && ref.cache != null) {
+            cacheKey = ref.cache.keyOf(context);
+            Boolean cached = ref.cache.get(cacheKey);
+            if (cached != null) {
+                run.guardVersions[ref.id] = version;
+                run.guardResults[ref.id] = cached;
+                return cached;
+            }
+        }
+        boolean result;
+        try {
+            Guard guard = ref.provider.obtain(run.guardInstances, ref.id);
+            dependencyInjector.injectContext(guard, context, ref.effectiveConfig);
+            result = guard.evaluate(context);
         } catch (Exception e) {
-            LOGGER.error("Guard evaluation failed for '{}': {}", guardName, e.toString());
+            LOGGER.error("Guard evaluation failed for '{}': {}", ref.name, e.toString());
             return false;
         }
+        if (context.getVersion() == version) {
+            run.guardVersions[ref.id] = version;
+            run.guardResults[ref.id] = result;
+            if (cacheKey != null) {
+                ref.cache.put(cacheKey, result);
+            }
+        }
+        return result;
     }
 
     private Map<String, Object> buildEffectiveConfig(String name, Map<String, Object> stepConfig, boolean isGuard) {
-        Map<String, Object> effective = new HashMap<>();
-        if (config.defaults != null) {
-            // Category-wide defaults
-            Map<String, Object> cat = config.defaults.get(isGuard ? "guard" : "step");
-            if (cat != null) {
-                effective.putAll(cat);
-            }
-            // Per-name defaults
-            Map<String, Object> byName = config.defaults.get(name);
-            if (byName != null) {
-                effective.putAll(byName);
-            }
+        return WorkflowPlan.effectiveConfig(config, name, stepConfig, isGuard);
+    }
+
+    /** Compiles every configured workflow into an immutable {@link WorkflowPlan}. */
+    private Map<String, WorkflowPlan> compileWorkflows() {
+        Map<String, WorkflowPlan> compiled = new HashMap<>();
+        if (config.workflows == null) {
+            return compiled;
         }
-        if (stepConfig != null) {
-            effective.putAll(stepConfig);
+        for (Map.Entry<String, FlowConfig.WorkflowDef> entry : config.workflows.entrySet()) {
+            if (entry.getValue() == null) continue;
+            WorkflowPlan plan = WorkflowPlan.compile(compiled.size(), entry.getKey(), entry.getValue(), config,
+                    componentScanner, dependencyInjector, providers, guardCaches);
+            compiled.put(entry.getKey(), plan);
+            LOGGER.debug("Compiled workflow '{}': {} node(s), {} guard(s)", entry.getKey(), plan.size(), plan.guards.length);
         }
-        return effective;
+        return compiled;
     }
     
     public void analyzeWorkflow(String workflowName) {
@@ -1298,6 +2470,9 @@ public class Engine {
         LOGGER.info("============================================");
         LOGGER.info("Root: {}", workflow.root);
         LOGGER.info("Total edges: {}", workflow.edges.size());
+        if (workflow.outputs != null) {
+            LOGGER.info("Outputs: {}", workflow.outputs);
+        }
         if (workflow.root == null || workflow.root.isEmpty()) {
             LOGGER.warn("Workflow '{}' has no root defined; execution would immediately succeed with no steps.", workflowName);
         } else if (!config.steps.containsKey(workflow.root)) {
@@ -1315,10 +2490,18 @@ public class Engine {
             LOGGER.info("\n🧩 Steps (with type, config, step-guards, retry): ");
             for (String stepName : orderedSteps) {
                 FlowConfig.StepDef sd = config.steps.get(stepName);
+                if (sd == null && workflow.joins != null && workflow.joins.containsKey(stepName)) {
+                    LOGGER.info("- join: {}", stepName);
+                    LOGGER.info("  onBranchFailure: {}", workflow.joins.get(stepName).onBranchFailure);
+                    continue;
+                }
                 String type = sd != null ? sd.type : "<unresolved>";
                 Map<String, Object> effCfg = sd != null ? buildEffectiveConfig(stepName, sd.config, false) : Collections.emptyMap();
                 LOGGER.info("- step: {}", stepName);
                 LOGGER.info("  type: {}", type);
+                if (sd != null) {
+                    LOGGER.info("  scope: {}", WorkflowPlan.resolveScope(stepName, sd, componentScanner.getStepClass(sd.type)));
+                }
                 LOGGER.info("  config: {}", (effCfg == null ? "{}" : effCfg));
                 if (sd == null) {
                 LOGGER.warn("  ⚠ step '{}' is referenced but not defined.", stepName);
@@ -1406,6 +2589,9 @@ public class Engine {
                     info.append(" [onFailure: STOP]");
                 }
             }
+            if ("parallel".equalsIgnoreCase(edge.kind)) {
+                info.append(" [parallel]");
+            }
             LOGGER.info("- {}{}", path, info);
         }
 
@@ -1464,6 +2650,50 @@ public class Engine {
             LOGGER.info("- Unreachable steps (not reachable from root): {}", unreachable);
         }
 
+        // Liveness analysis of context keys
+        LOGGER.info("\n🧹 Liveness analysis (memory: {}):", workflow.memory != null ? workflow.memory : "default");
+        WorkflowPlan plan = plans.get(workflowName);
+        if (plan == null || plan.liveness == null) {
+            LOGGER.info("- Not computed: declare 'outputs' to bound the keys a run must keep");
+        } else {
+            LOGGER.info("- Live at root: {}", plan.liveness.live(plan.root));
+            for (Map.Entry<String, String[]> t : plan.liveness.transitions().entrySet()) {
+                if (t.getValue().length > 0) {
+                    LOGGER.info("- {} releases {}", t.getKey(), Arrays.toString(t.getValue()));
+                }
+            }
+        }
+
+        // CPU and allocation per step type, when measured
+        LOGGER.info("\n⏱️ Step resources (per step type, all workflows):");
+        StepResources resources = stepResources;
+        if (resources == null) {
+            LOGGER.info("- Not measured: enable with setStepResourceAccounting(true)");
+        } else if (plan != null) {
+            Map<String, StepResourceUsage> usage = resources.usage();
+            Set<String> types = new LinkedHashSet<>();
+            for (WorkflowPlan.StepNode node : plan.nodes) {
+                if (node.def != null && node.def.type != null) {
+                    types.add(node.def.type);
+                }
+            }
+            for (String type : types) {
+                StepResourceUsage u = usage.get(type);
+                if (u == null) {
+                    LOGGER.info("- {}: no attempts measured", type);
+                    continue;
+                }
+                double share = u.getCpuShare();
+                LOGGER.info("- {}: {} attempt(s), {} µs wall, {} µs CPU ({}%), {} KB allocated per attempt{}",
+                        type, u.getAttempts(),
+                        String.format("%.1f", u.getWallNanos() / 1_000.0 / u.getAttempts()),
+                        String.format("%.1f", u.getMeanCpuNanos() / 1_000.0),
+                        Math.round(share * 100),
+                        String.format("%.1f", u.getMeanAllocatedBytes() / 1024.0),
+                        share < 0.2 ? " — mostly waiting; consider an I/O pool" : share > 0.8 ? " — CPU-bound" : "");
+            }
+        }
+
         LOGGER.info("\n✅ Analysis complete.\n");
     }
 
@@ -1550,20 +2780,164 @@ public class Engine {
         Map<String, Object> effectiveConfig;
     }
 
-    /** Selection result when choosing the next edge. */
-    private static class NextSelection {
-        enum Kind { NEXT, SKIP, FAIL, NONE }
-        final Kind action;
-        final String next;
-        final String failureMessage;
+    /**
+     * Continuation-driven execution of one run for {@link #runAsync}.
+     *
+     * <p>Each invocation advances the run until it finishes, reaches a step boundary (resubmitted to
+     * the executor) or needs a delay (resumed by the shared {@link RetryScheduler}). The work-in-progress
+     * counter serialises invocations, so a run never executes on two threads at once and a
+     * same-thread executor trampolines instead of recursing once per step.
+     */
+    final class AsyncRun implements Runnable {
+        final CompletableFuture<StepResult> future = new CompletableFuture<>();
+        /**
+         * Completes once the run no longer advances: it finished, failed, or found {@link #future}
+         * cancelled at a step boundary. Unlike {@code future}, it is never completed by a caller.
+         */
+        final CompletableFuture<Void> stopped = new CompletableFuture<>();
+        final RunState run;
+        private final Executor executor;
+        /** Admission of a top-level run, released when the run stops; {@code null} for branches. */
+        private final RunGate gate;
+        private final AtomicInteger wip = new AtomicInteger();
+        /**
+         * Guards {@link #runner} and {@link #interrupted}: the thread currently draining the run and
+         * whether {@link #interrupt()} hit it. A lock rather than a monitor, so that a drain on a
+         * virtual thread does not pin its carrier.
+         */
+        private final ReentrantLock runnerLock = new ReentrantLock();
+        private Thread runner;
+        private boolean interrupted;
+
+        AsyncRun(RunState run, Executor executor, RunGate gate) {
+            this.run = run;
+            this.executor = executor;
+            this.gate = gate;
+        }
 
-        private NextSelection(Kind action, String next, String failureMessage) {
-            this.action = action; this.next = next; this.failureMessage = failureMessage;
+        @Override
+        public void run() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                drain();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            enter();
+            try {
+                while (!future.isDone()) {
+                    long next = advance(run);
+                    if (next == DONE) {
+                        future.complete(run.result);
+                        break;
+                    }
+                    if (next == YIELD) {
+                        resubmit(executor);
+                        return;
+                    }
+                    if (next == SUSPEND) {
+                        Fork fork = run.fork;
+                        future.whenComplete((r, t) -> {
+                            if (future.isCancelled()) fork.cancel();
+                        });
+                        fork.done.whenComplete((v, t) -> resubmit(executor));
+                        return;
+                    }
+                    if (next > 0) {
+                        // The timer only hands the run back; it never executes components itself
+                        retryScheduler.schedule(() -> resubmit(executor), next);
+                        return;
+                    }
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                leave();
+            }
+            stop();
         }
-        static NextSelection next(String step) { return new NextSelection(Kind.NEXT, step, null); }
-        static NextSelection skip() { return new NextSelection(Kind.SKIP, null, null); }
-        static NextSelection fail(String msg) { return new NextSelection(Kind.FAIL, null, msg); }
-        static NextSelection none() { return new NextSelection(Kind.NONE, null, null); }
+
+        void resubmit(Executor target) {
+            try {
+                target.execute(this);
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+                stop();
+            }
+        }
+
+        /**
+         * Publishes that the run stopped and releases its admission. A cancelled run keeps its slot
+         * until it actually stops, so {@code maxConcurrentRuns} bounds the runs still executing.
+         */
+        private void stop() {
+            if (stopped.complete(null) && gate != null) {
+                gate.exit();
+            }
+        }
+
+        /**
+         * Interrupts the thread running a step of this run, if any, so that a cancelled run does not
+         * wait out a blocking step. The interrupt is cleared before the thread leaves the run.
+         */
+        void interrupt() {
+            runnerLock.lock();
+            try {
+                if (runner != null) {
+                    interrupted = true;
+                    runner.interrupt();
+                }
+            } finally {
+                runnerLock.unlock();
+            }
+        }
+
+        private void enter() {
+            runnerLock.lock();
+            try {
+                runner = Thread.currentThread();
+            } finally {
+                runnerLock.unlock();
+            }
+        }
+
+        private void leave() {
+            boolean clear;
+            runnerLock.lock();
+            try {
+                runner = null;
+                clear = interrupted;
+                interrupted = false;
+            } finally {
+                runnerLock.unlock();
+            }
+            if (clear) {
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * Routing decision for the current node. The constants are shared; the chosen node of NEXT and
+     * the message of FAIL are left in {@link RunState#selected} (with {@link RunState#selectedEdge})
+     * and {@link RunState#failureMessage}.
+     */
+    private enum NextSelection { NEXT, SKIP, FAIL, NONE, RETRY }
+
+    private static NextSelection next(RunState run, int nodeId, int edgeId) {
+        run.selected = nodeId;
+        run.selectedEdge = edgeId;
+        return NextSelection.NEXT;
+    }
+
+    private static NextSelection fail(RunState run, String message) {
+        run.failureMessage = message;
+        return NextSelection.FAIL;
     }
 
     /**
@@ -1651,6 +3025,21 @@ public class Engine {
      * @throws IllegalArgumentException if validation fails
      */
     private void validateStepEdges(String workflowName, String stepName, List<FlowConfig.EdgeDef> outgoingEdges) {
+        int parallelEdges = 0;
+        for (FlowConfig.EdgeDef edge : outgoingEdges) {
+            if (WorkflowPlan.isParallel(edge)) parallelEdges++;
+        }
+        if (parallelEdges > 0) {
+            if (parallelEdges != outgoingEdges.size()) {
+                throw new IllegalArgumentException(
+                    String.format("Workflow '%s': Step '%s' mixes parallel and sequential edges. " +
+                                 "A fork step may only declare 'kind: parallel' edges; continue after the join instead.",
+                                 workflowName, stepName));
+            }
+            // Parallel edges are all taken; default-edge ordering rules do not apply
+            return;
+        }
+
         if (outgoingEdges.size() <= 1) {
             // Single edge or no edges - no validation needed
             return;
@@ -0,0 +1,118 @@
+package com.stepflow.engine;
+
+import java.util.Map;
+
+/**
+ * Live statistics and runtime knobs of one {@link Engine}, registered with
+ * {@link Engine#registerMBean(String)} as {@code com.stepflow:type=Engine,name=<name>}.
+ *
+ * <p>Counters cover runs started after registration and are reset by {@link #resetStatistics()};
+ * runs in flight, pool and queue sizes are read live. Branch executor figures are {@code -1} when
+ * the executor is neither a {@link java.util.concurrent.ThreadPoolExecutor} nor a
+ * {@link java.util.concurrent.ForkJoinPool}.
+ */
+public interface EngineMXBean {
+
+    /** Top-level runs currently executing. */
+    int getInFlightRuns();
+
+    /** Runs that completed, successfully or not. */
+    long getCompletedRuns();
+
+    /** Runs that completed with a FAILURE result. */
+    long getFailedRuns();
+
+    /** Runs rejected because {@link #getMaxConcurrentRuns()} was reached. */
+    long getRejectedRuns();
+
+    /** Completed runs per second, averaged over the last ten seconds. */
+    double getRunsPerSecond();
+
+    /** Successful runs by workflow name. */
+    Map<String, Long> getSuccessesByWorkflow();
+
+    /** Failed runs by workflow name. */
+    Map<String, Long> getFailuresByWorkflow();
+
+    /** Step retries scheduled, by workflow name. */
+    Map<String, Long> getRetriesByWorkflow();
+
+    /** Step retries scheduled across all workflows. */
+    long getRetries();
+
+    /**
+     * Retry and edge-guard delays waiting on the retry timer. The timer is shared by every engine
+     * in the JVM, so this includes their delays too.
+     */
+    int getPendingRetryDelays();
+
+    /** {@link ExecutionMode} name. */
+    String getExecutionMode();
+
+    /** Threads of the executor running branches of synchronous runs. */
+    int getBranchPoolSize();
+
+    /** Threads of the branch executor currently running a task. */
+    int getBranchActiveThreads();
+
+    /** Tasks queued on the branch executor. */
+    long getBranchQueueSize();
+
+    /** {@code @CacheableGuard} lookups answered from a cache. */
+    long getGuardCacheHits();
+
+    /** {@code @CacheableGuard} lookups that had to evaluate the guard. */
+    long getGuardCacheMisses();
+
+    /** Hit rate ({@code 0..1}) of each {@code @CacheableGuard} cache, by guard name; {@code 0} before any lookup. */
+    Map<String, Double> getGuardCacheHitRates();
+
+    /** Traces kept by {@linkplain Engine#setTailSampling tail sampling} since it was last set; {@code 0} when off. */
+    long getKeptTraces();
+
+    /** Kept traces dropped because the trace file writer fell behind. */
+    long getDroppedTraces();
+
+    /** Current slow-run bar of tail sampling in milliseconds, by workflow name; empty until one is set. */
+    Map<String, Double> getSlowRunThresholdsMillis();
+
+    /** @see Engine#getMaxConcurrentRuns() */
+    int getMaxConcurrentRuns();
+
+    /** @see Engine#setMaxConcurrentRuns(int) */
+    void setMaxConcurrentRuns(int maxRuns);
+
+    /** @see Engine#getRunLogSampleRate() */
+    double getRunLogSampleRate();
+
+    /** @see Engine#setRunLogSampleRate(double) */
+    void setRunLogSampleRate(double rate);
+
+    /** @see Engine#getTraceBufferCapacity() */
+    int getTraceBufferCapacity();
+
+    /** @see Engine#setTraceBufferCapacity(int) */
+    void setTraceBufferCapacity(int entries);
+
+    /**
+     * Decodes the trace ring as text, one block per run, most recently active run first.
+     *
+     * @see Engine#recentTraces(int)
+     */
+    String dumpTraces(int runs);
+
+    /** @see Engine#isStepResourceAccounting() */
+    boolean isStepResourceAccounting();
+
+    /** @see Engine#setStepResourceAccounting(boolean) */
+    void setStepResourceAccounting(boolean enabled);
+
+    /** Thread CPU time as a share (0-1) of wall time of each step type's measured attempts, by step type. */
+    Map<String, Double> getStepCpuShares();
+
+    /** Mean bytes allocated per measured attempt, by step type. */
+    Map<String, Double> getStepAllocatedBytesPerAttempt();
+
+    /** Zeroes run, retry, rejection and guard cache counters. */
+    void resetStatistics();
+}
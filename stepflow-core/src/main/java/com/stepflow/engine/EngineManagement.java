@@ -0,0 +1,349 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+
+import javax.management.ObjectName;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link EngineMXBean} of one engine.
+ *
+ * <p>Run outcomes and retries arrive through an {@link ExecutionListener} registered with the
+ * engine. Per-workflow counters are created up front for every workflow, so recording an event is
+ * a map lookup and a {@link LongAdder} increment.
+ */
+final class EngineManagement implements EngineMXBean {
+
+    /** One-second slots of the throughput window. */
+    private static final int SLOTS = 10;
+
+    private final Engine engine;
+    private final ObjectName objectName;
+    private final Map<String, Counters> workflows = new HashMap<>();
+    private final ExecutionListener listener = new Listener();
+    /** Second (of {@link System#nanoTime()}) each slot counts for, and its completed runs. */
+    private final AtomicLongArray slotSecond = new AtomicLongArray(SLOTS);
+    private final AtomicLongArray slotRuns = new AtomicLongArray(SLOTS);
+
+    private static final class Counters {
+        final LongAdder successes = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder retries = new LongAdder();
+    }
+
+    EngineManagement(Engine engine, ObjectName objectName, Collection<String> workflowNames) {
+        this.engine = engine;
+        this.objectName = objectName;
+        for (String name : workflowNames) {
+            workflows.put(name, new Counters());
+        }
+        for (int i = 0; i < SLOTS; i++) {
+            slotSecond.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    ObjectName objectName() {
+        return objectName;
+    }
+
+    ExecutionListener listener() {
+        return listener;
+    }
+
+    private final class Listener implements ExecutionListener {
+        @Override
+        public void runCompleted(String workflow, ExecutionContext context, StepResult result, long nanos) {
+            Counters counters = workflows.get(workflow);
+            if (counters != null) {
+                (result.isSuccess() ? counters.successes : counters.failures).increment();
+            }
+            countCompletion();
+        }
+
+        @Override
+        public void retryScheduled(String workflow, String step, int nextAttempt, long delayMs) {
+            Counters counters = workflows.get(workflow);
+            if (counters != null) {
+                counters.retries.increment();
+            }
+        }
+    }
+
+    /**
+     * Counts a completion in the slot of the current second, recycling the slot when it last
+     * counted an older second. Completions racing with the recycling may be lost; the rate is
+     * approximate.
+     */
+    private void countCompletion() {
+        long second = currentSecond();
+        int slot = Math.floorMod(second, SLOTS);
+        long seen = slotSecond.get(slot);
+        if (seen != second && slotSecond.compareAndSet(slot, seen, second)) {
+            slotRuns.set(slot, 0);
+        }
+        slotRuns.incrementAndGet(slot);
+    }
+
+    private static long currentSecond() {
+        return Math.floorDiv(System.nanoTime(), TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Override
+    public int getInFlightRuns() {
+        return engine.runGate().inFlight();
+    }
+
+    @Override
+    public long getCompletedRuns() {
+        long total = 0;
+        for (Counters counters : workflows.values()) {
+            total += counters.successes.sum() + counters.failures.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getFailedRuns() {
+        long total = 0;
+        for (Counters counters : workflows.values()) {
+            total += counters.failures.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getRejectedRuns() {
+        return engine.runGate().rejected();
+    }
+
+    @Override
+    public double getRunsPerSecond() {
+        // The current second is still filling up, so the window is the SLOTS seconds before it
+        long now = currentSecond();
+        long runs = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            long second = slotSecond.get(i);
+            if (second < now && second >= now - SLOTS) {
+                runs += slotRuns.get(i);
+            }
+        }
+        return (double) runs / SLOTS;
+    }
+
+    @Override
+    public Map<String, Long> getSuccessesByWorkflow() {
+        Map<String, Long> out = new TreeMap<>();
+        workflows.forEach((name, counters) -> out.put(name, counters.successes.sum()));
+        return out;
+    }
+
+    @Override
+    public Map<String, Long> getFailuresByWorkflow() {
+        Map<String, Long> out = new TreeMap<>();
+        workflows.forEach((name, counters) -> out.put(name, counters.failures.sum()));
+        return out;
+    }
+
+    @Override
+    public Map<String, Long> getRetriesByWorkflow() {
+        Map<String, Long> out = new TreeMap<>();
+        workflows.forEach((name, counters) -> out.put(name, counters.retries.sum()));
+        return out;
+    }
+
+    @Override
+    public long getRetries() {
+        long total = 0;
+        for (Counters counters : workflows.values()) {
+            total += counters.retries.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public int getPendingRetryDelays() {
+        return engine.retryScheduler().pending();
+    }
+
+    @Override
+    public String getExecutionMode() {
+        return engine.getExecutionMode().name();
+    }
+
+    @Override
+    public int getBranchPoolSize() {
+        Executor executor = engine.branchExecutor();
+        if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executor).getPoolSize();
+        }
+        if (executor instanceof ForkJoinPool) {
+            return ((ForkJoinPool) executor).getPoolSize();
+        }
+        return -1;
+    }
+
+    @Override
+    public int getBranchActiveThreads() {
+        Executor executor = engine.branchExecutor();
+        if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executor).getActiveCount();
+        }
+        if (executor instanceof ForkJoinPool) {
+            return ((ForkJoinPool) executor).getActiveThreadCount();
+        }
+        return -1;
+    }
+
+    @Override
+    public long getBranchQueueSize() {
+        Executor executor = engine.branchExecutor();
+        if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executor).getQueue().size();
+        }
+        if (executor instanceof ForkJoinPool) {
+            ForkJoinPool pool = (ForkJoinPool) executor;
+            return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+        }
+        return -1;
+    }
+
+    @Override
+    public long getGuardCacheHits() {
+        long total = 0;
+        for (GuardResultCache cache : engine.guardCaches().values()) {
+            total += cache.hits();
+        }
+        return total;
+    }
+
+    @Override
+    public long getGuardCacheMisses() {
+        long total = 0;
+        for (GuardResultCache cache : engine.guardCaches().values()) {
+            total += cache.misses();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Double> getGuardCacheHitRates() {
+        Map<String, Double> out = new TreeMap<>();
+        engine.guardCaches().forEach((guard, cache) -> {
+            long hits = cache.hits();
+            long lookups = hits + cache.misses();
+            out.put(guard, lookups == 0 ? 0.0 : (double) hits / lookups);
+        });
+        return out;
+    }
+
+    @Override
+    public long getKeptTraces() {
+        TailSampler sampler = engine.tailSampler();
+        return sampler != null ? sampler.kept() : 0L;
+    }
+
+    @Override
+    public long getDroppedTraces() {
+        TailSampler sampler = engine.tailSampler();
+        return sampler != null ? sampler.dropped() : 0L;
+    }
+
+    @Override
+    public Map<String, Double> getSlowRunThresholdsMillis() {
+        Map<String, Double> out = new TreeMap<>();
+        TailSampler sampler = engine.tailSampler();
+        if (sampler != null) {
+            sampler.thresholds().forEach((workflow, nanos) -> out.put(workflow, nanos / 1_000_000.0));
+        }
+        return out;
+    }
+
+    @Override
+    public int getMaxConcurrentRuns() {
+        return engine.getMaxConcurrentRuns();
+    }
+
+    @Override
+    public void setMaxConcurrentRuns(int maxRuns) {
+        engine.setMaxConcurrentRuns(maxRuns);
+    }
+
+    @Override
+    public double getRunLogSampleRate() {
+        return engine.getRunLogSampleRate();
+    }
+
+    @Override
+    public void setRunLogSampleRate(double rate) {
+        engine.setRunLogSampleRate(rate);
+    }
+
+    @Override
+    public int getTraceBufferCapacity() {
+        return engine.getTraceBufferCapacity();
+    }
+
+    @Override
+    public void setTraceBufferCapacity(int entries) {
+        engine.setTraceBufferCapacity(entries);
+    }
+
+    @Override
+    public String dumpTraces(int runs) {
+        StringBuilder sb = new StringBuilder();
+        for (RunTrace trace : engine.recentTraces(runs)) {
+            sb.append(trace).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean isStepResourceAccounting() {
+        return engine.isStepResourceAccounting();
+    }
+
+    @Override
+    public void setStepResourceAccounting(boolean enabled) {
+        engine.setStepResourceAccounting(enabled);
+    }
+
+    @Override
+    public Map<String, Double> getStepCpuShares() {
+        Map<String, Double> out = new TreeMap<>();
+        engine.getStepResourceUsage().forEach((type, usage) -> out.put(type, usage.getCpuShare()));
+        return out;
+    }
+
+    @Override
+    public Map<String, Double> getStepAllocatedBytesPerAttempt() {
+        Map<String, Double> out = new TreeMap<>();
+        engine.getStepResourceUsage().forEach((type, usage) -> out.put(type, usage.getMeanAllocatedBytes()));
+        return out;
+    }
+
+    @Override
+    public void resetStatistics() {
+        for (Counters counters : workflows.values()) {
+            counters.successes.reset();
+            counters.failures.reset();
+            counters.retries.reset();
+        }
+        for (int i = 0; i < SLOTS; i++) {
+            slotRuns.set(i, 0);
+        }
+        engine.runGate().resetRejected();
+        for (GuardResultCache cache : engine.guardCaches().values()) {
+            cache.resetStatistics();
+        }
+    }
+}
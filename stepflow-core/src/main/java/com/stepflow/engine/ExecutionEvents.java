@@ -0,0 +1,99 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.StepResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatches run events to the {@link ExecutionListener}s captured in {@link RunState#listeners}.
+ *
+ * <p>Each event loops over the run's listener array directly, so dispatch allocates nothing and
+ * costs one array length check when no listener is registered. A listener that throws, including
+ * an {@link Error} such as a {@link LinkageError}, is logged and skipped so that a broken listener
+ * cannot abandon a run half-way; only a {@link VirtualMachineError} propagates.
+ */
+final class ExecutionEvents {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutionEvents.class);
+
+    private ExecutionEvents() {
+    }
+
+    static void runStarted(RunState run) {
+        for (ExecutionListener listener : run.listeners) {
+            try {
+                listener.runStarted(run.plan.name, run.context);
+            } catch (Throwable e) {
+                failed(listener, "runStarted", e);
+            }
+        }
+    }
+
+    static void runCompleted(RunState run, StepResult result, long nanos) {
+        for (ExecutionListener listener : run.listeners) {
+            try {
+                listener.runCompleted(run.plan.name, run.context, result, nanos);
+            } catch (Throwable e) {
+                failed(listener, "runCompleted", e);
+            }
+        }
+    }
+
+    static void stepStarted(RunState run, WorkflowPlan.StepNode node, int attempt) {
+        for (ExecutionListener listener : run.listeners) {
+            try {
+                listener.stepStarted(run.plan.name, node.name, attempt, run.context);
+            } catch (Throwable e) {
+                failed(listener, "stepStarted", e);
+            }
+        }
+    }
+
+    static void stepCompleted(RunState run, WorkflowPlan.StepNode node, int attempt, StepResult.Status status, long nanos) {
+        for (ExecutionListener listener : run.listeners) {
+            try {
+                listener.stepCompleted(run.plan.name, node.name, attempt, status, nanos);
+            } catch (Throwable e) {
+                failed(listener, "stepCompleted", e);
+            }
+        }
+    }
+
+    static void guardEvaluated(RunState run, WorkflowPlan.GuardRef ref, boolean passed) {
+        for (ExecutionListener listener : run.listeners) {
+            try {
+                listener.guardEvaluated(run.plan.name, ref.name, passed);
+            } catch (Throwable e) {
+                failed(listener, "guardEvaluated", e);
+            }
+        }
+    }
+
+    static void retryScheduled(RunState run, WorkflowPlan.StepNode node, int nextAttempt, long delayMs) {
+        for (ExecutionListener listener : run.listeners) {
+            try {
+                listener.retryScheduled(run.plan.name, node.name, nextAttempt, delayMs);
+            } catch (Throwable e) {
+                failed(listener, "retryScheduled", e);
+            }
+        }
+    }
+
+    static void transitionTaken(RunState run, String from, String to) {
+        for (ExecutionListener listener : run.listeners) {
+            try {
+                listener.transitionTaken(run.plan.name, from, to);
+            } catch (Throwable e) {
+                failed(listener, "transitionTaken", e);
+            }
+        }
+    }
+
+    /** Logs a listener failure with its stack trace; only a {@link VirtualMachineError} is rethrown. */
+    private static void failed(ExecutionListener listener, String event, Throwable e) {
+        if (e instanceof VirtualMachineError) {
+            throw (VirtualMachineError) e;
+        }
+        LOGGER.warn("Execution listener {} failed in {}", listener.getClass().getName(), event, e);
+    }
+}
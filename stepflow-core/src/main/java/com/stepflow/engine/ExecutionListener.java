@@ -0,0 +1,90 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+
+/**
+ * Receives lifecycle events of workflow runs, for tracing, auditing and similar integrations.
+ *
+ * <p>Register listeners with {@link Engine#addExecutionListener} or
+ * {@code SimpleEngine.builder().withExecutionListener(...)}. Every method has an empty default, so
+ * a listener overrides only the events it needs.
+ *
+ * <p>Callbacks run synchronously on the thread executing the run, in registration order, and
+ * concurrently for concurrent runs: implementations must be thread-safe and should return quickly.
+ * A listener that throws, {@link Error}s included, is logged and skipped; the run and the remaining
+ * listeners continue. Only a {@link VirtualMachineError} such as {@link OutOfMemoryError} propagates.
+ *
+ * <p>The {@link ExecutionContext} passed to {@link #runStarted} identifies the run for the events
+ * that follow on the same run. Steps of a parallel branch run on a copy of the context, so their
+ * events carry the branch's context until the join.
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * SimpleEngine engine = SimpleEngine.builder()
+ *     .withExternalYamls("classpath:checkout.yaml")
+ *     .withPackages("com.myapp.steps")
+ *     .withExecutionListener(new ExecutionListener() {
+ *         {@literal @}Override
+ *         public void stepCompleted(String workflow, String step, int attempt,
+ *                                   StepResult.Status status, long nanos) {
+ *             audit.record(workflow, step, status, nanos);
+ *         }
+ *     })
+ *     .build();
+ * </pre>
+ */
+public interface ExecutionListener {
+
+    /** A run of {@code workflow} starts on {@code context}. */
+    default void runStarted(String workflow, ExecutionContext context) {
+    }
+
+    /**
+     * A run finished with {@code result}. Parallel branches are part of their run and do not report.
+     *
+     * @param nanos time since {@link #runStarted}
+     */
+    default void runCompleted(String workflow, ExecutionContext context, StepResult result, long nanos) {
+    }
+
+    /**
+     * An attempt of {@code step} is about to execute.
+     *
+     * @param attempt 1 for the first attempt, incremented on every retry
+     */
+    default void stepStarted(String workflow, String step, int attempt, ExecutionContext context) {
+    }
+
+    /**
+     * An attempt of {@code step} finished. A step that threw or returned {@code null} reports FAILURE.
+     *
+     * @param nanos time spent in {@code Step.execute}
+     */
+    default void stepCompleted(String workflow, String step, int attempt, StepResult.Status status, long nanos) {
+    }
+
+    /**
+     * A step-level, edge or retry guard decided. Results reused from the per-run memo or a
+     * {@code @CacheableGuard} cache are reported too.
+     */
+    default void guardEvaluated(String workflow, String guard, boolean passed) {
+    }
+
+    /**
+     * A failed attempt of {@code step} will be retried.
+     *
+     * @param nextAttempt number of the attempt that will run next
+     * @param delayMs backoff before that attempt
+     */
+    default void retryScheduled(String workflow, String step, int nextAttempt, long delayMs) {
+    }
+
+    /**
+     * The run moves from step {@code from} to {@code to}: along an edge, to the start of a parallel
+     * branch, or from a fork to its join once the branches converged. {@code to} is {@code null}
+     * for an edge without a target, which ends the run successfully.
+     */
+    default void transitionTaken(String workflow, String from, String to) {
+    }
+}
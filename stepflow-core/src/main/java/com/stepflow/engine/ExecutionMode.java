@@ -0,0 +1,19 @@
+package com.stepflow.engine;
+
+/**
+ * Kind of threads the engine uses for the work it schedules itself: parallel branches of
+ * synchronous runs, batch workers and streamed runs.
+ *
+ * <p>Executors passed explicitly (to {@link Engine#runAsync}, {@link BatchOptions.Builder#executor},
+ * {@link StreamOptions.Builder#executor} or {@link Engine#setParallelExecutor}) always take precedence.
+ */
+public enum ExecutionMode {
+    /** Platform threads: the common pool for branches and streams, a bounded pool per batch. */
+    PLATFORM_THREADS,
+    /**
+     * One virtual thread per branch, batch worker and streamed run step. Blocking step I/O and
+     * retry waits park the virtual thread instead of holding a carrier. Requires Java 21 or later;
+     * the multi-release {@code stepflow-core} jar selects the implementation at runtime.
+     */
+    VIRTUAL_THREADS
+}
@@ -0,0 +1,175 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.StepResult;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Emits the engine's Java Flight Recorder events ({@code com.stepflow.*}, category "StepFlow").
+ *
+ * <p>A run checks {@link #recording()} once when it starts and only creates events while a JFR
+ * recording is running, so without a recording the engine allocates nothing and each hook costs a
+ * boolean test. Within a recording every event type is switched on and off (or given a threshold)
+ * through the usual JFR settings, e.g. in a {@code .jfc} file:
+ * <pre>
+ * &lt;event name="com.stepflow.GuardEvaluation"&gt;
+ *   &lt;setting name="enabled"&gt;false&lt;/setting&gt;
+ * &lt;/event&gt;
+ * </pre>
+ *
+ * <p>On runtimes without the {@code jdk.jfr} module no event is ever emitted.
+ */
+final class FlightEvents {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlightEvents.class);
+
+    /** Whether any JFR recording is running; maintained by a {@link FlightRecorderListener}. */
+    private static volatile boolean recording;
+
+    static {
+        try {
+            if (FlightRecorder.isAvailable()) {
+                FlightRecorder.addListener(new FlightRecorderListener() {
+                    @Override
+                    public void recorderInitialized(FlightRecorder recorder) {
+                        update(recorder);
+                    }
+
+                    @Override
+                    public void recordingStateChanged(Recording changed) {
+                        update(FlightRecorder.getFlightRecorder());
+                    }
+                });
+            }
+        } catch (LinkageError | RuntimeException e) {
+            LOGGER.debug("Flight Recorder events disabled: {}", e.toString());
+        }
+    }
+
+    private FlightEvents() {
+    }
+
+    private static void update(FlightRecorder recorder) {
+        boolean running = false;
+        for (Recording r : recorder.getRecordings()) {
+            if (r.getState() == RecordingState.RUNNING) {
+                running = true;
+                break;
+            }
+        }
+        recording = running;
+    }
+
+    /** Whether a JFR recording is running, i.e. whether a run starting now should emit events. */
+    static boolean recording() {
+        return recording;
+    }
+
+    static void runStarted(RunState run) {
+        WorkflowRunEvent event = new WorkflowRunEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            run.runEvent = event;
+        }
+    }
+
+    static void runCompleted(RunState run, StepResult result) {
+        WorkflowRunEvent event = run.runEvent;
+        if (event == null) {
+            return;
+        }
+        run.runEvent = null;
+        event.end();
+        if (event.shouldCommit()) {
+            event.workflow = run.plan.name;
+            event.status = result.status.name();
+            event.commit();
+        }
+    }
+
+    /** Starts timing a step attempt; {@code null} when the event type is disabled. */
+    static StepExecutionEvent stepStarted() {
+        StepExecutionEvent event = new StepExecutionEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void stepCompleted(StepExecutionEvent event, RunState run, WorkflowPlan.StepNode node,
+                              int attempt, StepResult.Status status) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.workflow = run.plan.name;
+            event.step = node.name;
+            event.attempt = attempt;
+            event.status = status.name();
+            event.commit();
+        }
+    }
+
+    /** Starts timing a guard decision; {@code null} when the event type is disabled. */
+    static GuardEvaluationEvent guardStarted() {
+        GuardEvaluationEvent event = new GuardEvaluationEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void guardCompleted(GuardEvaluationEvent event, RunState run, WorkflowPlan.GuardRef ref, boolean passed) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.workflow = run.plan.name;
+            event.guard = ref.name;
+            event.passed = passed;
+            event.commit();
+        }
+    }
+
+    /**
+     * Opens the wait before the next attempt; it is closed by {@link #retryResumed} when that
+     * attempt starts, on whichever thread runs it.
+     *
+     * @param edge the retried edge, or {@code null} for a step retry
+     */
+    static void retryScheduled(RunState run, WorkflowPlan.StepNode node, WorkflowPlan.EdgeNode edge,
+                               int attempt, long delayMs) {
+        RetryWaitEvent event = new RetryWaitEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.workflow = run.plan.name;
+        event.step = node.name;
+        event.edge = edge != null ? edge.from + " -> " + edge.to : null;
+        event.attempt = attempt;
+        event.scheduledDelay = delayMs;
+        event.begin();
+        run.retryWait = event;
+    }
+
+    static void retryResumed(RunState run) {
+        RetryWaitEvent event = run.retryWait;
+        run.retryWait = null;
+        event.end();
+        if (event.shouldCommit()) {
+            event.commit();
+        }
+    }
+
+    static void transition(RunState run, String from, String to) {
+        EdgeTransitionEvent event = new EdgeTransitionEvent();
+        if (event.shouldCommit()) {
+            event.workflow = run.plan.name;
+            event.from = from;
+            event.to = to;
+            event.commit();
+        }
+    }
+}
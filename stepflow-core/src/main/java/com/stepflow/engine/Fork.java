@@ -0,0 +1,165 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A parallel fan-out in progress: the branch runs started at a fork node and their outcomes.
+ *
+ * <p>Each branch is an ordinary {@link RunState} whose context is a copy of the parent context taken
+ * at the fork and whose run stops when it reaches the join. {@link #done} completes when the parent
+ * may resume, which is only once every branch has stopped: no branch outlives its fork. Under
+ * {@link WorkflowPlan.JoinPolicy#CANCEL} the first failure cancels the other branches, interrupting
+ * the step they are running so they stop at their next step boundary, and is kept as the outcome.
+ *
+ * <p>Merging is deterministic: the changes of every branch are computed against the parent context
+ * as it was at the fork and applied in branch declaration order, so when two branches write the same
+ * key the later-declared branch wins regardless of completion order.
+ */
+final class Fork {
+    final WorkflowPlan.StepNode node;
+    final WorkflowPlan.StepNode join;
+    final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private final WorkflowPlan.JoinPolicy policy;
+    private final List<String> names = new ArrayList<>();
+    private final List<Engine.AsyncRun> branches = new ArrayList<>();
+    private final AtomicReference<StepResult> firstFailure = new AtomicReference<>();
+    private final AtomicInteger remaining = new AtomicInteger();
+
+    Fork(WorkflowPlan.StepNode node, WorkflowPlan.StepNode join) {
+        this.node = node;
+        this.join = join;
+        this.policy = join.join;
+    }
+
+    /** Registers a branch; must be called for every branch before {@link #seal()}. */
+    void add(String name, Engine.AsyncRun branch) {
+        names.add(name);
+        branches.add(branch);
+    }
+
+    int size() {
+        return branches.size();
+    }
+
+    /** Starts tracking branch completion. */
+    void seal() {
+        remaining.set(branches.size());
+        if (branches.isEmpty()) {
+            done.complete(null);
+            return;
+        }
+        for (int i = 0; i < branches.size(); i++) {
+            final int index = i;
+            branches.get(i).stopped.thenRun(() -> branchStopped(index));
+        }
+    }
+
+    /** Cancels every branch that has not completed yet and interrupts the step it is running. */
+    void cancel() {
+        for (Engine.AsyncRun branch : branches) {
+            if (branch.future.cancel(false)) {
+                branch.interrupt();
+            }
+        }
+    }
+
+    private void branchStopped(int index) {
+        if (policy == WorkflowPlan.JoinPolicy.CANCEL) {
+            StepResult outcome = outcome(index);
+            if (outcome != null && outcome.status == StepResult.Status.FAILURE
+                    && firstFailure.compareAndSet(null, outcome)) {
+                cancel();
+            }
+        }
+        if (remaining.decrementAndGet() == 0) {
+            done.complete(null);
+        }
+    }
+
+    /**
+     * Returns the failure that fails the workflow under this join's policy, or {@code null} if the
+     * branches may be merged.
+     */
+    StepResult failure() {
+        switch (policy) {
+            case IGNORE:
+                return null;
+            case WAIT:
+                for (int i = 0; i < branches.size(); i++) {
+                    StepResult outcome = outcome(i);
+                    if (outcome != null && outcome.status == StepResult.Status.FAILURE) {
+                        return outcome;
+                    }
+                }
+                return null;
+            case CANCEL:
+            default:
+                return firstFailure.get();
+        }
+    }
+
+    /**
+     * Applies the changes of every successful branch to {@code parent}, in declaration order.
+     * Each branch runs on a {@linkplain ExecutionContext#copy() copy} of the parent, so its delta is
+     * exactly the keys it wrote or removed; later branches win on keys written by several.
+     */
+    void mergeInto(ExecutionContext parent) {
+        for (int i = 0; i < branches.size(); i++) {
+            StepResult outcome = outcome(i);
+            if (outcome == null || outcome.status == StepResult.Status.FAILURE) {
+                continue;
+            }
+            ExecutionContext branch = branches.get(i).run.context;
+            for (String key : branch.getChangedKeys()) {
+                if (branch.containsKey(key)) {
+                    parent.put(key, branch.get(key));
+                } else {
+                    parent.remove(key);
+                }
+            }
+        }
+    }
+
+    /** Whether any branch ran out of step or edge guard retries. */
+    boolean retriesExhausted() {
+        for (Engine.AsyncRun branch : branches) {
+            if (branch.run.retriesExhausted) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Branch names (fork edge targets) in declaration order, for logging. */
+    List<String> names() {
+        return names;
+    }
+
+    /**
+     * Returns the branch outcome: its result, a FAILURE for an exceptional completion,
+     * or {@code null} if the branch was cancelled or is still running.
+     */
+    private StepResult outcome(int index) {
+        CompletableFuture<StepResult> result = branches.get(index).future;
+        if (!result.isDone() || result.isCancelled()) {
+            return null;
+        }
+        try {
+            return result.join();
+        } catch (CancellationException e) {
+            return null;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return StepResult.failure("Parallel branch '" + names.get(index) + "' failed: " + cause);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.stepflow.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event spanning one guard decision, memoized and cached results included. */
+@Name("com.stepflow.GuardEvaluation")
+@Label("Guard Evaluation")
+@Category("StepFlow")
+@Description("One step-level, edge or retry guard decision")
+@StackTrace(false)
+final class GuardEvaluationEvent extends jdk.jfr.Event {
+
+    @Label("Workflow")
+    String workflow;
+
+    @Label("Guard")
+    String guard;
+
+    @Label("Passed")
+    boolean passed;
+}
@@ -0,0 +1,131 @@
+package com.stepflow.engine;
+
+import com.stepflow.core.annotations.CacheableGuard;
+import com.stepflow.execution.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cross-run result cache of one {@link CacheableGuard} guard, shared by every workflow of an engine.
+ *
+ * <p>Bounded LRU map guarded by a lock; expired entries are dropped when they are read.
+ */
+final class GuardResultCache {
+
+    private final String[] keys;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<List<Object>, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private static final class Entry {
+        final boolean result;
+        final long storedAt;
+
+        Entry(boolean result, long storedAt) {
+            this.result = result;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private GuardResultCache(String[] keys, int maxEntries, long ttlMillis) {
+        this.keys = keys.clone();
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(ttlMillis) : 0L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+                return size() > GuardResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Creates the cache declared by {@link CacheableGuard} on {@code guardClass}.
+     *
+     * @return the cache, or {@code null} if the class is not annotated
+     * @throws IllegalArgumentException if {@code maxEntries} is not positive
+     */
+    static GuardResultCache of(Class<?> guardClass) {
+        CacheableGuard spec = guardClass != null ? guardClass.getAnnotation(CacheableGuard.class) : null;
+        if (spec == null) {
+            return null;
+        }
+        if (spec.maxEntries() < 1) {
+            throw new IllegalArgumentException("@CacheableGuard maxEntries must be at least 1 on "
+                    + guardClass.getName() + ", got " + spec.maxEntries());
+        }
+        return new GuardResultCache(spec.keys(), spec.maxEntries(), spec.ttlMillis());
+    }
+
+    /** Builds the cache key: the values of the declared keys, in declaration order. */
+    List<Object> keyOf(ExecutionContext context) {
+        List<Object> key = new ArrayList<>(keys.length);
+        for (String k : keys) {
+            key.add(context.get(k));
+        }
+        return key;
+    }
+
+    /** Returns the cached result for {@code key}, or {@code null} if absent or expired. */
+    Boolean get(List<Object> key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (ttlNanos > 0 && System.nanoTime() - entry.storedAt >= ttlNanos) {
+                entries.remove(key);
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(List<Object> key, boolean result) {
+        lock.lock();
+        try {
+            entries.put(key, new Entry(result, System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Lookups answered from the cache. */
+    long hits() {
+        return hits.sum();
+    }
+
+    /** Lookups that found no entry or an expired one. */
+    long misses() {
+        return misses.sum();
+    }
+
+    void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+}
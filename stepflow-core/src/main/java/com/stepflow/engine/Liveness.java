@@ -0,0 +1,173 @@
+package com.stepflow.engine;
+
+import com.stepflow.config.DependencyInjector;
+import com.stepflow.config.FlowConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Backward liveness analysis of context keys over a compiled {@link WorkflowPlan}.
+ *
+ * <p>A key is live on entry to a node if the node, or any node reachable from it, may read the key
+ * before writing it; at terminals only the workflow {@code outputs} are live. Reads are the
+ * {@code @Inject} keys and implicitly injected field names of the step, its step-level and retry
+ * guards and the guards of its outgoing edges, plus any {@code reads:} declared on their
+ * definitions; writes are the declared {@code writes:}. Edge guards are evaluated after the step
+ * has run, so they do not keep alive a key the step writes. Only steps without step-level guards
+ * end the liveness of the keys they write, since a skipped step writes nothing.
+ *
+ * <p>The result is, for each transition {@code from -> to}, the keys that may be present when
+ * {@code from} is left but are no longer live at {@code to}. Cycles are handled by iterating to
+ * a fixed point.
+ */
+final class Liveness {
+
+    private static final String[] NONE = new String[0];
+
+    private final Set<String> outputs;
+    private final List<Set<String>> liveIn;
+    /** Dead keys per transition, keyed by {@link #edgeKey}. */
+    private final Map<Long, String[]> dead = new HashMap<>();
+    /** The same transitions by step names, in discovery order, for reporting. */
+    private final Map<String, String[]> report = new LinkedHashMap<>();
+
+    private Liveness(Facts facts, WorkflowPlan.StepNode[] nodes, Set<String> outputs) {
+        this.outputs = outputs;
+        int n = nodes.length;
+        this.liveIn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            liveIn.add(nodes[i].terminal ? outputs : new LinkedHashSet<>());
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = n - 1; i >= 0; i--) {
+                if (nodes[i].terminal) continue;
+                Set<String> in = new LinkedHashSet<>(facts.post.get(i));
+                for (int succ : successors(nodes[i])) {
+                    in.addAll(live(succ));
+                }
+                in.removeAll(facts.kills.get(i));
+                in.addAll(facts.pre.get(i));
+                if (!in.equals(liveIn.get(i))) {
+                    liveIn.set(i, in);
+                    changed = true;
+                }
+            }
+        }
+
+        for (WorkflowPlan.StepNode node : nodes) {
+            if (node.terminal) continue;
+            Set<String> available = new LinkedHashSet<>(liveIn.get(node.id));
+            available.addAll(facts.writes.get(node.id));
+            for (int succ : successors(node)) {
+                long key = edgeKey(node.id, succ);
+                if (dead.containsKey(key)) continue;
+                Set<String> gone = new TreeSet<>(available);
+                gone.removeAll(live(succ));
+                String[] keys = gone.isEmpty() ? NONE : gone.toArray(NONE);
+                dead.put(key, keys);
+                report.put(node.name + " -> " + (succ == WorkflowPlan.NO_NODE ? "(end)" : nodes[succ].name), keys);
+            }
+        }
+    }
+
+    /**
+     * Analyzes a plan whose workflow declares {@code outputs}.
+     *
+     * @param outputs the workflow outputs; never {@code null}
+     */
+    static Liveness analyze(WorkflowPlan.StepNode[] nodes, List<String> outputs, DependencyInjector injector) {
+        return new Liveness(new Facts(nodes, injector), nodes,
+                Collections.unmodifiableSet(new LinkedHashSet<>(outputs)));
+    }
+
+    /** Whether {@code workflow} asks for dead keys to be released at runtime. */
+    static boolean aggressive(FlowConfig.WorkflowDef workflow) {
+        return workflow.memory != null && "aggressive".equalsIgnoreCase(workflow.memory.trim());
+    }
+
+    /** Keys that may be read at or after entering {@code node}. */
+    Set<String> live(int node) {
+        return node == WorkflowPlan.NO_NODE ? outputs : Collections.unmodifiableSet(liveIn.get(node));
+    }
+
+    /** Keys to release when moving from {@code from} to {@code to}; empty if the transition is unknown. */
+    String[] deadOn(int from, int to) {
+        String[] keys = dead.get(edgeKey(from, to));
+        return keys != null ? keys : NONE;
+    }
+
+    /** Dead keys per transition ({@code "from -> to"}), for {@code analyzeWorkflow}. */
+    Map<String, String[]> transitions() {
+        return Collections.unmodifiableMap(report);
+    }
+
+    private static long edgeKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+
+    private static List<Integer> successors(WorkflowPlan.StepNode node) {
+        List<Integer> succ = new ArrayList<>();
+        for (WorkflowPlan.EdgeNode e : node.outgoing) {
+            succ.add(e.target);
+            if (e.alternative != WorkflowPlan.NO_NODE) succ.add(e.alternative);
+        }
+        for (WorkflowPlan.EdgeNode e : node.branches) {
+            succ.add(e.target);
+        }
+        if (succ.isEmpty()) {
+            succ.add(WorkflowPlan.NO_NODE); // no outgoing edge ends the run
+        }
+        return succ;
+    }
+
+    /** Per-node reads before and after the step, and declared writes. */
+    private static final class Facts {
+        final List<Set<String>> pre = new ArrayList<>();
+        final List<Set<String>> post = new ArrayList<>();
+        final List<Set<String>> writes = new ArrayList<>();
+        /** Writes that always happen: a step skipped by its guards writes nothing. */
+        final List<Set<String>> kills = new ArrayList<>();
+
+        Facts(WorkflowPlan.StepNode[] nodes, DependencyInjector injector) {
+            for (WorkflowPlan.StepNode node : nodes) {
+                Set<String> before = new LinkedHashSet<>();
+                Set<String> after = new LinkedHashSet<>();
+                Set<String> written = new LinkedHashSet<>();
+                if (!node.terminal) {
+                    before.addAll(injector.contextKeys(node.stepClass));
+                    declared(before, node.def != null ? node.def.reads : null);
+                    if (node.def != null && node.def.writes != null) written.addAll(node.def.writes);
+                    for (WorkflowPlan.GuardRef g : node.stepGuards) reads(before, g, injector);
+                    reads(before, node.retryGuard, injector);
+                    for (WorkflowPlan.EdgeNode e : node.outgoing) reads(after, e.guard, injector);
+                    for (WorkflowPlan.EdgeNode e : node.branches) reads(after, e.guard, injector);
+                }
+                pre.add(before);
+                post.add(after);
+                writes.add(written);
+                kills.add(node.stepGuards.length == 0 ? written : Collections.emptySet());
+            }
+        }
+
+        private static void reads(Set<String> into, WorkflowPlan.GuardRef guard, DependencyInjector injector) {
+            if (guard == null) return;
+            into.addAll(injector.contextKeys(guard.guardClass));
+            declared(into, guard.def != null ? guard.def.reads : null);
+        }
+
+        private static void declared(Set<String> into, List<String> keys) {
+            if (keys != null) into.addAll(keys);
+        }
+    }
+}
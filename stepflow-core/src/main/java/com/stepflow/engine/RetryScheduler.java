@@ -0,0 +1,79 @@
+package com.stepflow.engine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared timer for step retry backoff and edge-guard RETRY delays.
+ *
+ * <p>A single daemon thread owns every pending delay of every engine in the JVM. Timer tasks only
+ * hand a run back to its executor (or wake a waiting caller); components never execute on the
+ * timer thread, so one thread is enough regardless of how many runs are backing off.
+ */
+final class RetryScheduler {
+
+    private static final class Holder {
+        static final RetryScheduler SHARED = new RetryScheduler(newTimer());
+    }
+
+    private final ScheduledExecutorService timer;
+
+    RetryScheduler(ScheduledExecutorService timer) {
+        this.timer = timer;
+    }
+
+    /** Returns the JVM-wide scheduler, creating its timer thread on first use. */
+    static RetryScheduler shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Runs {@code handoff} after {@code delayMs}. The task must be short: it should only resubmit
+     * work to another executor.
+     */
+    ScheduledFuture<?> schedule(Runnable handoff, long delayMs) {
+        return timer.schedule(handoff, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits for {@code delayMs} on behalf of a synchronous caller. The wait is driven by the shared
+     * timer; an interrupt ends the wait early and restores the interrupt flag.
+     *
+     * @return false if the wait was interrupted
+     */
+    boolean await(long delayMs) {
+        CompletableFuture<Void> elapsed = new CompletableFuture<>();
+        ScheduledFuture<?> pending = schedule(() -> elapsed.complete(null), delayMs);
+        try {
+            elapsed.get();
+            return true;
+        } catch (InterruptedException ie) {
+            pending.cancel(false);
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException ee) {
+            return true; // the completion task cannot fail
+        }
+    }
+
+    /** Delays currently waiting on the timer, or {@code -1} if the timer cannot report them. */
+    int pending() {
+        return timer instanceof ScheduledThreadPoolExecutor
+                ? ((ScheduledThreadPoolExecutor) timer).getQueue().size()
+                : -1;
+    }
+
+    private static ScheduledExecutorService newTimer() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "stepflow-retry-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+}
@@ -0,0 +1,39 @@
+package com.stepflow.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event spanning the wait before a retry: from the moment a step retry or an edge guard RETRY
+ * is scheduled until the next attempt starts, so scheduler lag shows up next to the configured delay.
+ */
+@Name("com.stepflow.RetryWait")
+@Label("Retry Wait")
+@Category("StepFlow")
+@Description("Wait between a failed attempt and its retry")
+@StackTrace(false)
+final class RetryWaitEvent extends jdk.jfr.Event {
+
+    @Label("Workflow")
+    String workflow;
+
+    @Label("Step")
+    @Description("Retried step, or the step whose outgoing edge guard is retried")
+    String step;
+
+    @Label("Edge")
+    @Description("Edge whose guard is retried ('from -> to'); null for a step retry")
+    String edge;
+
+    @Label("Attempt")
+    @Description("Number of the attempt that runs after the wait")
+    int attempt;
+
+    @Label("Scheduled Delay")
+    @Timespan(Timespan.MILLISECONDS)
+    long scheduledDelay;
+}
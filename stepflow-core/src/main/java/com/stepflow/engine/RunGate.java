@@ -0,0 +1,67 @@
+package com.stepflow.engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the top-level runs in flight and optionally caps them.
+ *
+ * <p>The engine installs a gate only once a limit is set or its MBean is registered, so by default
+ * runs are neither counted nor limited. Runs beyond the limit are rejected rather than queued: the
+ * caller gets a FAILURE result immediately, which sheds load instead of growing latency.
+ */
+final class RunGate {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    /** Maximum concurrent runs; {@code 0} for no limit. */
+    private volatile int limit;
+
+    RunGate(int limit) {
+        this.limit = limit;
+    }
+
+    /** Admits a run; every successful call must be paired with {@link #exit()}. */
+    boolean tryEnter() {
+        int max = limit;
+        if (max <= 0) {
+            inFlight.incrementAndGet();
+            return true;
+        }
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= max) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    long rejected() {
+        return rejected.sum();
+    }
+
+    void resetRejected() {
+        rejected.reset();
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    /** Changes the limit; runs already admitted are unaffected. */
+    void limit(int limit) {
+        this.limit = limit;
+    }
+}
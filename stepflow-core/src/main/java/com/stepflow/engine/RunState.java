@@ -0,0 +1,202 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+import com.stepflow.metrics.WorkflowMetrics;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Mutable state of a single workflow run against a {@link WorkflowPlan}.
+ *
+ * <p>Holds everything that must not be shared between runs: the execution context,
+ * the visited-node bitset used for cycle detection, the per-run instance slots of
+ * PROTOTYPE-scoped guards and the memoized guard results (both indexed by
+ * {@link WorkflowPlan.GuardRef#id}).
+ *
+ * <p>It also carries the execution cursor advanced by the engine one slice at a time.
+ * Because the whole position of a run lives here, a run can be suspended between steps or
+ * during a retry delay and resumed later on any thread.
+ *
+ * <p>Synchronous runs borrow their state from the plan's {@link Pool} and {@link #reset} it
+ * for the next run, so the arrays above are allocated once per pooled slot instead of per run.
+ */
+final class RunState {
+
+    static final ExecutionListener[] NO_LISTENERS = new ExecutionListener[0];
+
+    /** Position of the cursor inside the current node. */
+    enum Phase {
+        /** About to enter {@link #current}: terminal check, cycle check, step-level guards. */
+        ENTER,
+        /** Executing (or retrying) the step instance held in {@link #step}. */
+        ATTEMPT,
+        /** Evaluating outgoing edges starting at {@link #edgeIndex}. */
+        ROUTE,
+        /** Re-evaluating the guard of the RETRY edge at {@link #edgeIndex}. */
+        EDGE_RETRY,
+        /** Waiting for the parallel branches of {@link #fork}; resumed once they have converged. */
+        JOIN
+    }
+
+    final WorkflowPlan plan;
+    ExecutionContext context;
+    final BitSet visited;
+    final Object[] guardInstances;
+    /** Context version each memoized guard result was computed at; {@code -1} when none is held. */
+    final long[] guardVersions;
+    final boolean[] guardResults;
+
+    Phase phase = Phase.ENTER;
+    int current;
+    Step step;
+    int attempt;
+    StepResult lastResult;
+    int edgeIndex;
+    int edgeAttempt;
+    /** Whether a step or RETRY edge guard ran out of attempts; OR-ed in from branches at their join. */
+    boolean retriesExhausted;
+    StepResult result;
+    /** Node chosen by the last {@code NEXT} routing decision. */
+    int selected = WorkflowPlan.NO_NODE;
+    /** Metrics id of the route to {@link #selected}. */
+    int selectedEdge = WorkflowPlan.NO_NODE;
+    /** Message of the last {@code FAIL} routing decision; {@code null} for the default message. */
+    String failureMessage;
+
+    /** Executor running parallel branches started by this run. */
+    Executor branchExecutor;
+    /** Join node ending this run when it is a parallel branch; {@link WorkflowPlan#NO_NODE} otherwise. */
+    int stopAt = WorkflowPlan.NO_NODE;
+    Fork fork;
+    /**
+     * Run belongs to a batch or stream, or was left out by {@link Engine#setRunLogSampleRate};
+     * per-run INFO logging is reduced to DEBUG.
+     */
+    boolean quiet;
+    /** Metrics handle of the plan; {@code null} when no recorder is installed. */
+    WorkflowMetrics metrics;
+    /** Listeners registered when the run started; empty when none are. */
+    ExecutionListener[] listeners = NO_LISTENERS;
+    /** {@link System#nanoTime()} at the start of the run; only read when the run is {@link #observed()}. */
+    long startNanos;
+    /** A JFR recording was running when the run started; see {@link FlightEvents}. */
+    boolean jfr;
+    /** Open {@code com.stepflow.WorkflowRun} event; {@code null} unless recorded. */
+    WorkflowRunEvent runEvent;
+    /** Open {@code com.stepflow.RetryWait} event while a retry is pending; {@code null} otherwise. */
+    RetryWaitEvent retryWait;
+    /** Trace buffer the run records into; {@code null} when tracing is off. */
+    TraceBuffer trace;
+    /** Run id in {@link #trace}, shared with the run's parallel branches. */
+    long traceId;
+    /** Per-step-type CPU and allocation totals; {@code null} unless step resource accounting is on. */
+    StepResources resources;
+
+    RunState(WorkflowPlan plan, ExecutionContext context) {
+        this.plan = plan;
+        this.context = context;
+        this.visited = new BitSet(plan.size());
+        this.guardInstances = new Object[plan.guards.length];
+        this.guardVersions = new long[plan.guards.length];
+        this.guardResults = new boolean[plan.guards.length];
+        Arrays.fill(guardVersions, -1L);
+        this.current = plan.root;
+    }
+
+    /** Prepares this state for a new run on {@code context}, as if it had just been constructed. */
+    void reset(ExecutionContext context) {
+        this.context = context;
+        visited.clear();
+        Arrays.fill(guardInstances, null);
+        Arrays.fill(guardVersions, -1L);
+        phase = Phase.ENTER;
+        current = plan.root;
+        step = null;
+        attempt = 0;
+        lastResult = null;
+        edgeIndex = 0;
+        edgeAttempt = 0;
+        retriesExhausted = false;
+        result = null;
+        selected = WorkflowPlan.NO_NODE;
+        selectedEdge = WorkflowPlan.NO_NODE;
+        failureMessage = null;
+        branchExecutor = null;
+        stopAt = WorkflowPlan.NO_NODE;
+        fork = null;
+        quiet = false;
+        metrics = null;
+        listeners = NO_LISTENERS;
+        startNanos = 0L;
+        jfr = false;
+        runEvent = null;
+        retryWait = null;
+        trace = null;
+        traceId = 0L;
+        resources = null;
+    }
+
+    /**
+     * Whether metrics, listeners, the trace buffer or resource accounting receive this run's
+     * events, i.e. whether it needs the clock.
+     */
+    boolean observed() {
+        return metrics != null || listeners.length > 0 || trace != null || resources != null;
+    }
+
+    /** Creates the state of a parallel branch starting at {@code start} on a copy of this run's context. */
+    RunState branch(int start, int join) {
+        RunState branch = new RunState(plan, context.copy());
+        branch.current = start;
+        branch.stopAt = join;
+        branch.branchExecutor = branchExecutor;
+        branch.metrics = metrics;
+        branch.listeners = listeners;
+        branch.jfr = jfr;
+        branch.trace = trace;
+        branch.traceId = traceId;
+        branch.resources = resources;
+        return branch;
+    }
+
+    /**
+     * Small lock-free pool of run states for one plan. {@link #acquire} falls back to a fresh
+     * state when every slot is taken, and {@link #release} drops the state when the pool is full,
+     * so the pool never blocks and never grows.
+     */
+    static final class Pool {
+        private final WorkflowPlan plan;
+        private final AtomicReferenceArray<RunState> slots;
+
+        Pool(WorkflowPlan plan, int capacity) {
+            this.plan = plan;
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        RunState acquire(ExecutionContext context) {
+            for (int i = 0; i < slots.length(); i++) {
+                RunState run = slots.get(i);
+                if (run != null && slots.compareAndSet(i, run, null)) {
+                    run.reset(context);
+                    return run;
+                }
+            }
+            return new RunState(plan, context);
+        }
+
+        /** Returns {@code run} to the pool; it must not be used by the caller afterwards. */
+        void release(RunState run) {
+            run.reset(null);
+            for (int i = 0; i < slots.length(); i++) {
+                if (slots.get(i) == null && slots.compareAndSet(i, null, run)) {
+                    return;
+                }
+            }
+        }
+    }
+}
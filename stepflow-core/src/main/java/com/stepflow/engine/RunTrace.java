@@ -0,0 +1,144 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.StepResult;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decoded trace of one run from the engine's trace buffer; see {@link Engine#setTraceBufferCapacity}.
+ *
+ * <p>Entries are in the order they were recorded. Entries of parallel branches are interleaved
+ * with those of the run that forked them. The oldest entries of a run may already have been
+ * overwritten, in which case the trace is not {@linkplain #isComplete() complete}.
+ */
+public final class RunTrace {
+
+    /** What an {@link Entry} records. */
+    public enum Kind {
+        /** The run started at the step named by the entry. */
+        RUN_STARTED,
+        /** A step attempt finished: attempt, status and duration. */
+        STEP,
+        /** A guard decided: {@link Entry#isPassed()}. */
+        GUARD,
+        /** A failed step attempt will be retried: the next attempt and its delay. */
+        STEP_RETRY,
+        /** A RETRY edge guard will be re-evaluated: the edge, the next attempt and its delay. */
+        EDGE_RETRY,
+        /** The run moved along the {@code "from -> to"} edge named by the entry. */
+        TRANSITION,
+        /** Parallel branches converged at the join step named by the entry. */
+        JOIN,
+        /** The run finished: status and total duration. */
+        RUN_COMPLETED
+    }
+
+    /** One recorded event of a run. */
+    public static final class Entry {
+        private final Kind kind;
+        private final String name;
+        private final int attempt;
+        private final StepResult.Status status;
+        private final boolean passed;
+        private final long nanos;
+
+        Entry(Kind kind, String name, int attempt, StepResult.Status status, boolean passed, long nanos) {
+            this.kind = kind;
+            this.name = name;
+            this.attempt = attempt;
+            this.status = status;
+            this.passed = passed;
+            this.nanos = nanos;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /** Step, guard or {@code "from -> to"} edge name; {@code null} for {@link Kind#RUN_COMPLETED}. */
+        public String getName() {
+            return name;
+        }
+
+        /** 1-based attempt of {@link Kind#STEP}, next attempt of the retry kinds; {@code 0} otherwise. */
+        public int getAttempt() {
+            return attempt;
+        }
+
+        /** Outcome of {@link Kind#STEP} and {@link Kind#RUN_COMPLETED}; {@code null} otherwise. */
+        public StepResult.Status getStatus() {
+            return status;
+        }
+
+        /** Outcome of {@link Kind#GUARD}. */
+        public boolean isPassed() {
+            return passed;
+        }
+
+        /** Duration of {@link Kind#STEP} and {@link Kind#RUN_COMPLETED}, delay of the retry kinds; {@code 0} otherwise. */
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            switch (kind) {
+                case STEP:
+                    return "STEP " + name + " #" + attempt + " " + status + " " + nanos + "ns";
+                case GUARD:
+                    return "GUARD " + name + " " + (passed ? "passed" : "failed");
+                case STEP_RETRY:
+                case EDGE_RETRY:
+                    return kind + " " + name + " #" + attempt + " in " + nanos / 1_000_000L + "ms";
+                case RUN_COMPLETED:
+                    return "RUN_COMPLETED " + status + " " + nanos + "ns";
+                default:
+                    return kind + " " + name;
+            }
+        }
+    }
+
+    private final long runId;
+    private final String workflow;
+    private final boolean complete;
+    private final List<Entry> entries;
+
+    RunTrace(long runId, String workflow, boolean complete, List<Entry> entries) {
+        this.runId = runId;
+        this.workflow = workflow;
+        this.complete = complete;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /** Engine-assigned run number, increasing in start order. */
+    public long getRunId() {
+        return runId;
+    }
+
+    public String getWorkflow() {
+        return workflow;
+    }
+
+    /** Whether the trace still includes the start of the run. */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /** One line for the run followed by one indented line per entry. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("run ").append(runId).append(' ').append(workflow);
+        if (!complete) {
+            sb.append(" (truncated)");
+        }
+        for (Entry entry : entries) {
+            sb.append("\n  ").append(entry);
+        }
+        return sb.toString();
+    }
+}
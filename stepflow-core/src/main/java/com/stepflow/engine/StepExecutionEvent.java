@@ -0,0 +1,29 @@
+package com.stepflow.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event spanning one attempt of a step, i.e. one call of {@code Step.execute}. */
+@Name("com.stepflow.StepExecution")
+@Label("Step Execution")
+@Category("StepFlow")
+@Description("One attempt of a workflow step")
+@StackTrace(false)
+final class StepExecutionEvent extends jdk.jfr.Event {
+
+    @Label("Workflow")
+    String workflow;
+
+    @Label("Step")
+    String step;
+
+    @Label("Attempt")
+    @Description("1 for the first attempt, incremented on every retry")
+    int attempt;
+
+    @Label("Status")
+    String status;
+}
@@ -0,0 +1,72 @@
+package com.stepflow.engine;
+
+/**
+ * Wall time, CPU time and allocation of the measured attempts of one step type, summed over every
+ * workflow of the engine; see {@link Engine#getStepResourceUsage()}.
+ *
+ * <p>A low {@linkplain #getCpuShare() CPU share} means the step mostly waits (on I/O, locks or
+ * other threads) and is a candidate for an I/O pool or virtual threads; a high one means it is
+ * compute-bound. Bytes allocated per attempt point at the steps behind GC pressure.
+ */
+public final class StepResourceUsage {
+
+    private final String type;
+    private final long attempts;
+    private final long wallNanos;
+    private final long cpuNanos;
+    private final long allocatedBytes;
+
+    StepResourceUsage(String type, long attempts, long wallNanos, long cpuNanos, long allocatedBytes) {
+        this.type = type;
+        this.attempts = attempts;
+        this.wallNanos = wallNanos;
+        this.cpuNanos = cpuNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /** Step type ({@code type:} of the step definition). */
+    public String getType() {
+        return type;
+    }
+
+    /** Measured attempts, retries included. */
+    public long getAttempts() {
+        return attempts;
+    }
+
+    /** Total time spent in {@code Step.execute}. */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /** Total CPU time of the threads running the step while in {@code Step.execute}. */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    /** Total bytes allocated by the threads running the step while in {@code Step.execute}. */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /** CPU time as a share of wall time, between 0 and 1; {@code 0} when no time was measured. */
+    public double getCpuShare() {
+        return wallNanos == 0 ? 0.0 : Math.min(1.0, (double) cpuNanos / wallNanos);
+    }
+
+    /** Mean CPU time per attempt in nanoseconds. */
+    public double getMeanCpuNanos() {
+        return attempts == 0 ? 0.0 : (double) cpuNanos / attempts;
+    }
+
+    /** Mean bytes allocated per attempt. */
+    public double getMeanAllocatedBytes() {
+        return attempts == 0 ? 0.0 : (double) allocatedBytes / attempts;
+    }
+
+    @Override
+    public String toString() {
+        return "StepResourceUsage{type=" + type + ", attempts=" + attempts + ", wallNanos=" + wallNanos
+                + ", cpuNanos=" + cpuNanos + ", allocatedBytes=" + allocatedBytes + "}";
+    }
+}
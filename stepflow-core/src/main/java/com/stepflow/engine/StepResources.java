@@ -0,0 +1,138 @@
+package com.stepflow.engine;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wall time, thread CPU time and allocated bytes of step attempts, summed per step type; see
+ * {@link Engine#setStepResourceAccounting(boolean)}.
+ *
+ * <p>Cells are resolved per plan and node once, when accounting is switched on, so recording an
+ * attempt is four striped additions with no lookup. CPU time and allocation are read from the
+ * {@link ThreadMXBean} of the thread running the step; attempts on threads the JVM cannot measure
+ * (such as virtual threads) are not counted.
+ *
+ * <p>Those counters are JVM-wide. {@link #enable()} and {@link #disable()} count the engines
+ * measuring, turn on whichever counter was off when the first engine starts, and switch exactly
+ * those back off when the last one stops, so counters enabled by the application or a profiler are
+ * left alone.
+ */
+final class StepResources {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean ALLOCATION =
+            THREADS instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) THREADS : null;
+
+    /** Engines measuring, and the counters the first of them turned on; guarded by the class lock. */
+    private static int users;
+    private static boolean enabledCpuTime;
+    private static boolean enabledAllocation;
+
+    private final Map<String, Cell> byType;
+    /** Cell of each node, indexed by plan id then node id; {@code null} for terminals and undefined steps. */
+    private final Cell[][] byNode;
+
+    StepResources(Collection<WorkflowPlan> plans) {
+        Map<String, Cell> types = new HashMap<>();
+        Cell[][] nodes = new Cell[plans.size()][];
+        for (WorkflowPlan plan : plans) {
+            Cell[] cells = new Cell[plan.nodes.length];
+            for (WorkflowPlan.StepNode node : plan.nodes) {
+                if (node.def != null && node.def.type != null) {
+                    cells[node.id] = types.computeIfAbsent(node.def.type, type -> new Cell());
+                }
+            }
+            nodes[plan.id] = cells;
+        }
+        this.byType = types;
+        this.byNode = nodes;
+    }
+
+    /**
+     * Registers one more measuring engine, turning on the JVM's thread CPU time and allocation
+     * counters if it is the first. Each successful call must be paired with {@link #disable()}.
+     *
+     * @return whether both can be measured on the current thread; nothing is registered if not
+     */
+    static synchronized boolean enable() {
+        if (!THREADS.isCurrentThreadCpuTimeSupported() || ALLOCATION == null
+                || !ALLOCATION.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+        if (users++ == 0) {
+            enabledCpuTime = !THREADS.isThreadCpuTimeEnabled();
+            if (enabledCpuTime) {
+                THREADS.setThreadCpuTimeEnabled(true);
+            }
+            enabledAllocation = !ALLOCATION.isThreadAllocatedMemoryEnabled();
+            if (enabledAllocation) {
+                ALLOCATION.setThreadAllocatedMemoryEnabled(true);
+            }
+        }
+        return true;
+    }
+
+    /** Unregisters a measuring engine; the last one switches off the counters {@link #enable()} turned on. */
+    static synchronized void disable() {
+        if (users == 0 || --users > 0) {
+            return;
+        }
+        if (enabledCpuTime) {
+            THREADS.setThreadCpuTimeEnabled(false);
+            enabledCpuTime = false;
+        }
+        if (enabledAllocation) {
+            ALLOCATION.setThreadAllocatedMemoryEnabled(false);
+            enabledAllocation = false;
+        }
+    }
+
+    /** Whether the JVM's thread CPU time and allocation counters are both on. */
+    static boolean countersEnabled() {
+        return THREADS.isThreadCpuTimeEnabled() && ALLOCATION != null && ALLOCATION.isThreadAllocatedMemoryEnabled();
+    }
+
+    /** CPU time of the current thread in nanoseconds; negative if it cannot be measured. */
+    static long cpuNanos() {
+        return THREADS.getCurrentThreadCpuTime();
+    }
+
+    /** Bytes allocated so far by the current thread; negative if it cannot be measured. */
+    static long allocatedBytes() {
+        return ALLOCATION.getCurrentThreadAllocatedBytes();
+    }
+
+    void record(int plan, int node, long wallNanos, long cpuNanos, long allocatedBytes) {
+        Cell cell = byNode[plan][node];
+        if (cell != null) {
+            cell.attempts.increment();
+            cell.wall.add(wallNanos);
+            cell.cpu.add(cpuNanos);
+            cell.allocated.add(allocatedBytes);
+        }
+    }
+
+    /** Totals by step type, for types with at least one measured attempt. */
+    Map<String, StepResourceUsage> usage() {
+        Map<String, StepResourceUsage> usage = new TreeMap<>();
+        byType.forEach((type, cell) -> {
+            long attempts = cell.attempts.sum();
+            if (attempts > 0) {
+                usage.put(type, new StepResourceUsage(type, attempts, cell.wall.sum(), cell.cpu.sum(), cell.allocated.sum()));
+            }
+        });
+        return usage;
+    }
+
+    private static final class Cell {
+        final LongAdder attempts = new LongAdder();
+        final LongAdder wall = new LongAdder();
+        final LongAdder cpu = new LongAdder();
+        final LongAdder allocated = new LongAdder();
+    }
+}
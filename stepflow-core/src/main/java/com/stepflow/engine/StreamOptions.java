@@ -0,0 +1,99 @@
+package com.stepflow.engine;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Options for {@link Engine#stream(String, StreamOptions)}.
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * Flow.Processor&lt;ExecutionContext, StepResult&gt; processor = engine.stream("ingest",
+ *     StreamOptions.builder()
+ *         .maxInFlight(64)        // at most 64 inputs held at any time
+ *         .ordered(true)          // emit results in input order
+ *         .build());
+ * </pre>
+ */
+public final class StreamOptions {
+
+    private static final StreamOptions DEFAULTS = builder().build();
+
+    private final int maxInFlight;
+    private final boolean ordered;
+    private final Executor executor;
+
+    private StreamOptions(Builder builder) {
+        this.maxInFlight = builder.maxInFlight;
+        this.ordered = builder.ordered;
+        this.executor = builder.executor;
+    }
+
+    /** Returns the default options: one in-flight run per available processor, completion order. */
+    public static StreamOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Maximum number of inputs held by the processor: running, or finished and waiting for
+     * downstream demand.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /** Whether results are emitted in input order rather than completion order. */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /** Executor running the workflow steps; {@code null} for the engine default. */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Builder for {@link StreamOptions}.
+     */
+    public static class Builder {
+        private int maxInFlight = Runtime.getRuntime().availableProcessors();
+        private boolean ordered = false;
+        private Executor executor;
+
+        /**
+         * Sets the maximum number of inputs held at any time (default: available processors).
+         * The processor requests a new input from upstream only after emitting a result.
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("maxInFlight must be at least 1, got " + maxInFlight);
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Emits results in input order when true; in completion order (default) otherwise. In input
+         * order a slow run holds back finished later runs, which still count against the bound.
+         */
+        public Builder ordered(boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        /**
+         * Runs the workflow steps on the given executor (default: the common pool).
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public StreamOptions build() {
+            return new StreamOptions(this);
+        }
+    }
+}
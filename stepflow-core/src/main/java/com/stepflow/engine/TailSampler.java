@@ -0,0 +1,179 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.StepResult;
+import com.stepflow.metrics.LatencyHistogram;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides at the end of every traced run whether its trace is kept, and hands kept traces to a
+ * {@link TraceFileWriter}; see {@link TailSampling}.
+ *
+ * <p>Every run has already been recorded in the {@link TraceBuffer}, so the decision only costs a
+ * histogram update. Only kept runs are decoded, on the completing thread and before the ring can
+ * overwrite them; formatting and file I/O happen on the writer thread.
+ */
+final class TailSampler {
+
+    /** Why a run was kept, in the order the reasons are checked. */
+    enum Reason {
+        RETRIES_EXHAUSTED,
+        FAILED,
+        SLOW
+    }
+
+    /** Threshold of a workflow with no slow-run bar yet. */
+    private static final long NOT_SLOW = Long.MAX_VALUE;
+
+    private final TailSampling options;
+    private final WorkflowPlan[] plans;
+    private final Workflow[] workflows;
+    private final TraceFileWriter writer;
+    private final LongAdder kept = new LongAdder();
+
+    /** @param plans compiled plans indexed by {@link WorkflowPlan#id} */
+    TailSampler(TailSampling options, WorkflowPlan[] plans) {
+        this.options = options;
+        this.plans = plans;
+        this.workflows = new Workflow[plans.length];
+        for (int i = 0; i < plans.length; i++) {
+            workflows[i] = new Workflow();
+        }
+        this.writer = new TraceFileWriter(options.getFile(), options.getMaxFileBytes(), options.getMaxFiles());
+    }
+
+    TailSampling options() {
+        return options;
+    }
+
+    /** Called once per traced top-level run, after its completion was recorded in {@code run.trace}. */
+    void runCompleted(RunState run, StepResult result, long nanos) {
+        Workflow workflow = workflows[run.plan.id];
+        long threshold = workflow.threshold;
+        workflow.record(nanos, run.startNanos + nanos);
+        Reason reason;
+        if (run.retriesExhausted && options.isKeepRetryExhaustion()) {
+            reason = Reason.RETRIES_EXHAUSTED;
+        } else if (!result.isSuccess() && options.isKeepFailures()) {
+            reason = Reason.FAILED;
+        } else if (nanos > threshold) {
+            reason = Reason.SLOW;
+        } else {
+            return;
+        }
+        List<RunTrace> traces = run.trace.decode(1, run.traceId, plans);
+        if (!traces.isEmpty() && writer.offer(new Kept(System.currentTimeMillis(), reason, nanos, threshold, traces.get(0)))) {
+            kept.increment();
+        }
+    }
+
+    /** Traces handed to the writer. */
+    long kept() {
+        return kept.sum();
+    }
+
+    /** Kept traces dropped because the writer fell behind. */
+    long dropped() {
+        return writer.dropped();
+    }
+
+    /** Current slow-run threshold in nanoseconds by workflow name, for workflows that have one. */
+    Map<String, Long> thresholds() {
+        Map<String, Long> thresholds = new LinkedHashMap<>();
+        for (int i = 0; i < plans.length; i++) {
+            long threshold = workflows[i].threshold;
+            if (threshold != NOT_SLOW) {
+                thresholds.put(plans[i].name, threshold);
+            }
+        }
+        return thresholds;
+    }
+
+    /** Writes out the traces already kept and stops the writer thread. */
+    void close() {
+        writer.close();
+    }
+
+    /** Latency window and current slow-run threshold of one workflow. */
+    private final class Workflow {
+        private final LatencyHistogram window = new LatencyHistogram();
+        /** {@link System#nanoTime()} the window closes at; {@code 0} before the first run. */
+        private final AtomicLong windowEnd = new AtomicLong();
+        volatile long threshold;
+
+        Workflow() {
+            long floor = options.getLatencyThresholdNanos();
+            this.threshold = floor > 0 ? floor : NOT_SLOW;
+        }
+
+        /**
+         * Adds a run to the window. The first run to complete after the window closes turns its
+         * percentile into the new threshold and starts the next window; runs recorded between the
+         * snapshot and the reset are lost, which only slightly thins the next window.
+         */
+        void record(long nanos, long now) {
+            double percentile = options.getLatencyPercentile();
+            if (percentile <= 0.0) {
+                return;
+            }
+            window.record(nanos);
+            long end = windowEnd.get();
+            if (end == 0L) {
+                windowEnd.compareAndSet(0L, now + options.getWindowNanos());
+                return;
+            }
+            if (now - end < 0 || window.count() < options.getMinRuns()
+                    || !windowEnd.compareAndSet(end, now + options.getWindowNanos())) {
+                return;
+            }
+            long value = window.snapshot().percentile(percentile);
+            window.reset();
+            threshold = Math.max(value, options.getLatencyThresholdNanos());
+        }
+    }
+
+    /** A kept trace waiting for the writer; {@link #toString()} is its line in the file. */
+    static final class Kept {
+        private final long epochMillis;
+        private final Reason reason;
+        private final long nanos;
+        private final long threshold;
+        private final RunTrace trace;
+
+        Kept(long epochMillis, Reason reason, long nanos, long threshold, RunTrace trace) {
+            this.epochMillis = epochMillis;
+            this.reason = reason;
+            this.nanos = nanos;
+            this.threshold = threshold;
+            this.trace = trace;
+        }
+
+        /**
+         * {@code <time> <workflow> run=<id> reason=<reason> duration_ns=<n> [threshold_ns=<n>] [truncated] | <entry> | ...}
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(64 + trace.getEntries().size() * 32)
+                    .append(Instant.ofEpochMilli(epochMillis))
+                    .append(' ').append(trace.getWorkflow())
+                    .append(" run=").append(trace.getRunId())
+                    .append(" reason=").append(reason)
+                    .append(" duration_ns=").append(nanos);
+            if (threshold != NOT_SLOW) {
+                sb.append(" threshold_ns=").append(threshold);
+            }
+            if (!trace.isComplete()) {
+                sb.append(" truncated");
+            }
+            for (RunTrace.Entry entry : trace.getEntries()) {
+                sb.append(" | ").append(entry);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.stepflow.engine;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Options for {@link Engine#setTailSampling(TailSampling)}: which runs keep their trace and where
+ * kept traces are written.
+ *
+ * <p>A run is kept when it fails, when a step or edge guard runs out of retries, or when it is
+ * slow. A run is slow when it takes longer than the {@link Builder#latencyPercentile percentile}
+ * of its workflow's recent runs, and at least the {@link Builder#latencyThreshold threshold}.
+ * The percentile is recomputed from a live latency histogram at the end of every
+ * {@link Builder#window window} that saw at least {@link Builder#minRuns} runs, so the bar follows
+ * the workflow's actual latency. Until the first window completes only the fixed threshold applies.
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * engine.setTailSampling(TailSampling.builder()
+ *     .file(Paths.get("/var/log/checkout/traces.log"))
+ *     .latencyPercentile(99.5)                    // keep the slowest 0.5%
+ *     .latencyThreshold(Duration.ofMillis(50))    // but never runs under 50 ms
+ *     .build());
+ * </pre>
+ */
+public final class TailSampling {
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final double latencyPercentile;
+    private final long latencyThresholdNanos;
+    private final long windowNanos;
+    private final int minRuns;
+    private final boolean keepFailures;
+    private final boolean keepRetryExhaustion;
+
+    private TailSampling(Builder builder) {
+        this.file = builder.file;
+        this.maxFileBytes = builder.maxFileBytes;
+        this.maxFiles = builder.maxFiles;
+        this.latencyPercentile = builder.latencyPercentile;
+        this.latencyThresholdNanos = builder.latencyThreshold.toNanos();
+        this.windowNanos = builder.window.toNanos();
+        this.minRuns = builder.minRuns;
+        this.keepFailures = builder.keepFailures;
+        this.keepRetryExhaustion = builder.keepRetryExhaustion;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** File kept traces are appended to, one line per run. */
+    public Path getFile() {
+        return file;
+    }
+
+    /** Size at which the file is rolled over to {@code <file>.1}. */
+    public long getMaxFileBytes() {
+        return maxFileBytes;
+    }
+
+    /** Files kept, the current one included; the oldest is deleted on roll-over. */
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    /** Percentile (0-100) of recent run durations a run must exceed to be slow; {@code 0} when disabled. */
+    public double getLatencyPercentile() {
+        return latencyPercentile;
+    }
+
+    /** Minimum duration of a slow run, in nanoseconds; {@code 0} for none. */
+    public long getLatencyThresholdNanos() {
+        return latencyThresholdNanos;
+    }
+
+    /** Length of the window the percentile is computed over, in nanoseconds. */
+    public long getWindowNanos() {
+        return windowNanos;
+    }
+
+    /** Runs a window needs before its percentile replaces the previous one. */
+    public int getMinRuns() {
+        return minRuns;
+    }
+
+    /** Whether runs ending with a FAILURE result are kept. */
+    public boolean isKeepFailures() {
+        return keepFailures;
+    }
+
+    /** Whether runs in which a step or edge guard ran out of retries are kept. */
+    public boolean isKeepRetryExhaustion() {
+        return keepRetryExhaustion;
+    }
+
+    /**
+     * Builder for {@link TailSampling}.
+     */
+    public static class Builder {
+        private Path file = Paths.get("stepflow-traces.log");
+        private long maxFileBytes = 10L * 1024 * 1024;
+        private int maxFiles = 5;
+        private double latencyPercentile = 99.0;
+        private Duration latencyThreshold = Duration.ZERO;
+        private Duration window = Duration.ofSeconds(10);
+        private int minRuns = 100;
+        private boolean keepFailures = true;
+        private boolean keepRetryExhaustion = true;
+
+        /**
+         * Appends kept traces to {@code file} (default: {@code stepflow-traces.log} in the working
+         * directory). Missing parent directories are created.
+         */
+        public Builder file(Path file) {
+            this.file = Objects.requireNonNull(file, "file");
+            return this;
+        }
+
+        /**
+         * Rolls the file over once it reaches {@code maxFileBytes} (default 10 MB), keeping
+         * {@code maxFiles} files in all (default 5): {@code <file>}, {@code <file>.1}, ...
+         */
+        public Builder rollover(long maxFileBytes, int maxFiles) {
+            if (maxFileBytes < 1) {
+                throw new IllegalArgumentException("maxFileBytes must be at least 1, got " + maxFileBytes);
+            }
+            if (maxFiles < 1) {
+                throw new IllegalArgumentException("maxFiles must be at least 1, got " + maxFiles);
+            }
+            this.maxFileBytes = maxFileBytes;
+            this.maxFiles = maxFiles;
+            return this;
+        }
+
+        /**
+         * Keeps runs slower than this percentile (0-100) of their workflow's recent runs
+         * (default 99); {@code 0} keeps slow runs by {@link #latencyThreshold} alone.
+         */
+        public Builder latencyPercentile(double percentile) {
+            if (!(percentile >= 0.0 && percentile <= 100.0)) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100, got " + percentile);
+            }
+            this.latencyPercentile = percentile;
+            return this;
+        }
+
+        /**
+         * Never treats runs shorter than {@code threshold} as slow (default: no floor). With a
+         * {@link #latencyPercentile} of {@code 0}, keeps every run longer than it.
+         */
+        public Builder latencyThreshold(Duration threshold) {
+            if (threshold.isNegative()) {
+                throw new IllegalArgumentException("threshold must not be negative, got " + threshold);
+            }
+            this.latencyThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Recomputes the percentile every {@code window} (default 10 s) from the runs that
+         * completed in it, once at least {@code minRuns} did (default 100); a quieter window is
+         * extended until it has.
+         */
+        public Builder window(Duration window, int minRuns) {
+            if (window.isNegative() || window.isZero()) {
+                throw new IllegalArgumentException("window must be positive, got " + window);
+            }
+            if (minRuns < 1) {
+                throw new IllegalArgumentException("minRuns must be at least 1, got " + minRuns);
+            }
+            this.window = window;
+            this.minRuns = minRuns;
+            return this;
+        }
+
+        /** Keeps runs ending with a FAILURE result (default true). */
+        public Builder keepFailures(boolean keep) {
+            this.keepFailures = keep;
+            return this;
+        }
+
+        /** Keeps runs in which a step or edge guard ran out of retries (default true). */
+        public Builder keepRetryExhaustion(boolean keep) {
+            this.keepRetryExhaustion = keep;
+            return this;
+        }
+
+        public TailSampling build() {
+            return new TailSampling(this);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.stepflow.engine;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Thread creation that depends on the Java release.
+ *
+ * <p>This is the Java 17 implementation. The multi-release jar carries a Java 21 variant under
+ * {@code META-INF/versions/21} that creates virtual threads; both expose the same methods.
+ */
+final class Threads {
+
+    private Threads() {
+    }
+
+    /** Returns true if this runtime can create virtual threads. */
+    static boolean virtualThreadsSupported() {
+        return false;
+    }
+
+    /**
+     * Returns an executor starting one virtual thread per task.
+     *
+     * @throws UnsupportedOperationException on runtimes without virtual threads
+     */
+    static Executor virtualThreadPerTask() {
+        throw new UnsupportedOperationException(
+                "ExecutionMode.VIRTUAL_THREADS requires Java 21 or later (running " + Runtime.version().feature() + ")");
+    }
+}
@@ -0,0 +1,229 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.StepResult;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free ring of compact trace entries, overwritten oldest first.
+ *
+ * <p>Every entry is two {@code long}s:
+ * <pre>
+ * word 0: run id (40 bits) | plan id (16 bits) | kind (8 bits)
+ * word 1: node, guard or edge id (20 bits) | aux (8 bits) | value (36 bits)
+ * </pre>
+ * where {@code aux} holds the attempt, status or guard outcome and {@code value} a duration in
+ * nanoseconds or a retry delay in milliseconds, saturated at 2^36 - 1 (about 68 s of nanoseconds).
+ *
+ * <p>Writers claim a sequence number with one atomic increment and publish the entry through a
+ * per-slot sequence, so recording never blocks and never allocates. Readers copy an entry and
+ * accept it only if its slot still holds the expected sequence before and after the copy
+ * (a seqlock), so they never see a half-written entry from the writer that owns the slot. Two
+ * writers can only collide on a slot if one stalls for a whole lap of the ring, which is why the
+ * capacity has a floor of {@link #MIN_CAPACITY}.
+ */
+final class TraceBuffer {
+
+    static final int MIN_CAPACITY = 1024;
+
+    static final int RUN_STARTED = 1;
+    static final int STEP = 2;
+    static final int GUARD = 3;
+    static final int STEP_RETRY = 4;
+    static final int EDGE_RETRY = 5;
+    static final int TRANSITION = 6;
+    static final int JOIN = 7;
+    static final int RUN_COMPLETED = 8;
+
+    private static final long RUN_ID_MASK = (1L << 40) - 1;
+    private static final int PLAN_MASK = 0xFFFF;
+    private static final int ID_MASK = 0xFFFFF;
+    private static final long VALUE_MAX = (1L << 36) - 1;
+    /** Slot sequence while the slot is being written. */
+    private static final long BUSY = -1L;
+    private static final StepResult.Status[] STATUSES = StepResult.Status.values();
+
+    private final int mask;
+    private final long[] words;
+    private final AtomicLongArray sequences;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicLong runIds = new AtomicLong();
+
+    /** @param capacity entries kept; rounded up to a power of two of at least {@link #MIN_CAPACITY} */
+    TraceBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(MIN_CAPACITY, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.words = new long[size * 2];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, BUSY);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    long nextRunId() {
+        return runIds.incrementAndGet() & RUN_ID_MASK;
+    }
+
+    void runStarted(RunState run) {
+        record(run, RUN_STARTED, run.plan.root, 0, 0L);
+    }
+
+    void step(RunState run, WorkflowPlan.StepNode node, int attempt, StepResult.Status status, long nanos) {
+        record(run, STEP, node.id, (Math.min(attempt, 63) << 2) | status.ordinal(), nanos);
+    }
+
+    void guard(RunState run, WorkflowPlan.GuardRef ref, boolean passed) {
+        record(run, GUARD, ref.id, passed ? 1 : 0, 0L);
+    }
+
+    void stepRetry(RunState run, WorkflowPlan.StepNode node, int nextAttempt, long delayMs) {
+        record(run, STEP_RETRY, node.id, Math.min(nextAttempt, 255), delayMs);
+    }
+
+    void edgeRetry(RunState run, WorkflowPlan.EdgeNode edge, int nextAttempt, long delayMs) {
+        record(run, EDGE_RETRY, edge.id, Math.min(nextAttempt, 255), delayMs);
+    }
+
+    void transition(RunState run, int edgeId) {
+        record(run, TRANSITION, edgeId, 0, 0L);
+    }
+
+    void join(RunState run, WorkflowPlan.StepNode join) {
+        record(run, JOIN, join.id, 0, 0L);
+    }
+
+    void runCompleted(RunState run, StepResult.Status status, long nanos) {
+        record(run, RUN_COMPLETED, 0, status.ordinal(), nanos);
+    }
+
+    private void record(RunState run, int kind, int id, int aux, long value) {
+        long w0 = (run.traceId << 24) | ((long) (run.plan.id & PLAN_MASK) << 8) | kind;
+        long w1 = ((long) (id < 0 ? ID_MASK : Math.min(id, ID_MASK)) << 44)
+                | ((long) (aux & 0xFF) << 36)
+                | Math.max(0L, Math.min(value, VALUE_MAX));
+        long seq = cursor.getAndIncrement();
+        int slot = (int) seq & mask;
+        sequences.setOpaque(slot, BUSY);
+        VarHandle.storeStoreFence();
+        words[slot << 1] = w0;
+        words[(slot << 1) + 1] = w1;
+        sequences.setRelease(slot, seq);
+    }
+
+    /**
+     * Decodes the most recently active runs still in the buffer, most recent first.
+     *
+     * @param maxRuns maximum number of runs to return
+     * @param runId only this run, or {@code -1} for any
+     * @param plans compiled plans indexed by {@link WorkflowPlan#id}
+     */
+    List<RunTrace> decode(int maxRuns, long runId, WorkflowPlan[] plans) {
+        // Newest to oldest; runs are ordered by their latest entry
+        Map<Long, List<long[]>> byRun = new LinkedHashMap<>();
+        long end = cursor.get();
+        long start = Math.max(0L, end - capacity());
+        for (long seq = end - 1; seq >= start; seq--) {
+            int slot = (int) seq & mask;
+            if (sequences.getAcquire(slot) != seq) {
+                continue;
+            }
+            long w0 = words[slot << 1];
+            long w1 = words[(slot << 1) + 1];
+            VarHandle.loadLoadFence();
+            if (sequences.getOpaque(slot) != seq) {
+                continue;
+            }
+            long entryRun = w0 >>> 24;
+            if (runId >= 0 && entryRun != runId) {
+                continue;
+            }
+            List<long[]> entries = byRun.get(entryRun);
+            if (entries == null) {
+                if (byRun.size() >= maxRuns) {
+                    continue;
+                }
+                entries = new ArrayList<>();
+                byRun.put(entryRun, entries);
+            }
+            entries.add(new long[] {w0, w1});
+            if (runId >= 0 && ((int) w0 & 0xFF) == RUN_STARTED) {
+                // Nothing of the run precedes its start
+                break;
+            }
+        }
+        List<RunTrace> traces = new ArrayList<>(byRun.size());
+        for (Map.Entry<Long, List<long[]>> run : byRun.entrySet()) {
+            List<long[]> raw = run.getValue();
+            Collections.reverse(raw);
+            traces.add(decodeRun(run.getKey(), raw, plans));
+        }
+        return traces;
+    }
+
+    private static RunTrace decodeRun(long runId, List<long[]> raw, WorkflowPlan[] plans) {
+        int planId = (int) (raw.get(0)[0] >>> 8) & PLAN_MASK;
+        WorkflowPlan plan = planId < plans.length ? plans[planId] : null;
+        List<RunTrace.Entry> entries = new ArrayList<>(raw.size());
+        boolean started = false;
+        for (long[] entry : raw) {
+            int kind = (int) entry[0] & 0xFF;
+            int id = (int) (entry[1] >>> 44) & ID_MASK;
+            int aux = (int) (entry[1] >>> 36) & 0xFF;
+            long value = entry[1] & VALUE_MAX;
+            switch (kind) {
+                case RUN_STARTED:
+                    started = true;
+                    entries.add(new RunTrace.Entry(RunTrace.Kind.RUN_STARTED, nodeName(plan, id), 0, null, false, 0L));
+                    break;
+                case STEP:
+                    entries.add(new RunTrace.Entry(RunTrace.Kind.STEP, nodeName(plan, id), aux >>> 2,
+                            STATUSES[aux & 0x3], false, value));
+                    break;
+                case GUARD:
+                    entries.add(new RunTrace.Entry(RunTrace.Kind.GUARD,
+                            plan != null && id < plan.guards.length ? plan.guards[id].name : "#" + id,
+                            0, null, aux == 1, 0L));
+                    break;
+                case STEP_RETRY:
+                    entries.add(new RunTrace.Entry(RunTrace.Kind.STEP_RETRY, nodeName(plan, id), aux, null, false,
+                            value * 1_000_000L));
+                    break;
+                case EDGE_RETRY:
+                    entries.add(new RunTrace.Entry(RunTrace.Kind.EDGE_RETRY, edgeName(plan, id), aux, null, false,
+                            value * 1_000_000L));
+                    break;
+                case TRANSITION:
+                    entries.add(new RunTrace.Entry(RunTrace.Kind.TRANSITION, edgeName(plan, id), 0, null, false, 0L));
+                    break;
+                case JOIN:
+                    entries.add(new RunTrace.Entry(RunTrace.Kind.JOIN, nodeName(plan, id), 0, null, false, 0L));
+                    break;
+                case RUN_COMPLETED:
+                    entries.add(new RunTrace.Entry(RunTrace.Kind.RUN_COMPLETED, null, 0, STATUSES[aux & 0x3], false, value));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return new RunTrace(runId, plan != null ? plan.name : "#" + planId, started, entries);
+    }
+
+    private static String nodeName(WorkflowPlan plan, int id) {
+        return plan != null && id < plan.nodes.length ? plan.nodes[id].name : "#" + id;
+    }
+
+    private static String edgeName(WorkflowPlan plan, int id) {
+        return plan != null && id < plan.edgeNames.length ? plan.edgeNames[id] : "#" + id;
+    }
+}
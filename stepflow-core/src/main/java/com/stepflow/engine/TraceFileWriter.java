@@ -0,0 +1,179 @@
+package com.stepflow.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Appends one line per kept trace to a size-capped, rolling set of files:
+ * {@code <file>}, then {@code <file>.1} up to {@code <file>.<maxFiles - 1>}, oldest last.
+ *
+ * <p>Lines are queued without blocking and written by a single daemon thread, which flushes after
+ * every batch. When the queue is full the trace is dropped and counted rather than slowing the run
+ * that produced it. I/O errors are logged and the affected lines dropped; the file is reopened for
+ * the next batch.
+ */
+final class TraceFileWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TraceFileWriter.class);
+
+    static final int QUEUE_CAPACITY = 1024;
+    private static final Object CLOSE = new Object();
+    private static final long CLOSE_TIMEOUT_MS = 5_000L;
+
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final LongAdder dropped = new LongAdder();
+    private final Thread thread;
+
+    private OutputStream out;
+    private long size;
+
+    TraceFileWriter(Path file, long maxBytes, int maxFiles) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        this.thread = new Thread(this::drain, "stepflow-trace-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Queues {@code line.toString()} for writing; returns false, counting a drop, if the queue is full. */
+    boolean offer(Object line) {
+        if (queue.offer(line)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    /** Writes out every line queued so far and stops the writer thread. */
+    void close() {
+        try {
+            if (queue.offer(CLOSE, CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                thread.join(CLOSE_TIMEOUT_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        List<Object> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                boolean closing = false;
+                for (Object line : batch) {
+                    if (line == CLOSE) {
+                        closing = true;
+                    } else {
+                        write(line.toString());
+                    }
+                }
+                batch.clear();
+                flush();
+                if (closing) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeFile();
+        }
+    }
+
+    private void write(String line) {
+        byte[] bytes = (line + '\n').getBytes(StandardCharsets.UTF_8);
+        try {
+            if (out == null) {
+                open();
+            }
+            if (size > 0 && size + bytes.length > maxBytes) {
+                roll();
+            }
+            out.write(bytes);
+            size += bytes.length;
+        } catch (IOException e) {
+            LOGGER.warn("Could not write trace to {}: {}", file, e.toString());
+            closeFile();
+        }
+    }
+
+    private void flush() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            LOGGER.warn("Could not write trace to {}: {}", file, e.toString());
+            closeFile();
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND), 8192);
+        size = Files.size(file);
+    }
+
+    /** Shifts {@code <file>.i} to {@code <file>.i+1}, dropping the oldest, and starts a new file. */
+    private void roll() throws IOException {
+        out.close();
+        out = null;
+        if (maxFiles == 1) {
+            Files.deleteIfExists(file);
+        } else {
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path source = i == 1 ? file : rolled(i - 1);
+                if (Files.exists(source)) {
+                    Files.move(source, rolled(i), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        open();
+    }
+
+    private Path rolled(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            LOGGER.debug("Could not close trace file {}: {}", file, e.toString());
+        }
+        out = null;
+    }
+}
@@ -0,0 +1,564 @@
+package com.stepflow.engine;
+
+import com.stepflow.component.ComponentScanner;
+import com.stepflow.config.DependencyInjector;
+import com.stepflow.config.FlowConfig;
+import com.stepflow.core.annotations.ComponentScope;
+import com.stepflow.core.annotations.GuardComponent;
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.Guard;
+import com.stepflow.execution.Step;
+import com.stepflow.metrics.MetricsRecorder;
+import com.stepflow.metrics.WorkflowDescriptor;
+
+import java.util.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable, index-based execution plan compiled from a {@link FlowConfig.WorkflowDef}.
+ *
+ * <p>The {@link Engine} compiles every workflow once at construction time so that a run never
+ * has to scan {@link FlowConfig.WorkflowDef#edges} or re-resolve components:
+ * <ul>
+ *   <li>Every step name referenced by the workflow (root, edge endpoints, alternative targets)
+ *       is assigned a dense integer id; terminals (SUCCESS/FAILURE) are ordinary nodes flagged as terminal</li>
+ *   <li>Outgoing edges are stored per node as an array in YAML declaration order</li>
+ *   <li>Step and guard component classes are resolved through the {@link ComponentScanner} up front,
+ *       together with a {@link ComponentProvider} honoring the component's {@link ComponentScope}</li>
+ *   <li>Effective configuration (defaults + step config) is merged once and shared read-only</li>
+ *   <li>Edge failure strategies, retry attempts and delays are normalized into primitive fields</li>
+ * </ul>
+ *
+ * <p>Per-run state (current node, visited set) is kept by the engine and sized from {@link #size()},
+ * so the cycle check is a bit test rather than a hash lookup.
+ *
+ * <p>Plans are immutable after compilation and may be shared by concurrent runs.
+ */
+final class WorkflowPlan {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkflowPlan.class);
+
+    /** Sentinel id for "no target" (null root or null edge target); ends the run successfully. */
+    static final int NO_NODE = -1;
+
+    /** Normalized edge {@code onFailure} strategy. Unknown strategies behave like STOP. */
+    enum FailureStrategy { STOP, SKIP, CONTINUE, ALTERNATIVE, RETRY }
+
+    /** Normalized join {@code onBranchFailure} policy. Unknown values behave like CANCEL. */
+    enum JoinPolicy { CANCEL, WAIT, IGNORE }
+
+    /** Position of the workflow in its engine, used to find the run's metrics handle. */
+    final int id;
+    final String name;
+    final int root;
+    final StepNode[] nodes;
+    final GuardRef[] guards;
+    /** Keys of {@link FlowConfig.WorkflowDef#outputs}; {@code null} to return the whole context. */
+    final String[] outputs;
+    /** Context key liveness; {@code null} when the workflow declares no outputs. */
+    final Liveness liveness;
+    /** Whether dead keys are removed from the context at runtime ({@code memory: aggressive}). */
+    final boolean releaseDeadKeys;
+    /** Names of the routes runs report to metrics, {@code "from -> to"}, by {@link EdgeNode#id}. */
+    final String[] edgeNames;
+    /** Run states reused by synchronous runs of this plan. */
+    final RunState.Pool runStates;
+    private final Map<String, Integer> nodeIds;
+
+    /** Pooled run states per plan; enough for the callers of a typical worker pool. */
+    private static final int RUN_STATE_POOL_SIZE = 16;
+
+    private WorkflowPlan(int id, String name, int root, StepNode[] nodes, GuardRef[] guards, String[] outputs,
+                         Liveness liveness, boolean releaseDeadKeys, Map<String, Integer> nodeIds, String[] edgeNames) {
+        this.id = id;
+        this.name = name;
+        this.root = root;
+        this.nodes = nodes;
+        this.guards = guards;
+        this.outputs = outputs;
+        this.liveness = liveness;
+        this.releaseDeadKeys = releaseDeadKeys;
+        this.nodeIds = nodeIds;
+        this.edgeNames = edgeNames;
+        this.runStates = new RunState.Pool(this, RUN_STATE_POOL_SIZE);
+    }
+
+    /** Number of nodes in the plan, i.e. the size of any per-run node bitset. */
+    int size() {
+        return nodes.length;
+    }
+
+    /** Returns the node id for a step name, or {@link #NO_NODE} if the workflow does not reference it. */
+    int idOf(String stepName) {
+        Integer id = nodeIds.get(stepName);
+        return id != null ? id : NO_NODE;
+    }
+
+    /** Returns the step name for a node id, or {@code null} for {@link #NO_NODE}. */
+    String nameOf(int id) {
+        return id >= 0 ? nodes[id].name : null;
+    }
+
+    /** Describes the step, guard and edge ids of this plan to a {@link MetricsRecorder}. */
+    WorkflowDescriptor describe() {
+        List<String> steps = new ArrayList<>(nodes.length);
+        List<String> types = new ArrayList<>(nodes.length);
+        for (StepNode node : nodes) {
+            steps.add(node.name);
+            types.add(node.def != null ? node.def.type : null);
+        }
+        List<String> guardNames = new ArrayList<>(guards.length);
+        for (GuardRef guard : guards) guardNames.add(guard.name);
+        return new WorkflowDescriptor(name, steps, types, guardNames, Arrays.asList(edgeNames.clone()));
+    }
+
+    /** A compiled workflow node (a step or a terminal marker). */
+    static final class StepNode {
+        final int id;
+        final String name;
+        final boolean terminal;
+        /** Step definition from {@link FlowConfig#steps}; {@code null} if the step is not defined. */
+        final FlowConfig.StepDef def;
+        /** Resolved implementation; {@code null} if the type could not be resolved. */
+        final Class<? extends Step> stepClass;
+        /** Scoped instance provider; {@code null} when {@link #stepClass} is unresolved. */
+        final ComponentProvider<Step> provider;
+        final Map<String, Object> effectiveConfig;
+        /** Step-level guards (ALL must pass). Empty when none are configured. */
+        final GuardRef[] stepGuards;
+        final FlowConfig.RetryConfig retry;
+        final int maxAttempts;
+        /** Retry guard; {@code null} for unconditional retry. */
+        final GuardRef retryGuard;
+        /** Non-null if this node is a join declared in {@link FlowConfig.WorkflowDef#joins}. */
+        final JoinPolicy join;
+        /** Sequential outgoing edges, evaluated in declaration order. */
+        EdgeNode[] outgoing = NO_EDGES;
+        /** Parallel ({@code kind: parallel}) edges started together when this node is a fork. */
+        EdgeNode[] branches = NO_EDGES;
+        /** Join node where the {@link #branches} converge; {@link #NO_NODE} if this node is not a fork. */
+        int forkJoin = NO_NODE;
+
+        StepNode(int id, String name, boolean terminal, FlowConfig.StepDef def, Class<? extends Step> stepClass,
+                 ComponentProvider<Step> provider, Map<String, Object> effectiveConfig,
+                 GuardRef[] stepGuards, GuardRef retryGuard, JoinPolicy join) {
+            this.id = id;
+            this.name = name;
+            this.terminal = terminal;
+            this.def = def;
+            this.stepClass = stepClass;
+            this.provider = provider;
+            this.effectiveConfig = effectiveConfig;
+            this.stepGuards = stepGuards;
+            this.retry = def != null ? def.retry : null;
+            this.maxAttempts = computeMaxAttempts(this.retry);
+            this.retryGuard = retryGuard;
+            this.join = join;
+        }
+    }
+
+    /** A compiled outgoing edge. */
+    static final class EdgeNode {
+        /** Metrics id of the route to {@link #target}. */
+        final int id;
+        /** Metrics id of the route to {@link #alternative}; {@link #NO_NODE} without an alternative. */
+        final int alternativeId;
+        final FlowConfig.EdgeDef def;
+        final String from;
+        final String to;
+        final int target;
+        /** Edge guard; {@code null} for a default (no-guard) edge. */
+        final GuardRef guard;
+        final FailureStrategy strategy;
+        /** Alternative target id; {@link #NO_NODE} if no alternativeTarget is configured. */
+        final int alternative;
+        final String alternativeName;
+        final int retryAttempts;
+        final long retryDelay;
+        final boolean parallel;
+
+        EdgeNode(int id, FlowConfig.EdgeDef def, int target, GuardRef guard, int alternative) {
+            this.id = id;
+            this.alternativeId = alternative != NO_NODE ? id + 1 : NO_NODE;
+            this.def = def;
+            this.from = def.from;
+            this.to = def.to;
+            this.target = target;
+            this.guard = guard;
+            this.strategy = parseStrategy(def.onFailure != null ? def.onFailure.strategy : null);
+            this.alternative = alternative;
+            this.alternativeName = def.onFailure != null ? def.onFailure.alternativeTarget : null;
+            this.retryAttempts = (def.onFailure != null && def.onFailure.attempts != null)
+                    ? Math.max(1, def.onFailure.attempts) : 3;
+            this.retryDelay = (def.onFailure != null && def.onFailure.delay != null)
+                    ? Math.max(0L, def.onFailure.delay) : 1000L;
+            this.parallel = isParallel(def);
+        }
+    }
+
+    /** A guard reference resolved by name (step definition first, then class-like name). */
+    static final class GuardRef {
+        final int id;
+        final String name;
+        /** Guard definition from {@link FlowConfig#steps}; {@code null} when resolved by class-like name. */
+        final FlowConfig.StepDef def;
+        /** Resolved implementation; {@code null} if unresolved. */
+        final Class<? extends Guard> guardClass;
+        /** Scoped instance provider; {@code null} when {@link #guardClass} is unresolved. */
+        final ComponentProvider<Guard> provider;
+        final Map<String, Object> effectiveConfig;
+        /** Cross-run result cache when the guard class is {@code @CacheableGuard}; {@code null} otherwise. */
+        final GuardResultCache cache;
+
+        GuardRef(int id, String name, FlowConfig.StepDef def, Class<? extends Guard> guardClass,
+                 ComponentProvider<Guard> provider, Map<String, Object> effectiveConfig, GuardResultCache cache) {
+            this.id = id;
+            this.name = name;
+            this.def = def;
+            this.guardClass = guardClass;
+            this.provider = provider;
+            this.effectiveConfig = effectiveConfig;
+            this.cache = cache;
+        }
+    }
+
+    private static final EdgeNode[] NO_EDGES = new EdgeNode[0];
+    private static final GuardRef[] NO_GUARDS = new GuardRef[0];
+
+    // ======================================================================================
+    // COMPILATION
+    // ======================================================================================
+
+    /**
+     * Compiles a workflow definition against the given configuration and component registry.
+     * Never fails: unresolved steps, types and guards are recorded as {@code null} and reported
+     * by the engine at execution time exactly as before.
+     *
+     * <p>The only structural error reported here is a fork whose parallel branches do not
+     * converge on exactly one join, since such a workflow cannot be executed at all.
+     *
+     * @param planId position of the workflow in its engine (see {@link #id})
+     * @param providers engine-wide provider cache keyed by component kind and name, so that scoped
+     *                  instances (e.g. SINGLETON) are shared by every workflow of the same engine
+     * @param guardCaches engine-wide {@code @CacheableGuard} result caches keyed by guard name
+     * @throws IllegalArgumentException if the parallel branches of a fork do not converge on a single join
+     */
+    static WorkflowPlan compile(int planId, String name, FlowConfig.WorkflowDef workflow, FlowConfig config,
+                                ComponentScanner scanner, DependencyInjector injector,
+                                Map<String, ComponentProvider<?>> providers,
+                                Map<String, GuardResultCache> guardCaches) {
+        Compiler c = new Compiler(config, workflow.joins, scanner, injector, providers, guardCaches);
+        List<FlowConfig.EdgeDef> edges = workflow.edges != null ? workflow.edges : Collections.emptyList();
+
+        int root = c.node(workflow.root);
+        for (FlowConfig.EdgeDef e : edges) {
+            if (e == null) continue;
+            c.node(e.from);
+            c.node(e.to);
+            if (e.onFailure != null) c.node(e.onFailure.alternativeTarget);
+        }
+
+        Map<Integer, List<EdgeNode>> outgoing = new HashMap<>();
+        Map<Integer, List<EdgeNode>> branches = new HashMap<>();
+        List<String> edgeNames = new ArrayList<>();
+        for (FlowConfig.EdgeDef e : edges) {
+            if (e == null || e.from == null) continue;
+            String alt = e.onFailure != null ? e.onFailure.alternativeTarget : null;
+            EdgeNode edge = new EdgeNode(edgeNames.size(), e, c.node(e.to), c.guard(e.guard),
+                    (alt == null || alt.isEmpty()) ? NO_NODE : c.node(alt));
+            edgeNames.add(e.from + " -> " + e.to);
+            if (edge.alternativeId != NO_NODE) {
+                edgeNames.add(e.from + " -> " + alt);
+            }
+            (edge.parallel ? branches : outgoing).computeIfAbsent(c.node(e.from), k -> new ArrayList<>()).add(edge);
+        }
+
+        StepNode[] nodes = c.nodes.toArray(new StepNode[0]);
+        for (Map.Entry<Integer, List<EdgeNode>> entry : outgoing.entrySet()) {
+            nodes[entry.getKey()].outgoing = entry.getValue().toArray(NO_EDGES);
+        }
+        for (Map.Entry<Integer, List<EdgeNode>> entry : branches.entrySet()) {
+            nodes[entry.getKey()].branches = entry.getValue().toArray(NO_EDGES);
+        }
+        JoinResolver joins = new JoinResolver(nodes);
+        for (StepNode node : nodes) {
+            if (node.branches.length == 0) continue;
+            Set<Integer> found = joins.joinsOf(node);
+            if (found.size() != 1) {
+                List<String> names = new ArrayList<>();
+                for (int id : found) names.add(nodes[id].name);
+                throw new IllegalArgumentException(String.format(
+                        "Workflow '%s': Parallel branches from step '%s' must converge on exactly one join declared in 'joins', found %s",
+                        name, node.name, names));
+            }
+        }
+        String[] outputs = workflow.outputs != null ? workflow.outputs.toArray(new String[0]) : null;
+        Liveness liveness = workflow.outputs != null ? Liveness.analyze(nodes, workflow.outputs, injector) : null;
+        boolean release = Liveness.aggressive(workflow);
+        if (release && liveness == null) {
+            LOGGER.warn("Workflow '{}' uses memory: aggressive without 'outputs'; every key stays live", name);
+            release = false;
+        }
+        return new WorkflowPlan(planId, name, root, nodes, c.guards.values().toArray(NO_GUARDS), outputs,
+                liveness, release, c.ids, edgeNames.toArray(new String[0]));
+    }
+
+    /** Compiles with a guard result cache private to this plan. */
+    static WorkflowPlan compile(String name, FlowConfig.WorkflowDef workflow, FlowConfig config,
+                                ComponentScanner scanner, DependencyInjector injector,
+                                Map<String, ComponentProvider<?>> providers) {
+        return compile(0, name, workflow, config, scanner, injector, providers, new HashMap<>());
+    }
+
+    /** Merges category defaults, per-name defaults and the component's own config (later wins). */
+    static Map<String, Object> effectiveConfig(FlowConfig config, String name, Map<String, Object> ownConfig, boolean isGuard) {
+        Map<String, Object> effective = new HashMap<>();
+        if (config.defaults != null) {
+            // Category-wide defaults
+            Map<String, Object> cat = config.defaults.get(isGuard ? "guard" : "step");
+            if (cat != null) {
+                effective.putAll(cat);
+            }
+            // Per-name defaults
+            Map<String, Object> byName = config.defaults.get(name);
+            if (byName != null) {
+                effective.putAll(byName);
+            }
+        }
+        if (ownConfig != null) {
+            effective.putAll(ownConfig);
+        }
+        return effective;
+    }
+
+    /**
+     * Resolves the instance scope of a component: a {@code scope} on the step definition wins,
+     * then the {@code scope} attribute of {@code @StepComponent}/{@code @GuardComponent},
+     * then {@link ComponentScope#PROTOTYPE}.
+     */
+    static ComponentScope resolveScope(String name, FlowConfig.StepDef def, Class<?> componentClass) {
+        if (def != null && def.scope != null && !def.scope.trim().isEmpty()) {
+            ComponentScope configured = ComponentScope.parse(def.scope);
+            if (configured != null) {
+                return configured;
+            }
+            LOGGER.warn("Unknown scope '{}' on '{}'; falling back to annotation scope", def.scope, name);
+        }
+        if (componentClass != null) {
+            StepComponent step = componentClass.getAnnotation(StepComponent.class);
+            if (step != null) return step.scope();
+            GuardComponent guard = componentClass.getAnnotation(GuardComponent.class);
+            if (guard != null) return guard.scope();
+        }
+        return ComponentScope.PROTOTYPE;
+    }
+
+    /** Returns true if the edge is a parallel fan-out edge ({@code kind: parallel}). */
+    static boolean isParallel(FlowConfig.EdgeDef edge) {
+        return edge != null && edge.kind != null && "parallel".equalsIgnoreCase(edge.kind.trim());
+    }
+
+    /** Returns true if the given step name is a terminal marker. */
+    static boolean isTerminal(String stepName) {
+        return "SUCCESS".equals(stepName) || "FAILURE".equals(stepName);
+    }
+
+    /** Determines the total number of executions allowed based on retry config. */
+    static int computeMaxAttempts(FlowConfig.RetryConfig retry) {
+        if (retry == null) return 1;
+        if (retry.retries != null && retry.retries >= 0) {
+            // retries means additional attempts after the initial
+            return Math.max(1, retry.retries + 1);
+        }
+        return Math.max(1, retry.maxAttempts);
+    }
+
+    private static JoinPolicy parseJoinPolicy(FlowConfig.JoinDef def) {
+        if (def == null || def.onBranchFailure == null) return JoinPolicy.CANCEL;
+        switch (def.onBranchFailure.trim().toUpperCase()) {
+            case "WAIT": return JoinPolicy.WAIT;
+            case "IGNORE": return JoinPolicy.IGNORE;
+            case "CANCEL":
+            default: return JoinPolicy.CANCEL;
+        }
+    }
+
+    private static FailureStrategy parseStrategy(String strategy) {
+        if (strategy == null) return FailureStrategy.STOP;
+        switch (strategy.trim().toUpperCase()) {
+            case "SKIP": return FailureStrategy.SKIP;
+            case "CONTINUE": return FailureStrategy.CONTINUE;
+            case "ALTERNATIVE": return FailureStrategy.ALTERNATIVE;
+            case "RETRY": return FailureStrategy.RETRY;
+            case "STOP":
+            default: return FailureStrategy.STOP;
+        }
+    }
+
+    /** Assigns ids and resolves components while a plan is being built. */
+    private static final class Compiler {
+        private final FlowConfig config;
+        private final Map<String, FlowConfig.JoinDef> joins;
+        private final ComponentScanner scanner;
+        private final DependencyInjector injector;
+        private final Map<String, ComponentProvider<?>> providers;
+        private final Map<String, GuardResultCache> guardCaches;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<StepNode> nodes = new ArrayList<>();
+        private final Map<String, GuardRef> guards = new LinkedHashMap<>();
+
+        Compiler(FlowConfig config, Map<String, FlowConfig.JoinDef> joins, ComponentScanner scanner,
+                 DependencyInjector injector, Map<String, ComponentProvider<?>> providers,
+                 Map<String, GuardResultCache> guardCaches) {
+            this.config = config;
+            this.joins = joins != null ? joins : Collections.emptyMap();
+            this.scanner = scanner;
+            this.injector = injector;
+            this.providers = providers;
+            this.guardCaches = guardCaches;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> ComponentProvider<T> provider(String kind, String name, FlowConfig.StepDef def,
+                                                  Class<? extends T> type, Map<String, Object> effective) {
+            if (type == null) return null;
+            return (ComponentProvider<T>) providers.computeIfAbsent(kind + ':' + name, k ->
+                    new ComponentProvider<>(type, resolveScope(name, def, type), effective, config.settings, injector));
+        }
+
+        int node(String stepName) {
+            if (stepName == null) return NO_NODE;
+            Integer existing = ids.get(stepName);
+            if (existing != null) return existing;
+
+            int id = nodes.size();
+            ids.put(stepName, id);
+            boolean terminal = isTerminal(stepName);
+            JoinPolicy join = joins.containsKey(stepName) ? parseJoinPolicy(joins.get(stepName)) : null;
+            FlowConfig.StepDef def = (!terminal && join == null && config.steps != null) ? config.steps.get(stepName) : null;
+            StepNode node;
+            if (def == null) {
+                node = new StepNode(id, stepName, terminal, null, null, null, Collections.emptyMap(), NO_GUARDS, null, join);
+            } else {
+                GuardRef[] stepGuards = NO_GUARDS;
+                if (def.guards != null && !def.guards.isEmpty()) {
+                    stepGuards = new GuardRef[def.guards.size()];
+                    for (int i = 0; i < stepGuards.length; i++) {
+                        stepGuards[i] = guard(def.guards.get(i));
+                    }
+                }
+                GuardRef retryGuard = def.retry != null ? guard(def.retry.guard) : null;
+                Class<? extends Step> stepClass = scanner.getStepClass(def.type);
+                Map<String, Object> effective = Collections.unmodifiableMap(effectiveConfig(config, stepName, def.config, false));
+                node = new StepNode(id, stepName, false, def, stepClass, provider("step", stepName, def, stepClass, effective),
+                        effective, stepGuards, retryGuard, null);
+            }
+            nodes.add(node);
+            return id;
+        }
+
+        private GuardResultCache cache(String guardName, Class<? extends Guard> guardClass) {
+            if (guardClass == null) return null;
+            GuardResultCache existing = guardCaches.get(guardName);
+            if (existing != null) return existing;
+            GuardResultCache created = GuardResultCache.of(guardClass);
+            if (created != null) guardCaches.put(guardName, created);
+            return created;
+        }
+
+        GuardRef guard(String guardName) {
+            if (guardName == null || guardName.isEmpty()) return null;
+            GuardRef existing = guards.get(guardName);
+            if (existing != null) return existing;
+
+            FlowConfig.StepDef def = config.steps != null ? config.steps.get(guardName) : null;
+            Class<? extends Guard> guardClass;
+            Map<String, Object> effective;
+            if (def != null) {
+                guardClass = scanner.getGuardClass(def.type);
+                effective = effectiveConfig(config, guardName, def.config, true);
+            } else {
+                // Fallback: resolve guard directly by class-like name (lowerCamel, UpperCamel, or FQCN)
+                guardClass = scanner.getGuardClass(guardName);
+                effective = effectiveConfig(config, guardName, null, true);
+            }
+            effective = Collections.unmodifiableMap(effective);
+            GuardRef ref = new GuardRef(guards.size(), guardName, def, guardClass,
+                    provider("guard", guardName, def, guardClass, effective), effective, cache(guardName, guardClass));
+            guards.put(guardName, ref);
+            return ref;
+        }
+    }
+
+    /**
+     * Finds the join each fork converges on by walking its branches until a join node is reached.
+     * A nested fork inside a branch is stepped over through its own join, so nested fan-outs resolve
+     * to the enclosing join. A terminal reachable from a branch counts as an extra convergence point,
+     * as does a branch that reaches nothing, so every branch must end at the join.
+     */
+    private static final class JoinResolver {
+        private final StepNode[] nodes;
+        private final Set<Integer> resolving = new HashSet<>();
+
+        JoinResolver(StepNode[] nodes) {
+            this.nodes = nodes;
+        }
+
+        Set<Integer> joinsOf(StepNode fork) {
+            Set<Integer> found = new LinkedHashSet<>();
+            if (fork.forkJoin != NO_NODE) {
+                found.add(fork.forkJoin);
+                return found;
+            }
+            if (!resolving.add(fork.id)) {
+                return found; // a fork reachable from its own branches never converges
+            }
+            for (EdgeNode branch : fork.branches) {
+                Set<Integer> reached = reachableJoins(branch.target);
+                if (reached.isEmpty()) {
+                    // the branch dead-ends: report an unresolvable fork
+                    resolving.remove(fork.id);
+                    return reached;
+                }
+                found.addAll(reached);
+            }
+            resolving.remove(fork.id);
+            if (found.size() == 1) {
+                fork.forkJoin = found.iterator().next();
+            }
+            return found;
+        }
+
+        private Set<Integer> reachableJoins(int start) {
+            Set<Integer> found = new LinkedHashSet<>();
+            BitSet seen = new BitSet(nodes.length);
+            Deque<Integer> pending = new ArrayDeque<>();
+            pending.add(start);
+            while (!pending.isEmpty()) {
+                int id = pending.poll();
+                if (id == NO_NODE || seen.get(id)) continue;
+                seen.set(id);
+                StepNode node = nodes[id];
+                if (node.join != null || node.terminal) {
+                    found.add(id);
+                    continue;
+                }
+                if (node.branches.length > 0) {
+                    Set<Integer> inner = joinsOf(node);
+                    if (inner.size() == 1) {
+                        for (EdgeNode e : nodes[inner.iterator().next()].outgoing) enqueue(pending, e);
+                    }
+                    continue;
+                }
+                for (EdgeNode e : node.outgoing) enqueue(pending, e);
+            }
+            return found;
+        }
+
+        private static void enqueue(Deque<Integer> pending, EdgeNode e) {
+            if (e.target != NO_NODE) pending.add(e.target);
+            if (e.alternative != NO_NODE) pending.add(e.alternative);
+        }
+    }
+}
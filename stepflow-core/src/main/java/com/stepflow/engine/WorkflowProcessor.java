@@ -0,0 +1,277 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * {@link Flow.Processor} running a workflow for every {@link ExecutionContext} it receives.
+ *
+ * <p>The processor holds at most {@code maxInFlight} inputs: it requests that many from upstream
+ * once both sides are subscribed, and one more each time it emits a result. Runs finished while
+ * the downstream has no demand wait inside that bound, so memory stays constant no matter how
+ * fast upstream can produce. Workflow failures are emitted as FAILURE results; the stream only
+ * terminates with {@code onError} if upstream fails or a run completes exceptionally.
+ *
+ * <p>Emission is serialized by a work-in-progress counter: whichever thread signals (upstream,
+ * downstream request, or a finishing run) drains, and concurrent signals are folded into it.
+ */
+final class WorkflowProcessor implements Flow.Processor<ExecutionContext, StepResult> {
+
+    private final Function<ExecutionContext, CompletableFuture<StepResult>> starter;
+    private final int maxInFlight;
+    private final boolean ordered;
+
+    /** Input order: runs not yet emitted (ordered mode only). */
+    private final Queue<CompletableFuture<StepResult>> pending = new ConcurrentLinkedQueue<>();
+    /** Completion order: finished results not yet emitted (unordered mode only). */
+    private final Queue<StepResult> completed = new ConcurrentLinkedQueue<>();
+    /** Runs still executing (unordered mode only), cancelled when the stream terminates early. */
+    private final Set<CompletableFuture<StepResult>> running = ConcurrentHashMap.newKeySet();
+
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+    private final AtomicReference<Flow.Subscriber<? super StepResult>> downstream = new AtomicReference<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger held = new AtomicInteger();
+    private final AtomicInteger started = new AtomicInteger();
+
+    private volatile boolean upstreamDone;
+    private volatile Throwable error;
+    private volatile boolean cancelled;
+    private boolean terminated;
+
+    WorkflowProcessor(Function<ExecutionContext, CompletableFuture<StepResult>> starter, StreamOptions options) {
+        this.starter = starter;
+        this.maxInFlight = options.getMaxInFlight();
+        this.ordered = options.isOrdered();
+    }
+
+    // ======================================================================================
+    // SUBSCRIBER SIDE (upstream)
+    // ======================================================================================
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "subscription");
+        if (!upstream.compareAndSet(null, subscription) || cancelled) {
+            subscription.cancel();
+            return;
+        }
+        startIfReady();
+    }
+
+    @Override
+    public void onNext(ExecutionContext context) {
+        Objects.requireNonNull(context, "context");
+        if (cancelled) {
+            return;
+        }
+        held.incrementAndGet();
+        CompletableFuture<StepResult> run;
+        try {
+            run = starter.apply(context);
+        } catch (Throwable t) {
+            run = CompletableFuture.failedFuture(t);
+        }
+        if (ordered) {
+            pending.add(run);
+            run.whenComplete((r, t) -> drain());
+        } else {
+            CompletableFuture<StepResult> current = run;
+            running.add(current);
+            run.whenComplete((r, t) -> {
+                running.remove(current);
+                if (t != null) {
+                    fail(t);
+                } else {
+                    completed.add(r);
+                    drain();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable, "throwable");
+        fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    // ======================================================================================
+    // PUBLISHER SIDE (downstream)
+    // ======================================================================================
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super StepResult> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!downstream.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override public void request(long n) { }
+                @Override public void cancel() { }
+            });
+            subscriber.onError(new IllegalStateException("A workflow processor supports a single subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("Non-positive request: " + n));
+                    return;
+                }
+                requested.getAndAccumulate(n, (current, add) -> {
+                    long sum = current + add;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelAll();
+            }
+        });
+        startIfReady();
+    }
+
+    // ======================================================================================
+    // INTERNALS
+    // ======================================================================================
+
+    /** Requests the first {@code maxInFlight} inputs once upstream and downstream are both present. */
+    private void startIfReady() {
+        Flow.Subscription s = upstream.get();
+        if (s != null && downstream.get() != null && started.compareAndSet(0, 1)) {
+            s.request(maxInFlight);
+        }
+        drain();
+    }
+
+    private void fail(Throwable t) {
+        if (error == null) {
+            error = t;
+        }
+        drain();
+    }
+
+    private void cancelAll() {
+        cancelled = true;
+        Flow.Subscription s = upstream.get();
+        if (s != null) {
+            s.cancel();
+        }
+        drain();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            drainLoop();
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drainLoop() {
+        Flow.Subscriber<? super StepResult> subscriber = downstream.get();
+        if (terminated) {
+            return;
+        }
+        if (cancelled) {
+            terminated = true;
+            discardHeld();
+            return;
+        }
+        if (subscriber == null) {
+            return;
+        }
+        if (error != null) {
+            terminateWithError(subscriber);
+            return;
+        }
+        while (requested.get() > 0) {
+            StepResult next = pollReady();
+            if (next == null) {
+                break;
+            }
+            requested.decrementAndGet();
+            held.decrementAndGet();
+            subscriber.onNext(next);
+            if (cancelled) {
+                return; // the next pass discards what is left
+            }
+            Flow.Subscription s = upstream.get();
+            if (s != null && !upstreamDone) {
+                s.request(1);
+            }
+        }
+        if (error != null) {
+            terminateWithError(subscriber);
+        } else if (upstreamDone && held.get() == 0 && !cancelled) {
+            terminated = true;
+            subscriber.onComplete();
+        }
+    }
+
+    private void terminateWithError(Flow.Subscriber<? super StepResult> subscriber) {
+        terminated = true;
+        Flow.Subscription s = upstream.get();
+        if (s != null) {
+            s.cancel();
+        }
+        discardHeld();
+        subscriber.onError(error);
+    }
+
+    /** Returns the next result that may be emitted, or null; a failed ordered run records the error. */
+    private StepResult pollReady() {
+        if (!ordered) {
+            return completed.poll();
+        }
+        CompletableFuture<StepResult> head = pending.peek();
+        if (head == null || !head.isDone()) {
+            return null;
+        }
+        pending.poll();
+        try {
+            return head.join();
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (error == null) {
+                error = cause;
+            }
+            return null;
+        }
+    }
+
+    private void discardHeld() {
+        CompletableFuture<StepResult> run;
+        while ((run = pending.poll()) != null) {
+            run.cancel(false);
+        }
+        for (CompletableFuture<StepResult> r : running) {
+            r.cancel(false);
+        }
+        completed.clear();
+    }
+}
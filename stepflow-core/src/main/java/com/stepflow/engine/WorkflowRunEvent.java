@@ -0,0 +1,22 @@
+package com.stepflow.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event spanning one workflow run, from its start to its final result. */
+@Name("com.stepflow.WorkflowRun")
+@Label("Workflow Run")
+@Category("StepFlow")
+@Description("One run of a workflow, from start to final result")
+@StackTrace(false)
+final class WorkflowRunEvent extends jdk.jfr.Event {
+
+    @Label("Workflow")
+    String workflow;
+
+    @Label("Status")
+    String status;
+}
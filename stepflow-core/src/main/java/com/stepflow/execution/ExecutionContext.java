@@ -3,6 +3,8 @@ package com.stepflow.execution;
 import java.util.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Thread-safe execution context for workflow data sharing and management.
@@ -238,6 +240,8 @@ import java.math.BigInteger;
  *   <li><strong>Copy Operations:</strong> {@link #copy()} creates deep copies - use judiciously</li>
  *   <li><strong>Type Conversion:</strong> Conversions are performed on each access - cache if repeated</li>
  *   <li><strong>Collection Access:</strong> List/Set/Map operations create new collections on each call</li>
+ *   <li><strong>Guard Memoization:</strong> Guard results are reused until the context is mutated
+ *       (see {@link #getVersion()}); mutate through the map methods rather than views</li>
  * </ul>
  * 
  * <h2>Best Practices</h2>
@@ -265,8 +269,164 @@ import java.math.BigInteger;
  */
 public class ExecutionContext extends HashMap<String, Object> {
     
-    private final Map<String, Object> metadata = new HashMap<>();
+    /** Allocated on first {@link #setMetadata}; most contexts never carry metadata. */
+    private Map<String, Object> metadata;
+
+    /** Incremented by every mutation of the data or metadata; see {@link #getVersion()}. */
+    private long version;
+
+    /** Keys written or removed since {@link #copy()} created this context; {@code null} when not a copy. */
+    private Set<String> changes;
     
+    // ======================================================================================
+    // MUTATION TRACKING
+    // ======================================================================================
+
+    /**
+     * Returns a counter that changes whenever this context is mutated.
+     *
+     * <p>The engine uses it to memoize guard results: a guard evaluated twice against the same
+     * version sees the same data. Writes through {@code put}, {@code putAll}, {@code remove},
+     * the {@code compute}/{@code merge}/{@code replace} family, {@link #clear()} and the metadata
+     * setters are counted. Changes made through {@link #keySet()}, {@link #values()} or
+     * {@link #entrySet()} views, or inside mutable values stored in the context, are not.
+     *
+     * @return the current mutation version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the keys this context changed relative to where it came from.
+     *
+     * <p>For a context created by {@link #copy()} these are the keys written or removed since the
+     * copy was taken; a key in the set that is no longer {@linkplain #containsKey present} was
+     * removed. For any other context every key it holds is considered written. The engine merges
+     * only these keys when a step returns a context other than the one it was given, so writing
+     * through a copy costs the size of the change rather than the size of the context. Writes are
+     * tracked exactly as for {@link #getVersion()}.
+     *
+     * @return an unmodifiable live view of the changed keys
+     */
+    public Set<String> getChangedKeys() {
+        return Collections.unmodifiableSet(changes != null ? changes : keySet());
+    }
+
+    private void mutated(Object key) {
+        version++;
+        if (changes != null) {
+            changes.add((String) key);
+        }
+    }
+
+    private void mutatedAll() {
+        version++;
+        if (changes != null) {
+            changes.addAll(keySet());
+        }
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object previous = super.put(key, value);
+        if (previous != value || value == null) {
+            mutated(key);
+        }
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> m) {
+        // HashMap.putAll bypasses put(), so route through it to keep version and changes accurate
+        for (Map.Entry<? extends String, ?> e : m.entrySet()) {
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        Object previous = super.putIfAbsent(key, value);
+        if (previous == null) {
+            mutated(key);
+        }
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (!containsKey(key)) {
+            return null;
+        }
+        mutated(key);
+        return super.remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        boolean removed = super.remove(key, value);
+        if (removed) {
+            mutated(key);
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+        boolean replaced = super.replace(key, oldValue, newValue);
+        if (replaced) {
+            mutated(key);
+        }
+        return replaced;
+    }
+
+    @Override
+    public Object replace(String key, Object value) {
+        if (!containsKey(key)) {
+            return null;
+        }
+        mutated(key);
+        return super.replace(key, value);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+        mutatedAll();
+        super.replaceAll(function);
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+        mutated(key);
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public Object computeIfPresent(String key,
+                                   BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        mutated(key);
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        mutated(key);
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public Object merge(String key, Object value,
+                        BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        mutated(key);
+        return super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public void clear() {
+        mutatedAll();
+        super.clear();
+    }
+
     // ======================================================================================
     // PRIMITIVE TYPE GETTERS
     // ======================================================================================
@@ -693,15 +853,19 @@ public class ExecutionContext extends HashMap<String, Object> {
     // ======================================================================================
     
     public void setMetadata(String key, Object value) {
+        version++;
+        if (metadata == null) {
+            metadata = new HashMap<>();
+        }
         metadata.put(key, value);
     }
     
     public Object getMetadata(String key) {
-        return metadata.get(key);
+        return metadata != null ? metadata.get(key) : null;
     }
     
     public <T> T getMetadata(String key, Class<T> type) {
-        Object value = metadata.get(key);
+        Object value = getMetadata(key);
         if (value != null && type.isAssignableFrom(value.getClass())) {
             return type.cast(value);
         }
@@ -709,11 +873,14 @@ public class ExecutionContext extends HashMap<String, Object> {
     }
     
     public Map<String, Object> getAllMetadata() {
-        return new HashMap<>(metadata);
+        return metadata != null ? new HashMap<>(metadata) : new HashMap<>();
     }
     
     public void clearMetadata() {
-        metadata.clear();
+        version++;
+        if (metadata != null) {
+            metadata.clear();
+        }
     }
     
     // ======================================================================================
@@ -813,6 +980,7 @@ public class ExecutionContext extends HashMap<String, Object> {
      *   <li>All main data entries copied (shallow copy of the map, references to values)</li>
      *   <li>All metadata entries copied (shallow copy of the metadata map)</li>
      *   <li>Independent modification capability (changes to copy don't affect original)</li>
+     *   <li>Change tracking: writes to the copy are reported by {@link #getChangedKeys()}</li>
      * </ul>
      * 
      * <p><strong>Important Note:</strong> This is a shallow copy of the contained objects.
@@ -854,12 +1022,15 @@ public class ExecutionContext extends HashMap<String, Object> {
     public ExecutionContext copy() {
         ExecutionContext copy = new ExecutionContext();
         copy.putAll(this);
-        copy.metadata.putAll(this.metadata);
+        if (this.metadata != null) {
+            copy.metadata = new HashMap<>(this.metadata);
+        }
+        copy.changes = new HashSet<>();
         return copy;
     }
     
     @Override
     public String toString() {
-        return "ExecutionContext{data=" + super.toString() + ", metadata=" + metadata + "}";
+        return "ExecutionContext{data=" + super.toString() + ", metadata=" + (metadata != null ? metadata : Collections.emptyMap()) + "}";
     }
 }
\ No newline at end of file
@@ -1,10 +1,16 @@
 package com.stepflow.execution;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.HashMap;
 
 /**
- * Immutable result object representing the outcome of step execution in a workflow.
+ * Result object representing the outcome of step execution in a workflow.
+ *
+ * <p>The status, message and context reference are final, but the context itself is not
+ * frozen: a result built from an {@link ExecutionContext} holds that very object, so later
+ * writes to the context are visible through {@link #context} (see
+ * {@link #success(ExecutionContext)}). Results built from any other map hold a private copy.
  * 
  * <p>StepResult serves as the standardized return type for all Step implementations,
  * encapsulating execution status, descriptive messages, and contextual data. It provides
@@ -292,7 +298,11 @@ import java.util.HashMap;
  * <h2>Performance Considerations</h2>
  * 
  * <ul>
- *   <li><strong>Immutability:</strong> StepResult is immutable - context modifications create new instances</li>
+ *   <li><strong>Context Sharing:</strong> An {@link ExecutionContext} is held by reference, not copied;
+ *       returning the context a step received costs nothing to merge, but the result and the
+ *       context alias each other. {@code engine.run(name, ctx)} likewise returns a result whose
+ *       context is {@code ctx} itself; copy it ({@link ExecutionContext#copy()}) before reusing
+ *       {@code ctx} for another run if the result must stay unchanged</li>
  *   <li><strong>Context Size:</strong> Large context maps can impact memory usage in long workflows</li>
  *   <li><strong>Factory Methods:</strong> Use appropriate factory methods to avoid unnecessary object creation</li>
  * </ul>
@@ -321,7 +331,14 @@ public class StepResult {
     
     public final Status status;
     public final String message;
+    /**
+     * Data produced by the step. Holds the {@link ExecutionContext} itself when one was given, and
+     * a private copy of any other map.
+     */
     public final Map<String, Object> context;
+
+    /** Shared result of {@link #success()}. */
+    private static final StepResult SUCCESS = new StepResult();
     
     // ======================================================================================
     // CONSTRUCTORS
@@ -342,13 +359,29 @@ public class StepResult {
     public StepResult(Status status, Map<String, Object> context) {
         this.status = status;
         this.message = null;
-        this.context = new HashMap<>(context);
+        this.context = adopt(context);
     }
     
     public StepResult(Status status, String message, Map<String, Object> context) {
         this.status = status;
         this.message = message;
-        this.context = new HashMap<>(context);
+        this.context = adopt(context);
+    }
+    
+    /** Builds the shared {@link #SUCCESS}, whose empty context is immutable and needs no {@link #adopt}. */
+    private StepResult() {
+        this.status = Status.SUCCESS;
+        this.message = null;
+        this.context = Collections.emptyMap();
+    }
+
+    /**
+     * Shares an {@link ExecutionContext}, whose tracked changes let the engine merge only what the
+     * step wrote; copies any other map so later changes by the caller do not leak into the result.
+     * The shared context is aliased, not frozen: the caller's later writes show in the result.
+     */
+    private static Map<String, Object> adopt(Map<String, Object> context) {
+        return context instanceof ExecutionContext ? context : new HashMap<>(context);
     }
     
     // ======================================================================================
@@ -372,13 +405,16 @@ public class StepResult {
      * }
      * </pre>
      * 
+     * <p>The same immutable instance is returned on every call, so the most common step outcome
+     * allocates nothing; its context is an empty, unmodifiable map.
+     * 
      * @return a StepResult with Status.SUCCESS, no message, and empty context
      * 
      * @see #success(String) for success with descriptive message
      * @see #success(ExecutionContext) for success with context data
      */
     public static StepResult success() {
-        return new StepResult(Status.SUCCESS);
+        return SUCCESS;
     }
     
     /**
@@ -444,13 +480,18 @@ public class StepResult {
     
     /**
      * Creates a successful result with ExecutionContext.
+     *
+     * <p>The result holds {@code context} itself rather than a copy, so the engine merges only the
+     * keys the step changed. The two alias each other: writes to {@code context} after this call
+     * are visible in {@link #context}.
      */
     public static StepResult success(ExecutionContext context) {
         return new StepResult(Status.SUCCESS, context);
     }
     
     /**
-     * Creates a successful result with message and ExecutionContext.
+     * Creates a successful result with message and ExecutionContext, held by reference as in
+     * {@link #success(ExecutionContext)}.
      */
     public static StepResult success(String message, ExecutionContext context) {
         return new StepResult(Status.SUCCESS, message, context);
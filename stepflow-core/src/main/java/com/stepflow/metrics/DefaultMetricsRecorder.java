@@ -0,0 +1,186 @@
+package com.stepflow.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Built-in in-memory {@link MetricsRecorder}: striped counters ({@link LongAdder}) and
+ * {@link LatencyHistogram}s held in arrays indexed by the plan ids, read through {@link #snapshot()}.
+ *
+ * <p>Recording is lock-free and, once a step or edge has reported for the first time, free of
+ * allocation. Per-step histograms and per-edge counters are created on first use, so a workflow of
+ * thousands of steps only pays for the ones its runs actually reach.
+ *
+ * <p>A recorder may be shared by several engines. Workflows registered under the same name with
+ * the same shape report into the same cells; a different shape replaces the previous cells.
+ */
+public final class DefaultMetricsRecorder implements MetricsRecorder {
+
+    private final ConcurrentMap<String, Cells> workflows = new ConcurrentHashMap<>();
+
+    @Override
+    public WorkflowMetrics register(WorkflowDescriptor workflow) {
+        return workflows.compute(workflow.getName(), (name, existing) ->
+                existing != null && existing.descriptor.equals(workflow) ? existing : new Cells(workflow));
+    }
+
+    /** Copies the current values of every registered workflow, ordered by name. */
+    public MetricsSnapshot snapshot() {
+        Map<String, MetricsSnapshot.Workflow> copy = new TreeMap<>();
+        for (Cells cells : workflows.values()) {
+            copy.put(cells.descriptor.getName(), cells.snapshot());
+        }
+        return new MetricsSnapshot(copy);
+    }
+
+    /** Clears every recorded value; registrations are kept. */
+    public void reset() {
+        for (Cells cells : workflows.values()) {
+            cells.reset();
+        }
+    }
+
+    /** Counters of one step, created on its first attempt. */
+    private static final class StepCell {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder failures = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder measured = new LongAdder();
+        final LongAdder cpu = new LongAdder();
+        final LongAdder allocated = new LongAdder();
+    }
+
+    /** Cells of one workflow, indexed by the ids of its {@link WorkflowDescriptor}. */
+    private static final class Cells implements WorkflowMetrics {
+        final WorkflowDescriptor descriptor;
+        final LatencyHistogram runs = new LatencyHistogram();
+        final LongAdder runFailures = new LongAdder();
+        final AtomicReferenceArray<StepCell> steps;
+        final LongAdder[] guardEvaluations;
+        final LongAdder[] guardPasses;
+        final AtomicReferenceArray<LongAdder> edges;
+
+        Cells(WorkflowDescriptor descriptor) {
+            this.descriptor = descriptor;
+            this.steps = new AtomicReferenceArray<>(descriptor.getSteps().size());
+            int guards = descriptor.getGuards().size();
+            this.guardEvaluations = new LongAdder[guards];
+            this.guardPasses = new LongAdder[guards];
+            for (int i = 0; i < guards; i++) {
+                guardEvaluations[i] = new LongAdder();
+                guardPasses[i] = new LongAdder();
+            }
+            this.edges = new AtomicReferenceArray<>(descriptor.getEdges().size());
+        }
+
+        @Override
+        public void runCompleted(long nanos, boolean success) {
+            runs.record(nanos);
+            if (!success) {
+                runFailures.increment();
+            }
+        }
+
+        @Override
+        public void stepExecuted(int step, long nanos, boolean success) {
+            StepCell cell = step(step);
+            cell.latency.record(nanos);
+            if (!success) {
+                cell.failures.increment();
+            }
+        }
+
+        @Override
+        public void stepResources(int step, long cpuNanos, long allocatedBytes) {
+            StepCell cell = step(step);
+            cell.measured.increment();
+            cell.cpu.add(cpuNanos);
+            cell.allocated.add(allocatedBytes);
+        }
+
+        @Override
+        public void stepRetried(int step) {
+            step(step).retries.increment();
+        }
+
+        @Override
+        public void guardEvaluated(int guard, boolean passed) {
+            guardEvaluations[guard].increment();
+            if (passed) {
+                guardPasses[guard].increment();
+            }
+        }
+
+        @Override
+        public void edgeTraversed(int edge) {
+            LongAdder counter = edges.get(edge);
+            if (counter == null) {
+                edges.compareAndSet(edge, null, new LongAdder());
+                counter = edges.get(edge);
+            }
+            counter.increment();
+        }
+
+        private StepCell step(int step) {
+            StepCell cell = steps.get(step);
+            if (cell == null) {
+                steps.compareAndSet(step, null, new StepCell());
+                cell = steps.get(step);
+            }
+            return cell;
+        }
+
+        MetricsSnapshot.Workflow snapshot() {
+            List<String> stepNames = descriptor.getSteps();
+            Map<String, MetricsSnapshot.Step> stepCopies = new TreeMap<>();
+            for (int i = 0; i < steps.length(); i++) {
+                StepCell cell = steps.get(i);
+                if (cell != null) {
+                    stepCopies.put(stepNames.get(i), new MetricsSnapshot.Step(descriptor.getStepTypes().get(i),
+                            cell.failures.sum(), cell.retries.sum(), cell.latency.snapshot(),
+                            cell.measured.sum(), cell.cpu.sum(), cell.allocated.sum()));
+                }
+            }
+            List<String> guardNames = descriptor.getGuards();
+            Map<String, MetricsSnapshot.Guard> guardCopies = new TreeMap<>();
+            for (int i = 0; i < guardEvaluations.length; i++) {
+                long evaluations = guardEvaluations[i].sum();
+                if (evaluations > 0) {
+                    guardCopies.put(guardNames.get(i), new MetricsSnapshot.Guard(evaluations, guardPasses[i].sum()));
+                }
+            }
+            List<String> edgeNames = descriptor.getEdges();
+            Map<String, Long> edgeCopies = new TreeMap<>();
+            for (int i = 0; i < edges.length(); i++) {
+                LongAdder counter = edges.get(i);
+                long n = counter != null ? counter.sum() : 0L;
+                if (n > 0) {
+                    // Two edges between the same steps (different guards) add up
+                    edgeCopies.merge(edgeNames.get(i), n, Long::sum);
+                }
+            }
+            return new MetricsSnapshot.Workflow(descriptor.getName(), runFailures.sum(), runs.snapshot(),
+                    stepCopies, guardCopies, edgeCopies);
+        }
+
+        void reset() {
+            runs.reset();
+            runFailures.reset();
+            for (int i = 0; i < steps.length(); i++) {
+                steps.set(i, null);
+            }
+            for (int i = 0; i < guardEvaluations.length; i++) {
+                guardEvaluations[i].reset();
+                guardPasses[i].reset();
+            }
+            for (int i = 0; i < edges.length(); i++) {
+                edges.set(i, null);
+            }
+        }
+    }
+}
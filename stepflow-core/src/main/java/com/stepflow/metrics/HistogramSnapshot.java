@@ -0,0 +1,98 @@
+package com.stepflow.metrics;
+
+/**
+ * Immutable copy of a {@link LatencyHistogram}. All values are in nanoseconds.
+ */
+public final class HistogramSnapshot {
+
+    /** Snapshot of a histogram that recorded nothing. */
+    public static final HistogramSnapshot EMPTY = new HistogramSnapshot(new long[LatencyHistogram.BUCKETS], 0L, 0L, 0L);
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /** Sum of recorded values; {@code 0} when empty. */
+    public long sum() {
+        return sum;
+    }
+
+    /** Largest recorded value; {@code 0} when empty. */
+    public long max() {
+        return max;
+    }
+
+    /** Mean recorded value; {@code 0} when empty. */
+    public double mean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the value at {@code percentile} (0-100): the upper bound of the bucket holding that
+     * rank, capped by the recorded maximum. {@code 0} when empty.
+     *
+     * @throws IllegalArgumentException if {@code percentile} is outside 0-100
+     */
+    public long percentile(double percentile) {
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100, got " + percentile);
+        }
+        if (count == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Writes to {@code out[i]} how many recorded values are at or below {@code bounds[i]}, in a
+     * single pass and without allocating. A bucket counts toward a bound once its upper bound is at
+     * or below it, so a value up to about 6% under a bound may only be counted under the next one.
+     *
+     * @param bounds ascending bounds in nanoseconds
+     * @param out receives the cumulative counts; at least as long as {@code bounds}
+     * @throws IllegalArgumentException if {@code out} is shorter than {@code bounds}
+     */
+    public void cumulativeCounts(long[] bounds, long[] out) {
+        if (out.length < bounds.length) {
+            throw new IllegalArgumentException("out has " + out.length + " slots for " + bounds.length + " bounds");
+        }
+        int b = 0;
+        long seen = 0;
+        for (int i = 0; i < counts.length && b < bounds.length; i++) {
+            long upper = LatencyHistogram.upperBoundOf(i);
+            while (b < bounds.length && upper > bounds[b]) {
+                out[b++] = seen;
+            }
+            seen += counts[i];
+        }
+        while (b < bounds.length) {
+            out[b++] = seen;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HistogramSnapshot{count=%d, p50=%dns, p99=%dns, max=%dns}",
+                count, percentile(50.0), percentile(99.0), max);
+    }
+}
@@ -0,0 +1,35 @@
+package com.stepflow.metrics;
+
+/**
+ * Service provider interface for engine metrics.
+ *
+ * <p>When a recorder is installed with {@code Engine.setMetricsRecorder}, the engine registers every
+ * compiled workflow once and keeps the returned {@link WorkflowMetrics} handle. Runs then report
+ * to that handle using the dense step, guard and edge ids of the compiled plan, so recording needs
+ * no name lookups or string keys. Without a recorder the engine skips the calls and the clock reads
+ * entirely.
+ *
+ * <p>{@link DefaultMetricsRecorder} is the built-in lock-free implementation. Adapters for other
+ * metrics libraries implement this interface and translate ids back to names through the
+ * {@link WorkflowDescriptor}.
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * DefaultMetricsRecorder metrics = new DefaultMetricsRecorder();
+ * engine.setMetricsRecorder(metrics);
+ * ...
+ * MetricsSnapshot.Workflow checkout = metrics.snapshot().workflow("checkout");
+ * long p99 = checkout.getStep("charge").getLatency().percentile(99.0);
+ * </pre>
+ */
+public interface MetricsRecorder {
+
+    /**
+     * Registers a compiled workflow. Called once per workflow when the recorder is installed, before
+     * any of its runs report.
+     *
+     * @param workflow names of the workflow's steps, guards and edges, indexed by id
+     * @return the handle its runs report to; must be safe for concurrent use
+     */
+    WorkflowMetrics register(WorkflowDescriptor workflow);
+}
@@ -0,0 +1,203 @@
+package com.stepflow.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of the metrics held by a {@link DefaultMetricsRecorder}, keyed by name.
+ *
+ * <p>Steps, guards and edges that have not reported since registration (or the last reset) are
+ * omitted, so a snapshot of a very large workflow stays proportional to the paths actually taken.
+ */
+public final class MetricsSnapshot {
+
+    private final Map<String, Workflow> workflows;
+
+    MetricsSnapshot(Map<String, Workflow> workflows) {
+        this.workflows = Collections.unmodifiableMap(workflows);
+    }
+
+    /** Snapshots of every registered workflow, by workflow name. */
+    public Map<String, Workflow> getWorkflows() {
+        return workflows;
+    }
+
+    /** Returns the snapshot of one workflow, or {@code null} if it is not registered. */
+    public Workflow workflow(String name) {
+        return workflows.get(name);
+    }
+
+    /** Run, step, guard and edge metrics of one workflow. */
+    public static final class Workflow {
+        private final String name;
+        private final long failures;
+        private final HistogramSnapshot latency;
+        private final Map<String, Step> steps;
+        private final Map<String, Guard> guards;
+        private final Map<String, Long> edges;
+
+        Workflow(String name, long failures, HistogramSnapshot latency,
+                 Map<String, Step> steps, Map<String, Guard> guards, Map<String, Long> edges) {
+            this.name = name;
+            this.failures = failures;
+            this.latency = latency;
+            this.steps = Collections.unmodifiableMap(steps);
+            this.guards = Collections.unmodifiableMap(guards);
+            this.edges = Collections.unmodifiableMap(edges);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** Completed runs. */
+        public long getRuns() {
+            return latency.count();
+        }
+
+        /** Completed runs with a FAILURE result. */
+        public long getFailures() {
+            return failures;
+        }
+
+        /** End-to-end run latency. */
+        public HistogramSnapshot getLatency() {
+            return latency;
+        }
+
+        /** Steps that executed at least once, by step name. */
+        public Map<String, Step> getSteps() {
+            return steps;
+        }
+
+        /** Returns the metrics of one step, or {@code null} if it has not executed. */
+        public Step getStep(String name) {
+            return steps.get(name);
+        }
+
+        /** Guards that decided at least once, by guard name. */
+        public Map<String, Guard> getGuards() {
+            return guards;
+        }
+
+        /** Returns the metrics of one guard, or {@code null} if it has not decided. */
+        public Guard getGuard(String name) {
+            return guards.get(name);
+        }
+
+        /** Traversal counts of the edges taken at least once, by {@code "from -> to"}. */
+        public Map<String, Long> getEdges() {
+            return edges;
+        }
+
+        /** Returns how often the run moved from {@code from} to {@code to}; {@code 0} if never. */
+        public long getTraversals(String from, String to) {
+            Long n = edges.get(from + " -> " + to);
+            return n != null ? n : 0L;
+        }
+
+        @Override
+        public String toString() {
+            return "Workflow{name=" + name + ", runs=" + getRuns() + ", failures=" + failures
+                    + ", steps=" + steps.size() + ", guards=" + guards.size() + ", edges=" + edges.size() + "}";
+        }
+    }
+
+    /** Attempt counts, latency and, when measured, CPU time and allocation of one step. */
+    public static final class Step {
+        private final String type;
+        private final long failures;
+        private final long retries;
+        private final HistogramSnapshot latency;
+        private final long measured;
+        private final long cpuNanos;
+        private final long allocatedBytes;
+
+        Step(String type, long failures, long retries, HistogramSnapshot latency,
+             long measured, long cpuNanos, long allocatedBytes) {
+            this.type = type;
+            this.failures = failures;
+            this.retries = retries;
+            this.latency = latency;
+            this.measured = measured;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /** Step type ({@code type:} of the step definition); {@code null} if unknown. */
+        public String getType() {
+            return type;
+        }
+
+        /** Executed attempts, retries included. */
+        public long getExecutions() {
+            return latency.count();
+        }
+
+        /** Attempts that did not return SUCCESS. */
+        public long getFailures() {
+            return failures;
+        }
+
+        /** Failed attempts that were retried. */
+        public long getRetries() {
+            return retries;
+        }
+
+        /** Latency of each attempt. */
+        public HistogramSnapshot getLatency() {
+            return latency;
+        }
+
+        /** Attempts whose CPU time and allocation were measured; {@code 0} while resource accounting is off. */
+        public long getMeasuredAttempts() {
+            return measured;
+        }
+
+        /** Total CPU time of the measured attempts. */
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        /** Total bytes allocated by the measured attempts. */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "Step{type=" + type + ", executions=" + getExecutions() + ", failures=" + failures
+                    + ", retries=" + retries + ", latency=" + latency
+                    + (measured > 0 ? ", cpuNanos=" + cpuNanos + ", allocatedBytes=" + allocatedBytes : "") + "}";
+        }
+    }
+
+    /** Decision counts of one guard. */
+    public static final class Guard {
+        private final long evaluations;
+        private final long passes;
+
+        Guard(long evaluations, long passes) {
+            this.evaluations = evaluations;
+            this.passes = passes;
+        }
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        public long getPasses() {
+            return passes;
+        }
+
+        /** Share of decisions that passed, between 0 and 1; {@code 0} when never evaluated. */
+        public double getPassRate() {
+            return evaluations == 0 ? 0.0 : (double) passes / evaluations;
+        }
+
+        @Override
+        public String toString() {
+            return "Guard{evaluations=" + evaluations + ", passes=" + passes + "}";
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.stepflow.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Names of the steps, guards and edges of a compiled workflow, indexed by the ids reported to
+ * {@link WorkflowMetrics}.
+ *
+ * <p>Step ids cover every node of the plan, terminals included. Edge names have the form
+ * {@code "from -> to"}; an edge with an {@code alternativeTarget} has a second id for the
+ * alternative route.
+ */
+public final class WorkflowDescriptor {
+
+    private final String name;
+    private final List<String> steps;
+    private final List<String> stepTypes;
+    private final List<String> guards;
+    private final List<String> edges;
+
+    public WorkflowDescriptor(String name, List<String> steps, List<String> guards, List<String> edges) {
+        this(name, steps, Collections.nCopies(steps.size(), null), guards, edges);
+    }
+
+    /**
+     * @param stepTypes step types ({@code type:} of the step definition) by step id; {@code null}
+     *                  entries for terminals and undefined steps
+     */
+    public WorkflowDescriptor(String name, List<String> steps, List<String> stepTypes,
+                              List<String> guards, List<String> edges) {
+        if (stepTypes.size() != steps.size()) {
+            throw new IllegalArgumentException(stepTypes.size() + " step types for " + steps.size() + " steps");
+        }
+        this.name = Objects.requireNonNull(name, "name");
+        this.steps = Collections.unmodifiableList(steps);
+        this.stepTypes = Collections.unmodifiableList(stepTypes);
+        this.guards = Collections.unmodifiableList(guards);
+        this.edges = Collections.unmodifiableList(edges);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Step names by step id. */
+    public List<String> getSteps() {
+        return steps;
+    }
+
+    /** Step types by step id, for aggregating steps of the same type; {@code null} where unknown. */
+    public List<String> getStepTypes() {
+        return stepTypes;
+    }
+
+    /** Guard names by guard id. */
+    public List<String> getGuards() {
+        return guards;
+    }
+
+    /** Edge names ({@code "from -> to"}) by edge id. */
+    public List<String> getEdges() {
+        return edges;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WorkflowDescriptor)) return false;
+        WorkflowDescriptor other = (WorkflowDescriptor) o;
+        return name.equals(other.name) && steps.equals(other.steps) && stepTypes.equals(other.stepTypes)
+                && guards.equals(other.guards) && edges.equals(other.edges);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, steps, stepTypes, guards, edges);
+    }
+
+    @Override
+    public String toString() {
+        return "WorkflowDescriptor{name=" + name + ", steps=" + steps.size()
+                + ", guards=" + guards.size() + ", edges=" + edges.size() + "}";
+    }
+}
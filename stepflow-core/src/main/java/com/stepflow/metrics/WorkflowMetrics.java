@@ -0,0 +1,50 @@
+package com.stepflow.metrics;
+
+/**
+ * Receives the measurements of one registered workflow. Ids index the lists of the
+ * {@link WorkflowDescriptor} the handle was registered with.
+ *
+ * <p>Every method is called on the thread running the step or guard, concurrently for concurrent
+ * runs, and directly on the engine's hot path: implementations must be thread-safe, must not block
+ * and should not allocate.
+ */
+public interface WorkflowMetrics {
+
+    /**
+     * A run reached its final result. Parallel branches are part of their run and do not report.
+     *
+     * @param nanos time from the start of the run to its result
+     */
+    void runCompleted(long nanos, boolean success);
+
+    /**
+     * One attempt of a step finished; each retry attempt reports separately.
+     *
+     * @param nanos time spent in {@code Step.execute}
+     * @param success whether the attempt returned SUCCESS
+     */
+    void stepExecuted(int step, long nanos, boolean success);
+
+    /**
+     * CPU time and allocation of the attempt just reported to {@link #stepExecuted}, measured on
+     * the thread running the step. Only called while step resource accounting is on
+     * ({@code Engine.setStepResourceAccounting}); ignored by default.
+     *
+     * @param cpuNanos CPU time of the thread while in {@code Step.execute}
+     * @param allocatedBytes bytes the thread allocated while in {@code Step.execute}
+     */
+    default void stepResources(int step, long cpuNanos, long allocatedBytes) {
+    }
+
+    /** A failed attempt of {@code step} will be retried. */
+    void stepRetried(int step);
+
+    /**
+     * A guard decided. Results reused from the per-run memo or a {@code @CacheableGuard} cache count
+     * as decisions too, so pass rates reflect routing rather than evaluations.
+     */
+    void guardEvaluated(int guard, boolean passed);
+
+    /** The run moved along {@code edge}, or started the parallel branch of {@code edge}. */
+    void edgeTraversed(int edge);
+}
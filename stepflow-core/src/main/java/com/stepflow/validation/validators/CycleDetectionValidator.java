@@ -131,29 +131,37 @@ public class CycleDetectionValidator implements FlowConfigValidator {
     }
     
     /**
-     * Performs DFS to detect cycles.
+     * Performs DFS to detect cycles. The search keeps its own stack of neighbor iterators rather
+     * than recursing, so long chains cannot overflow the thread stack.
      */
-    private boolean dfsDetectCycle(String node, 
+    private boolean dfsDetectCycle(String start, 
                                   Map<String, List<EdgeInfo>> graph,
                                   Set<String> visited, 
                                   Set<String> recursionStack,
                                   Map<String, String> parent,
                                   List<String> currentPath) {
         
-        visited.add(node);
-        recursionStack.add(node);
-        currentPath.add(node);
+        Deque<Iterator<EdgeInfo>> pending = new ArrayDeque<>();
+        visited.add(start);
+        recursionStack.add(start);
+        currentPath.add(start);
+        pending.push(graph.getOrDefault(start, Collections.emptyList()).iterator());
         
-        List<EdgeInfo> neighbors = graph.getOrDefault(node, Collections.emptyList());
-        
-        for (EdgeInfo edge : neighbors) {
-            String neighbor = edge.to;
+        while (!pending.isEmpty()) {
+            Iterator<EdgeInfo> neighbors = pending.peek();
+            if (!neighbors.hasNext()) {
+                pending.pop();
+                recursionStack.remove(currentPath.remove(currentPath.size() - 1));
+                continue;
+            }
+            String neighbor = neighbors.next().to;
             
             if (!visited.contains(neighbor)) {
-                parent.put(neighbor, node);
-                if (dfsDetectCycle(neighbor, graph, visited, recursionStack, parent, currentPath)) {
-                    return true;
-                }
+                parent.put(neighbor, currentPath.get(currentPath.size() - 1));
+                visited.add(neighbor);
+                recursionStack.add(neighbor);
+                currentPath.add(neighbor);
+                pending.push(graph.getOrDefault(neighbor, Collections.emptyList()).iterator());
             } else if (recursionStack.contains(neighbor)) {
                 // Found a back edge - cycle detected
                 currentPath.add(neighbor); // Complete the cycle
@@ -161,8 +169,6 @@ public class CycleDetectionValidator implements FlowConfigValidator {
             }
         }
         
-        recursionStack.remove(node);
-        currentPath.remove(currentPath.size() - 1);
         return false;
     }
     
@@ -14,6 +14,8 @@ import java.util.stream.IntStream;
  * 
  * These rules ensure predictable workflow routing where guarded edges are evaluated first,
  * and the unguarded edge serves as a fallback that's only reached if all guards fail.
+ * 
+ * Parallel edges (kind: parallel) are all taken together and are therefore not subject to these rules.
  */
 public class EdgeOrderingValidator implements FlowConfigValidator {
     
@@ -115,7 +117,7 @@ public class EdgeOrderingValidator implements FlowConfigValidator {
         
         for (int i = 0; i < edges.size(); i++) {
             FlowConfig.EdgeDef edge = edges.get(i);
-            if (edge.from != null) {
+            if (edge.from != null && !isParallel(edge)) {
                 edgesByStep.computeIfAbsent(edge.from, k -> new ArrayList<>())
                           .add(new IndexedEdge(edge, i));
             }
@@ -258,6 +260,10 @@ public class EdgeOrderingValidator implements FlowConfigValidator {
         return "SUCCESS".equals(stepName) || "FAILURE".equals(stepName);
     }
     
+    private boolean isParallel(FlowConfig.EdgeDef edge) {
+        return edge.kind != null && "parallel".equalsIgnoreCase(edge.kind.trim());
+    }
+
     private boolean isGuarded(FlowConfig.EdgeDef edge) {
         return edge.guard != null && !edge.guard.trim().isEmpty();
     }
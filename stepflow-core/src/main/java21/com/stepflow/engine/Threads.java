@@ -0,0 +1,28 @@
+package com.stepflow.engine;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Thread creation that depends on the Java release.
+ *
+ * <p>This is the Java 21 implementation, packaged under {@code META-INF/versions/21} of the
+ * multi-release jar. Virtual threads are started directly for every task; there is no pool to
+ * size or shut down.
+ */
+final class Threads {
+
+    private static final Executor VIRTUAL = task -> Thread.ofVirtual().name("stepflow-virtual").start(task);
+
+    private Threads() {
+    }
+
+    /** Returns true if this runtime can create virtual threads. */
+    static boolean virtualThreadsSupported() {
+        return true;
+    }
+
+    /** Returns an executor starting one virtual thread per task. */
+    static Executor virtualThreadPerTask() {
+        return VIRTUAL;
+    }
+}
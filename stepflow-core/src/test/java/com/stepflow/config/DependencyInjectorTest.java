@@ -99,5 +99,37 @@ public class DependencyInjectorTest {
         // annotated field resolved by @ConfigValue logic only
         assertEquals("cfg-annotated", t.annotatedValue);
     }
-}
 
+    static class BaseTarget {
+        String inherited;
+    }
+
+    static class SetterTarget extends BaseTarget {
+        @com.stepflow.core.annotations.ConfigValue(value = "port", required = false, defaultValue = "8080")
+        int port;
+        long total;
+        String modeValue;
+
+        public void setMode(String mode) { this.modeValue = "mode:" + mode; }
+    }
+
+    @Test
+    void cachedPlanHandlesSettersSuperclassFieldsAndPrimitivesAcrossInstances() {
+        DependencyInjector di = new DependencyInjector();
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> cfg = new HashMap<>();
+            cfg.put("inherited", "base-" + i);
+            cfg.put("mode", "m" + i);
+            cfg.put("total", i);              // Integer widened into long field
+            if (i > 0) cfg.put("port", String.valueOf(9000 + i));
+
+            SetterTarget t = new SetterTarget();
+            di.injectDependencies(t, new ExecutionContext(), cfg, Map.of());
+
+            assertEquals("base-" + i, t.inherited);
+            assertEquals("mode:m" + i, t.modeValue);
+            assertEquals(i, t.total);
+            assertEquals(i == 0 ? 8080 : 9000 + i, t.port);
+        }
+    }
+}
@@ -32,5 +32,20 @@ public class SimpleEngineTest {
         StepResult r = engine.execute("wf", new HashMap<>());
         assertTrue(r.isSuccess());
     }
-}
 
+    @Test
+    void declaredOutputsProjectSuccessfulResult() {
+        SimpleEngine engine = SimpleEngine
+                .workflow("wf", "com.stepflow.testcomponents")
+                .step("A").using("sleepWrite").with("key", "blob").with("value", "large").then("B")
+                .step("B").using("sleepWrite").with("key", "answer").with("value", "42").end()
+                .outputs("answer", "missing")
+                .build();
+
+        Map<String, Object> input = new HashMap<>();
+        input.put("request", "r-1");
+        StepResult r = engine.execute("wf", input);
+        assertTrue(r.isSuccess());
+        assertEquals(Map.of("answer", "42"), new HashMap<>(r.context));
+    }
+}
@@ -0,0 +1,82 @@
+package com.stepflow.engine;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import com.stepflow.testcomponents.RetryCountingGuard;
+import com.stepflow.testcomponents.SingletonCountingStep;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies SINGLETON / PROTOTYPE component scopes and the YAML scope override.
+ */
+class ComponentScopeTest {
+
+    private FlowConfig singleStep(String type, String scope) {
+        FlowConfig cfg = new FlowConfig();
+        FlowConfig.StepDef a = new FlowConfig.StepDef();
+        a.type = type;
+        a.scope = scope;
+        a.config = new HashMap<>();
+        a.config.put("label", "configured");
+        cfg.steps.put("A", a);
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = "A"; wf.edges = new ArrayList<>();
+        FlowConfig.EdgeDef e1 = new FlowConfig.EdgeDef(); e1.from = "A"; e1.to = "SUCCESS"; wf.edges.add(e1);
+        cfg.workflows.put("w", wf);
+        return cfg;
+    }
+
+    private StepResult runWithOrder(Engine engine, String orderId) {
+        ExecutionContext ctx = new ExecutionContext();
+        ctx.put("orderId", orderId);
+        return engine.run("w", ctx);
+    }
+
+    @Test
+    void singletonIsCreatedOnceButSeesContextPerRun() {
+        Engine engine = new Engine(singleStep("singletonCounting", null), "com.stepflow.testcomponents");
+        SingletonCountingStep.CREATED.set(0);
+
+        StepResult first = runWithOrder(engine, "o-1");
+        StepResult second = runWithOrder(engine, "o-2");
+
+        assertEquals(1, SingletonCountingStep.CREATED.get());
+        assertEquals("o-1", first.context.get("seenOrder"));
+        assertEquals("o-2", second.context.get("seenOrder"));
+        assertEquals("configured", second.context.get("label"));
+    }
+
+    @Test
+    void yamlScopeOverridesAnnotation() {
+        Engine engine = new Engine(singleStep("singletonCounting", "prototype"), "com.stepflow.testcomponents");
+        SingletonCountingStep.CREATED.set(0);
+
+        runWithOrder(engine, "o-1");
+        runWithOrder(engine, "o-2");
+
+        assertEquals(2, SingletonCountingStep.CREATED.get());
+    }
+
+    @Test
+    void prototypeGuardIsReusedAcrossRetryAttemptsWithinRun() {
+        FlowConfig cfg = singleStep("testStepPlain", null);
+        FlowConfig.EdgeDef e = cfg.workflows.get("w").edges.get(0);
+        e.guard = "retryCounting";
+        e.onFailure = new FlowConfig.OnFailure();
+        e.onFailure.strategy = "RETRY";
+        e.onFailure.attempts = 3;
+        e.onFailure.delay = 0L;
+        Engine engine = new Engine(cfg, "com.stepflow.testcomponents");
+        RetryCountingGuard.CREATED.set(0);
+
+        assertTrue(engine.run("w", new ExecutionContext()).isSuccess());
+        assertTrue(engine.run("w", new ExecutionContext()).isSuccess());
+        assertEquals(2, RetryCountingGuard.CREATED.get());
+    }
+}
@@ -0,0 +1,85 @@
+package com.stepflow.engine;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that step output is merged as a delta and that contexts are shared, not copied.
+ */
+class ContextDeltaTest {
+
+    /** A (type) -> SUCCESS */
+    private static Engine engine(String type) {
+        FlowConfig cfg = new FlowConfig();
+        FlowConfig.StepDef a = new FlowConfig.StepDef();
+        a.type = type;
+        a.config = new HashMap<>();
+        cfg.steps.put("A", a);
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = "A";
+        FlowConfig.EdgeDef done = new FlowConfig.EdgeDef();
+        done.from = "A"; done.to = "SUCCESS";
+        wf.edges = new ArrayList<>(List.of(done));
+        cfg.workflows.put("w", wf);
+        return new Engine(cfg, "com.stepflow.testcomponents");
+    }
+
+    @Test
+    void resultSharesTheRunContext() {
+        ExecutionContext ctx = new ExecutionContext();
+        ctx.put("in", 1);
+        StepResult result = engine("sleepWrite").run("w", ctx);
+
+        assertTrue(result.isSuccess());
+        assertSame(ctx, result.context);
+        assertEquals("x", ctx.get("written"));
+    }
+
+    @Test
+    void copiedOutputContributesOnlyItsWrites() {
+        ExecutionContext ctx = new ExecutionContext();
+        ctx.put("shared", "before");
+        ctx.put("dropped", "kept");
+        StepResult result = engine("copyWrite").run("w", ctx);
+
+        assertTrue(result.isSuccess());
+        assertEquals("viaCopy", result.context.get("written"));
+        assertEquals("direct", result.context.get("shared"), "unchanged keys of the copy are not merged back");
+        assertEquals("kept", result.context.get("dropped"), "removals in returned output are not applied");
+    }
+
+    @Test
+    void copyTracksWritesAndRemovals() {
+        ExecutionContext original = new ExecutionContext();
+        original.put("a", 1);
+        original.put("b", 2);
+        ExecutionContext copy = original.copy();
+        assertTrue(copy.getChangedKeys().isEmpty());
+
+        copy.put("a", 10);
+        copy.remove("b");
+        copy.merge("c", 1, (x, y) -> y);
+        assertEquals(Set.of("a", "b", "c"), copy.getChangedKeys());
+        assertEquals(Set.of("a", "b"), original.getChangedKeys(), "a fresh context reports all its keys");
+    }
+
+    @Test
+    void plainMapOutputIsCopied() {
+        Map<String, Object> out = new HashMap<>(Map.of("k", "v"));
+        StepResult result = StepResult.success(out);
+        out.put("late", true);
+
+        assertNotSame(out, result.context);
+        assertFalse(result.context.containsKey("late"));
+    }
+}
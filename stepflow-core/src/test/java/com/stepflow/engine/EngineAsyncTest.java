@@ -0,0 +1,144 @@
+package com.stepflow.engine;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link Engine#runAsync} continuation-based execution.
+ */
+class EngineAsyncTest {
+
+    private static FlowConfig.EdgeDef edge(String from, String to) {
+        FlowConfig.EdgeDef e = new FlowConfig.EdgeDef();
+        e.from = from; e.to = to;
+        return e;
+    }
+
+    /** A -> B(retrying, succeeds on 3rd attempt) -> SUCCESS */
+    private static FlowConfig retryingConfig(long delay) {
+        FlowConfig cfg = new FlowConfig();
+        FlowConfig.StepDef a = new FlowConfig.StepDef(); a.type = "testStepPlain";
+        FlowConfig.StepDef b = new FlowConfig.StepDef(); b.type = "unstableTest";
+        b.config = new HashMap<>(Map.of("succeedOnAttempt", 3));
+        FlowConfig.RetryConfig rc = new FlowConfig.RetryConfig();
+        rc.maxAttempts = 3;
+        rc.delay = delay;
+        b.retry = rc;
+        cfg.steps.put("A", a);
+        cfg.steps.put("B", b);
+
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = "A";
+        wf.edges = new ArrayList<>(List.of(edge("A", "B"), edge("B", "SUCCESS")));
+        cfg.workflows.put("w", wf);
+        return cfg;
+    }
+
+    @Test
+    void runAsyncProducesSameResultAsRun() throws Exception {
+        Engine engine = new Engine(retryingConfig(0), "com.stepflow.testcomponents");
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            ExecutionContext ctx = new ExecutionContext();
+            ctx.put("orderId", "o-1");
+            StepResult r = engine.runAsync("w", ctx, pool).get(5, TimeUnit.SECONDS);
+            assertTrue(r.isSuccess());
+            assertEquals("o-1", r.context.get("orderId"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void unknownWorkflowCompletesWithFailure() {
+        Engine engine = new Engine(retryingConfig(0), "com.stepflow.testcomponents");
+        StepResult r = engine.runAsync("missing", new ExecutionContext(), Runnable::run).join();
+        assertFalse(r.isSuccess());
+        assertTrue(r.message.contains("Workflow not found"));
+    }
+
+    @Test
+    void retryBackoffDoesNotHoldTheWorkerThread() throws Exception {
+        // 100 runs, each waiting 2 x 100ms between attempts, on a single worker thread.
+        // Sleeping inline would take ~20s; scheduled backoff lets all runs wait concurrently.
+        Engine engine = new Engine(retryingConfig(100), "com.stepflow.testcomponents");
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<StepResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(engine.runAsync("w", new ExecutionContext(), single));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            for (CompletableFuture<StepResult> f : futures) {
+                assertTrue(f.join().isSuccess());
+            }
+            assertTrue(elapsedMs < 5000, "runs should overlap their backoff, took " + elapsedMs + "ms");
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void edgeRetryDelayIsScheduledOnTheSharedTimer() throws Exception {
+        // retryCounting passes on its 3rd evaluation: initial check, immediate re-check, then one 200ms wait
+        FlowConfig cfg = retryingConfig(0);
+        FlowConfig.EdgeDef e = cfg.workflows.get("w").edges.get(0);
+        e.guard = "retryCounting";
+        e.onFailure = new FlowConfig.OnFailure();
+        e.onFailure.strategy = "RETRY";
+        e.onFailure.attempts = 3;
+        e.onFailure.delay = 200L;
+        Engine engine = new Engine(cfg, "com.stepflow.testcomponents");
+
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<StepResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                futures.add(engine.runAsync("w", new ExecutionContext(), single));
+            }
+            for (CompletableFuture<StepResult> f : futures) {
+                assertTrue(f.get(10, TimeUnit.SECONDS).isSuccess());
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMs < 5000, "edge retries should wait concurrently, took " + elapsedMs + "ms");
+        } finally {
+            single.shutdownNow();
+        }
+
+        // The synchronous path keeps the same attempt counting
+        assertTrue(engine.run("w", new ExecutionContext()).isSuccess());
+    }
+
+    @Test
+    void sameThreadExecutorDoesNotRecursePerStep() {
+        FlowConfig cfg = new FlowConfig();
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = "s0";
+        wf.edges = new ArrayList<>();
+        int n = 5000;
+        for (int i = 0; i < n; i++) {
+            FlowConfig.StepDef sd = new FlowConfig.StepDef(); sd.type = "testStepPlain";
+            cfg.steps.put("s" + i, sd);
+            wf.edges.add(edge("s" + i, i + 1 < n ? "s" + (i + 1) : "SUCCESS"));
+        }
+        cfg.workflows.put("chain", wf);
+
+        Engine engine = new Engine(cfg, "com.stepflow.testcomponents");
+        StepResult r = engine.runAsync("chain", new ExecutionContext(), Runnable::run).join();
+        assertTrue(r.isSuccess());
+    }
+}
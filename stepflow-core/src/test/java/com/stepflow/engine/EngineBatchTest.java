@@ -0,0 +1,107 @@
+package com.stepflow.engine;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link Engine#runBatch} and {@link Engine#streamBatch}.
+ */
+class EngineBatchTest {
+
+    /** work -> SUCCESS */
+    private static Engine engine(long sleepMs, boolean fail) {
+        FlowConfig cfg = new FlowConfig();
+        FlowConfig.StepDef work = new FlowConfig.StepDef();
+        work.type = "sleepWrite";
+        work.config = new HashMap<>(Map.of("key", "processed", "value", "yes", "sleepMs", sleepMs, "fail", fail));
+        cfg.steps.put("work", work);
+
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = "work";
+        FlowConfig.EdgeDef done = new FlowConfig.EdgeDef();
+        done.from = "work"; done.to = "SUCCESS";
+        wf.edges = new ArrayList<>(List.of(done));
+        cfg.workflows.put("w", wf);
+        return new Engine(cfg, "com.stepflow.testcomponents");
+    }
+
+    private static List<ExecutionContext> inputs(int n) {
+        List<ExecutionContext> inputs = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            ExecutionContext ctx = new ExecutionContext();
+            ctx.put("index", i);
+            inputs.add(ctx);
+        }
+        return inputs;
+    }
+
+    @Test
+    void resultsAreReturnedInInputOrder() {
+        List<StepResult> results = engine(0, false).runBatch("w", inputs(1000),
+                BatchOptions.builder().maxParallelism(4).partitionSize(7).build());
+        assertEquals(1000, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            StepResult r = results.get(i);
+            assertTrue(r.isSuccess(), r.message);
+            assertEquals(i, r.context.get("index"));
+            assertEquals("yes", r.context.get("processed"));
+        }
+    }
+
+    @Test
+    void maxParallelismBoundsConcurrentRuns() {
+        // 16 inputs x 100ms on 4 workers: ~400ms; a sequential loop would take ~1600ms
+        long start = System.nanoTime();
+        List<StepResult> results = engine(100, false).runBatch("w", inputs(16),
+                BatchOptions.builder().maxParallelism(4).partitionSize(1).build());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(results.stream().allMatch(StepResult::isSuccess));
+        assertTrue(elapsedMs >= 350, "at most 4 inputs may run at once, took " + elapsedMs + "ms");
+        assertTrue(elapsedMs < 1200, "inputs should run in parallel, took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void failFastSkipsInputsNotYetStarted() {
+        Engine failing = engine(0, true);
+        List<StepResult> results = failing.runBatch("w", inputs(50),
+                BatchOptions.builder().maxParallelism(1).failFast(true).build());
+        assertEquals(50, results.size());
+        assertEquals("processed failed", results.get(0).message);
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i).message.startsWith("Skipped: input #0 failed"), results.get(i).message);
+            assertEquals(i, results.get(i).context.get("index"));
+        }
+
+        // Without fail-fast every input runs
+        results = failing.runBatch("w", inputs(50), BatchOptions.builder().maxParallelism(2).build());
+        assertTrue(results.stream().allMatch(r -> "processed failed".equals(r.message)));
+    }
+
+    @Test
+    void streamBatchYieldsEveryResult() {
+        try (Stream<StepResult> stream = engine(0, false).streamBatch("w", inputs(200), BatchOptions.defaults())) {
+            Set<Object> seen = stream.map(r -> r.context.get("index")).collect(Collectors.toSet());
+            assertEquals(200, seen.size());
+        }
+    }
+
+    @Test
+    void unknownWorkflowFailsEveryInput() {
+        List<StepResult> results = engine(0, false).runBatch("missing", inputs(3), null);
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(r -> r.message.contains("Workflow not found")));
+    }
+
+    @Test
+    void emptyBatchReturnsEmptyResults() {
+        assertTrue(engine(0, false).runBatch("w", Collections.emptyList(), BatchOptions.defaults()).isEmpty());
+    }
+}
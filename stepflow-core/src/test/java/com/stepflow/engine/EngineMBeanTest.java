@@ -0,0 +1,136 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import com.stepflow.testcomponents.TestFlows;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for the engine MBean and the knobs it exposes. */
+class EngineMBeanTest {
+
+    private static ExecutionContext customer(String tier) {
+        ExecutionContext ctx = new ExecutionContext();
+        ctx.put("customer", tier);
+        return ctx;
+    }
+
+    @Test
+    void reportsRunOutcomesRetriesAndGuardCacheHits() throws Exception {
+        Engine engine = TestFlows.engine("cached-tier");
+        ObjectName name = engine.registerMBean("mbean-test-outcomes");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(new ObjectName("com.stepflow:type=Engine,name=mbean-test-outcomes"), name);
+            assertTrue(server.isRegistered(name));
+            EngineMXBean mbean = JMX.newMXBeanProxy(server, name, EngineMXBean.class);
+
+            for (int i = 0; i < 3; i++) {
+                assertTrue(engine.run("w", customer("gold")).isSuccess());
+            }
+            assertFalse(engine.run("w", customer("silver")).isSuccess());
+
+            assertEquals(4L, mbean.getCompletedRuns());
+            assertEquals(1L, mbean.getFailedRuns());
+            assertEquals(Map.of("w", 3L), mbean.getSuccessesByWorkflow());
+            assertEquals(Map.of("w", 1L), mbean.getFailuresByWorkflow());
+            assertEquals(Map.of("w", 4L), mbean.getRetriesByWorkflow());
+            assertEquals(4L, mbean.getRetries());
+            assertEquals(0, mbean.getInFlightRuns());
+            assertEquals(2L, mbean.getGuardCacheHits());
+            assertEquals(2L, mbean.getGuardCacheMisses());
+            assertEquals(Map.of("cachedTier", 0.5), mbean.getGuardCacheHitRates());
+            assertEquals("PLATFORM_THREADS", mbean.getExecutionMode());
+            assertEquals(4L, server.getAttribute(name, "CompletedRuns"));
+
+            mbean.resetStatistics();
+            assertEquals(0L, mbean.getCompletedRuns());
+            assertEquals(0L, mbean.getGuardCacheHits());
+        } finally {
+            engine.unregisterMBean();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    void maxConcurrentRunsRejectsRunsBeyondTheLimit() {
+        Engine engine = TestFlows.engine("cached-tier");
+        engine.setMaxConcurrentRuns(1);
+        ArrayDeque<Runnable> queued = new ArrayDeque<>();
+
+        CompletableFuture<StepResult> admitted = engine.runAsync("w", customer("gold"), queued::add);
+        CompletableFuture<StepResult> rejectedAsync = engine.runAsync("w", customer("gold"), queued::add);
+        StepResult rejected = engine.run("w", customer("gold"));
+
+        assertTrue(rejectedAsync.isDone());
+        assertFalse(rejectedAsync.join().isSuccess());
+        assertFalse(rejected.isSuccess());
+        assertTrue(rejected.message.startsWith("Rejected"), rejected.message);
+
+        while (!queued.isEmpty()) {
+            queued.poll().run();
+        }
+        assertTrue(admitted.join().isSuccess());
+        assertTrue(engine.run("w", customer("gold")).isSuccess());
+    }
+
+    @Test
+    void cancelledRunKeepsItsSlotUntilItStops() {
+        Engine engine = TestFlows.engine("cached-tier");
+        engine.setMaxConcurrentRuns(1);
+        ArrayDeque<Runnable> queued = new ArrayDeque<>();
+
+        CompletableFuture<StepResult> admitted = engine.runAsync("w", customer("gold"), queued::add);
+        assertTrue(admitted.cancel(false));
+        assertTrue(engine.run("w", customer("gold")).message.startsWith("Rejected"));
+
+        // The run notices the cancellation at its next step boundary and only then frees the slot
+        while (!queued.isEmpty()) {
+            queued.poll().run();
+        }
+        assertTrue(engine.run("w", customer("gold")).isSuccess());
+    }
+
+    @Test
+    void knobsCanBeChangedThroughTheMBean() {
+        Engine engine = TestFlows.engine("cached-tier");
+        ObjectName name = engine.registerMBean("mbean-test-knobs");
+        try {
+            EngineMXBean mbean = JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(), name, EngineMXBean.class);
+            assertEquals(0, mbean.getMaxConcurrentRuns());
+            mbean.setMaxConcurrentRuns(5);
+            assertEquals(5, engine.getMaxConcurrentRuns());
+            mbean.setRunLogSampleRate(0.25);
+            assertEquals(0.25, engine.getRunLogSampleRate());
+            assertThrows(IllegalArgumentException.class, () -> mbean.setRunLogSampleRate(2.0));
+            assertEquals(0.25, engine.getRunLogSampleRate());
+
+            engine.setRunLogSampleRate(0.0);
+            assertTrue(engine.run("w", customer("gold")).isSuccess());
+        } finally {
+            engine.unregisterMBean();
+        }
+    }
+
+    @Test
+    void registeringTwiceIsRejected() {
+        Engine engine = TestFlows.engine("cached-tier");
+        engine.registerMBean("mbean-test-twice");
+        try {
+            assertThrows(IllegalStateException.class, () -> engine.registerMBean("mbean-test-twice"));
+            assertThrows(IllegalStateException.class, () -> TestFlows.engine("cached-tier").registerMBean("mbean-test-twice"));
+        } finally {
+            engine.unregisterMBean();
+        }
+        engine.unregisterMBean(); // no-op once unregistered
+    }
+}
@@ -0,0 +1,106 @@
+package com.stepflow.engine;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import com.stepflow.testing.WorkflowGenerator;
+import com.stepflow.validation.ValidationResult;
+import com.stepflow.validation.validators.CycleDetectionValidator;
+import com.stepflow.validation.validators.EdgeOrderingValidator;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time and memory bounds for the engine and validators on generated workflows of 10k steps and
+ * about 100k edges. The bounds are loose on purpose: they catch quadratic behavior and stack
+ * overflows, not small regressions.
+ */
+class EngineScaleTest {
+
+    private static final int STEPS = 10_000;
+
+    /** 10k steps, ~100k edges, a quarter of the steps fully guarded, a tenth with retries. */
+    private static FlowConfig large() {
+        return WorkflowGenerator.builder()
+                .steps(STEPS)
+                .shape(WorkflowGenerator.Shape.FAN_OUT)
+                .fanOut(10)
+                .guardDensity(0.25)
+                .retryDensity(0.1)
+                .build()
+                .generate();
+    }
+
+    /** Runs {@code action} and fails if it exceeds the time or per-thread allocation bound. */
+    private static <T> T within(String what, long maxMillis, long maxAllocatedMb, Supplier<T> action) {
+        com.sun.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean
+                ? (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() : null;
+        long tid = Thread.currentThread().getId();
+        long allocatedBefore = threads != null ? threads.getThreadAllocatedBytes(tid) : -1;
+        long start = System.nanoTime();
+        T result = action.get();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMs <= maxMillis, what + " took " + elapsedMs + " ms, bound " + maxMillis + " ms");
+        if (allocatedBefore >= 0) {
+            long allocatedMb = (threads.getThreadAllocatedBytes(tid) - allocatedBefore) >> 20;
+            assertTrue(allocatedMb <= maxAllocatedMb, what + " allocated " + allocatedMb + " MB, bound " + maxAllocatedMb + " MB");
+        }
+        return result;
+    }
+
+    @Test
+    void generatedGraphHasTheRequestedScale() {
+        FlowConfig config = large();
+        assertEquals(STEPS, config.steps.size());
+        assertTrue(config.workflows.get("generated").edges.size() >= 99_000);
+    }
+
+    @Test
+    void engineConstructionAndRunStayWithinBounds() {
+        FlowConfig config = large();
+        Engine engine = within("Engine construction", 10_000, 512,
+                () -> new Engine(config, WorkflowGenerator.COMPONENT_PACKAGE));
+
+        StepResult result = within("Engine.run", 5_000, 128,
+                () -> engine.run("generated", new ExecutionContext()));
+        assertTrue(result.isSuccess(), result.message);
+    }
+
+    @Test
+    void cycleDetectionStaysWithinBounds() {
+        FlowConfig config = large();
+        ValidationResult result = within("CycleDetectionValidator", 5_000, 256,
+                () -> new CycleDetectionValidator().validate(config));
+        assertTrue(result.isValid());
+    }
+
+    @Test
+    void cycleDetectionFindsInjectedCyclesAtScale() {
+        FlowConfig config = WorkflowGenerator.builder()
+                .steps(STEPS).shape(WorkflowGenerator.Shape.DIAMOND).cycles(5).seed(3).build().generate();
+        ValidationResult result = within("CycleDetectionValidator with cycles", 5_000, 256,
+                () -> new CycleDetectionValidator().validate(config));
+        assertFalse(result.isValid());
+    }
+
+    @Test
+    void cycleDetectionHandlesChainsDeeperThanTheStack() {
+        FlowConfig config = WorkflowGenerator.builder().steps(100_000).build().generate();
+        ValidationResult result = within("CycleDetectionValidator on a 100k chain", 10_000, 512,
+                () -> new CycleDetectionValidator().validate(config));
+        assertTrue(result.isValid());
+    }
+
+    @Test
+    void edgeOrderingStaysWithinBounds() {
+        FlowConfig config = large();
+        ValidationResult result = within("EdgeOrderingValidator", 5_000, 256,
+                () -> new EdgeOrderingValidator().validate(config));
+        assertTrue(result.isValid());
+    }
+}
@@ -0,0 +1,190 @@
+package com.stepflow.engine;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link Engine#stream} backpressure and ordering.
+ */
+class EngineStreamTest {
+
+    /** work -> SUCCESS */
+    private static Engine engine(long sleepMs) {
+        FlowConfig cfg = new FlowConfig();
+        FlowConfig.StepDef work = new FlowConfig.StepDef();
+        work.type = "sleepWrite";
+        work.config = new HashMap<>(Map.of("key", "processed", "value", "yes", "sleepMs", sleepMs));
+        cfg.steps.put("work", work);
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = "work";
+        FlowConfig.EdgeDef done = new FlowConfig.EdgeDef();
+        done.from = "work"; done.to = "SUCCESS";
+        wf.edges = new ArrayList<>(List.of(done));
+        cfg.workflows.put("w", wf);
+        return new Engine(cfg, "com.stepflow.testcomponents");
+    }
+
+    /** Publishes {@code count} contexts on demand and records how many were requested. */
+    private static final class CountingPublisher implements Flow.Publisher<ExecutionContext> {
+        final int count;
+        final AtomicLong requested = new AtomicLong();
+        final AtomicInteger emitted = new AtomicInteger();
+        volatile boolean cancelled;
+
+        CountingPublisher(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ExecutionContext> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public synchronized void request(long n) {
+                    requested.addAndGet(n);
+                    for (long i = 0; i < n && emitted.get() < count && !cancelled; i++) {
+                        ExecutionContext ctx = new ExecutionContext();
+                        ctx.put("index", emitted.getAndIncrement());
+                        subscriber.onNext(ctx);
+                    }
+                    if (emitted.get() == count && !cancelled) {
+                        emitted.incrementAndGet(); // complete once
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    /** Collects results, requesting {@code initial} up front. */
+    private static final class Collector implements Flow.Subscriber<StepResult> {
+        final List<StepResult> results = Collections.synchronizedList(new ArrayList<>());
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        final long initial;
+        volatile Flow.Subscription subscription;
+
+        Collector(long initial) {
+            this.initial = initial;
+        }
+
+        @Override public void onSubscribe(Flow.Subscription s) { subscription = s; if (initial > 0) s.request(initial); }
+        @Override public void onNext(StepResult item) { results.add(item); }
+        @Override public void onError(Throwable t) { done.completeExceptionally(t); }
+        @Override public void onComplete() { done.complete(null); }
+    }
+
+    @Test
+    void everyInputProducesOneResult() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Flow.Processor<ExecutionContext, StepResult> processor = engine(0).stream("w",
+                    StreamOptions.builder().maxInFlight(8).executor(pool).build());
+            CountingPublisher publisher = new CountingPublisher(500);
+            Collector collector = new Collector(Long.MAX_VALUE);
+            publisher.subscribe(processor);
+            processor.subscribe(collector);
+            collector.done.get(10, TimeUnit.SECONDS);
+
+            assertEquals(500, collector.results.size());
+            Set<Object> indices = new HashSet<>();
+            for (StepResult r : collector.results) {
+                assertTrue(r.isSuccess());
+                indices.add(r.context.get("index"));
+            }
+            assertEquals(500, indices.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void upstreamDemandIsBoundedByMaxInFlightWithoutDownstreamDemand() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Flow.Processor<ExecutionContext, StepResult> processor = engine(0).stream("w",
+                    StreamOptions.builder().maxInFlight(5).executor(pool).build());
+            CountingPublisher publisher = new CountingPublisher(1000);
+            Collector collector = new Collector(0);
+            publisher.subscribe(processor);
+            processor.subscribe(collector);
+
+            Thread.sleep(200);
+            assertEquals(5, publisher.requested.get(), "only maxInFlight inputs may be requested");
+            assertTrue(collector.results.isEmpty());
+
+            collector.subscription.request(3);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (collector.results.size() < 3 && System.nanoTime() < deadline) Thread.sleep(10);
+            Thread.sleep(100);
+            assertEquals(3, collector.results.size());
+            assertEquals(8, publisher.requested.get(), "one new input per emitted result");
+
+            collector.subscription.cancel();
+            assertTrue(publisher.cancelled);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void orderedModeEmitsInInputOrder() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            // With sleeps, later inputs routinely finish before earlier ones
+            Flow.Processor<ExecutionContext, StepResult> processor = engine(5).stream("w",
+                    StreamOptions.builder().maxInFlight(8).ordered(true).executor(pool).build());
+            CountingPublisher publisher = new CountingPublisher(100);
+            Collector collector = new Collector(Long.MAX_VALUE);
+            publisher.subscribe(processor);
+            processor.subscribe(collector);
+            collector.done.get(10, TimeUnit.SECONDS);
+
+            assertEquals(100, collector.results.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, collector.results.get(i).context.get("index"));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void upstreamErrorIsPropagated() {
+        Flow.Processor<ExecutionContext, StepResult> processor = engine(0).stream("w");
+        Collector collector = new Collector(1);
+        processor.subscribe(collector);
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override public void request(long n) { }
+            @Override public void cancel() { }
+        });
+        processor.onError(new IllegalStateException("broken log"));
+        Exception ex = assertThrows(Exception.class, () -> collector.done.get(5, TimeUnit.SECONDS));
+        assertEquals("broken log", ex.getCause().getMessage());
+    }
+
+    @Test
+    void secondSubscriberIsRejected() {
+        Flow.Processor<ExecutionContext, StepResult> processor = engine(0).stream("w");
+        processor.subscribe(new Collector(0));
+        Collector second = new Collector(0);
+        processor.subscribe(second);
+        assertTrue(second.done.isCompletedExceptionally());
+    }
+}
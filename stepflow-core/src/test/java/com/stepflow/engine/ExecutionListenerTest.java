@@ -0,0 +1,166 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import com.stepflow.testcomponents.TestFlows;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** Tests for {@link ExecutionListener} event dispatch. */
+class ExecutionListenerTest {
+
+    /** Records every event as a line of text. */
+    private static final class Recorder implements ExecutionListener {
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void runStarted(String workflow, ExecutionContext context) {
+            events.add("runStarted " + workflow);
+        }
+
+        @Override
+        public void runCompleted(String workflow, ExecutionContext context, StepResult result, long nanos) {
+            assertTrue(nanos >= 0);
+            events.add("runCompleted " + workflow + " " + result.status);
+        }
+
+        @Override
+        public void stepStarted(String workflow, String step, int attempt, ExecutionContext context) {
+            events.add("stepStarted " + step + " " + attempt);
+        }
+
+        @Override
+        public void stepCompleted(String workflow, String step, int attempt, StepResult.Status status, long nanos) {
+            events.add("stepCompleted " + step + " " + attempt + " " + status);
+        }
+
+        @Override
+        public void guardEvaluated(String workflow, String guard, boolean passed) {
+            events.add("guard " + guard + " " + passed);
+        }
+
+        @Override
+        public void retryScheduled(String workflow, String step, int nextAttempt, long delayMs) {
+            events.add("retry " + step + " " + nextAttempt + " " + delayMs);
+        }
+
+        @Override
+        public void transitionTaken(String workflow, String from, String to) {
+            events.add("transition " + from + " -> " + to);
+        }
+    }
+
+    private static final List<String> EXPECTED = List.of(
+            "runStarted w",
+            "stepStarted A 1",
+            "stepCompleted A 1 SUCCESS",
+            "transition A -> B",
+            "stepStarted B 1",
+            "stepCompleted B 1 FAILURE",
+            "retry B 2 0",
+            "stepStarted B 2",
+            "stepCompleted B 2 SUCCESS",
+            "guard myGuard true",
+            "transition B -> SUCCESS",
+            "runCompleted w SUCCESS");
+
+    @Test
+    void reportsLifecycleInOrder() {
+        Engine engine = TestFlows.engine("retrying");
+        Recorder recorder = new Recorder();
+        engine.addExecutionListener(recorder);
+
+        assertTrue(engine.run("w", new ExecutionContext()).isSuccess());
+        assertEquals(EXPECTED, recorder.events);
+    }
+
+    @Test
+    void asyncRunsReportTheSameEvents() throws Exception {
+        Engine engine = TestFlows.engine("retrying");
+        Recorder recorder = new Recorder();
+        engine.addExecutionListener(recorder);
+
+        assertTrue(engine.runAsync("w", new ExecutionContext(), Runnable::run).get().isSuccess());
+        assertEquals(EXPECTED, recorder.events);
+    }
+
+    @Test
+    void failingListenerDoesNotBreakTheRunOrOtherListeners() {
+        Engine engine = TestFlows.engine("retrying");
+        engine.addExecutionListener(new ExecutionListener() {
+            @Override
+            public void stepStarted(String workflow, String step, int attempt, ExecutionContext context) {
+                throw new IllegalStateException("listener bug");
+            }
+
+            @Override
+            public void transitionTaken(String workflow, String from, String to) {
+                throw new NoClassDefFoundError("listener dependency missing");
+            }
+        });
+        Recorder recorder = new Recorder();
+        engine.addExecutionListener(recorder);
+
+        assertTrue(engine.run("w", new ExecutionContext()).isSuccess());
+        assertEquals(EXPECTED, recorder.events);
+    }
+
+    @Test
+    void removedListenerIsNoLongerCalled() {
+        Engine engine = TestFlows.engine("retrying");
+        Recorder recorder = new Recorder();
+        engine.addExecutionListener(recorder);
+        assertTrue(engine.removeExecutionListener(recorder));
+        assertFalse(engine.removeExecutionListener(recorder));
+
+        engine.run("w", new ExecutionContext());
+        assertTrue(recorder.events.isEmpty());
+    }
+
+    @Test
+    void dispatchDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "per-thread allocation counters unavailable");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // A single noop step and no PROTOTYPE guard, so the run itself allocates no more than in
+        // HotPathAllocationTest and anything beyond that would come from dispatch
+        Engine engine = TestFlows.engine("single-noop");
+        long[] seen = new long[1];
+        engine.addExecutionListener(new ExecutionListener() {
+            @Override
+            public void stepCompleted(String workflow, String step, int attempt, StepResult.Status status, long nanos) {
+                seen[0]++;
+            }
+
+            @Override
+            public void transitionTaken(String workflow, String from, String to) {
+                seen[0]++;
+            }
+        });
+
+        ExecutionContext ctx = new ExecutionContext();
+        for (int i = 0; i < 20_000; i++) {
+            engine.run("w", ctx);
+        }
+        int runs = 10_000;
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < runs; i++) {
+            engine.run("w", ctx);
+        }
+        long perRun = (threads.getThreadAllocatedBytes(tid) - before) / runs;
+
+        assertEquals(2L * (20_000 + runs), seen[0]);
+        assertTrue(perRun <= 64, "expected at most 64 bytes per run, got " + perRun);
+    }
+}
@@ -0,0 +1,87 @@
+package com.stepflow.engine;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link Engine#setExecutionMode}. Virtual thread assertions only run on Java 21+
+ * (with the multi-release classes on the class path); older runtimes must reject the mode.
+ * The {@code java21} build profile reruns this class against the packaged jar with
+ * {@code stepflow.test.requireVirtualThreads} set, so the virtual thread path cannot be skipped there.
+ */
+class ExecutionModeTest {
+
+    private static FlowConfig.EdgeDef edge(String from, String to, String kind) {
+        FlowConfig.EdgeDef e = new FlowConfig.EdgeDef();
+        e.from = from; e.to = to; e.kind = kind;
+        return e;
+    }
+
+    private static FlowConfig.StepDef recording(String key) {
+        FlowConfig.StepDef sd = new FlowConfig.StepDef();
+        sd.type = "threadRecording";
+        sd.config = new HashMap<>(Map.of("key", key));
+        return sd;
+    }
+
+    /** start -> {left, right} -> merge -> SUCCESS */
+    private static Engine forkingEngine() {
+        FlowConfig cfg = new FlowConfig();
+        cfg.steps.put("start", recording("startThread"));
+        cfg.steps.put("left", recording("leftThread"));
+        cfg.steps.put("right", recording("rightThread"));
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = "start";
+        wf.joins.put("merge", new FlowConfig.JoinDef());
+        wf.edges = new ArrayList<>(List.of(
+                edge("start", "left", "parallel"), edge("start", "right", "parallel"),
+                edge("left", "merge", null), edge("right", "merge", null),
+                edge("merge", "SUCCESS", null)));
+        cfg.workflows.put("w", wf);
+        return new Engine(cfg, "com.stepflow.testcomponents");
+    }
+
+    @Test
+    void platformModeIsTheDefault() {
+        Engine engine = forkingEngine();
+        assertEquals(ExecutionMode.PLATFORM_THREADS, engine.getExecutionMode());
+        StepResult r = engine.run("w", new ExecutionContext());
+        assertTrue(r.isSuccess(), r.message);
+        assertFalse(r.context.get("leftThread").toString().startsWith("VirtualThread"));
+    }
+
+    @Test
+    void virtualModeRunsBranchesAndBatchWorkersOnVirtualThreads() {
+        Engine engine = forkingEngine();
+        if (!Threads.virtualThreadsSupported()) {
+            assertFalse(Boolean.getBoolean("stepflow.test.requireVirtualThreads"),
+                    "virtual threads required but the Java 21 classes were not loaded");
+            assertThrows(UnsupportedOperationException.class, () -> engine.setExecutionMode(ExecutionMode.VIRTUAL_THREADS));
+            assertEquals(ExecutionMode.PLATFORM_THREADS, engine.getExecutionMode());
+            return;
+        }
+        engine.setExecutionMode(ExecutionMode.VIRTUAL_THREADS);
+
+        StepResult r = engine.run("w", new ExecutionContext());
+        assertTrue(r.isSuccess(), r.message);
+        assertTrue(r.context.get("leftThread").toString().startsWith("VirtualThread"), r.context.get("leftThread").toString());
+        assertTrue(r.context.get("rightThread").toString().startsWith("VirtualThread"));
+
+        List<ExecutionContext> inputs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) inputs.add(new ExecutionContext());
+        for (StepResult each : engine.runBatch("w", inputs, BatchOptions.builder().maxParallelism(10).build())) {
+            assertTrue(each.isSuccess());
+            assertTrue(each.context.get("startThread").toString().startsWith("VirtualThread"));
+        }
+
+        engine.setExecutionMode(ExecutionMode.PLATFORM_THREADS);
+        r = engine.run("w", new ExecutionContext());
+        assertFalse(r.context.get("leftThread").toString().startsWith("VirtualThread"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.stepflow.engine;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.testcomponents.TestFlows;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** Tests for the engine's Java Flight Recorder events. */
+class FlightEventsTest {
+
+    /** The {@code retrying} test flow with a 5 ms retry delay, so the retry wait has a measurable duration. */
+    private static Engine engine() {
+        FlowConfig cfg = TestFlows.config("retrying");
+        cfg.steps.get("B").retry.delay = 5;
+        return TestFlows.engine(cfg);
+    }
+
+    private static List<RecordedEvent> record(Recording recording, Engine engine) throws Exception {
+        recording.start();
+        assertTrue(FlightEvents.recording());
+        assertTrue(engine.run("w", new ExecutionContext()).isSuccess());
+        recording.stop();
+        Path file = Files.createTempFile("stepflow", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().startsWith("com.stepflow."))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).collect(Collectors.toList());
+    }
+
+    @Test
+    void emitsRunStepGuardRetryAndTransitionEvents() throws Exception {
+        assumeTrue(FlightRecorder.isAvailable(), "Flight Recorder unavailable");
+        Engine engine = engine();
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("WorkflowRun", "StepExecution", "GuardEvaluation", "RetryWait", "EdgeTransition")) {
+                recording.enable("com.stepflow." + name);
+            }
+            events = record(recording, engine);
+        }
+        assertFalse(FlightEvents.recording());
+
+        List<RecordedEvent> runs = ofType(events, "com.stepflow.WorkflowRun");
+        assertEquals(1, runs.size());
+        assertEquals("w", runs.get(0).getString("workflow"));
+        assertEquals("SUCCESS", runs.get(0).getString("status"));
+
+        List<RecordedEvent> steps = ofType(events, "com.stepflow.StepExecution");
+        assertEquals(List.of("A 1 SUCCESS", "B 1 FAILURE", "B 2 SUCCESS"), steps.stream()
+                .map(e -> e.getString("step") + " " + e.getInt("attempt") + " " + e.getString("status"))
+                .collect(Collectors.toList()));
+
+        List<RecordedEvent> waits = ofType(events, "com.stepflow.RetryWait");
+        assertEquals(1, waits.size());
+        RecordedEvent wait = waits.get(0);
+        assertEquals("B", wait.getString("step"));
+        assertNull(wait.getString("edge"));
+        assertEquals(2, wait.getInt("attempt"));
+        assertTrue(wait.getDuration().toMillis() >= 4, "wait covers the backoff: " + wait.getDuration());
+
+        List<RecordedEvent> guards = ofType(events, "com.stepflow.GuardEvaluation");
+        assertEquals(1, guards.size());
+        assertEquals("myGuard", guards.get(0).getString("guard"));
+        assertTrue(guards.get(0).getBoolean("passed"));
+
+        assertEquals(List.of("A -> B", "B -> SUCCESS"), ofType(events, "com.stepflow.EdgeTransition").stream()
+                .map(e -> e.getString("from") + " -> " + e.getString("to"))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void disabledEventTypesAreNotEmitted() throws Exception {
+        assumeTrue(FlightRecorder.isAvailable(), "Flight Recorder unavailable");
+        Engine engine = engine();
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("com.stepflow.WorkflowRun");
+            recording.disable("com.stepflow.StepExecution");
+            recording.disable("com.stepflow.GuardEvaluation");
+            recording.disable("com.stepflow.RetryWait");
+            recording.disable("com.stepflow.EdgeTransition");
+            events = record(recording, engine);
+        }
+        assertEquals(1, events.size());
+        assertEquals("com.stepflow.WorkflowRun", events.get(0).getEventType().getName());
+    }
+}
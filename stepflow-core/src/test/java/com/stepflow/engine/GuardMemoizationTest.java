@@ -0,0 +1,158 @@
+package com.stepflow.engine;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.core.annotations.CacheableGuard;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.testcomponents.CachedTierGuard;
+import com.stepflow.testcomponents.CountingGuard;
+import com.stepflow.testcomponents.FirstCallOnlyGuard;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies per-run guard memoization and the cross-run {@link CacheableGuard} cache.
+ */
+class GuardMemoizationTest {
+
+    /** A (type, guarded by stepGuard) -> SUCCESS (guarded by edgeGuard) */
+    private static Engine engine(String type, Map<String, Object> stepConfig, String stepGuard, String edgeGuard) {
+        FlowConfig cfg = new FlowConfig();
+        FlowConfig.StepDef a = new FlowConfig.StepDef();
+        a.type = type;
+        a.config = new HashMap<>(stepConfig);
+        if (stepGuard != null) a.guards = new ArrayList<>(List.of(stepGuard));
+        cfg.steps.put("A", a);
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = "A";
+        FlowConfig.EdgeDef done = new FlowConfig.EdgeDef();
+        done.from = "A"; done.to = "SUCCESS"; done.guard = edgeGuard;
+        wf.edges = new ArrayList<>(List.of(done));
+        cfg.workflows.put("w", wf);
+        return new Engine(cfg, "com.stepflow.testcomponents");
+    }
+
+    @CacheableGuard(keys = "k", maxEntries = 2)
+    private static final class TwoEntries { }
+
+    @CacheableGuard(keys = "k", ttlMillis = 20)
+    private static final class ShortLived { }
+
+    private static ExecutionContext ctx(Object k) {
+        ExecutionContext ctx = new ExecutionContext();
+        ctx.put("k", k);
+        return ctx;
+    }
+
+    @Test
+    void guardIsNotReevaluatedWhileContextIsUnchanged() {
+        Engine engine = engine("testStepPlain", Map.of(), "countingGuard", "countingGuard");
+        CountingGuard.EVALUATIONS.set(0);
+
+        assertTrue(engine.run("w", new ExecutionContext()).isSuccess());
+        assertEquals(1, CountingGuard.EVALUATIONS.get());
+    }
+
+    @Test
+    void contextMutationInvalidatesMemoizedResult() {
+        Engine engine = engine("sleepWrite", Map.of("key", "written"), "countingGuard", "countingGuard");
+        CountingGuard.EVALUATIONS.set(0);
+
+        assertTrue(engine.run("w", new ExecutionContext()).isSuccess());
+        assertEquals(2, CountingGuard.EVALUATIONS.get());
+    }
+
+    @Test
+    void retryGuardIsAskedAgainBeforeEveryAttempt() {
+        FlowConfig cfg = engine("unstableTest", Map.of("succeedOnAttempt", 100), null, null).getConfig();
+        FlowConfig.RetryConfig retry = new FlowConfig.RetryConfig();
+        retry.maxAttempts = 5;
+        retry.delay = 0;
+        retry.guard = "firstCallOnly";
+        cfg.steps.get("A").retry = retry;
+        Engine engine = new Engine(cfg, "com.stepflow.testcomponents");
+        FirstCallOnlyGuard.EVALUATIONS.set(0);
+
+        assertFalse(engine.run("w", new ExecutionContext()).isSuccess());
+        assertEquals(2, FirstCallOnlyGuard.EVALUATIONS.get());
+    }
+
+    @Test
+    void memoizationDoesNotSpanRuns() {
+        Engine engine = engine("testStepPlain", Map.of(), null, "countingGuard");
+        CountingGuard.EVALUATIONS.set(0);
+
+        engine.run("w", new ExecutionContext());
+        engine.run("w", new ExecutionContext());
+        assertEquals(2, CountingGuard.EVALUATIONS.get());
+    }
+
+    @Test
+    void cacheableGuardIsSharedAcrossRunsByDeclaredKeys() {
+        Engine engine = engine("testStepPlain", Map.of(), null, "cachedTier");
+        CachedTierGuard.EVALUATIONS.set(0);
+
+        ExecutionContext gold = new ExecutionContext();
+        gold.put("customer", "gold");
+        gold.put("unrelated", 1);
+        assertTrue(engine.run("w", gold).isSuccess());
+        ExecutionContext goldAgain = new ExecutionContext();
+        goldAgain.put("customer", "gold");
+        goldAgain.put("unrelated", 2);
+        assertTrue(engine.run("w", goldAgain).isSuccess());
+        assertEquals(1, CachedTierGuard.EVALUATIONS.get());
+
+        ExecutionContext silver = new ExecutionContext();
+        silver.put("customer", "silver");
+        assertFalse(engine.run("w", silver).isSuccess());
+        assertEquals(2, CachedTierGuard.EVALUATIONS.get());
+    }
+
+    @Test
+    void cacheEvictsLeastRecentlyUsedEntry() {
+        GuardResultCache cache = GuardResultCache.of(TwoEntries.class);
+        cache.put(cache.keyOf(ctx("a")), true);
+        cache.put(cache.keyOf(ctx("b")), false);
+        assertEquals(Boolean.TRUE, cache.get(cache.keyOf(ctx("a")))); // "b" is now eldest
+        cache.put(cache.keyOf(ctx("c")), true);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get(cache.keyOf(ctx("b"))));
+        assertEquals(Boolean.TRUE, cache.get(cache.keyOf(ctx("a"))));
+        assertEquals(Boolean.TRUE, cache.get(cache.keyOf(ctx("c"))));
+    }
+
+    @Test
+    void cacheEntriesExpireAfterTtl() throws InterruptedException {
+        GuardResultCache cache = GuardResultCache.of(ShortLived.class);
+        cache.put(cache.keyOf(ctx("a")), true);
+        assertEquals(Boolean.TRUE, cache.get(cache.keyOf(ctx("a"))));
+
+        Thread.sleep(40);
+        assertNull(cache.get(cache.keyOf(ctx("a"))));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void contextVersionTracksEffectiveMutations() {
+        ExecutionContext ctx = new ExecutionContext();
+        long v0 = ctx.getVersion();
+        ctx.putAll(Map.of("a", 1));
+        long v1 = ctx.getVersion();
+        assertNotEquals(v0, v1);
+
+        Object same = ctx.get("a");
+        ctx.put("a", same);
+        assertEquals(v1, ctx.getVersion(), "re-putting the same value is not a mutation");
+
+        ctx.remove("missing");
+        assertEquals(v1, ctx.getVersion());
+        ctx.remove("a");
+        assertNotEquals(v1, ctx.getVersion());
+    }
+}
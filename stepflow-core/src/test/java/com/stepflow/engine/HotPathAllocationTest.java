@@ -0,0 +1,74 @@
+package com.stepflow.engine;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Guards the steady-state allocation of a synchronous run against regressions.
+ */
+class HotPathAllocationTest {
+
+    /** A (noop) -> B (noop) -> SUCCESS */
+    private static Engine engine() {
+        FlowConfig cfg = new FlowConfig();
+        for (String name : List.of("A", "B")) {
+            FlowConfig.StepDef def = new FlowConfig.StepDef();
+            def.type = "noop";
+            def.config = new HashMap<>();
+            cfg.steps.put(name, def);
+        }
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = "A";
+        FlowConfig.EdgeDef ab = new FlowConfig.EdgeDef();
+        ab.from = "A"; ab.to = "B";
+        FlowConfig.EdgeDef done = new FlowConfig.EdgeDef();
+        done.from = "B"; done.to = "SUCCESS";
+        wf.edges = new ArrayList<>(List.of(ab, done));
+        cfg.workflows.put("w", wf);
+        return new Engine(cfg, "com.stepflow.testcomponents");
+    }
+
+    @Test
+    void sharedResultsAreImmutable() {
+        assertSame(StepResult.success(), StepResult.success());
+        assertThrows(UnsupportedOperationException.class, () -> StepResult.success().context.put("k", "v"));
+    }
+
+    @Test
+    void steadyStateRunAllocatesOnlyItsResult() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "per-thread allocation counters unavailable");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Engine engine = engine();
+        ExecutionContext ctx = new ExecutionContext();
+        ctx.put("orderId", "o-1");
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(engine.run("w", ctx).isSuccess());
+        }
+
+        int runs = 10_000;
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < runs; i++) {
+            engine.run("w", ctx);
+        }
+        long perRun = (threads.getThreadAllocatedBytes(tid) - before) / runs;
+
+        // The final StepResult is the only object a run must create; run state, routing decisions
+        // and step results come from pools and shared constants
+        assertTrue(perRun <= 64, "expected at most 64 bytes per run, got " + perRun);
+    }
+}
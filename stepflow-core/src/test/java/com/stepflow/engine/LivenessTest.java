@@ -0,0 +1,117 @@
+package com.stepflow.engine;
+
+import com.stepflow.component.ComponentScanner;
+import com.stepflow.config.DependencyInjector;
+import com.stepflow.config.FlowConfig;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for context key liveness analysis and {@code memory: aggressive} key release.
+ */
+class LivenessTest {
+
+    private static FlowConfig.EdgeDef edge(String from, String to) {
+        FlowConfig.EdgeDef e = new FlowConfig.EdgeDef();
+        e.from = from; e.to = to;
+        return e;
+    }
+
+    private static FlowConfig.StepDef step(String type, Map<String, Object> config, List<String> reads, List<String> writes) {
+        FlowConfig.StepDef sd = new FlowConfig.StepDef();
+        sd.type = type;
+        sd.config = new HashMap<>(config);
+        sd.reads = reads;
+        sd.writes = writes;
+        return sd;
+    }
+
+    /**
+     * parse (writes doc) -> extract (reads doc, writes answer) -> audit (snapshots keys) -> SUCCESS,
+     * returning only answer and audit.
+     */
+    private static FlowConfig config(String memory) {
+        FlowConfig cfg = new FlowConfig();
+        cfg.steps.put("parse", step("sleepWrite", Map.of("key", "doc", "value", "big"), null, List.of("doc")));
+        cfg.steps.put("extract", step("sleepWrite", Map.of("key", "answer", "value", "42"), List.of("doc"), List.of("answer")));
+        cfg.steps.put("audit", step("keySnapshot", Map.of("key", "audit"), null, List.of("audit")));
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = "parse";
+        wf.outputs = new ArrayList<>(List.of("answer", "audit"));
+        wf.memory = memory;
+        wf.edges = new ArrayList<>(List.of(edge("parse", "extract"), edge("extract", "audit"), edge("audit", "SUCCESS")));
+        cfg.workflows.put("w", wf);
+        return cfg;
+    }
+
+    private static WorkflowPlan compile(FlowConfig cfg) {
+        ComponentScanner scanner = new ComponentScanner();
+        scanner.scanPackages("com.stepflow.testcomponents");
+        return WorkflowPlan.compile("w", cfg.workflows.get("w"), cfg, scanner, new DependencyInjector(), new HashMap<>());
+    }
+
+    @Test
+    void computesDeadKeysPerTransition() {
+        WorkflowPlan plan = compile(config("aggressive"));
+        Liveness liveness = plan.liveness;
+        int parse = plan.idOf("parse"), extract = plan.idOf("extract"), audit = plan.idOf("audit");
+
+        assertTrue(plan.releaseDeadKeys);
+        assertEquals(Set.of(), liveness.live(parse), "doc is written by parse before anyone reads it");
+        assertEquals(Set.of("doc"), liveness.live(extract));
+        assertArrayEquals(new String[0], liveness.deadOn(parse, extract));
+        assertArrayEquals(new String[]{"doc"}, liveness.deadOn(extract, audit));
+    }
+
+    @Test
+    void aggressiveModeReleasesDeadAndUnusedInputKeys() {
+        Engine engine = new Engine(config("aggressive"), "com.stepflow.testcomponents");
+        ExecutionContext ctx = new ExecutionContext();
+        ctx.put("request", "unused by any step");
+
+        StepResult result = engine.run("w", ctx);
+        assertTrue(result.isSuccess());
+        assertEquals(List.of("answer"), result.context.get("audit"));
+        assertEquals("42", result.context.get("answer"));
+    }
+
+    @Test
+    void defaultModeKeepsEveryKey() {
+        Engine engine = new Engine(config(null), "com.stepflow.testcomponents");
+        ExecutionContext ctx = new ExecutionContext();
+        ctx.put("request", "kept");
+
+        StepResult result = engine.run("w", ctx);
+        assertTrue(result.isSuccess());
+        assertEquals(List.of("answer", "doc", "request"), result.context.get("audit"));
+    }
+
+    @Test
+    void guardedStepDoesNotEndLivenessOfItsWrites() {
+        FlowConfig cfg = config("aggressive");
+        cfg.steps.get("parse").guards = new ArrayList<>(List.of("falseGuard"));
+        WorkflowPlan plan = compile(cfg);
+
+        // parse may be skipped, so an input doc must survive until extract
+        assertEquals(Set.of("doc"), plan.liveness.live(plan.idOf("parse")));
+    }
+
+    @Test
+    void aggressiveModeWithoutOutputsReleasesNothing() {
+        FlowConfig cfg = config("aggressive");
+        cfg.workflows.get("w").outputs = null;
+        WorkflowPlan plan = compile(cfg);
+
+        assertNull(plan.liveness);
+        assertFalse(plan.releaseDeadKeys);
+    }
+}
@@ -0,0 +1,245 @@
+package com.stepflow.engine;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.core.SimpleEngine;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@code kind: parallel} fan-out and join nodes.
+ */
+class ParallelForkJoinTest {
+
+    private static FlowConfig.EdgeDef edge(String from, String to) {
+        FlowConfig.EdgeDef e = new FlowConfig.EdgeDef();
+        e.from = from; e.to = to;
+        return e;
+    }
+
+    private static FlowConfig.EdgeDef parallel(String from, String to) {
+        FlowConfig.EdgeDef e = edge(from, to);
+        e.kind = "parallel";
+        return e;
+    }
+
+    private static FlowConfig.StepDef sleepWrite(String key, String value, long sleepMs, boolean fail) {
+        FlowConfig.StepDef sd = new FlowConfig.StepDef();
+        sd.type = "sleepWrite";
+        sd.config = new HashMap<>(Map.of("key", key, "value", value, "sleepMs", sleepMs, "fail", fail));
+        return sd;
+    }
+
+    /** start -> {b1, b2, b3} -> merge -> after -> SUCCESS */
+    private static FlowConfig fanOut(String policy, FlowConfig.StepDef b1, FlowConfig.StepDef b2, FlowConfig.StepDef b3) {
+        FlowConfig cfg = new FlowConfig();
+        FlowConfig.StepDef start = new FlowConfig.StepDef(); start.type = "testStepPlain";
+        cfg.steps.put("start", start);
+        cfg.steps.put("b1", b1);
+        cfg.steps.put("b2", b2);
+        cfg.steps.put("b3", b3);
+        cfg.steps.put("after", sleepWrite("after", "done", 0, false));
+
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = "start";
+        FlowConfig.JoinDef join = new FlowConfig.JoinDef();
+        join.onBranchFailure = policy;
+        wf.joins.put("merge", join);
+        wf.edges = new ArrayList<>(List.of(
+                parallel("start", "b1"), parallel("start", "b2"), parallel("start", "b3"),
+                edge("b1", "merge"), edge("b2", "merge"), edge("b3", "merge"),
+                edge("merge", "after"), edge("after", "SUCCESS")));
+        cfg.workflows.put("w", wf);
+        return cfg;
+    }
+
+    @Test
+    void branchesRunConcurrentlyAndJoinBeforeContinuing() {
+        Engine engine = new Engine(fanOut("CANCEL",
+                sleepWrite("k1", "v1", 300, false),
+                sleepWrite("k2", "v2", 300, false),
+                sleepWrite("k3", "v3", 300, false)), "com.stepflow.testcomponents");
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        engine.setParallelExecutor(pool);
+        try {
+            long start = System.nanoTime();
+            StepResult r = engine.run("w", new ExecutionContext());
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(r.isSuccess(), r.message);
+            assertEquals("v1", r.context.get("k1"));
+            assertEquals("v2", r.context.get("k2"));
+            assertEquals("v3", r.context.get("k3"));
+            assertEquals("done", r.context.get("after"));
+            assertTrue(elapsedMs < 800, "branches should overlap, took " + elapsedMs + "ms");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void conflictingWritesMergeInDeclarationOrder() {
+        // b3 finishes first and b1 last, but b3 is declared last and wins
+        Engine engine = new Engine(fanOut("CANCEL",
+                sleepWrite("shared", "b1", 200, false),
+                sleepWrite("shared", "b2", 100, false),
+                sleepWrite("shared", "b3", 0, false)), "com.stepflow.testcomponents");
+        for (int i = 0; i < 5; i++) {
+            StepResult r = engine.run("w", new ExecutionContext());
+            assertTrue(r.isSuccess(), r.message);
+            assertEquals("b3", r.context.get("shared"));
+        }
+    }
+
+    @Test
+    void branchesDoNotSeeEachOthersWrites() {
+        ExecutionContext ctx = new ExecutionContext();
+        ctx.put("input", "i");
+        Engine engine = new Engine(fanOut("CANCEL",
+                sleepWrite("k1", "v1", 0, false),
+                sleepWrite("k2", "v2", 0, false),
+                sleepWrite("k3", "v3", 0, false)), "com.stepflow.testcomponents");
+        StepResult r = engine.run("w", ctx);
+        assertTrue(r.isSuccess());
+        assertEquals("i", r.context.get("input"));
+        assertEquals(Set.of("input", "k1", "k2", "k3", "after"), new HashSet<>(r.context.keySet()));
+    }
+
+    @Test
+    void cancelPolicyFailsFastOnFirstBranchFailure() {
+        Engine engine = new Engine(fanOut("CANCEL",
+                sleepWrite("k1", "v1", 1000, false),
+                sleepWrite("k2", "v2", 0, true),
+                sleepWrite("k3", "v3", 1000, false)), "com.stepflow.testcomponents");
+        long start = System.nanoTime();
+        StepResult r = engine.run("w", new ExecutionContext());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertFalse(r.isSuccess());
+        assertEquals("k2 failed", r.message);
+        assertTrue(elapsedMs < 800, "CANCEL should not wait for siblings, took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void cancelledBranchesStopBeforeTheRunContinues() {
+        Engine engine = new Engine(fanOut("CANCEL",
+                sleepWrite("k1", "v1", 5000, false),
+                sleepWrite("k2", "v2", 50, true),
+                sleepWrite("k3", "v3", 5000, false)), "com.stepflow.testcomponents");
+        Map<String, StepResult.Status> completed = new ConcurrentHashMap<>();
+        engine.addExecutionListener(new ExecutionListener() {
+            @Override
+            public void stepCompleted(String workflow, String step, int attempt, StepResult.Status status, long nanos) {
+                completed.put(step, status);
+            }
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        engine.setParallelExecutor(pool);
+        try {
+            StepResult r = engine.run("w", new ExecutionContext());
+
+            assertEquals("k2 failed", r.message);
+            // The sleeping siblings were interrupted and had returned before the join resumed
+            assertEquals(StepResult.Status.FAILURE, completed.get("b1"));
+            assertEquals(StepResult.Status.FAILURE, completed.get("b3"));
+            assertFalse(completed.containsKey("after"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitPolicyWaitsForAllBranchesThenFails() {
+        Engine engine = new Engine(fanOut("WAIT",
+                sleepWrite("k1", "v1", 300, false),
+                sleepWrite("k2", "v2", 0, true),
+                sleepWrite("k3", "v3", 0, false)), "com.stepflow.testcomponents");
+        long start = System.nanoTime();
+        StepResult r = engine.run("w", new ExecutionContext());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertFalse(r.isSuccess());
+        assertEquals("k2 failed", r.message);
+        assertTrue(elapsedMs >= 250, "WAIT should let every branch finish, took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void ignorePolicyMergesSuccessfulBranchesOnly() {
+        Engine engine = new Engine(fanOut("IGNORE",
+                sleepWrite("k1", "v1", 0, false),
+                sleepWrite("k2", "v2", 0, true),
+                sleepWrite("k3", "v3", 0, false)), "com.stepflow.testcomponents");
+        StepResult r = engine.run("w", new ExecutionContext());
+        assertTrue(r.isSuccess(), r.message);
+        assertEquals("v1", r.context.get("k1"));
+        assertNull(r.context.get("k2"));
+        assertEquals("v3", r.context.get("k3"));
+        assertEquals("done", r.context.get("after"));
+    }
+
+    @Test
+    void runAsyncForksOnTheRunExecutor() throws Exception {
+        Engine engine = new Engine(fanOut("CANCEL",
+                sleepWrite("k1", "v1", 0, false),
+                sleepWrite("k2", "v2", 0, false),
+                sleepWrite("k3", "v3", 0, false)), "com.stepflow.testcomponents");
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            StepResult r = engine.runAsync("w", new ExecutionContext(), pool).get(5, TimeUnit.SECONDS);
+            assertTrue(r.isSuccess(), r.message);
+            assertEquals("v2", r.context.get("k2"));
+            assertEquals("done", r.context.get("after"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void mixingParallelAndSequentialEdgesIsRejected() {
+        FlowConfig cfg = fanOut("CANCEL",
+                sleepWrite("k1", "v1", 0, false),
+                sleepWrite("k2", "v2", 0, false),
+                sleepWrite("k3", "v3", 0, false));
+        cfg.workflows.get("w").edges.add(edge("start", "SUCCESS"));
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> new Engine(cfg, "com.stepflow.testcomponents"));
+        assertTrue(ex.getMessage().contains("mixes parallel and sequential edges"), ex.getMessage());
+    }
+
+    @Test
+    void branchesMustConvergeOnADeclaredJoin() {
+        FlowConfig cfg = fanOut("CANCEL",
+                sleepWrite("k1", "v1", 0, false),
+                sleepWrite("k2", "v2", 0, false),
+                sleepWrite("k3", "v3", 0, false));
+        // b3 bypasses the join
+        List<FlowConfig.EdgeDef> edges = cfg.workflows.get("w").edges;
+        edges.removeIf(e -> "b3".equals(e.from));
+        edges.add(edge("b3", "SUCCESS"));
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> new Engine(cfg, "com.stepflow.testcomponents"));
+        assertTrue(ex.getMessage().contains("must converge on exactly one join"), ex.getMessage());
+    }
+
+    @Test
+    void dslBuildsParallelFanOut() {
+        SimpleEngine engine = SimpleEngine.workflow("dsl", "com.stepflow.testcomponents")
+                .step("start").using("testStepPlain").parallel("left", "right")
+                .step("left").using("sleepWrite").with("key", "l").with("value", "L").then("merge")
+                .step("right").using("sleepWrite").with("key", "r").with("value", "R").then("merge")
+                .join("merge", "WAIT").then("SUCCESS")
+                .build();
+        StepResult r = engine.execute("dsl", new ExecutionContext());
+        assertTrue(r.isSuccess(), r.message);
+        assertEquals("L", r.context.get("l"));
+        assertEquals("R", r.context.get("r"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.metrics.DefaultMetricsRecorder;
+import com.stepflow.metrics.MetricsSnapshot;
+import com.stepflow.testcomponents.TestFlows;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** Tests for per-step CPU time and allocation accounting. */
+class StepResourcesTest {
+
+    private static void run(Engine engine, int runs) {
+        for (int i = 0; i < runs; i++) {
+            ExecutionContext ctx = new ExecutionContext();
+            ctx.put("sleepMs", 20L);
+            assertTrue(engine.run("w", ctx).isSuccess());
+        }
+    }
+
+    @Test
+    void offByDefault() {
+        Engine engine = TestFlows.engine("step-resources");
+        run(engine, 1);
+        assertFalse(engine.isStepResourceAccounting());
+        assertTrue(engine.getStepResourceUsage().isEmpty());
+    }
+
+    @Test
+    void separatesComputeFromWaitingPerStepType() {
+        Engine engine = TestFlows.engine("step-resources");
+        engine.setStepResourceAccounting(true);
+        assumeTrue(engine.isStepResourceAccounting(), "thread CPU time or allocation not measurable");
+        run(engine, 3);
+
+        Map<String, StepResourceUsage> usage = engine.getStepResourceUsage();
+        assertEquals(List.of("contextSleep", "cpuBurn"), new ArrayList<>(usage.keySet()));
+
+        StepResourceUsage burn = usage.get("cpuBurn");
+        assertEquals(6, burn.getAttempts());
+        assertTrue(burn.getCpuNanos() >= 3 * 10_000_000L, burn.toString());
+        assertTrue(burn.getMeanAllocatedBytes() >= 1 << 20, burn.toString());
+
+        StepResourceUsage sleep = usage.get("contextSleep");
+        assertEquals(3, sleep.getAttempts());
+        assertTrue(sleep.getWallNanos() >= 3 * 20_000_000L, sleep.toString());
+        assertTrue(sleep.getCpuShare() < 0.5, sleep.toString());
+        assertTrue(sleep.getMeanAllocatedBytes() < 64 * 1024, sleep.toString());
+
+        engine.analyzeWorkflow("w");
+
+        engine.setStepResourceAccounting(false);
+        assertTrue(engine.getStepResourceUsage().isEmpty());
+    }
+
+    @Test
+    void lastEngineRestoresTheJvmCounters() {
+        Engine first = TestFlows.engine("step-resources");
+        Engine second = TestFlows.engine("step-resources");
+        boolean before = StepResources.countersEnabled();
+        first.setStepResourceAccounting(true);
+        assumeTrue(first.isStepResourceAccounting(), "thread CPU time or allocation not measurable");
+        second.setStepResourceAccounting(true);
+        first.setStepResourceAccounting(true);
+
+        first.setStepResourceAccounting(false);
+        first.setStepResourceAccounting(false);
+        assertTrue(StepResources.countersEnabled());
+        run(second, 1);
+        assertEquals(2, second.getStepResourceUsage().get("cpuBurn").getAttempts());
+
+        second.setStepResourceAccounting(false);
+        assertEquals(before, StepResources.countersEnabled());
+    }
+
+    @Test
+    void reportsToTheMetricsRecorder() {
+        Engine engine = TestFlows.engine("step-resources");
+        DefaultMetricsRecorder metrics = new DefaultMetricsRecorder();
+        engine.setMetricsRecorder(metrics);
+        engine.setStepResourceAccounting(true);
+        assumeTrue(engine.isStepResourceAccounting(), "thread CPU time or allocation not measurable");
+        run(engine, 2);
+
+        MetricsSnapshot.Step a = metrics.snapshot().workflow("w").getStep("A");
+        assertEquals("cpuBurn", a.getType());
+        assertEquals(2, a.getMeasuredAttempts());
+        assertTrue(a.getCpuNanos() >= 2 * 10_000_000L, a.toString());
+        assertTrue(a.getAllocatedBytes() >= 2L << 20, a.toString());
+        engine.setStepResourceAccounting(false);
+    }
+}
@@ -0,0 +1,169 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import com.stepflow.testcomponents.TestFlows;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for tail-based trace sampling and the rolling trace file. */
+class TailSamplingTest {
+
+    private static StepResult sleep(Engine engine, long ms) {
+        ExecutionContext ctx = new ExecutionContext();
+        ctx.put("sleepMs", ms);
+        return engine.run("sleep", ctx);
+    }
+
+    /** Stops sampling, which flushes the writer, and returns the lines written. */
+    private static List<String> stopAndRead(Engine engine, Path file) throws IOException {
+        engine.setTailSampling(null);
+        return Files.exists(file) ? Files.readAllLines(file, StandardCharsets.UTF_8) : List.of();
+    }
+
+    private static Path tempDir() throws IOException {
+        return Files.createTempDirectory("stepflow-traces");
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void keepsFailedAndRetryExhaustedRuns() throws IOException {
+        Path dir = tempDir();
+        try {
+            Path file = dir.resolve("traces.log");
+            Engine engine = TestFlows.engine("tail-sampling");
+            engine.setTailSampling(TailSampling.builder().file(file).build());
+            assertTrue(engine.getTraceBufferCapacity() > 0);
+
+            assertEquals(StepResult.Status.FAILURE, engine.run("flaky", new ExecutionContext()).status);
+            assertEquals(StepResult.Status.FAILURE, engine.run("blocked", new ExecutionContext()).status);
+            for (int i = 0; i < 20; i++) {
+                assertTrue(sleep(engine, 0).isSuccess());
+            }
+            assertEquals(2, engine.tailSampler().kept());
+
+            List<String> lines = stopAndRead(engine, file);
+            assertEquals(2, lines.size(), String.join("\n", lines));
+            assertTrue(lines.get(0).contains(" flaky run="), lines.get(0));
+            assertTrue(lines.get(0).contains(" reason=RETRIES_EXHAUSTED "), lines.get(0));
+            assertTrue(lines.get(0).contains(" | STEP_RETRY F #2 in 0ms | STEP F #2 FAILURE "), lines.get(0));
+            assertTrue(lines.get(1).contains(" blocked run="), lines.get(1));
+            assertTrue(lines.get(1).contains(" reason=FAILED "), lines.get(1));
+            assertTrue(lines.get(1).contains(" | GUARD falseGuard failed | RUN_COMPLETED FAILURE "), lines.get(1));
+            assertNull(engine.getTailSampling());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void keepsRunsOverAFixedThreshold() throws IOException {
+        Path dir = tempDir();
+        try {
+            Path file = dir.resolve("traces.log");
+            Engine engine = TestFlows.engine("tail-sampling");
+            engine.setTailSampling(TailSampling.builder()
+                    .file(file)
+                    .latencyPercentile(0)
+                    .latencyThreshold(Duration.ofMillis(20))
+                    .keepFailures(false)
+                    .build());
+
+            for (int i = 0; i < 20; i++) {
+                sleep(engine, 0);
+            }
+            sleep(engine, 40);
+            engine.run("blocked", new ExecutionContext());
+
+            List<String> lines = stopAndRead(engine, file);
+            assertEquals(1, lines.size(), String.join("\n", lines));
+            assertTrue(lines.get(0).contains(" sleep run="), lines.get(0));
+            assertTrue(lines.get(0).contains(" reason=SLOW "), lines.get(0));
+            assertTrue(lines.get(0).contains(" threshold_ns=20000000 "), lines.get(0));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void slowRunThresholdFollowsRecentLatency() throws IOException {
+        Path dir = tempDir();
+        try {
+            Path file = dir.resolve("traces.log");
+            Engine engine = TestFlows.engine("tail-sampling");
+            engine.setTailSampling(TailSampling.builder()
+                    .file(file)
+                    .latencyPercentile(100)
+                    .window(Duration.ofNanos(1), 20)
+                    .build());
+
+            // No bar until a window has enough runs
+            for (int i = 0; i < 19; i++) {
+                sleep(engine, 0);
+            }
+            assertFalse(engine.tailSampler().thresholds().containsKey("sleep"));
+            for (int i = 0; i < 21; i++) {
+                sleep(engine, 0);
+            }
+            long fast = engine.tailSampler().thresholds().get("sleep");
+            assertTrue(fast < 20_000_000L, "threshold " + fast);
+
+            // Slower runs raise the bar once their window closes
+            for (int i = 0; i < 40; i++) {
+                sleep(engine, 20);
+            }
+            long slow = engine.tailSampler().thresholds().get("sleep");
+            assertTrue(slow >= 20_000_000L, "threshold " + slow);
+
+            sleep(engine, 80);
+            List<String> lines = stopAndRead(engine, file);
+            assertFalse(lines.isEmpty());
+            String last = lines.get(lines.size() - 1);
+            assertTrue(last.contains(" reason=SLOW "), last);
+            long duration = Long.parseLong(last.replaceAll(".* duration_ns=(\\d+) .*", "$1"));
+            assertTrue(duration >= 80_000_000L, last);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void rollsTheFileOver() throws IOException {
+        Path dir = tempDir();
+        try {
+            Path file = dir.resolve("traces.log");
+            TraceFileWriter writer = new TraceFileWriter(file, 100, 3);
+            String line = "x".repeat(59);
+            for (int i = 0; i < 10; i++) {
+                assertTrue(writer.offer(line));
+            }
+            writer.close();
+
+            assertEquals(60, Files.size(file));
+            assertEquals(60, Files.size(dir.resolve("traces.log.1")));
+            assertEquals(60, Files.size(dir.resolve("traces.log.2")));
+            assertFalse(Files.exists(dir.resolve("traces.log.3")));
+            assertEquals(0, writer.dropped());
+        } finally {
+            delete(dir);
+        }
+    }
+}
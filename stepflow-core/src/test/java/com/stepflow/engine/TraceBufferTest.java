@@ -0,0 +1,157 @@
+package com.stepflow.engine;
+
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import com.stepflow.testcomponents.TestFlows;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** Tests for the engine's in-memory trace ring. */
+class TraceBufferTest {
+
+    private static List<String> describe(RunTrace trace) {
+        return trace.getEntries().stream()
+                .map(e -> {
+                    switch (e.getKind()) {
+                        case STEP:
+                            return "STEP " + e.getName() + " #" + e.getAttempt() + " " + e.getStatus();
+                        case RUN_COMPLETED:
+                            return "RUN_COMPLETED " + e.getStatus();
+                        default:
+                            return e.toString();
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void disabledByDefault() {
+        Engine engine = TestFlows.engine("retrying");
+        engine.run("w", new ExecutionContext());
+        assertEquals(0, engine.getTraceBufferCapacity());
+        assertTrue(engine.recentTraces(10).isEmpty());
+    }
+
+    @Test
+    void decodesTheEventsOfARun() {
+        Engine engine = TestFlows.engine("retrying");
+        engine.setTraceBufferCapacity(1000);
+        assertEquals(1024, engine.getTraceBufferCapacity());
+
+        assertTrue(engine.run("w", new ExecutionContext()).isSuccess());
+
+        List<RunTrace> traces = engine.recentTraces(10);
+        assertEquals(1, traces.size());
+        RunTrace trace = traces.get(0);
+        assertEquals("w", trace.getWorkflow());
+        assertTrue(trace.isComplete());
+        assertEquals(List.of(
+                "RUN_STARTED A",
+                "STEP A #1 SUCCESS",
+                "TRANSITION A -> B",
+                "STEP B #1 FAILURE",
+                "STEP_RETRY B #2 in 0ms",
+                "STEP B #2 SUCCESS",
+                "GUARD myGuard passed",
+                "TRANSITION B -> SUCCESS",
+                "RUN_COMPLETED SUCCESS"), describe(trace));
+        assertTrue(trace.toString().startsWith("run " + trace.getRunId() + " w\n  RUN_STARTED A"), trace.toString());
+    }
+
+    @Test
+    void returnsTheMostRecentRunsFirst() {
+        Engine engine = TestFlows.engine("single-noop");
+        engine.setTraceBufferCapacity(1024);
+        for (int i = 0; i < 5; i++) {
+            engine.run("guarded", new ExecutionContext());
+        }
+
+        List<RunTrace> traces = engine.recentTraces(3);
+        assertEquals(3, traces.size());
+        assertTrue(traces.get(0).getRunId() > traces.get(1).getRunId());
+        assertTrue(traces.get(1).getRunId() > traces.get(2).getRunId());
+        assertEquals(5, engine.recentTraces(100).size());
+    }
+
+    @Test
+    void oldRunsAreOverwritten() {
+        Engine engine = TestFlows.engine("single-noop");
+        engine.setTraceBufferCapacity(1024);
+        // Five entries per run, so the ring holds about 200 runs
+        for (int i = 0; i < 1000; i++) {
+            engine.run("guarded", new ExecutionContext());
+        }
+
+        List<RunTrace> traces = engine.recentTraces(Integer.MAX_VALUE);
+        assertTrue(traces.size() <= 1024 / 5 + 1, "kept " + traces.size() + " runs");
+        assertTrue(traces.get(0).isComplete());
+        assertEquals(5, traces.get(0).getEntries().size());
+        int entries = traces.stream().mapToInt(t -> t.getEntries().size()).sum();
+        assertEquals(1024, entries);
+        // Only the oldest run kept can have lost its start
+        for (int i = 0; i < traces.size() - 1; i++) {
+            assertTrue(traces.get(i).isComplete());
+        }
+    }
+
+    @Test
+    void recordsFailedRunsAndLogsThemWhenAsked() {
+        Engine engine = TestFlows.engine("single-noop");
+        engine.setTraceBufferCapacity(1024);
+        engine.setLogTraceOnFailure(true);
+
+        StepResult result = engine.run("blocked", new ExecutionContext());
+        assertEquals(StepResult.Status.FAILURE, result.status);
+
+        List<String> entries = describe(engine.recentTraces(1).get(0));
+        assertEquals(List.of(
+                "RUN_STARTED A",
+                "STEP A #1 SUCCESS",
+                "GUARD falseGuard failed",
+                "RUN_COMPLETED FAILURE"), entries);
+    }
+
+    @Test
+    void turningTracingOffDropsTheRing() {
+        Engine engine = TestFlows.engine("single-noop");
+        engine.setTraceBufferCapacity(1024);
+        engine.run("guarded", new ExecutionContext());
+        engine.setTraceBufferCapacity(0);
+        engine.run("guarded", new ExecutionContext());
+
+        assertTrue(engine.recentTraces(10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> engine.setTraceBufferCapacity(-1));
+    }
+
+    @Test
+    void recordingDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "per-thread allocation counters unavailable");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // No guard and a single noop step, as in HotPathAllocationTest
+        Engine engine = TestFlows.engine("single-noop");
+        engine.setTraceBufferCapacity(4096);
+
+        ExecutionContext ctx = new ExecutionContext();
+        for (int i = 0; i < 20_000; i++) {
+            engine.run("w", ctx);
+        }
+        int runs = 10_000;
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < runs; i++) {
+            engine.run("w", ctx);
+        }
+        long perRun = (threads.getThreadAllocatedBytes(tid) - before) / runs;
+        assertTrue(perRun <= 64, "expected at most 64 bytes per run, got " + perRun);
+    }
+}
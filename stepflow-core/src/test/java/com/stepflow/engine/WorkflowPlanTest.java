@@ -0,0 +1,84 @@
+package com.stepflow.engine;
+
+import com.stepflow.component.ComponentScanner;
+import com.stepflow.config.DependencyInjector;
+import com.stepflow.config.FlowConfig;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link WorkflowPlan} compilation and plan-driven execution.
+ */
+class WorkflowPlanTest {
+
+    private static FlowConfig.EdgeDef edge(String from, String to, String guard) {
+        FlowConfig.EdgeDef e = new FlowConfig.EdgeDef();
+        e.from = from; e.to = to; e.guard = guard;
+        return e;
+    }
+
+    @Test
+    void compilesNodesEdgesAndConfig() {
+        FlowConfig cfg = new FlowConfig();
+        FlowConfig.StepDef a = new FlowConfig.StepDef(); a.type = "testStepPlain";
+        a.config = new HashMap<>(Map.of("k", "step"));
+        FlowConfig.StepDef b = new FlowConfig.StepDef(); b.type = "unknownType";
+        cfg.steps.put("A", a); cfg.steps.put("B", b);
+        cfg.defaults.put("step", new HashMap<>(Map.of("k", "default", "d", 1)));
+
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = "A";
+        wf.edges = new ArrayList<>();
+        wf.edges.add(edge("A", "B", "myGuard"));
+        wf.edges.add(edge("A", "FAILURE", null));
+        wf.edges.add(edge("B", "SUCCESS", "missingGuard"));
+
+        ComponentScanner scanner = new ComponentScanner();
+        scanner.scanPackages("com.stepflow.testcomponents");
+        WorkflowPlan plan = WorkflowPlan.compile("w", wf, cfg, scanner, new DependencyInjector(), new HashMap<>());
+
+        assertEquals(4, plan.size());
+        WorkflowPlan.StepNode root = plan.nodes[plan.root];
+        assertEquals("A", root.name);
+        assertNotNull(root.stepClass);
+        assertEquals("step", root.effectiveConfig.get("k"));
+        assertEquals(1, root.effectiveConfig.get("d"));
+
+        assertEquals(2, root.outgoing.length);
+        assertEquals("B", plan.nameOf(root.outgoing[0].target));
+        assertNotNull(root.outgoing[0].guard.guardClass);
+        assertNull(root.outgoing[1].guard);
+        assertTrue(plan.nodes[root.outgoing[1].target].terminal);
+
+        WorkflowPlan.StepNode b1 = plan.nodes[plan.idOf("B")];
+        assertNull(b1.stepClass);
+        assertNull(b1.outgoing[0].guard.guardClass);
+        assertEquals(WorkflowPlan.FailureStrategy.STOP, b1.outgoing[0].strategy);
+    }
+
+    @Test
+    void longChainRunsAgainstCompiledPlan() {
+        FlowConfig cfg = new FlowConfig();
+        FlowConfig.WorkflowDef wf = new FlowConfig.WorkflowDef();
+        wf.root = "s0";
+        wf.edges = new ArrayList<>();
+        int n = 300;
+        for (int i = 0; i < n; i++) {
+            FlowConfig.StepDef sd = new FlowConfig.StepDef(); sd.type = "testStepPlain";
+            cfg.steps.put("s" + i, sd);
+            wf.edges.add(edge("s" + i, i + 1 < n ? "s" + (i + 1) : "SUCCESS", null));
+        }
+        cfg.workflows.put("chain", wf);
+
+        Engine engine = new Engine(cfg, "com.stepflow.testcomponents");
+        StepResult r = engine.run("chain", new ExecutionContext());
+        assertTrue(r.isSuccess());
+    }
+}
@@ -0,0 +1,162 @@
+package com.stepflow.metrics;
+
+import com.stepflow.engine.Engine;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.testcomponents.TestFlows;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for the metrics SPI and its built-in recorder. */
+class DefaultMetricsRecorderTest {
+
+    @Test
+    void recordsRunsStepsGuardsAndEdgesByName() {
+        Engine engine = TestFlows.engine("redirected");
+        DefaultMetricsRecorder metrics = new DefaultMetricsRecorder();
+        engine.setMetricsRecorder(metrics);
+        assertSame(metrics, engine.getMetricsRecorder());
+
+        int runs = 50;
+        for (int i = 0; i < runs; i++) {
+            assertTrue(engine.run("w", new ExecutionContext()).isSuccess());
+        }
+
+        MetricsSnapshot.Workflow w = metrics.snapshot().workflow("w");
+        assertNotNull(w);
+        assertEquals(runs, w.getRuns());
+        assertEquals(0, w.getFailures());
+        assertTrue(w.getLatency().max() > 0);
+
+        assertEquals(runs, w.getStep("A").getExecutions());
+        assertNull(w.getStep("C"), "C is never reached");
+        // unstableTest fails its first attempt and succeeds on the retry
+        MetricsSnapshot.Step b = w.getStep("B");
+        assertEquals(2L * runs, b.getExecutions());
+        assertEquals(runs, b.getFailures());
+        assertEquals(runs, b.getRetries());
+
+        assertEquals(0.0, w.getGuard("falseGuard").getPassRate());
+        assertEquals(runs, w.getGuard("myGuard").getPasses());
+        assertEquals(1.0, w.getGuard("myGuard").getPassRate());
+
+        assertEquals(runs, w.getTraversals("A", "D"), "alternative route is counted on its own");
+        assertEquals(0, w.getTraversals("A", "C"));
+        assertEquals(runs, w.getTraversals("D", "B"));
+        assertEquals(runs, w.getTraversals("B", "SUCCESS"));
+    }
+
+    @Test
+    void asyncRunsReportFromWorkerThreads() throws Exception {
+        Engine engine = TestFlows.engine("redirected");
+        DefaultMetricsRecorder metrics = new DefaultMetricsRecorder();
+        engine.setMetricsRecorder(metrics);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            int runs = 200;
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[runs];
+            for (int i = 0; i < runs; i++) {
+                futures[i] = engine.runAsync("w", new ExecutionContext(), pool);
+            }
+            CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+
+            MetricsSnapshot.Workflow w = metrics.snapshot().workflow("w");
+            assertEquals(runs, w.getRuns());
+            assertEquals(2L * runs, w.getStep("B").getExecutions());
+            assertEquals(runs, w.getTraversals("B", "SUCCESS"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void removingTheRecorderStopsReporting() {
+        Engine engine = TestFlows.engine("redirected");
+        DefaultMetricsRecorder metrics = new DefaultMetricsRecorder();
+        engine.setMetricsRecorder(metrics);
+        engine.run("w", new ExecutionContext());
+        engine.setMetricsRecorder(null);
+        assertNull(engine.getMetricsRecorder());
+        engine.run("w", new ExecutionContext());
+
+        assertEquals(1, metrics.snapshot().workflow("w").getRuns());
+        metrics.reset();
+        MetricsSnapshot.Workflow w = metrics.snapshot().workflow("w");
+        assertEquals(0, w.getRuns());
+        assertTrue(w.getSteps().isEmpty());
+        assertTrue(w.getEdges().isEmpty());
+    }
+
+    @Test
+    void descriptorNamesMatchPlanIds() {
+        Engine engine = TestFlows.engine("redirected");
+        WorkflowDescriptor[] seen = new WorkflowDescriptor[1];
+        DefaultMetricsRecorder delegate = new DefaultMetricsRecorder();
+        engine.setMetricsRecorder(workflow -> {
+            seen[0] = workflow;
+            return delegate.register(workflow);
+        });
+
+        WorkflowDescriptor d = seen[0];
+        assertEquals("w", d.getName());
+        assertTrue(d.getSteps().containsAll(List.of("A", "B", "C", "D", "SUCCESS")));
+        assertTrue(d.getGuards().containsAll(List.of("falseGuard", "myGuard")));
+        assertEquals(List.of("A -> C", "A -> D", "C -> B", "D -> B", "B -> SUCCESS"), d.getEdges());
+    }
+
+    @Test
+    void histogramPercentilesStayWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1_000L);
+        }
+        HistogramSnapshot s = histogram.snapshot();
+        assertEquals(100_000, s.count());
+        assertEquals(100_000_000L, s.max());
+        assertEquals(50_000_500.0, s.mean(), 1.0);
+        for (double p : new double[] {50.0, 90.0, 99.0, 99.9}) {
+            double expected = p / 100.0 * 100_000_000L;
+            double actual = s.percentile(p);
+            assertTrue(actual >= expected && actual <= expected * 1.07, "p" + p + " = " + actual);
+        }
+        assertEquals(0L, HistogramSnapshot.EMPTY.percentile(99.0));
+        assertThrows(IllegalArgumentException.class, () -> s.percentile(101.0));
+    }
+
+    @Test
+    void histogramBucketsCoverEveryValue() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1_000, 65_535, 1L << 30, (1L << 42) + 1, Long.MAX_VALUE};
+        for (long v : values) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(index >= 0 && index < LatencyHistogram.BUCKETS, "index of " + v);
+            if (v < (1L << 42)) {
+                assertTrue(LatencyHistogram.upperBoundOf(index) >= v, "upper bound of " + v);
+            }
+        }
+    }
+
+    @Test
+    void cumulativeCountsFollowBucketBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 1_000; v++) {
+            histogram.record(v * 1_000L);
+        }
+        HistogramSnapshot s = histogram.snapshot();
+        assertEquals(500_500_000L, s.sum());
+
+        long[] bounds = {0L, 100_000L, 500_000L, 10_000_000L};
+        long[] out = new long[bounds.length];
+        s.cumulativeCounts(bounds, out);
+        assertEquals(0L, out[0]);
+        assertTrue(out[1] <= 100 && out[1] >= 94, "le 100us = " + out[1]);
+        assertTrue(out[2] <= 500 && out[2] >= 470, "le 500us = " + out[2]);
+        assertEquals(1_000L, out[3]);
+        assertThrows(IllegalArgumentException.class, () -> s.cumulativeCounts(bounds, new long[1]));
+    }
+}
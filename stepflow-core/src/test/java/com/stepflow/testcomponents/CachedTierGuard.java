@@ -0,0 +1,20 @@
+package com.stepflow.testcomponents;
+
+import com.stepflow.core.annotations.CacheableGuard;
+import com.stepflow.core.annotations.GuardComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Guard;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@GuardComponent(name = "cachedTier")
+@CacheableGuard(keys = "customer", maxEntries = 16, ttlMillis = 0)
+public class CachedTierGuard implements Guard {
+    public static final AtomicInteger EVALUATIONS = new AtomicInteger();
+
+    @Override
+    public boolean evaluate(ExecutionContext ctx) {
+        EVALUATIONS.incrementAndGet();
+        return "gold".equals(ctx.getString("customer"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.stepflow.testcomponents;
+
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+/** Sleeps for the {@code sleepMs} context value, so each run can take a different time. */
+@StepComponent(name = "contextSleep")
+public class ContextSleepStep implements Step {
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        Object sleepMs = ctx.get("sleepMs");
+        if (sleepMs != null) {
+            try {
+                Thread.sleep(((Number) sleepMs).longValue());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return StepResult.failure("interrupted");
+            }
+        }
+        return StepResult.success(ctx);
+    }
+}
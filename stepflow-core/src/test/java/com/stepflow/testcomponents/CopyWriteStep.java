@@ -0,0 +1,23 @@
+package com.stepflow.testcomponents;
+
+import com.stepflow.core.annotations.ConfigValue;
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+/** Writes through a copy of the context and returns the copy; touches "shared" on the original. */
+@StepComponent(name = "copyWrite")
+public class CopyWriteStep implements Step {
+    @ConfigValue(value = "key", required = false, defaultValue = "written")
+    private String key;
+
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        ExecutionContext out = ctx.copy();
+        ctx.put("shared", "direct");
+        out.put(key, "viaCopy");
+        out.remove("dropped");
+        return StepResult.success(out);
+    }
+}
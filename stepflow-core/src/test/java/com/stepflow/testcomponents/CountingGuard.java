@@ -0,0 +1,18 @@
+package com.stepflow.testcomponents;
+
+import com.stepflow.core.annotations.GuardComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Guard;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@GuardComponent(name = "countingGuard")
+public class CountingGuard implements Guard {
+    public static final AtomicInteger EVALUATIONS = new AtomicInteger();
+
+    @Override
+    public boolean evaluate(ExecutionContext ctx) {
+        EVALUATIONS.incrementAndGet();
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+package com.stepflow.testcomponents;
+
+import com.stepflow.core.annotations.ConfigValue;
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Spins for {@code spinMs} of thread CPU time (wall time where the JVM cannot measure it) and
+ * allocates {@code allocateBytes} in 1 KB arrays.
+ */
+@StepComponent(name = "cpuBurn")
+public class CpuBurnStep implements Step {
+    @ConfigValue(value = "spinMs", required = false, defaultValue = "0")
+    private long spinMs;
+
+    @ConfigValue(value = "allocateBytes", required = false, defaultValue = "0")
+    private int allocateBytes;
+
+    public static volatile Object sink;
+
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        boolean cpu = threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+        long end = (cpu ? threads.getCurrentThreadCpuTime() : System.nanoTime()) + spinMs * 1_000_000L;
+        long x = 0;
+        while ((cpu ? threads.getCurrentThreadCpuTime() : System.nanoTime()) < end) {
+            x += x * 31 + 7;
+        }
+        for (int i = 0; i < allocateBytes / 1024; i++) {
+            sink = new byte[1024];
+        }
+        ctx.put("burn", x);
+        return StepResult.success(ctx);
+    }
+}
@@ -0,0 +1,18 @@
+package com.stepflow.testcomponents;
+
+import com.stepflow.core.annotations.GuardComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Guard;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Passes on its first evaluation only, like a retry deadline that has since expired. */
+@GuardComponent(name = "firstCallOnly")
+public class FirstCallOnlyGuard implements Guard {
+    public static final AtomicInteger EVALUATIONS = new AtomicInteger();
+
+    @Override
+    public boolean evaluate(ExecutionContext ctx) {
+        return EVALUATIONS.incrementAndGet() == 1;
+    }
+}
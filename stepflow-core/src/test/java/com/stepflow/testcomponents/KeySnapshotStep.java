@@ -0,0 +1,23 @@
+package com.stepflow.testcomponents;
+
+import com.stepflow.core.annotations.ConfigValue;
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+import java.util.ArrayList;
+import java.util.TreeSet;
+
+/** Records the sorted context keys it sees under its configured key. */
+@StepComponent(name = "keySnapshot")
+public class KeySnapshotStep implements Step {
+    @ConfigValue(value = "key", required = false, defaultValue = "seen")
+    private String key;
+
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        ctx.put(key, new ArrayList<>(new TreeSet<>(ctx.keySet())));
+        return StepResult.success(ctx);
+    }
+}
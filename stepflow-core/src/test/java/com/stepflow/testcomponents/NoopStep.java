@@ -0,0 +1,15 @@
+package com.stepflow.testcomponents;
+
+import com.stepflow.core.annotations.ComponentScope;
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+@StepComponent(name = "noop", scope = ComponentScope.SINGLETON)
+public class NoopStep implements Step {
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        return StepResult.success();
+    }
+}
@@ -0,0 +1,24 @@
+package com.stepflow.testcomponents;
+
+import com.stepflow.core.annotations.GuardComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Guard;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@GuardComponent(name = "retryCounting")
+public class RetryCountingGuard implements Guard {
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    private int evaluations = 0;
+
+    public RetryCountingGuard() {
+        CREATED.incrementAndGet();
+    }
+
+    @Override
+    public boolean evaluate(ExecutionContext ctx) {
+        evaluations++;
+        return evaluations >= 3;
+    }
+}
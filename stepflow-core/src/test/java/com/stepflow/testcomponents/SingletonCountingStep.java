@@ -0,0 +1,33 @@
+package com.stepflow.testcomponents;
+
+import com.stepflow.core.annotations.ComponentScope;
+import com.stepflow.core.annotations.ConfigValue;
+import com.stepflow.core.annotations.Inject;
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@StepComponent(name = "singletonCounting", scope = ComponentScope.SINGLETON)
+public class SingletonCountingStep implements Step {
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    @ConfigValue(value = "label", required = false, defaultValue = "none")
+    private String label;
+
+    @Inject(value = "orderId", required = false)
+    private String orderId;
+
+    public SingletonCountingStep() {
+        CREATED.incrementAndGet();
+    }
+
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        ctx.put("seenOrder", orderId);
+        ctx.put("label", label);
+        return StepResult.success(ctx);
+    }
+}
@@ -0,0 +1,39 @@
+package com.stepflow.testcomponents;
+
+import com.stepflow.core.annotations.ConfigValue;
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+@StepComponent(name = "sleepWrite")
+public class SleepWriteStep implements Step {
+    @ConfigValue(value = "key", required = false, defaultValue = "written")
+    private String key;
+
+    @ConfigValue(value = "value", required = false, defaultValue = "x")
+    private String value;
+
+    @ConfigValue(value = "sleepMs", required = false, defaultValue = "0")
+    private long sleepMs;
+
+    @ConfigValue(value = "fail", required = false, defaultValue = "false")
+    private boolean fail;
+
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        if (sleepMs > 0) {
+            try {
+                Thread.sleep(sleepMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return StepResult.failure("interrupted");
+            }
+        }
+        if (fail) {
+            return StepResult.failure(key + " failed");
+        }
+        ctx.put(key, value);
+        return StepResult.success(ctx);
+    }
+}
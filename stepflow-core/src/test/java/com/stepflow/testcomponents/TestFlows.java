@@ -0,0 +1,30 @@
+package com.stepflow.testcomponents;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.config.SimpleWorkflowBuilder;
+import com.stepflow.engine.Engine;
+
+/**
+ * Shared test workflows, loaded from {@code src/test/resources/testflows/<name>.yaml} and wired to
+ * the components of this package. Each file describes its flows in a header comment.
+ */
+public final class TestFlows {
+
+    private TestFlows() {
+    }
+
+    /** Loads {@code testflows/<name>.yaml}; the result is a fresh copy the caller may adjust. */
+    public static FlowConfig config(String name) {
+        return SimpleWorkflowBuilder.buildFlowConfig("classpath:testflows/" + name + ".yaml");
+    }
+
+    /** An engine over {@code testflows/<name>.yaml} scanning this package. */
+    public static Engine engine(String name) {
+        return engine(config(name));
+    }
+
+    /** An engine over {@code config} scanning this package. */
+    public static Engine engine(FlowConfig config) {
+        return new Engine(config, TestFlows.class.getPackageName());
+    }
+}
@@ -0,0 +1,19 @@
+package com.stepflow.testcomponents;
+
+import com.stepflow.core.annotations.ConfigValue;
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+@StepComponent(name = "threadRecording")
+public class ThreadRecordingStep implements Step {
+    @ConfigValue(value = "key", required = false, defaultValue = "thread")
+    private String key;
+
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        ctx.put(key, Thread.currentThread().toString());
+        return StepResult.success(ctx);
+    }
+}
@@ -0,0 +1,18 @@
+package com.stepflow.testing;
+
+import com.stepflow.core.annotations.ComponentScope;
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+/**
+ * Step used by {@link WorkflowGenerator} workflows; succeeds without touching the context.
+ */
+@StepComponent(name = WorkflowGenerator.NOOP_STEP, scope = ComponentScope.SINGLETON)
+public class NoopStep implements Step {
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        return StepResult.success();
+    }
+}
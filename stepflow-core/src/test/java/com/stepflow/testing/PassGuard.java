@@ -0,0 +1,17 @@
+package com.stepflow.testing;
+
+import com.stepflow.core.annotations.ComponentScope;
+import com.stepflow.core.annotations.GuardComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Guard;
+
+/**
+ * Guard used by {@link WorkflowGenerator} workflows; always passes.
+ */
+@GuardComponent(name = WorkflowGenerator.PASS_GUARD, scope = ComponentScope.SINGLETON)
+public class PassGuard implements Guard {
+    @Override
+    public boolean evaluate(ExecutionContext ctx) {
+        return true;
+    }
+}
@@ -0,0 +1,266 @@
+package com.stepflow.testing;
+
+import com.stepflow.config.FlowConfig;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic workflows of a chosen shape and size for scale, stress and benchmark runs.
+ *
+ * <p>Steps are named {@code s0 .. s(n-1)}, use the {@value #NOOP_STEP} step and, where guarded,
+ * the {@value #PASS_GUARD} guard; scan {@link #COMPONENT_PACKAGE} to run them. Unless cycles are
+ * injected, every generated workflow passes the default validators: each step has at most one
+ * unguarded edge and it is listed last.
+ *
+ * <h3>Shapes</h3>
+ * <ul>
+ *   <li>{@link Shape#CHAIN}: {@code s0 -> s1 -> ... -> SUCCESS}</li>
+ *   <li>{@link Shape#DIAMOND}: blocks of three steps; the head branches to both others, which
+ *       meet again at the next head</li>
+ *   <li>{@link Shape#FAN_OUT}: every step has edges to the next {@code fanOut} steps, so a graph
+ *       of {@code n} steps has about {@code n * fanOut} edges</li>
+ * </ul>
+ *
+ * <p>Branch edges beyond the last one are always guarded; {@code guardDensity} is the share of
+ * steps whose last edge is guarded too. {@code retryDensity} is the share of steps with a retry
+ * policy, and every injected cycle is a guarded back edge listed first on its step.
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * FlowConfig config = WorkflowGenerator.builder()
+ *     .steps(10_000)
+ *     .shape(WorkflowGenerator.Shape.FAN_OUT)
+ *     .fanOut(10)               // ~100k edges
+ *     .guardDensity(0.25)
+ *     .seed(42)
+ *     .build()
+ *     .generate();
+ * Engine engine = new Engine(config, WorkflowGenerator.COMPONENT_PACKAGE);
+ * </pre>
+ */
+public final class WorkflowGenerator {
+
+    /** Package holding {@link NoopStep} and {@link PassGuard}. */
+    public static final String COMPONENT_PACKAGE = "com.stepflow.testing";
+    /** Component name of {@link NoopStep}. */
+    public static final String NOOP_STEP = "generatedNoop";
+    /** Component name of {@link PassGuard}. */
+    public static final String PASS_GUARD = "generatedPass";
+
+    /** Graph shape of a generated workflow. */
+    public enum Shape { CHAIN, DIAMOND, FAN_OUT }
+
+    private final String workflowName;
+    private final int steps;
+    private final Shape shape;
+    private final int fanOut;
+    private final double guardDensity;
+    private final double retryDensity;
+    private final int cycles;
+    private final long seed;
+
+    private WorkflowGenerator(Builder builder) {
+        this.workflowName = builder.workflowName;
+        this.steps = builder.steps;
+        this.shape = builder.shape;
+        this.fanOut = builder.fanOut;
+        this.guardDensity = builder.guardDensity;
+        this.retryDensity = builder.retryDensity;
+        this.cycles = builder.cycles;
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Name of the generated workflow. */
+    public String getWorkflowName() {
+        return workflowName;
+    }
+
+    /** Returns the step name at {@code index}. */
+    public static String stepName(int index) {
+        return "s" + index;
+    }
+
+    /**
+     * Builds the configuration. The same generator settings always produce the same workflow.
+     */
+    public FlowConfig generate() {
+        Random random = new Random(seed);
+        FlowConfig config = new FlowConfig();
+        FlowConfig.WorkflowDef workflow = new FlowConfig.WorkflowDef();
+        workflow.root = stepName(0);
+        List<FlowConfig.EdgeDef> edges = new ArrayList<>();
+
+        List<List<Integer>> backEdges = new ArrayList<>(steps);
+        for (int i = 0; i < steps; i++) {
+            backEdges.add(new ArrayList<>(0));
+        }
+        for (int c = 0; c < cycles; c++) {
+            int from = random.nextInt(steps);
+            backEdges.get(from).add(random.nextInt(from + 1));
+        }
+
+        for (int i = 0; i < steps; i++) {
+            FlowConfig.StepDef step = new FlowConfig.StepDef();
+            step.type = NOOP_STEP;
+            step.config = new HashMap<>();
+            if (retryDensity > 0 && random.nextDouble() < retryDensity) {
+                FlowConfig.RetryConfig retry = new FlowConfig.RetryConfig();
+                retry.maxAttempts = 3;
+                retry.delay = 0;
+                step.retry = retry;
+            }
+            config.steps.put(stepName(i), step);
+
+            String from = stepName(i);
+            for (int target : backEdges.get(i)) {
+                edges.add(edge(from, stepName(target), PASS_GUARD));
+            }
+            int[] targets = targets(i);
+            for (int t = 0; t < targets.length - 1; t++) {
+                edges.add(edge(from, targetName(targets[t]), PASS_GUARD));
+            }
+            boolean guarded = guardDensity > 0 && random.nextDouble() < guardDensity;
+            edges.add(edge(from, targetName(targets[targets.length - 1]), guarded ? PASS_GUARD : null));
+        }
+        workflow.edges = edges;
+        config.workflows.put(workflowName, workflow);
+        return config;
+    }
+
+    /** Builds the configuration and renders it as YAML, loadable by {@code SimpleWorkflowBuilder}. */
+    public String generateYaml() {
+        return generate().toFormattedYaml();
+    }
+
+    /** Successors of step {@code i}, the last one being the step's final (possibly unguarded) edge. */
+    private int[] targets(int i) {
+        switch (shape) {
+            case DIAMOND: {
+                int head = i - i % 3;
+                if (i != head) {
+                    return new int[] {head + 3};
+                }
+                return head + 2 < steps ? new int[] {head + 2, head + 1} : new int[] {head + 1};
+            }
+            case FAN_OUT: {
+                int extra = Math.max(0, Math.min(fanOut, steps - i) - 1);
+                int[] targets = new int[extra + 1];
+                for (int k = 0; k < extra; k++) {
+                    targets[k] = i + 2 + k;
+                }
+                targets[extra] = i + 1;
+                return targets;
+            }
+            case CHAIN:
+            default:
+                return new int[] {i + 1};
+        }
+    }
+
+    private String targetName(int index) {
+        return index < steps ? stepName(index) : "SUCCESS";
+    }
+
+    private static FlowConfig.EdgeDef edge(String from, String to, String guard) {
+        FlowConfig.EdgeDef edge = new FlowConfig.EdgeDef();
+        edge.from = from;
+        edge.to = to;
+        edge.guard = guard;
+        return edge;
+    }
+
+    /**
+     * Builder for {@link WorkflowGenerator}.
+     */
+    public static class Builder {
+        private String workflowName = "generated";
+        private int steps = 100;
+        private Shape shape = Shape.CHAIN;
+        private int fanOut = 4;
+        private double guardDensity = 0.0;
+        private double retryDensity = 0.0;
+        private int cycles = 0;
+        private long seed = 1L;
+
+        /** Name of the generated workflow (default: {@code "generated"}). */
+        public Builder workflowName(String workflowName) {
+            if (workflowName == null || workflowName.isEmpty()) {
+                throw new IllegalArgumentException("workflowName must not be empty");
+            }
+            this.workflowName = workflowName;
+            return this;
+        }
+
+        /** Number of steps (default: 100). */
+        public Builder steps(int steps) {
+            if (steps < 1) {
+                throw new IllegalArgumentException("steps must be at least 1, got " + steps);
+            }
+            this.steps = steps;
+            return this;
+        }
+
+        /** Graph shape (default: {@link Shape#CHAIN}). */
+        public Builder shape(Shape shape) {
+            if (shape == null) {
+                throw new IllegalArgumentException("shape must not be null");
+            }
+            this.shape = shape;
+            return this;
+        }
+
+        /** Outgoing edges per step for {@link Shape#FAN_OUT} (default: 4). */
+        public Builder fanOut(int fanOut) {
+            if (fanOut < 1) {
+                throw new IllegalArgumentException("fanOut must be at least 1, got " + fanOut);
+            }
+            this.fanOut = fanOut;
+            return this;
+        }
+
+        /** Share of steps whose last edge is guarded, between 0 and 1 (default: 0). */
+        public Builder guardDensity(double guardDensity) {
+            this.guardDensity = density("guardDensity", guardDensity);
+            return this;
+        }
+
+        /** Share of steps with a retry policy, between 0 and 1 (default: 0). */
+        public Builder retryDensity(double retryDensity) {
+            this.retryDensity = density("retryDensity", retryDensity);
+            return this;
+        }
+
+        /** Number of guarded back edges to inject, each closing a cycle (default: 0). */
+        public Builder cycles(int cycles) {
+            if (cycles < 0) {
+                throw new IllegalArgumentException("cycles must not be negative, got " + cycles);
+            }
+            this.cycles = cycles;
+            return this;
+        }
+
+        /** Seed for guard, retry and cycle placement (default: 1). */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public WorkflowGenerator build() {
+            return new WorkflowGenerator(this);
+        }
+
+        private static double density(String name, double value) {
+            if (!(value >= 0.0 && value <= 1.0)) {
+                throw new IllegalArgumentException(name + " must be between 0 and 1, got " + value);
+            }
+            return value;
+        }
+    }
+}
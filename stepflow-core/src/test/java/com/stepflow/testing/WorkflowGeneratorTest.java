@@ -0,0 +1,117 @@
+package com.stepflow.testing;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.config.SimpleWorkflowBuilder;
+import com.stepflow.engine.Engine;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import com.stepflow.validation.FlowConfigValidationEngine;
+import com.stepflow.validation.ValidationErrorType;
+import com.stepflow.validation.ValidationResult;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the shapes and knobs of {@link WorkflowGenerator}.
+ */
+class WorkflowGeneratorTest {
+
+    private static List<FlowConfig.EdgeDef> edges(FlowConfig config) {
+        return config.workflows.get("generated").edges;
+    }
+
+    private static long guarded(FlowConfig config) {
+        return edges(config).stream().filter(e -> e.guard != null).count();
+    }
+
+    @Test
+    void chainIsLinearAndRuns() {
+        FlowConfig config = WorkflowGenerator.builder().steps(50).build().generate();
+
+        assertEquals(50, config.steps.size());
+        assertEquals(50, edges(config).size());
+        assertEquals(0, guarded(config));
+        assertEquals("SUCCESS", edges(config).get(49).to);
+        assertTrue(FlowConfigValidationEngine.createDefault().validate(config).isValid());
+
+        StepResult result = new Engine(config, WorkflowGenerator.COMPONENT_PACKAGE).run("generated", new ExecutionContext());
+        assertTrue(result.isSuccess(), result.message);
+    }
+
+    @Test
+    void diamondBranchesAtEveryHead() {
+        FlowConfig config = WorkflowGenerator.builder().steps(9).shape(WorkflowGenerator.Shape.DIAMOND).build().generate();
+
+        // heads s0, s3, s6 have two edges; the other six steps one
+        assertEquals(12, edges(config).size());
+        assertEquals(3, guarded(config));
+        assertTrue(FlowConfigValidationEngine.createDefault().validate(config).isValid());
+        assertTrue(new Engine(config, WorkflowGenerator.COMPONENT_PACKAGE).run("generated", new ExecutionContext()).isSuccess());
+    }
+
+    @Test
+    void fanOutControlsEdgeCountAndStaysValid() {
+        FlowConfig config = WorkflowGenerator.builder()
+                .steps(1_000).shape(WorkflowGenerator.Shape.FAN_OUT).fanOut(10).build().generate();
+
+        assertEquals(1_000 * 10 - 45, edges(config).size(), "the last nine steps have fewer successors");
+        assertTrue(FlowConfigValidationEngine.createDefault().validate(config).isValid());
+    }
+
+    @Test
+    void densitiesAreApproximatelyHonoured() {
+        FlowConfig config = WorkflowGenerator.builder()
+                .steps(2_000).guardDensity(0.25).retryDensity(0.5).seed(7).build().generate();
+
+        long retries = config.steps.values().stream().filter(s -> s.retry != null).count();
+        assertEquals(500, guarded(config), 75.0);
+        assertEquals(1_000, retries, 100.0);
+    }
+
+    @Test
+    void sameSettingsGenerateTheSameWorkflow() {
+        WorkflowGenerator.Builder builder = WorkflowGenerator.builder()
+                .steps(200).shape(WorkflowGenerator.Shape.FAN_OUT).guardDensity(0.3).retryDensity(0.3).cycles(2).seed(99);
+
+        assertEquals(builder.build().generateYaml(), builder.build().generateYaml());
+    }
+
+    @Test
+    void injectedCyclesAreDetected() {
+        FlowConfig config = WorkflowGenerator.builder()
+                .steps(300).shape(WorkflowGenerator.Shape.DIAMOND).cycles(3).seed(5).build().generate();
+
+        ValidationResult result = FlowConfigValidationEngine.createDefault().validate(config);
+        assertFalse(result.isValid());
+        assertEquals(ValidationErrorType.CYCLE_DETECTED, result.getErrors().get(0).getType());
+    }
+
+    @Test
+    void yamlRoundTripsThroughTheLoader() {
+        WorkflowGenerator generator = WorkflowGenerator.builder()
+                .steps(30).shape(WorkflowGenerator.Shape.FAN_OUT).fanOut(3).guardDensity(0.5).retryDensity(0.5).build();
+        FlowConfig original = generator.generate();
+
+        Map<String, Object> yaml = new Yaml().load(generator.generateYaml());
+        FlowConfig loaded = SimpleWorkflowBuilder.convertYamlToFlowConfig(yaml);
+
+        assertEquals(original.steps.size(), loaded.steps.size());
+        assertEquals(edges(original).size(), edges(loaded).size());
+        assertEquals(guarded(original), guarded(loaded));
+        assertTrue(new Engine(loaded, WorkflowGenerator.COMPONENT_PACKAGE).run("generated", new ExecutionContext()).isSuccess());
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> WorkflowGenerator.builder().steps(0));
+        assertThrows(IllegalArgumentException.class, () -> WorkflowGenerator.builder().fanOut(0));
+        assertThrows(IllegalArgumentException.class, () -> WorkflowGenerator.builder().guardDensity(1.5));
+        assertThrows(IllegalArgumentException.class, () -> WorkflowGenerator.builder().retryDensity(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> WorkflowGenerator.builder().cycles(-1));
+    }
+}
@@ -0,0 +1,23 @@
+package com.stepflow.examples.guards;
+
+import com.stepflow.core.annotations.ConfigValue;
+import com.stepflow.core.annotations.GuardComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Guard;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Passes with a configured probability, to drive a share of load-test runs down a guarded
+ * edge or into a retry.
+ */
+@GuardComponent(name = "chance")
+public class ChanceGuard implements Guard {
+    @ConfigValue(value = "probability", required = false, defaultValue = "0.5")
+    private double probability;
+
+    @Override
+    public boolean evaluate(ExecutionContext ctx) {
+        return ThreadLocalRandom.current().nextDouble() < probability;
+    }
+}
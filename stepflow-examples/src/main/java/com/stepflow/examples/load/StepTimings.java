@@ -0,0 +1,35 @@
+package com.stepflow.examples.load;
+
+import com.stepflow.metrics.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide service-time histograms of synthetic steps, keyed by their {@code metric} name.
+ * Filled by {@link com.stepflow.examples.steps.SyntheticLatencyStep} and read by the load
+ * generator's report.
+ */
+public final class StepTimings {
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private StepTimings() {
+    }
+
+    public static void record(String metric, long nanos) {
+        HISTOGRAMS.computeIfAbsent(metric, k -> new LatencyHistogram()).record(nanos);
+    }
+
+    /** Snapshot of the histograms, sorted by metric name. */
+    public static Map<String, LatencyHistogram> all() {
+        return new TreeMap<>(HISTOGRAMS);
+    }
+
+    public static void reset() {
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            histogram.reset();
+        }
+    }
+}
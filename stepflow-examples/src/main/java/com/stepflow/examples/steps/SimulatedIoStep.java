@@ -0,0 +1,27 @@
+package com.stepflow.examples.steps;
+
+import com.stepflow.core.annotations.ConfigValue;
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+/**
+ * Blocks for a fixed latency to stand in for a remote call (database, HTTP service).
+ */
+@StepComponent(name = "simulatedIo")
+public class SimulatedIoStep implements Step {
+    @ConfigValue(value = "latencyMs", required = false, defaultValue = "20")
+    private long latencyMs;
+
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return StepResult.failure("SimulatedIoStep interrupted");
+        }
+        return StepResult.success(ctx);
+    }
+}
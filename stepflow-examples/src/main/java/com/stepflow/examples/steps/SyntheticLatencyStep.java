@@ -0,0 +1,77 @@
+package com.stepflow.examples.steps;
+
+import com.stepflow.core.annotations.ConfigValue;
+import com.stepflow.core.annotations.StepComponent;
+import com.stepflow.examples.load.StepTimings;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.Step;
+import com.stepflow.execution.StepResult;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Blocks for a randomly drawn latency and fails with a configured probability, to load-test
+ * workflows without real dependencies.
+ *
+ * <p>Distributions ({@code distribution}):
+ * <ul>
+ *   <li>{@code fixed}: always {@code latencyMs}</li>
+ *   <li>{@code uniform}: {@code latencyMs} &plusmn; {@code jitterMs}</li>
+ *   <li>{@code exponential}: mean {@code latencyMs}</li>
+ *   <li>{@code lognormal}: median {@code latencyMs}, shape {@code sigma}; a long right tail</li>
+ * </ul>
+ * Each execution's service time is recorded in {@link StepTimings} under {@code metric}.
+ */
+@StepComponent(name = "syntheticLatency")
+public class SyntheticLatencyStep implements Step {
+    @ConfigValue(value = "latencyMs", required = false, defaultValue = "5")
+    private double latencyMs;
+
+    @ConfigValue(value = "distribution", required = false, defaultValue = "exponential")
+    private String distribution;
+
+    @ConfigValue(value = "jitterMs", required = false, defaultValue = "0")
+    private double jitterMs;
+
+    @ConfigValue(value = "sigma", required = false, defaultValue = "0.5")
+    private double sigma;
+
+    @ConfigValue(value = "failureRate", required = false, defaultValue = "0")
+    private double failureRate;
+
+    @ConfigValue(value = "metric", required = false, defaultValue = "syntheticLatency")
+    private String metric;
+
+    @Override
+    public StepResult execute(ExecutionContext ctx) {
+        long start = System.nanoTime();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long deadline = start + (long) (drawMillis(random) * 1_000_000L);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                return StepResult.failure("SyntheticLatencyStep interrupted");
+            }
+        }
+        boolean failed = failureRate > 0 && random.nextDouble() < failureRate;
+        StepTimings.record(metric, System.nanoTime() - start);
+        return failed ? StepResult.failure("Synthetic failure in " + metric) : StepResult.success();
+    }
+
+    private double drawMillis(ThreadLocalRandom random) {
+        switch (distribution.trim().toLowerCase()) {
+            case "fixed":
+                return latencyMs;
+            case "uniform":
+                return Math.max(0.0, latencyMs + (random.nextDouble() * 2 - 1) * jitterMs);
+            case "lognormal":
+                return latencyMs * Math.exp(sigma * random.nextGaussian());
+            case "exponential":
+            default:
+                return -latencyMs * Math.log(1.0 - random.nextDouble());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.stepflow.examples.tools;
+
+import com.stepflow.core.SimpleEngine;
+import com.stepflow.engine.BatchOptions;
+import com.stepflow.engine.ExecutionMode;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares platform-thread and virtual-thread execution of a blocking, I/O-bound workflow.
+ *
+ * <p>The workflow is three {@code simulatedIo} steps in sequence. Both modes run the same batch:
+ * the platform path with a typical bounded worker count, the virtual path with one virtual
+ * thread per input. Virtual threads need Java 21+ and the multi-release stepflow-core jar; on
+ * older runtimes only the platform path runs.
+ *
+ * Usage:
+ *   java -cp <jar> com.stepflow.examples.tools.ExecutionModeBenchmark [inputs] [latencyMs] [platformThreads]
+ *
+ * Example:
+ *   java -cp target/stepflow-examples-<ver>-jar-with-dependencies.jar \
+ *        com.stepflow.examples.tools.ExecutionModeBenchmark 10000 20 200
+ */
+public class ExecutionModeBenchmark {
+    public static void main(String[] args) {
+        int inputs = args.length >= 1 ? Integer.parseInt(args[0]) : 10_000;
+        long latencyMs = args.length >= 2 ? Long.parseLong(args[1]) : 20L;
+        int platformThreads = args.length >= 3 ? Integer.parseInt(args[2]) : 200;
+
+        System.out.printf("Workflow: 3 blocking steps x %d ms, %d inputs%n", latencyMs, inputs);
+
+        // Warm up component discovery and the JIT on a small batch
+        run(newEngine(latencyMs), ExecutionMode.PLATFORM_THREADS, Math.min(inputs, 500), platformThreads);
+
+        run(newEngine(latencyMs), ExecutionMode.PLATFORM_THREADS, inputs, platformThreads);
+        try {
+            run(newEngine(latencyMs), ExecutionMode.VIRTUAL_THREADS, inputs, inputs);
+        } catch (UnsupportedOperationException e) {
+            System.out.println("VIRTUAL_THREADS skipped: " + e.getMessage());
+        }
+    }
+
+    private static SimpleEngine newEngine(long latencyMs) {
+        return SimpleEngine.workflow("io", "com.stepflow.examples")
+                .step("lookup").using("simulatedIo").with("latencyMs", latencyMs).then("enrich")
+                .step("enrich").using("simulatedIo").with("latencyMs", latencyMs).then("store")
+                .step("store").using("simulatedIo").with("latencyMs", latencyMs).then("SUCCESS")
+                .build();
+    }
+
+    private static void run(SimpleEngine engine, ExecutionMode mode, int inputs, int parallelism) {
+        engine.setExecutionMode(mode);
+        List<ExecutionContext> contexts = new ArrayList<>(inputs);
+        for (int i = 0; i < inputs; i++) {
+            ExecutionContext ctx = new ExecutionContext();
+            ctx.put("id", i);
+            contexts.add(ctx);
+        }
+        long start = System.nanoTime();
+        List<StepResult> results = engine.runBatch("io", contexts,
+                BatchOptions.builder().maxParallelism(parallelism).partitionSize(1).build());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long failed = results.stream().filter(StepResult::isFailure).count();
+        System.out.printf("%-17s parallelism=%-6d %6d ms  %8.0f runs/s  failed=%d%n",
+                mode, parallelism, elapsedMs, inputs * 1000.0 / Math.max(1, elapsedMs), failed);
+    }
+}
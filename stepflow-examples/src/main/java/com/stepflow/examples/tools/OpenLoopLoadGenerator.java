@@ -0,0 +1,204 @@
+package com.stepflow.examples.tools;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.config.SimpleWorkflowBuilder;
+import com.stepflow.engine.Engine;
+import com.stepflow.examples.load.StepTimings;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.execution.StepResult;
+import com.stepflow.metrics.HistogramSnapshot;
+import com.stepflow.metrics.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: starts workflow runs at a fixed arrival rate, whether or not earlier
+ * runs have finished, and reports throughput and latency percentiles per workflow and per step.
+ *
+ * <p>Latency is measured from each run's <em>intended</em> start time on the arrival schedule.
+ * When the workers fall behind, runs queue up and that wait is counted. A closed loop, or a timer
+ * started when a worker picks the run up, would hide it: the coordinated-omission problem. Both
+ * views are printed so the gap is visible; capacity planning should use the corrected one.
+ *
+ * <p>Several comma-separated workflows receive arrivals in turn. Step percentiles are the
+ * service times recorded by {@code syntheticLatency} steps under their {@code metric} name.
+ *
+ * Usage:
+ *   java -cp <jar> com.stepflow.examples.tools.OpenLoopLoadGenerator \
+ *        [ratePerSec] [durationSec] [workflows] [yaml] [workers] [warmupSec]
+ *
+ * Example:
+ *   java -cp target/stepflow-examples-<ver>-jar-with-dependencies.jar \
+ *        com.stepflow.examples.tools.OpenLoopLoadGenerator 500 60 checkout,lookupOnly \
+ *        classpath:examples/load.yaml 128 10
+ */
+public class OpenLoopLoadGenerator {
+
+    /** Outcome counters and latency histograms of one workflow. */
+    private static final class WorkflowStats {
+        final LatencyHistogram corrected = new LatencyHistogram();
+        final LatencyHistogram uncorrected = new LatencyHistogram();
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder failed = new LongAdder();
+
+        void record(long intendedStart, long pickedUp, long finished, boolean success) {
+            corrected.record(finished - intendedStart);
+            uncorrected.record(finished - pickedUp);
+            (success ? succeeded : failed).increment();
+        }
+
+        void reset() {
+            corrected.reset();
+            uncorrected.reset();
+            succeeded.reset();
+            failed.reset();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        double rate = args.length >= 1 ? Double.parseDouble(args[0]) : 200.0;
+        int durationSec = args.length >= 2 ? Integer.parseInt(args[1]) : 30;
+        String[] workflows = (args.length >= 3 ? args[2] : "checkout").split(",");
+        String yaml = args.length >= 4 ? args[3] : "classpath:examples/load.yaml";
+        int workers = args.length >= 5 ? Integer.parseInt(args[4]) : 64;
+        int warmupSec = args.length >= 6 ? Integer.parseInt(args[5]) : 5;
+        if (rate <= 0) {
+            throw new IllegalArgumentException("ratePerSec must be positive, got " + rate);
+        }
+
+        FlowConfig config = SimpleWorkflowBuilder.buildFlowConfig(yaml);
+        for (String workflow : workflows) {
+            if (!config.workflows.containsKey(workflow)) {
+                throw new IllegalArgumentException("Workflow not found in " + yaml + ": " + workflow);
+            }
+        }
+        Engine engine = new Engine(config, "com.stepflow.examples");
+        Map<String, WorkflowStats> stats = new LinkedHashMap<>();
+        for (String workflow : workflows) {
+            stats.put(workflow, new WorkflowStats());
+        }
+
+        System.out.printf("Open loop: %.0f runs/s for %d s (+%d s warm-up), workflows=%s, workers=%d%n",
+                rate, durationSec, warmupSec, String.join(",", workflows), workers);
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        AtomicLong inFlight = new AtomicLong();
+        try {
+            if (warmupSec > 0) {
+                drive(engine, pool, workflows, stats, inFlight, rate, warmupSec);
+                awaitDrain(inFlight, 30);
+                stats.values().forEach(WorkflowStats::reset);
+                StepTimings.reset();
+            }
+            long start = System.nanoTime();
+            long scheduled = drive(engine, pool, workflows, stats, inFlight, rate, durationSec);
+            boolean drained = awaitDrain(inFlight, 60);
+            double elapsedSec = (System.nanoTime() - start) / 1e9;
+            report(stats, scheduled, elapsedSec, drained ? 0 : inFlight.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Submits runs on the arrival schedule for {@code seconds}. Never waits for a run to finish:
+     * if the generator itself is late, it catches up by submitting immediately, and the runs are
+     * still timed from their scheduled start.
+     *
+     * @return the number of runs scheduled
+     */
+    private static long drive(Engine engine, ExecutorService pool, String[] workflows,
+                              Map<String, WorkflowStats> stats, AtomicLong inFlight,
+                              double rate, int seconds) {
+        double intervalNanos = 1e9 / rate;
+        long origin = System.nanoTime();
+        long total = (long) (rate * seconds);
+        for (long i = 0; i < total; i++) {
+            long intendedStart = origin + (long) (i * intervalNanos);
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String workflow = workflows[(int) (i % workflows.length)];
+            WorkflowStats workflowStats = stats.get(workflow);
+            ExecutionContext context = new ExecutionContext();
+            context.put("requestId", i);
+            inFlight.incrementAndGet();
+            // Stamps when a worker first picks the run up, for the uncorrected view
+            long[] pickedUp = {0L};
+            Executor stamping = task -> pool.execute(() -> {
+                if (pickedUp[0] == 0L) {
+                    pickedUp[0] = System.nanoTime();
+                }
+                task.run();
+            });
+            engine.runAsync(workflow, context, stamping).whenComplete((StepResult result, Throwable error) -> {
+                long finished = System.nanoTime();
+                workflowStats.record(intendedStart, pickedUp[0] != 0L ? pickedUp[0] : finished, finished,
+                        error == null && result != null && result.isSuccess());
+                inFlight.decrementAndGet();
+            });
+        }
+        return total;
+    }
+
+    private static boolean awaitDrain(AtomicLong inFlight, int timeoutSec) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSec);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private static void report(Map<String, WorkflowStats> stats, long scheduled, double elapsedSec, long unfinished) {
+        long completed = 0;
+        for (WorkflowStats s : stats.values()) {
+            completed += s.corrected.count();
+        }
+        System.out.printf("%nScheduled %d runs, completed %d in %.1f s: %.1f runs/s%s%n",
+                scheduled, completed, elapsedSec, completed / elapsedSec,
+                unfinished > 0 ? " (" + unfinished + " still running at timeout)" : "");
+
+        System.out.printf("%n%-24s %8s %8s %9s %9s %9s %9s %9s%n",
+                "workflow (ms)", "ok", "failed", "p50", "p99", "p99.9", "max", "runs/s");
+        for (Map.Entry<String, WorkflowStats> e : stats.entrySet()) {
+            WorkflowStats s = e.getValue();
+            row(e.getKey(), s.succeeded.sum(), s.failed.sum(), s.corrected, s.corrected.count() / elapsedSec);
+            row("  uncorrected", -1, -1, s.uncorrected, -1);
+        }
+
+        Map<String, LatencyHistogram> steps = StepTimings.all();
+        if (!steps.isEmpty()) {
+            System.out.printf("%n%-24s %8s %8s %9s %9s %9s %9s%n",
+                    "step service time (ms)", "count", "", "p50", "p99", "p99.9", "max");
+            for (Map.Entry<String, LatencyHistogram> e : steps.entrySet()) {
+                row(e.getKey(), e.getValue().count(), -1, e.getValue(), -1);
+            }
+        }
+    }
+
+    private static void row(String name, long first, long second, LatencyHistogram histogram, double perSecond) {
+        HistogramSnapshot h = histogram.snapshot();
+        System.out.printf("%-24s %8s %8s %9.2f %9.2f %9.2f %9.2f %9s%n",
+                name,
+                first >= 0 ? Long.toString(first) : "",
+                second >= 0 ? Long.toString(second) : "",
+                millis(h.percentile(50)), millis(h.percentile(99)), millis(h.percentile(99.9)), millis(h.max()),
+                perSecond >= 0 ? String.format("%.1f", perSecond) : "");
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,144 @@
+package com.stepflow.metrics.http;
+
+import com.stepflow.metrics.DefaultMetricsRecorder;
+import com.stepflow.metrics.MetricsSnapshot;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Serves StepFlow metrics at {@code /metrics} in the Prometheus text format, on the JDK's built-in
+ * {@link HttpServer}.
+ *
+ * <p>Each scrape takes one {@link MetricsSnapshot} and streams it to the response with a
+ * {@link PrometheusTextWriter}, chunked, so the response is never buffered whole. Taking a
+ * snapshot only reads counters, so scrapes never block running workflows. Scrapes are handled one
+ * at a time on a single daemon thread, which bounds the memory a burst of scrapes can use.
+ *
+ * <h3>Example Usage:</h3>
+ * <pre>
+ * DefaultMetricsRecorder metrics = new DefaultMetricsRecorder();
+ * engine.setMetricsRecorder(metrics);
+ * MetricsHttpServer server = MetricsHttpServer.start(9464, metrics);
+ * // scrape http://localhost:9464/metrics; bind an InetSocketAddress to serve remote scrapers
+ * server.close();
+ * </pre>
+ */
+public final class MetricsHttpServer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsHttpServer.class);
+
+    /** Path the metrics are served at. */
+    public static final String PATH = "/metrics";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Supplier<MetricsSnapshot> snapshots;
+
+    private MetricsHttpServer(HttpServer server, ExecutorService executor, Supplier<MetricsSnapshot> snapshots) {
+        this.server = server;
+        this.executor = executor;
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * Starts serving {@code recorder} on {@code port} of the loopback interface, so only processes
+     * on the same host can scrape it. To expose the metrics to a remote Prometheus, bind an
+     * explicit address with {@link #start(InetSocketAddress, Supplier)}, e.g.
+     * {@code new InetSocketAddress(9464)} for every interface.
+     *
+     * @param port TCP port; {@code 0} picks a free one (see {@link #getAddress()})
+     * @throws IOException if the port cannot be bound
+     */
+    public static MetricsHttpServer start(int port, DefaultMetricsRecorder recorder) throws IOException {
+        Objects.requireNonNull(recorder, "recorder");
+        return start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), recorder::snapshot);
+    }
+
+    /**
+     * Starts serving the snapshots of {@code snapshots} on {@code address}.
+     *
+     * @param address address to bind, e.g. {@code new InetSocketAddress(9464)} for every local interface
+     * @param snapshots called once per scrape
+     * @throws IOException if the address cannot be bound
+     */
+    public static MetricsHttpServer start(InetSocketAddress address, Supplier<MetricsSnapshot> snapshots) throws IOException {
+        Objects.requireNonNull(address, "address");
+        Objects.requireNonNull(snapshots, "snapshots");
+        HttpServer server = HttpServer.create(address, 0);
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "stepflow-metrics-http");
+            t.setDaemon(true);
+            return t;
+        });
+        MetricsHttpServer metrics = new MetricsHttpServer(server, executor, snapshots);
+        server.createContext(PATH, metrics::handle);
+        server.setExecutor(executor);
+        server.start();
+        LOGGER.info("Serving metrics at http://{}:{}{}",
+                server.getAddress().getHostString(), server.getAddress().getPort(), PATH);
+        return metrics;
+    }
+
+    /** Returns the bound address, with the actual port when started on port {@code 0}. */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /** Stops the server and releases the port. */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            boolean head = "HEAD".equals(method);
+            if (!head && !"GET".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if (!PATH.equals(exchange.getRequestURI().getPath())) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if (head) {
+                exchange.getResponseHeaders().set("Content-Type", PrometheusTextWriter.CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            MetricsSnapshot snapshot;
+            try {
+                snapshot = snapshots.get();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Metrics snapshot failed: {}", e.toString());
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", PrometheusTextWriter.CONTENT_TYPE);
+            // Length 0 selects chunked encoding, so series are sent as they are rendered
+            exchange.sendResponseHeaders(200, 0);
+            Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 8192);
+            new PrometheusTextWriter(out).write(snapshot);
+            out.flush();
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.stepflow.metrics.http;
+
+import com.stepflow.metrics.HistogramSnapshot;
+import com.stepflow.metrics.MetricsSnapshot;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Renders a {@link MetricsSnapshot} in the Prometheus text exposition format (version 0.0.4).
+ *
+ * <p>Series are written straight to the target {@link Writer} as the snapshot is walked: numbers,
+ * label values and bucket counts go through small scratch buffers owned by this writer, so the
+ * cost of a scrape beyond the snapshot itself does not grow with the number of series. An instance
+ * is not thread-safe; use one per scrape or serialize scrapes.
+ *
+ * <h3>Exposed families</h3>
+ * <pre>
+ * stepflow_workflow_runs_total{workflow}                counter
+ * stepflow_workflow_failures_total{workflow}            counter
+ * stepflow_workflow_duration_seconds{workflow}          histogram
+ * stepflow_step_executions_total{workflow,step}         counter
+ * stepflow_step_failures_total{workflow,step}           counter
+ * stepflow_step_retries_total{workflow,step}            counter
+ * stepflow_step_duration_seconds{workflow,step}         histogram
+ * stepflow_step_cpu_seconds_total{workflow,step}        counter, with step resource accounting on
+ * stepflow_step_allocated_bytes_total{workflow,step}    counter, with step resource accounting on
+ * stepflow_guard_evaluations_total{workflow,guard}      counter
+ * stepflow_guard_passes_total{workflow,guard}           counter
+ * stepflow_edge_traversals_total{workflow,from,to}      counter
+ * </pre>
+ */
+public final class PrometheusTextWriter {
+
+    /** Content type of the rendered text. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /** Histogram bucket bounds in nanoseconds, from 100 µs to one minute. */
+    private static final long[] BOUNDS_NANOS = {
+            100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L,
+            10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L,
+            10_000_000_000L, 30_000_000_000L, 60_000_000_000L};
+    /** {@link #BOUNDS_NANOS} as {@code le} label values in seconds. */
+    private static final String[] BOUND_LABELS = {
+            "0.0001", "0.00025", "0.0005",
+            "0.001", "0.0025", "0.005",
+            "0.01", "0.025", "0.05",
+            "0.1", "0.25", "0.5",
+            "1", "2.5", "5",
+            "10", "30", "60"};
+
+    private static final String EDGE_SEPARATOR = " -> ";
+
+    private final Writer out;
+    private final long[] cumulative = new long[BOUNDS_NANOS.length];
+    private final char[] digits = new char[20];
+
+    public PrometheusTextWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes every family of {@code snapshot}. The writer is not flushed.
+     *
+     * @throws IOException if the target writer fails
+     */
+    public void write(MetricsSnapshot snapshot) throws IOException {
+        Map<String, MetricsSnapshot.Workflow> workflows = snapshot.getWorkflows();
+
+        header("stepflow_workflow_runs_total", "Completed workflow runs.", "counter");
+        for (MetricsSnapshot.Workflow wf : workflows.values()) {
+            sample("stepflow_workflow_runs_total", wf.getName(), null, null, wf.getRuns());
+        }
+        header("stepflow_workflow_failures_total", "Workflow runs that completed with a FAILURE result.", "counter");
+        for (MetricsSnapshot.Workflow wf : workflows.values()) {
+            sample("stepflow_workflow_failures_total", wf.getName(), null, null, wf.getFailures());
+        }
+        header("stepflow_workflow_duration_seconds", "End-to-end workflow run latency.", "histogram");
+        for (MetricsSnapshot.Workflow wf : workflows.values()) {
+            histogram("stepflow_workflow_duration_seconds", wf.getName(), null, null, wf.getLatency());
+        }
+
+        header("stepflow_step_executions_total", "Step attempts, retries included.", "counter");
+        for (MetricsSnapshot.Workflow wf : workflows.values()) {
+            for (Map.Entry<String, MetricsSnapshot.Step> step : wf.getSteps().entrySet()) {
+                sample("stepflow_step_executions_total", wf.getName(), "step", step.getKey(),
+                        step.getValue().getExecutions());
+            }
+        }
+        header("stepflow_step_failures_total", "Step attempts that did not return SUCCESS.", "counter");
+        for (MetricsSnapshot.Workflow wf : workflows.values()) {
+            for (Map.Entry<String, MetricsSnapshot.Step> step : wf.getSteps().entrySet()) {
+                sample("stepflow_step_failures_total", wf.getName(), "step", step.getKey(),
+                        step.getValue().getFailures());
+            }
+        }
+        header("stepflow_step_retries_total", "Failed step attempts that were retried.", "counter");
+        for (MetricsSnapshot.Workflow wf : workflows.values()) {
+            for (Map.Entry<String, MetricsSnapshot.Step> step : wf.getSteps().entrySet()) {
+                sample("stepflow_step_retries_total", wf.getName(), "step", step.getKey(),
+                        step.getValue().getRetries());
+            }
+        }
+        header("stepflow_step_duration_seconds", "Latency of each step attempt.", "histogram");
+        for (MetricsSnapshot.Workflow wf : workflows.values()) {
+            for (Map.Entry<String, MetricsSnapshot.Step> step : wf.getSteps().entrySet()) {
+                histogram("stepflow_step_duration_seconds", wf.getName(), "step", step.getKey(),
+                        step.getValue().getLatency());
+            }
+        }
+        header("stepflow_step_cpu_seconds_total", "Thread CPU time of measured step attempts.", "counter");
+        for (MetricsSnapshot.Workflow wf : workflows.values()) {
+            for (Map.Entry<String, MetricsSnapshot.Step> step : wf.getSteps().entrySet()) {
+                if (step.getValue().getMeasuredAttempts() > 0) {
+                    out.write("stepflow_step_cpu_seconds_total");
+                    openLabels(wf.getName(), "step", step.getKey());
+                    out.write("} ");
+                    seconds(step.getValue().getCpuNanos());
+                    out.write('\n');
+                }
+            }
+        }
+        header("stepflow_step_allocated_bytes_total", "Bytes allocated by measured step attempts.", "counter");
+        for (MetricsSnapshot.Workflow wf : workflows.values()) {
+            for (Map.Entry<String, MetricsSnapshot.Step> step : wf.getSteps().entrySet()) {
+                if (step.getValue().getMeasuredAttempts() > 0) {
+                    sample("stepflow_step_allocated_bytes_total", wf.getName(), "step", step.getKey(),
+                            step.getValue().getAllocatedBytes());
+                }
+            }
+        }
+
+        header("stepflow_guard_evaluations_total", "Guard decisions.", "counter");
+        for (MetricsSnapshot.Workflow wf : workflows.values()) {
+            for (Map.Entry<String, MetricsSnapshot.Guard> guard : wf.getGuards().entrySet()) {
+                sample("stepflow_guard_evaluations_total", wf.getName(), "guard", guard.getKey(),
+                        guard.getValue().getEvaluations());
+            }
+        }
+        header("stepflow_guard_passes_total", "Guard decisions that passed.", "counter");
+        for (MetricsSnapshot.Workflow wf : workflows.values()) {
+            for (Map.Entry<String, MetricsSnapshot.Guard> guard : wf.getGuards().entrySet()) {
+                sample("stepflow_guard_passes_total", wf.getName(), "guard", guard.getKey(),
+                        guard.getValue().getPasses());
+            }
+        }
+
+        header("stepflow_edge_traversals_total", "Transitions taken from one step to the next.", "counter");
+        for (MetricsSnapshot.Workflow wf : workflows.values()) {
+            for (Map.Entry<String, Long> edge : wf.getEdges().entrySet()) {
+                edge(wf.getName(), edge.getKey(), edge.getValue());
+            }
+        }
+    }
+
+    private void header(String name, String help, String type) throws IOException {
+        out.write("# HELP ");
+        out.write(name);
+        out.write(' ');
+        out.write(help);
+        out.write("\n# TYPE ");
+        out.write(name);
+        out.write(' ');
+        out.write(type);
+        out.write('\n');
+    }
+
+    /** Writes {@code name{workflow="..",label=".."} value}; {@code label} may be {@code null}. */
+    private void sample(String name, String workflow, String label, String labelValue, long value) throws IOException {
+        out.write(name);
+        openLabels(workflow, label, labelValue);
+        out.write("} ");
+        number(value);
+        out.write('\n');
+    }
+
+    private void histogram(String name, String workflow, String label, String labelValue,
+                           HistogramSnapshot histogram) throws IOException {
+        histogram.cumulativeCounts(BOUNDS_NANOS, cumulative);
+        for (int i = 0; i <= BOUNDS_NANOS.length; i++) {
+            out.write(name);
+            out.write("_bucket");
+            openLabels(workflow, label, labelValue);
+            out.write(",le=\"");
+            out.write(i < BOUNDS_NANOS.length ? BOUND_LABELS[i] : "+Inf");
+            out.write("\"} ");
+            number(i < BOUNDS_NANOS.length ? cumulative[i] : histogram.count());
+            out.write('\n');
+        }
+        out.write(name);
+        out.write("_sum");
+        openLabels(workflow, label, labelValue);
+        out.write("} ");
+        seconds(histogram.sum());
+        out.write('\n');
+        out.write(name);
+        out.write("_count");
+        openLabels(workflow, label, labelValue);
+        out.write("} ");
+        number(histogram.count());
+        out.write('\n');
+    }
+
+    /** Opens a label set with {@code workflow} and the optional second label, leaving it open for more. */
+    private void openLabels(String workflow, String label, String labelValue) throws IOException {
+        out.write("{workflow=\"");
+        escaped(workflow, 0, workflow.length());
+        out.write('"');
+        if (label != null) {
+            out.write(',');
+            out.write(label);
+            out.write("=\"");
+            escaped(labelValue, 0, labelValue.length());
+            out.write('"');
+        }
+    }
+
+    /** Edge keys are {@code "from -> to"}; they become separate {@code from} and {@code to} labels. */
+    private void edge(String workflow, String key, long value) throws IOException {
+        int split = key.indexOf(EDGE_SEPARATOR);
+        out.write("stepflow_edge_traversals_total");
+        openLabels(workflow, null, null);
+        out.write(",from=\"");
+        if (split < 0) {
+            escaped(key, 0, key.length());
+            out.write("\",to=\"");
+        } else {
+            escaped(key, 0, split);
+            out.write("\",to=\"");
+            escaped(key, split + EDGE_SEPARATOR.length(), key.length());
+        }
+        out.write("\"} ");
+        number(value);
+        out.write('\n');
+    }
+
+    /** Writes a label value, escaping backslash, double quote and line feed. */
+    private void escaped(String value, int from, int to) throws IOException {
+        int start = from;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"' || c == '\n') {
+                out.write(value, start, i - start);
+                out.write('\\');
+                out.write(c == '\n' ? 'n' : c);
+                start = i + 1;
+            }
+        }
+        out.write(value, start, to - start);
+    }
+
+    /** Writes a non-negative long without creating a string. */
+    private void number(long value) throws IOException {
+        if (value <= 0) {
+            out.write('0');
+            return;
+        }
+        int pos = digits.length;
+        long v = value;
+        while (v > 0) {
+            digits[--pos] = (char) ('0' + (int) (v % 10));
+            v /= 10;
+        }
+        out.write(digits, pos, digits.length - pos);
+    }
+
+    /** Writes nanoseconds as seconds with nine decimals. */
+    private void seconds(long nanos) throws IOException {
+        number(nanos / 1_000_000_000L);
+        out.write('.');
+        long fraction = nanos % 1_000_000_000L;
+        for (long scale = 100_000_000L; scale > 0; scale /= 10) {
+            out.write((char) ('0' + (int) (fraction / scale % 10)));
+        }
+    }
+}
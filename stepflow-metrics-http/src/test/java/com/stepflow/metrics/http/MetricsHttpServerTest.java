@@ -0,0 +1,123 @@
+package com.stepflow.metrics.http;
+
+import com.stepflow.config.FlowConfig;
+import com.stepflow.engine.Engine;
+import com.stepflow.execution.ExecutionContext;
+import com.stepflow.metrics.DefaultMetricsRecorder;
+import com.stepflow.testing.WorkflowGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsHttpServerTest {
+
+    /** Runs a guarded three-step chain named {@code workflow} five times and returns its metrics. */
+    private static DefaultMetricsRecorder runChain(String workflow) {
+        FlowConfig cfg = WorkflowGenerator.builder()
+                .workflowName(workflow)
+                .steps(3)
+                .shape(WorkflowGenerator.Shape.CHAIN)
+                .guardDensity(1.0)
+                .seed(7)
+                .build()
+                .generate();
+        Engine engine = new Engine(cfg, WorkflowGenerator.COMPONENT_PACKAGE);
+        DefaultMetricsRecorder metrics = new DefaultMetricsRecorder();
+        engine.setMetricsRecorder(metrics);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(engine.run(workflow, new ExecutionContext()).isSuccess());
+        }
+        return metrics;
+    }
+
+    private static List<String> render(DefaultMetricsRecorder metrics) throws IOException {
+        StringWriter out = new StringWriter();
+        new PrometheusTextWriter(out).write(metrics.snapshot());
+        return Arrays.asList(out.toString().split("\n"));
+    }
+
+    private static String value(List<String> lines, String series) {
+        return lines.stream()
+                .filter(l -> l.startsWith(series + " "))
+                .map(l -> l.substring(series.length() + 1))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("missing " + series + " in\n" + String.join("\n", lines)));
+    }
+
+    @Test
+    void rendersCountersAndHistograms() throws IOException {
+        List<String> lines = render(runChain("chain"));
+        String step = WorkflowGenerator.stepName(0);
+
+        assertEquals("5", value(lines, "stepflow_workflow_runs_total{workflow=\"chain\"}"));
+        assertEquals("0", value(lines, "stepflow_workflow_failures_total{workflow=\"chain\"}"));
+        assertEquals("5", value(lines, "stepflow_step_executions_total{workflow=\"chain\",step=\"" + step + "\"}"));
+        assertEquals("5", value(lines, "stepflow_workflow_duration_seconds_bucket{workflow=\"chain\",le=\"+Inf\"}"));
+        assertEquals("5", value(lines, "stepflow_workflow_duration_seconds_count{workflow=\"chain\"}"));
+        assertTrue(value(lines, "stepflow_workflow_duration_seconds_sum{workflow=\"chain\"}").matches("\\d+\\.\\d{9}"));
+        assertEquals("5", value(lines, "stepflow_edge_traversals_total{workflow=\"chain\",from=\"" + step
+                + "\",to=\"" + WorkflowGenerator.stepName(1) + "\"}"));
+        assertTrue(lines.stream().anyMatch(l -> l.startsWith("stepflow_guard_evaluations_total{workflow=\"chain\",guard=")));
+
+        // Buckets are cumulative and each family is declared once
+        List<Long> buckets = lines.stream()
+                .filter(l -> l.startsWith("stepflow_workflow_duration_seconds_bucket{"))
+                .map(l -> Long.parseLong(l.substring(l.lastIndexOf(' ') + 1)))
+                .collect(Collectors.toList());
+        assertEquals(19, buckets.size());
+        for (int i = 1; i < buckets.size(); i++) {
+            assertTrue(buckets.get(i) >= buckets.get(i - 1), "bucket " + i + " of " + buckets);
+        }
+        assertEquals(1, lines.stream().filter(l -> l.equals("# TYPE stepflow_step_duration_seconds histogram")).count());
+    }
+
+    @Test
+    void escapesLabelValues() throws IOException {
+        List<String> lines = render(runChain("say \"hi\"\\now"));
+        assertEquals("5", value(lines, "stepflow_workflow_runs_total{workflow=\"say \\\"hi\\\"\\\\now\"}"));
+    }
+
+    @Test
+    void portOnlyStartBindsLoopback() throws IOException {
+        try (MetricsHttpServer server = MetricsHttpServer.start(0, new DefaultMetricsRecorder())) {
+            assertTrue(server.getAddress().getAddress().isLoopbackAddress(), server.getAddress().toString());
+        }
+    }
+
+    @Test
+    void servesMetricsOverHttp() throws IOException {
+        DefaultMetricsRecorder metrics = runChain("chain");
+        try (MetricsHttpServer server = MetricsHttpServer.start(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), metrics::snapshot)) {
+            String base = "http://127.0.0.1:" + server.getAddress().getPort();
+
+            HttpURLConnection get = (HttpURLConnection) new URL(base + MetricsHttpServer.PATH).openConnection();
+            assertEquals(200, get.getResponseCode());
+            assertEquals(PrometheusTextWriter.CONTENT_TYPE, get.getContentType());
+            String body;
+            try (InputStream in = get.getInputStream()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            assertTrue(body.contains("stepflow_workflow_runs_total{workflow=\"chain\"} 5\n"), body);
+
+            HttpURLConnection post = (HttpURLConnection) new URL(base + MetricsHttpServer.PATH).openConnection();
+            post.setRequestMethod("POST");
+            assertEquals(405, post.getResponseCode());
+
+            HttpURLConnection other = (HttpURLConnection) new URL(base + "/metricsx").openConnection();
+            assertEquals(404, other.getResponseCode());
+        }
+    }
+}